@@ -0,0 +1,66 @@
+package com.drones.control;
+import com.drones.config.Plugins;
+import com.drones.model.Drone;
+import com.drones.model.SimRandom;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Un appel de réaffectation, stratégie centrale contre enchères par
+ * consensus, selon le nombre de drones (un point chaud pour cinq drones,
+ * densité constante). Le compteur auxiliaire {@code rounds} donne le
+ * nombre moyen de tours jusqu'à convergence.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetaskingBenchmark {
+    // Drones par côté de 100 cellules
+    private static final double DRONES_PER_AREA = 25;
+
+    @Param({"10", "100", "1000", "10000"})
+    public int drones;
+
+    // Toute implémentation déclarée dans META-INF/services (-p strategy=...)
+    @Param({"NearestDroneRetasking", "ConsensusRetasking"})
+    public String strategy;
+
+    private RetaskingStrategy retasking;
+    private List<Drone> fleet;
+    private List<int[]> hotspots;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Convergence {
+        public long rounds;
+    }
+
+    @Setup
+    public void setUp() {
+        retasking = Plugins.load(RetaskingStrategy.class, strategy);
+        int size = (int) Math.ceil(100 * Math.sqrt(drones / DRONES_PER_AREA));
+        SimRandom random = new SimRandom(1);
+        fleet = new ArrayList<>();
+        for (int i = 0; i < drones; i++) {
+            fleet.add(new Drone(i, random.nextDouble() * size, random.nextDouble() * size));
+        }
+        hotspots = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, drones / 5); i++) {
+            hotspots.add(new int[]{random.nextInt(size), random.nextInt(size)});
+        }
+    }
+
+    @Benchmark
+    public List<Drone> retask(Convergence convergence) {
+        // Les positions ne changent pas: chaque appel refait le même calcul
+        retasking.retask(fleet, hotspots, 0, null);
+        if (retasking instanceof ConsensusRetasking) {
+            convergence.rounds += ((ConsensusRetasking) retasking).getLastRounds();
+        }
+        return fleet;
+    }
+}
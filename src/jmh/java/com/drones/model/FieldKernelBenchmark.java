@@ -0,0 +1,59 @@
+package com.drones.model;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Un tick du solveur de diffusion-advection, noyau scalaire contre noyau
+ * vectoriel, à plusieurs tailles de grille. À construire avec les profils
+ * bench et simd, à lancer avec
+ * {@code --add-modules jdk.incubator.vector} (voir le README).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class FieldKernelBenchmark {
+    private static final int SOURCE_SPACING = 32;
+
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean vectorized;
+
+    private AdvectionDiffusionSolver solver;
+    private double[][] field;
+
+    @Setup
+    public void setUp() {
+        solver = new AdvectionDiffusionSolver(size, size);
+        solver.setDiffusivity(0.125);
+        solver.setWind(WindField.uniform(size, size, 0.4, -0.15));
+        if (solver.setVectorized(vectorized) != vectorized) {
+            throw new IllegalStateException("Noyau vectoriel indisponible (module jdk.incubator.vector absent)");
+        }
+        field = new double[size][size];
+        SimRandom random = new SimRandom(1);
+        for (double[] row : field) {
+            for (int x = 0; x < size; x++) {
+                row[x] = random.nextDouble();
+            }
+        }
+    }
+
+    @Benchmark
+    public double[][] tick() {
+        solver.advance(field, 0.2, 0.99);
+        // Sources entretenues comme les anomalies de l'environnement: sans
+        // elles, le champ tend vers des valeurs dénormalisées et le
+        // benchmark ne mesure plus que leur lenteur
+        for (int y = SOURCE_SPACING / 2; y < size; y += SOURCE_SPACING) {
+            for (int x = SOURCE_SPACING / 2; x < size; x += SOURCE_SPACING) {
+                field[y][x] = 1.0;
+            }
+        }
+        return field;
+    }
+}
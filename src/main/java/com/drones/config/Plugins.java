@@ -0,0 +1,36 @@
+package com.drones.config;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Implémentations interchangeables (stratégies, modèles) déclarées dans
+ * META-INF/services et chargées par {@link ServiceLoader}. Une
+ * implémentation se désigne par le nom simple ou complet de sa classe; un
+ * jar ajouté au classpath suffit pour en proposer une nouvelle, sans
+ * modifier le moteur.
+ */
+public final class Plugins {
+    private Plugins() {}
+
+    // Nouvelle instance de l'implémentation nommée
+    public static <T> T load(Class<T> service, String name) {
+        for (ServiceLoader.Provider<T> provider : ServiceLoader.load(service).stream().toList()) {
+            Class<?> type = provider.type();
+            if (type.getName().equals(name) || type.getSimpleName().equals(name)) {
+                return provider.get();
+            }
+        }
+        throw new IllegalArgumentException("Implémentation inconnue de " + service.getSimpleName() + ": " + name
+            + " (disponibles: " + available(service) + ")");
+    }
+
+    // Noms simples des implémentations déclarées
+    public static List<String> available(Class<?> service) {
+        List<String> names = new ArrayList<>();
+        for (ServiceLoader.Provider<?> provider : ServiceLoader.load(service).stream().toList()) {
+            names.add(provider.type().getSimpleName());
+        }
+        return names;
+    }
+}
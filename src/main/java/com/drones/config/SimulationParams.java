@@ -7,6 +7,7 @@ public class SimulationParams {
     
     // Durée de simulation (ms)
     public static final int TICK_DURATION_MS = 200;
+    public static final int MACRO_STEP_MAX_TICKS = 25; // avance rapide: ticks par macro-pas en période calme
     
     // Paramètres des drones
     public static final int NUM_DRONES = 7;
@@ -17,12 +18,46 @@ public class SimulationParams {
     
     // Paramètres des anomalies
     public static final double ANOMALY_SPAWN_PROBABILITY = 0.05; // 5% par tick
-    public static final double ANOMALY_DIFFUSION_FACTOR = 0.1; // propagé aux voisins
     public static final double ANOMALY_DECAY_RATE = 0.95; // intensité *= 0.95 par tick
+    public static final int ANOMALY_SOURCE_RADIUS = 4; // distance max entre une détection et l'anomalie à laquelle elle est attribuée
+    public static final double ANOMALY_SOURCE_FALLOFF = 0.5; // atténuation par cellule d'écart pour cette attribution
+    
+    // Transport des panaches (diffusion-advection)
+    public static final double ANOMALY_DIFFUSIVITY = 0.125; // cellules²/s (10% vers les voisines par tick)
+    public static final double WIND_U = 0.4; // cellules/s vers les x croissants
+    public static final double WIND_V = 0.15; // cellules/s vers les y croissants
+    public static final double FIELD_DECAY_RATE = 0.99; // intensité du panache *= 0.99 par tick
+    public static final int SOLVER_PARALLEL_MIN_CELLS = 1 << 16; // grille à partir de laquelle le solveur est parallélisé
     public static final double ANOMALY_DETECTION_THRESHOLD = 0.3;
     
+    // Carte de croyance (filtre de Kalman par cellule)
+    public static final double SENSOR_NOISE_VARIANCE = 0.001; // bruit de mesure (uniforme ±0.05) et erreur de modèle
+    public static final double BELIEF_PROCESS_NOISE = 1e-4; // incertitude ajoutée par tick (nouvelles anomalies)
+    public static final double BELIEF_INITIAL_VARIANCE = 0.25; // cellule jamais mesurée
+    public static final double HOTSPOT_THRESHOLD = 0.7; // intensité crue justifiant une réaffectation
+    public static final int MEASUREMENT_RING_CAPACITY = 1 << 14;
+    
+    // Surveillance persistante
+    public static final int SURVEILLANCE_TILE_SIZE = 5; // côté d'une tuile de balayage (cellules)
+    public static final int SURVEILLANCE_DETECTION_BONUS_TICKS = 1500; // avance donnée par une détection d'intensité 1 (5 min)
+    
+    // Cadence de réaffectation (voir RetaskingCadence)
+    public static final int RETASKING_DEBOUNCE_TICKS = 2; // regroupe les événements rapprochés (0.4 s)
+    public static final int RETASKING_MIN_INTERVAL_TICKS = 5; // 1 seconde entre deux réaffectations au moins
+    public static final int RETASKING_MAX_INTERVAL_TICKS = 30; // 6 secondes au plus, tant que des points chauds sont connus
+    
+    // Zones interdites (voir GridPathfinder)
+    public static final int PATH_CACHE_CAPACITY = 4096; // chemins conservés, du moins récemment utilisé au plus récent
+    
+    // Agents autonomes (un thread par drone, voir AgentSwarm)
+    public static final int AGENT_MAILBOX_CAPACITY = 64; // messages reçus par tick, au-delà ils sont perdus
+    public static final double AGENT_COMM_RADIUS = 15.0; // portée radio entre drones (cellules)
+    public static final int AGENT_HOTSPOT_TTL_TICKS = 150; // un point chaud non confirmé est oublié (30 s)
+    
     // Échelle UI
     public static final int CELL_SIZE_PX = 12; // pixels par cellule
+    public static final double UI_PANEL_REFRESH_HZ = 4.0; // rafraîchissement des métriques et du journal
+    public static final int UI_LOG_CAPACITY = 1000; // lignes du journal conservées à l'écran
     
     private SimulationParams() {
         // Pas d'instanciation
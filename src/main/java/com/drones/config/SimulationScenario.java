@@ -1,7 +1,8 @@
 package com.drones.config;
 
 /**
- * Scénarios de simulation prédéfinis pour les tests
+ * Scénarios de simulation prédéfinis pour les tests (voir
+ * {@code Environment(int, int, long, SimulationScenario)})
  */
 public enum SimulationScenario {
     
@@ -9,51 +10,54 @@ public enum SimulationScenario {
         "Pas d'anomalies",
         0.0, // probabilité d'apparition
         0.9, // taux de décomposition
-        0.05 // diffusion
+        0.06, // diffusivité (cellules²/s)
+        0.0, 0.0 // vent (cellules/s)
     ),
     
     SPARSE_ANOMALIES(
         "Anomalies sporadiques",
         0.02, // probabilité d'apparition
         0.93, // taux de décomposition
-        0.08 // diffusion
+        0.10, // diffusivité (cellules²/s)
+        0.2, 0.0 // vent (cellules/s)
     ),
     
     NORMAL_SCENARIO(
         "Scénario normal",
-        0.05, // probabilité d'apparition
-        0.95, // taux de décomposition
-        0.10 // diffusion
+        SimulationParams.ANOMALY_SPAWN_PROBABILITY,
+        SimulationParams.ANOMALY_DECAY_RATE,
+        SimulationParams.ANOMALY_DIFFUSIVITY,
+        SimulationParams.WIND_U, SimulationParams.WIND_V
     ),
     
     HEAVY_POLLUTION(
         "Pollution intense",
         0.15, // probabilité d'apparition
         0.92, // taux de décomposition
-        0.15 // diffusion
+        0.19, // diffusivité (cellules²/s)
+        0.3, 0.3 // vent (cellules/s)
     ),
     
     RAPIDLY_SPREADING(
         "Propagation rapide",
         0.08, // probabilité d'apparition
         0.90, // taux de décomposition
-        0.20 // diffusion
+        0.25, // diffusivité (cellules²/s)
+        1.0, 0.4 // vent (cellules/s)
     );
     
     public final String name;
     public final double spawnProbability;
     public final double decayRate;
-    public final double diffusionFactor;
+    public final double diffusivity;
+    public final double windU, windV;
     
-    SimulationScenario(String name, double spawn, double decay, double diffusion) {
+    SimulationScenario(String name, double spawn, double decay, double diffusivity, double windU, double windV) {
         this.name = name;
         this.spawnProbability = spawn;
         this.decayRate = decay;
-        this.diffusionFactor = diffusion;
-    }
-    
-    public static void applyScenario(SimulationScenario scenario) {
-        // Dans un vrai projet, on utiliserait l'injection de dépendances
-        // Pour maintenant, ceci est un placeholder pour l'ajustement dynamique des paramètres
+        this.diffusivity = diffusivity;
+        this.windU = windU;
+        this.windV = windV;
     }
 }
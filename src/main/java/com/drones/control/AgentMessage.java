@@ -0,0 +1,23 @@
+package com.drones.control;
+
+// Message entre agents (ou vers la base), immuable: voir DroneAgent
+final class AgentMessage {
+    // Intensité au-dessus du seuil mesurée dans la cellule
+    static final int DETECTION = 0;
+    // L'émetteur se rend dans la cellule, à la distance bid
+    static final int CLAIM = 1;
+    // L'émetteur a atteint la cellule: inutile d'y envoyer quelqu'un d'autre
+    static final int DONE = 2;
+
+    final int kind;
+    final int sender;
+    final int cell;  // y * largeur + x
+    final double bid;
+
+    AgentMessage(int kind, int sender, int cell, double bid) {
+        this.kind = kind;
+        this.sender = sender;
+        this.cell = cell;
+        this.bid = bid;
+    }
+}
@@ -0,0 +1,255 @@
+package com.drones.control;
+import com.drones.config.SimulationParams;
+import com.drones.model.Drone;
+import com.drones.model.Environment;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Mode d'exécution décentralisé: chaque drone est un agent
+ * ({@link DroneAgent}) sur son propre thread, qui se coordonne avec ses
+ * voisins par messages au lieu d'être réaffecté par le {@link Coordinator}.
+ *
+ * Un tick est une suite de deux phases séparées par des barrières
+ * ({@link Phaser} hiérarchique, un sous-phaser par groupe d'agents pour
+ * dépasser la limite de parties d'un seul phaser):
+ * <ol>
+ *   <li>le pilote (thread qui appelle {@link #tick()}) fait avancer
+ *       l'environnement et range les positions des drones dans une grille
+ *       de voisinage, pendant que les agents attendent;</li>
+ *   <li>tous les agents agissent en parallèle: ils lisent l'environnement
+ *       et la grille de voisinage, jamais l'état des autres drones.</li>
+ * </ol>
+ * La base reçoit détections et réclamations dans sa propre boîte, lue par
+ * le pilote à la fin du tick: elle mesure le délai entre la première
+ * détection d'une cellule et la première réclamation (délai de réaction).
+ *
+ * Les agents tournent chacun sur un thread virtuel quand la JVM en dispose
+ * (Java 21 et plus). Sans threads virtuels, des milliers de threads
+ * plateforme réveillés deux fois par tick coûtent bien plus que le travail
+ * des agents: la phase des agents est alors répartie sur le pool commun
+ * (le résultat ne dépend pas de l'ordre d'exécution des agents).
+ */
+public class AgentSwarm implements AutoCloseable {
+    private static final int AGENTS_PER_PHASER = 512;
+
+    private final Environment environment;
+    private final DroneAgent[] agents;
+    private final int width, height;
+    private final double radius;
+    private final Phaser root = new Phaser(1); // le pilote
+    private final List<Thread> threads = new ArrayList<>();
+    private final boolean virtual;
+    private boolean started;
+    private volatile RuntimeException failure;
+    private int tickCount;
+
+    // Grille de voisinage: listes chaînées d'agents par case de côté radius
+    private final int bucketsX, bucketsY;
+    private final int[] bucketHead, bucketNext;
+    private final double[] xs, ys;
+
+    // Base: boîte de réception et délais de réaction
+    private final ArrayBlockingQueue<AgentMessage> baseInbox;
+    private final Map<Integer, Integer> firstDetection = new HashMap<>();
+    private final Set<Integer> claimedCells = new HashSet<>();
+    private final LongAdder droppedMessages = new LongAdder();
+    private final LongAdder sentMessages = new LongAdder();
+    private long detections, reactionTicksSum, reactions;
+
+    public AgentSwarm(Environment environment, List<Drone> drones) {
+        this(environment, drones, SimulationParams.AGENT_MAILBOX_CAPACITY, SimulationParams.AGENT_COMM_RADIUS);
+    }
+
+    public AgentSwarm(Environment environment, List<Drone> drones, int mailboxCapacity, double radius) {
+        this.environment = environment;
+        this.width = environment.getWidth();
+        this.height = environment.getHeight();
+        this.radius = radius;
+        this.agents = new DroneAgent[drones.size()];
+        for (int i = 0; i < agents.length; i++) {
+            agents[i] = new DroneAgent(this, i, drones.get(i), width, mailboxCapacity);
+        }
+        this.bucketsX = (int) Math.ceil(width / radius);
+        this.bucketsY = (int) Math.ceil(height / radius);
+        this.bucketHead = new int[bucketsX * bucketsY];
+        this.bucketNext = new int[agents.length];
+        this.xs = new double[agents.length];
+        this.ys = new double[agents.length];
+        this.baseInbox = new ArrayBlockingQueue<>(Math.max(1024, 4 * agents.length));
+        this.virtual = agentThreadFactory() != null;
+    }
+
+    public boolean isVirtual() { return virtual; }
+    public int getTickCount() { return tickCount; }
+    public int getAgentCount() { return agents.length; }
+    public long getDetections() { return detections; }
+    public long getSentMessages() { return sentMessages.sum(); }
+    public long getDroppedMessages() { return droppedMessages.sum(); }
+    public long getReactions() { return reactions; }
+
+    // Délai moyen (ticks) entre la première détection d'une cellule et la première réclamation
+    public double getAverageReactionTicks() {
+        return reactions == 0 ? 0 : (double) reactionTicksSum / reactions;
+    }
+
+    public Drone getDrone(int index) { return agents[index].getDrone(); }
+    public int getTask(int index) { return agents[index].getTask(); }
+
+    // Lancer un thread virtuel par agent; ils attendent le premier tick
+    public void start() {
+        if (started) {
+            throw new IllegalStateException("Agents déjà lancés");
+        }
+        started = true;
+        if (!virtual) {
+            return;
+        }
+        ThreadFactory factory = agentThreadFactory();
+        for (int first = 0; first < agents.length; first += AGENTS_PER_PHASER) {
+            int last = Math.min(agents.length, first + AGENTS_PER_PHASER);
+            Phaser group = new Phaser(root, last - first);
+            for (int i = first; i < last; i++) {
+                DroneAgent agent = agents[i];
+                Thread thread = factory.newThread(() -> runAgent(agent, group));
+                threads.add(thread);
+                thread.start();
+            }
+        }
+    }
+
+    private void runAgent(DroneAgent agent, Phaser group) {
+        try {
+            while (group.arriveAndAwaitAdvance() >= 0) {
+                agent.act(tickCount, environment);
+                if (group.arriveAndAwaitAdvance() < 0) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+            root.forceTermination();
+        }
+    }
+
+    // Un tick: environnement et voisinage (pilote), puis tous les agents
+    public void tick() {
+        if (!started) {
+            start();
+        }
+        environment.update(SimulationParams.TICK_DURATION_MS);
+        indexPositions();
+        tickCount++;
+        if (virtual) {
+            await();
+            await();
+        } else {
+            IntStream.range(0, agents.length).parallel().forEach(i -> agents[i].act(tickCount, environment));
+        }
+        drainBase();
+    }
+
+    private void await() {
+        if (root.arriveAndAwaitAdvance() < 0) {
+            throw new IllegalStateException("Agents interrompus", failure);
+        }
+    }
+
+    private void indexPositions() {
+        Arrays.fill(bucketHead, -1);
+        for (int i = 0; i < agents.length; i++) {
+            Drone drone = agents[i].getDrone();
+            xs[i] = drone.getX();
+            ys[i] = drone.getY();
+            int b = bucketOf(xs[i], ys[i]);
+            bucketNext[i] = bucketHead[b];
+            bucketHead[b] = i;
+        }
+    }
+
+    private int bucketOf(double x, double y) {
+        int bx = Math.max(0, Math.min(bucketsX - 1, (int) (x / radius)));
+        int by = Math.max(0, Math.min(bucketsY - 1, (int) (y / radius)));
+        return by * bucketsX + bx;
+    }
+
+    // Envoyer aux agents à portée de l'émetteur (positions du début du tick)
+    void broadcast(int from, AgentMessage message, int tick) {
+        int bx = Math.max(0, Math.min(bucketsX - 1, (int) (xs[from] / radius)));
+        int by = Math.max(0, Math.min(bucketsY - 1, (int) (ys[from] / radius)));
+        double r2 = radius * radius;
+        for (int y = Math.max(0, by - 1); y <= Math.min(bucketsY - 1, by + 1); y++) {
+            for (int x = Math.max(0, bx - 1); x <= Math.min(bucketsX - 1, bx + 1); x++) {
+                for (int i = bucketHead[y * bucketsX + x]; i >= 0; i = bucketNext[i]) {
+                    double dx = xs[i] - xs[from], dy = ys[i] - ys[from];
+                    if (i != from && dx * dx + dy * dy <= r2) {
+                        send(agents[i], message, tick);
+                    }
+                }
+            }
+        }
+    }
+
+    private void send(DroneAgent to, AgentMessage message, int tick) {
+        sentMessages.increment();
+        if (!to.deliver(message, tick)) {
+            droppedMessages.increment();
+        }
+    }
+
+    void sendToBase(AgentMessage message) {
+        sentMessages.increment();
+        if (!baseInbox.offer(message)) {
+            droppedMessages.increment();
+        }
+    }
+
+    // Détections d'abord: une cellule détectée et réclamée au même tick réagit en 0 tick
+    private void drainBase() {
+        List<AgentMessage> messages = new ArrayList<>();
+        baseInbox.drainTo(messages);
+        int tick = tickCount;
+        for (AgentMessage m : messages) {
+            if (m.kind == AgentMessage.DETECTION) {
+                detections++;
+                firstDetection.putIfAbsent(m.cell, tick);
+            }
+        }
+        for (AgentMessage m : messages) {
+            if (m.kind == AgentMessage.CLAIM && claimedCells.add(m.cell)) {
+                Integer detected = firstDetection.get(m.cell);
+                if (detected != null) {
+                    reactionTicksSum += tick - detected;
+                    reactions++;
+                }
+            }
+        }
+    }
+
+    // Arrêter les agents et attendre leurs threads (interrompu: on rend la main, drapeau rétabli)
+    @Override
+    public void close() {
+        root.forceTermination();
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Fabrique de threads virtuels (Java 21, par réflexion: le projet se compile en Java 17), null sinon
+    private static ThreadFactory agentThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.drones.control;
+import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+import com.drones.model.Drone;
+import com.drones.model.DroneState;
+import com.drones.model.Environment;
+import java.util.*;
+
+/**
+ * Comparaison du mode agents ({@link AgentSwarm}) et de la réaffectation
+ * centrale ({@link Coordinator#adaptiveRetasking}, tous les 30 ticks) sur
+ * la même carte, la même graine et la même flotte: débit (ticks/s), temps
+ * de coordination et délai de réaction (ticks entre la première détection
+ * d'une cellule et le premier drone envoyé vers elle).
+ *
+ * Exemple:
+ * <pre>
+ * java -cp swarm-simulator.jar com.drones.control.AgentSwarmRunner \
+ *     --agents=10000 --width=1000 --height=1000 --ticks=300 --scenario=HEAVY_POLLUTION
+ * </pre>
+ */
+public class AgentSwarmRunner {
+    private static final int RETASKING_INTERVAL_TICKS = 30;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = HeadlessRunner.parseArgs(args);
+        int agents = Integer.parseInt(options.getOrDefault("agents", "10000"));
+        int width = Integer.parseInt(options.getOrDefault("width", "1000"));
+        int height = Integer.parseInt(options.getOrDefault("height", "1000"));
+        int ticks = Integer.parseInt(options.getOrDefault("ticks", "300"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        SimulationScenario scenario = SimulationScenario.valueOf(options.getOrDefault("scenario", "HEAVY_POLLUTION"));
+
+        // Mode agents
+        Environment environment = new Environment(width, height, seed, scenario);
+        try (AgentSwarm swarm = new AgentSwarm(environment, ShardedRunner.wanderingFleet(agents, width, height, seed, 0, height))) {
+            swarm.start();
+            long start = System.nanoTime();
+            for (int t = 0; t < ticks; t++) {
+                swarm.tick();
+            }
+            double elapsedS = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Agents (%s): %d ticks en %.2f s (%.1f ticks/s), %d messages (%d perdus), "
+                    + "%d réactions, délai moyen %.1f ticks%n",
+                swarm.isVirtual() ? "threads virtuels" : "pool commun", ticks, elapsedS, ticks / elapsedS,
+                swarm.getSentMessages(), swarm.getDroppedMessages(), swarm.getReactions(), swarm.getAverageReactionTicks());
+        }
+
+        // Réaffectation centrale, un seul thread
+        environment = new Environment(width, height, seed, scenario);
+        List<Drone> drones = ShardedRunner.wanderingFleet(agents, width, height, seed, 0, height);
+        Coordinator coordinator = new Coordinator(width, height);
+        Map<Integer, Integer> firstDetection = new HashMap<>();
+        Set<Integer> dispatchedCells = new HashSet<>();
+        List<int[]> dispatched = new ArrayList<>();
+        long reactionTicks = 0, reactions = 0, retaskingNanos = 0;
+        long start = System.nanoTime();
+        for (int t = 1; t <= ticks; t++) {
+            environment.update(SimulationParams.TICK_DURATION_MS);
+            for (Drone drone : drones) {
+                drone.update(SimulationParams.TICK_DURATION_MS);
+                if (drone.getState() == DroneState.ACTIVE) {
+                    double intensity = environment.getAnomalyAt(drone.getX(), drone.getY());
+                    coordinator.submitMeasurement(drone.getX(), drone.getY(), intensity, t);
+                    if (intensity > SimulationParams.ANOMALY_DETECTION_THRESHOLD) {
+                        firstDetection.putIfAbsent((int) Math.floor(drone.getY()) * width + (int) Math.floor(drone.getX()), t);
+                    }
+                }
+            }
+            coordinator.fuseMeasurements();
+            if (t % RETASKING_INTERVAL_TICKS == 0) {
+                long retaskStart = System.nanoTime();
+                dispatched.clear();
+                coordinator.adaptiveRetasking(drones, t, dispatched);
+                retaskingNanos += System.nanoTime() - retaskStart;
+                for (int[] hotspot : dispatched) {
+                    int cell = hotspot[1] * width + hotspot[0];
+                    Integer detected = firstDetection.get(cell);
+                    if (detected != null && dispatchedCells.add(cell)) {
+                        reactionTicks += t - detected;
+                        reactions++;
+                    }
+                }
+            }
+        }
+        double elapsedS = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Central: %d ticks en %.2f s (%.1f ticks/s), réaffectation %.1f ms/appel, "
+                + "%d réactions, délai moyen %.1f ticks%n",
+            ticks, elapsedS, ticks / elapsedS, retaskingNanos / 1e6 / Math.max(1, ticks / RETASKING_INTERVAL_TICKS),
+            reactions, reactions == 0 ? 0.0 : (double) reactionTicks / reactions);
+    }
+}
@@ -0,0 +1,80 @@
+package com.drones.control;
+import java.util.*;
+
+/**
+ * Liste à ajout seul, stockée par blocs de taille fixe qui ne sont jamais
+ * déplacés. {@link #snapshot()} renvoie en O(1) une vue figée du contenu
+ * courant, qu'un autre thread peut lire pendant que la liste continue de
+ * croître (la vue doit être publiée par une opération volatile, par exemple
+ * un {@link java.util.concurrent.atomic.AtomicReference}).
+ */
+public class AppendOnlyList<T> extends AbstractList<T> implements RandomAccess {
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    
+    private Object[][] chunks = new Object[4][];
+    private int size;
+    
+    @Override
+    public boolean add(T value) {
+        int c = size >>> CHUNK_BITS;
+        if (c == chunks.length) {
+            // Seul le tableau des références est recopié, jamais les blocs
+            chunks = Arrays.copyOf(chunks, c * 2);
+        }
+        if (chunks[c] == null) {
+            chunks[c] = new Object[CHUNK_SIZE];
+        }
+        chunks[c][size & CHUNK_MASK] = value;
+        size++;
+        modCount++;
+        return true;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        return (T) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    // Les vues déjà distribuées conservent l'ancien contenu
+    @Override
+    public void clear() {
+        chunks = new Object[4][];
+        size = 0;
+        modCount++;
+    }
+    
+    public List<T> snapshot() {
+        return new View<>(chunks, size);
+    }
+    
+    private static class View<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[][] chunks;
+        private final int size;
+        
+        View(Object[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+        
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            Objects.checkIndex(index, size);
+            return (T) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.drones.control;
+import java.io.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Carte de croyance sur l'intensité des anomalies, fusionnée à partir des
+ * mesures des drones (et non de la vérité terrain).
+ *
+ * Un filtre de Kalman scalaire par cellule: moyenne et variance en
+ * tableaux primitifs. Entre deux mesures, l'intensité suit le modèle de
+ * l'environnement (décroissance géométrique) et l'incertitude augmente
+ * d'un bruit de processus par tick, qui traduit l'apparition possible de
+ * nouvelles anomalies. Cette prédiction n'est appliquée qu'à la lecture
+ * ou à la mise à jour d'une cellule (tick de dernière mise à jour
+ * mémorisé): une mesure coûte O(1), sans passe sur la grille.
+ *
+ * Les cellules dont la moyenne dépassait le seuil de point chaud à leur
+ * dernière mise à jour sont marquées dans un bitset; la recherche des
+ * points chauds ne parcourt que celles-ci. Une cellule qui passe le seuil
+ * sans autre cellule marquée à moins de {@link RetaskingStrategy#COVERED_RADIUS}
+ * compte comme un nouveau foyer (voir {@link #drainNewClusters}).
+ */
+public class BeliefMap implements MeasurementRing.Sink {
+    // Décroissances précalculées (au-delà: considérées nulles)
+    private static final int DECAY_TABLE_SIZE = 4096;
+
+    private final int width, height;
+    private final double measurementVariance;
+    private final double initialVariance;
+    private final double hotspotThreshold;
+    private final double[] decayPow;     // decay^k
+    private final double[] varianceGain; // bruit de processus accumulé sur k ticks
+    private final float[] mean;
+    private final float[] variance;
+    private final int[] lastTick;
+    private final long[] hot;
+    private int hotCount; // bits marqués dans hot
+    private int newClusters; // foyers apparus depuis le dernier drainNewClusters()
+    private long fusedCount;
+
+    public BeliefMap(int width, int height, double decayPerTick, double processNoise,
+        double measurementVariance, double initialVariance, double hotspotThreshold) {
+        this.width = width;
+        this.height = height;
+        this.measurementVariance = measurementVariance;
+        this.initialVariance = initialVariance;
+        this.hotspotThreshold = hotspotThreshold;
+        this.decayPow = new double[DECAY_TABLE_SIZE];
+        this.varianceGain = new double[DECAY_TABLE_SIZE];
+        // P(k) = P * d^2k + Q * (1 + d^2 + ... + d^2(k-1)), borné par la variance initiale
+        double d2 = decayPerTick * decayPerTick;
+        decayPow[0] = 1;
+        for (int k = 1; k < DECAY_TABLE_SIZE; k++) {
+            decayPow[k] = decayPow[k - 1] * decayPerTick;
+            varianceGain[k] = varianceGain[k - 1] * d2 + processNoise;
+        }
+        this.mean = new float[width * height];
+        this.variance = new float[width * height];
+        this.lastTick = new int[width * height];
+        this.hot = new long[(width * height + 63) >>> 6];
+        reset();
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public long getFusedCount() { return fusedCount; }
+    // Au moins une cellule marquée (éventuellement retombée sous le seuil depuis)
+    public boolean hasHotspots() { return hotCount > 0; }
+
+    // Nombre de nouveaux foyers depuis l'appel précédent
+    public int drainNewClusters() {
+        int n = newClusters;
+        newClusters = 0;
+        return n;
+    }
+
+    // Moyenne prédite au tick donné
+    public double getMean(int x, int y, int tick) {
+        int i = y * width + x;
+        return mean[i] * decay(tick - lastTick[i]);
+    }
+
+    // Variance prédite au tick donné
+    public double getVariance(int x, int y, int tick) {
+        int i = y * width + x;
+        return predictVariance(i, tick - lastTick[i]);
+    }
+
+    // Fusionner une mesure z de la cellule (x, y) prise au tick donné
+    @Override
+    public void accept(int x, int y, double z, int tick) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+        int i = y * width + x;
+        int elapsed = tick - lastTick[i];
+        if (elapsed < 0) elapsed = 0; // mesure en retard: fusionnée au dernier tick connu
+        double m = mean[i] * decay(elapsed);
+        double p = predictVariance(i, elapsed);
+        double gain = p / (p + measurementVariance);
+        m += gain * (z - m);
+        p *= 1 - gain;
+        mean[i] = (float) m;
+        variance[i] = (float) p;
+        lastTick[i] = Math.max(lastTick[i], tick);
+        long bit = 1L << i;
+        boolean wasHot = (hot[i >>> 6] & bit) != 0;
+        if (m > hotspotThreshold && !wasHot) {
+            if (!hasHotNeighbour(x, y)) newClusters++;
+            hot[i >>> 6] |= bit;
+            hotCount++;
+        } else if (m <= hotspotThreshold && wasHot) {
+            hot[i >>> 6] &= ~bit;
+            hotCount--;
+        }
+        fusedCount++;
+    }
+
+    /**
+     * Ajouter à {@code out} les cellules {x, y} dont la moyenne prédite
+     * dépasse le seuil au tick donné. Les cellules retombées sous le seuil
+     * sont retirées du bitset (la prédiction ne fait que décroître).
+     */
+    public void collectHotspots(int tick, List<int[]> out) {
+        for (int w = 0; w < hot.length; w++) {
+            long bits = hot[w];
+            while (bits != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (mean[i] * decay(tick - lastTick[i]) > hotspotThreshold) {
+                    out.add(new int[]{i % width, i / width});
+                } else {
+                    hot[w] &= ~(1L << i);
+                    hotCount--;
+                }
+            }
+        }
+    }
+
+    // Une autre cellule marquée à moins de COVERED_RADIUS (carré)
+    private boolean hasHotNeighbour(int x, int y) {
+        int r = (int) RetaskingStrategy.COVERED_RADIUS;
+        for (int ny = Math.max(0, y - r); ny <= Math.min(height - 1, y + r); ny++) {
+            for (int nx = Math.max(0, x - r); nx <= Math.min(width - 1, x + r); nx++) {
+                int j = ny * width + nx;
+                if ((hot[j >>> 6] & (1L << j)) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    private double decay(int k) {
+        return k < DECAY_TABLE_SIZE ? decayPow[k] : 0;
+    }
+
+    private double predictVariance(int i, int k) {
+        if (k >= DECAY_TABLE_SIZE) return initialVariance;
+        double p = variance[i] * decayPow[k] * decayPow[k] + varianceGain[k];
+        return Math.min(initialVariance, p);
+    }
+
+    public void reset() {
+        Arrays.fill(mean, 0);
+        Arrays.fill(variance, (float) initialVariance);
+        Arrays.fill(lastTick, 0);
+        Arrays.fill(hot, 0);
+        hotCount = 0;
+        newClusters = 0;
+        fusedCount = 0;
+    }
+
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeLong(fusedCount);
+        for (int i = 0; i < mean.length; i++) {
+            out.writeFloat(mean[i]);
+            out.writeFloat(variance[i]);
+            out.writeInt(lastTick[i]);
+        }
+        for (long word : hot) {
+            out.writeLong(word);
+        }
+    }
+
+    public void readState(DataInputStream in) throws IOException {
+        if (in.readInt() != width || in.readInt() != height) {
+            throw new IOException("Dimensions de la carte de croyance incompatibles");
+        }
+        fusedCount = in.readLong();
+        for (int i = 0; i < mean.length; i++) {
+            mean[i] = in.readFloat();
+            variance[i] = in.readFloat();
+            lastTick[i] = in.readInt();
+        }
+        hotCount = 0;
+        for (int w = 0; w < hot.length; w++) {
+            hot[w] = in.readLong();
+            hotCount += Long.bitCount(hot[w]);
+        }
+        newClusters = 0;
+    }
+}
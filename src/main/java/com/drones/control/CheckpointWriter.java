@@ -0,0 +1,112 @@
+package com.drones.control;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Points de sauvegarde périodiques du moteur.
+ *
+ * Le thread de simulation ne fait que sérialiser l'état en mémoire
+ * ({@link SimulationEngine#checkpoint()}); l'écriture sur disque se fait sur
+ * un thread dédié, dans un fichier temporaire renommé atomiquement. Si
+ * l'écriture précédente n'est pas terminée, le point de sauvegarde est sauté
+ * plutôt que de ralentir la boucle de ticks.
+ */
+public class CheckpointWriter implements Closeable {
+    private static final String PREFIX = "checkpoint-";
+    private static final String SUFFIX = ".dckp";
+
+    private final Path directory;
+    private final int intervalTicks;
+    private final int keep;
+    private final ExecutorService executor;
+    private final Deque<Path> written;
+    private volatile Future<?> inProgress;
+    private volatile IOException lastError;
+    private int skipped;
+
+    public CheckpointWriter(Path directory, int intervalTicks, int keep) throws IOException {
+        if (intervalTicks <= 0 || keep <= 0) {
+            throw new IllegalArgumentException("Intervalle et nombre de sauvegardes doivent être positifs");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.intervalTicks = intervalTicks;
+        this.keep = keep;
+        this.written = new ArrayDeque<>();
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "checkpoint-writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Appelé par le moteur à la fin de chaque tick
+    void onTick(SimulationEngine engine, int tick) {
+        if (tick % intervalTicks != 0) return;
+        Future<?> previous = inProgress;
+        if (previous != null && !previous.isDone()) {
+            skipped++;
+            return;
+        }
+        byte[] data = engine.checkpoint();
+        inProgress = executor.submit(() -> write(data, tick));
+    }
+
+    // Attendre la fin de l'écriture en cours
+    public void flush() throws InterruptedException {
+        Future<?> current = inProgress;
+        if (current == null) return;
+        try {
+            current.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int getIntervalTicks() { return intervalTicks; }
+    public int getSkippedCheckpoints() { return skipped; }
+    public IOException getLastError() { return lastError; }
+
+    // Dernier point de sauvegarde complet du répertoire (null si aucun)
+    public Path getLatest() throws IOException {
+        return latestIn(directory);
+    }
+
+    public static Path latestIn(Path directory) throws IOException {
+        Path latest = null;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path p : stream) {
+                if (latest == null || p.getFileName().toString().compareTo(latest.getFileName().toString()) > 0) {
+                    latest = p;
+                }
+            }
+        }
+        return latest;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(byte[] data, int tick) {
+        Path target = directory.resolve(String.format("%s%010d%s", PREFIX, tick, SUFFIX));
+        Path tmp = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            Files.write(tmp, data);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            written.addLast(target);
+            while (written.size() > keep) {
+                Files.deleteIfExists(written.removeFirst());
+            }
+        } catch (IOException e) {
+            lastError = e;
+        }
+    }
+}
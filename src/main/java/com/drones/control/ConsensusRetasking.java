@@ -0,0 +1,524 @@
+package com.drones.control;
+import com.drones.config.SimulationParams;
+import com.drones.model.Drone;
+import com.drones.model.DroneState;
+import java.util.*;
+
+/**
+ * Réaffectation par enchères et consensus, dans l'esprit de CBBA
+ * (Consensus-Based Bundle Algorithm, Choi, Brunet et How, 2009): chaque
+ * drone actif enchérit sur les points chauds d'après sa seule position, et
+ * les conflits se règlent par échanges entre voisins à portée radio, sans
+ * vue globale. Le calcul est simulé ici tour par tour: chaque tour, tous
+ * les drones complètent leur lot (bundle) puis fusionnent l'état de leurs
+ * voisins tel qu'il était au tour précédent.
+ *
+ * <ul>
+ *   <li>Lot: au plus bundleCapacity points chauds, ajoutés un à un en
+ *       prenant la meilleure enchère qui bat la gagnante connue. Une
+ *       enchère vaut discount^k / (1 + distance) pour le k-ième point du
+ *       lot: elle ne croît jamais quand le lot grandit, ce qui garantit la
+ *       convergence.</li>
+ *   <li>Consensus: pour chaque point, enchère gagnante, gagnant et, pour
+ *       chaque drone dont on a eu des nouvelles (directement ou relayées),
+ *       le tour de la dernière. Ces tours sont des listes triées qui ne
+ *       contiennent que les drones entendus: leur taille est bornée par
+ *       le groupe de drones à portée les uns des autres, pas par la flotte.
+ *       Les règles de mise à jour sont celles de la table de CBBA: la
+ *       nouvelle la plus récente sur un gagnant l'emporte sur une plus
+ *       ancienne.</li>
+ *   <li>Un drone qui perd un point de son lot abandonne aussi ceux ajoutés
+ *       après, qui dépendaient de lui.</li>
+ * </ul>
+ * Un tour ne coûte que l'état réellement échangé: chaque drone ne garde
+ * l'enchère et le gagnant que des points dont il a connu un gagnant (un
+ * point inconnu vaut enchère nulle, aucun gagnant), ne fusionne que les
+ * points dont lui ou son voisin connaît un gagnant, et cherche les points
+ * de son lot case par case autour de lui. La mémoire d'un appel croît
+ * avec la flotte et les points, pas avec leur produit.
+ *
+ * Le calcul s'arrête au premier tour sans changement (convergence) ou
+ * après maxRounds tours. Chaque drone part ensuite vers les points de son
+ * lot, dans l'ordre, puis rentre à la base la plus proche du dernier. Deux
+ * groupes de drones hors de portée l'un de l'autre peuvent envoyer chacun
+ * un drone au même point.
+ */
+public class ConsensusRetasking implements RetaskingStrategy {
+    private static final int NONE = -1;
+
+    private final int bundleCapacity;
+    private final double commRadius;
+    private final int maxRounds;
+    private final double discount;
+    private int lastRounds;
+    private boolean lastConverged;
+    private long lastMessages;
+
+    public ConsensusRetasking() {
+        this(2, SimulationParams.AGENT_COMM_RADIUS, 200, 0.8);
+    }
+
+    public ConsensusRetasking(int bundleCapacity, double commRadius, int maxRounds, double discount) {
+        this.bundleCapacity = bundleCapacity;
+        this.commRadius = commRadius;
+        this.maxRounds = maxRounds;
+        this.discount = discount;
+    }
+
+    // Tours du dernier appel, et s'il a convergé avant maxRounds
+    public int getLastRounds() { return lastRounds; }
+    public boolean hasConverged() { return lastConverged; }
+    // États envoyés d'un drone à un voisin pendant le dernier appel
+    public long getLastMessages() { return lastMessages; }
+
+    @Override
+    public void retask(List<Drone> drones, List<int[]> hotspots, int tick, List<int[]> dispatched) {
+        lastRounds = 0;
+        lastConverged = true;
+        lastMessages = 0;
+        List<int[]> tasks = new ArrayList<>();
+        for (int[] hotspot : hotspots) {
+            if (!RetaskingStrategy.isCovered(drones, hotspot)) {
+                tasks.add(hotspot);
+            }
+        }
+        List<Drone> agents = new ArrayList<>();
+        for (Drone d : drones) {
+            if (d.getState() == DroneState.ACTIVE) agents.add(d);
+        }
+        if (tasks.isEmpty() || agents.isEmpty()) {
+            return;
+        }
+
+        Auction auction = new Auction(agents, tasks);
+        auction.run();
+        for (int i = 0; i < agents.size(); i++) {
+            if (auction.bundleSize[i] == 0) continue;
+            List<double[]> path = new ArrayList<>();
+            for (int p = 0; p < auction.bundleSize[i]; p++) {
+                int[] hotspot = tasks.get(auction.bundle[i][p]);
+                path.add(new double[]{hotspot[0], hotspot[1]});
+                if (dispatched != null) {
+                    dispatched.add(hotspot);
+                }
+            }
+            double[] last = path.get(path.size() - 1);
+            path.add(agents.get(i).baseNear(last[0], last[1])); // Retour à la base
+            agents.get(i).setWaypoints(path);
+        }
+    }
+
+    // État du calcul pour un appel: drones i, k, m, n (indices dans agents) et points j
+    private final class Auction {
+        final int n, tasks;
+        final double[] agentX, agentY, taskX, taskY;
+        // Points rangés par cases de côté cellSize (cellStart: début de chaque case dans cellTasks)
+        final double taskMinX, taskMinY, cellSize;
+        final int cellsX, cellsY;
+        final int[] cellStart, cellTasks;
+        final int[][] neighbours;
+        // known[i][0..knownSize[i][: points dont i a connu un gagnant, triés (la liste ne
+        // fait que grandir); bid[i][p] et winner[i][p]: enchère gagnante et gagnant connus
+        // de i pour le point known[i][p], NONE si aucun. Absent: enchère nulle, aucun gagnant
+        final int[][] known;
+        final int[] knownSize;
+        final double[][] bid;
+        final int[][] winner;
+        // Pendant l'échange, ces listes restent l'état envoyé aux voisins: les
+        // modifications du drone en cours sont notées à part (pendingStamp[j] == exchanging)
+        // puis appliquées à la fin du tour
+        final double[] pendingBid;
+        final int[] pendingWinner, pendingStamp;
+        int exchanging;
+        boolean inExchange;
+        int[] pendingTasks = new int[16];
+        int pendingCount;
+        int[] changeAgent = new int[64], changeTask = new int[64], changeWinner = new int[64];
+        double[] changeBid = new double[64];
+        int changeCount;
+        // heardIds[i]: drones dont i a eu des nouvelles, triés; heardRounds[i][p]: tour de la dernière
+        final int[][] heardIds, heardRounds;
+        final int[] mark; // mark[j] == markStamp: point déjà fusionné pour le drone en cours
+        int markStamp;
+        // Listes envoyées aux voisins à ce tour (jamais modifiées en place)
+        int[][] sentIds, sentRounds;
+        int[] scratchIds = new int[16], scratchRounds = new int[16];
+        final int[][] bundle;
+        final int[] bundleSize;
+
+        Auction(List<Drone> agents, List<int[]> hotspots) {
+            n = agents.size();
+            tasks = hotspots.size();
+            agentX = new double[n];
+            agentY = new double[n];
+            for (int i = 0; i < n; i++) {
+                agentX[i] = agents.get(i).getX();
+                agentY[i] = agents.get(i).getY();
+            }
+            taskX = new double[tasks];
+            taskY = new double[tasks];
+            for (int j = 0; j < tasks; j++) {
+                taskX[j] = hotspots.get(j)[0];
+                taskY[j] = hotspots.get(j)[1];
+            }
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int j = 0; j < tasks; j++) {
+                minX = Math.min(minX, taskX[j]);
+                minY = Math.min(minY, taskY[j]);
+                maxX = Math.max(maxX, taskX[j]);
+                maxY = Math.max(maxY, taskY[j]);
+            }
+            // Environ un point par case
+            taskMinX = minX;
+            taskMinY = minY;
+            cellSize = Math.max(1, Math.sqrt((maxX - minX + 1) * (maxY - minY + 1) / tasks));
+            cellsX = (int) ((maxX - minX) / cellSize) + 1;
+            cellsY = (int) ((maxY - minY) / cellSize) + 1;
+            cellStart = new int[cellsX * cellsY + 1];
+            int[] cellOf = new int[tasks];
+            for (int j = 0; j < tasks; j++) {
+                cellOf[j] = (int) ((taskY[j] - minY) / cellSize) * cellsX + (int) ((taskX[j] - minX) / cellSize);
+                cellStart[cellOf[j] + 1]++;
+            }
+            for (int c = 0; c < cellsX * cellsY; c++) {
+                cellStart[c + 1] += cellStart[c];
+            }
+            cellTasks = new int[tasks];
+            int[] fill = Arrays.copyOf(cellStart, cellsX * cellsY);
+            for (int j = 0; j < tasks; j++) {
+                cellTasks[fill[cellOf[j]]++] = j;
+            }
+            neighbours = neighbourGraph(agents);
+            known = new int[n][4];
+            knownSize = new int[n];
+            bid = new double[n][4];
+            winner = new int[n][4];
+            pendingBid = new double[tasks];
+            pendingWinner = new int[tasks];
+            pendingStamp = new int[tasks];
+            mark = new int[tasks];
+            heardIds = new int[n][];
+            heardRounds = new int[n][];
+            Arrays.fill(heardIds, new int[0]);
+            Arrays.fill(heardRounds, new int[0]);
+            bundle = new int[n][bundleCapacity];
+            bundleSize = new int[n];
+        }
+
+        void run() {
+            for (int round = 1; round <= maxRounds; round++) {
+                lastRounds = round;
+                boolean changed = false;
+                for (int i = 0; i < n; i++) {
+                    changed |= buildBundle(i);
+                }
+                // Chacun lit l'état de ses voisins à la fin de la construction
+                sentIds = heardIds.clone();
+                sentRounds = heardRounds.clone();
+                changeCount = 0;
+                inExchange = true;
+                for (int i = 0; i < n; i++) {
+                    exchanging++;
+                    pendingCount = 0;
+                    for (int k : neighbours[i]) {
+                        lastMessages++;
+                        // Seuls les points dont i ou k connaît un gagnant peuvent changer,
+                        // y compris ceux que i vient d'apprendre à cet échange
+                        markStamp++;
+                        for (int p = 0; p < knownSize[k]; p++) {
+                            int j = known[k][p];
+                            if (mark[j] == markStamp) continue;
+                            mark[j] = markStamp;
+                            changed |= merge(i, k, j, bid[k][p], winner[k][p]);
+                        }
+                        for (int p = 0; p < knownSize[i]; p++) {
+                            changed |= mergeOnce(i, k, known[i][p]);
+                        }
+                        for (int p = 0; p < pendingCount; p++) {
+                            changed |= mergeOnce(i, k, pendingTasks[p]);
+                        }
+                    }
+                    for (int k : neighbours[i]) {
+                        hear(i, k, round);
+                    }
+                    changed |= releaseLost(i);
+                    for (int p = 0; p < pendingCount; p++) {
+                        int j = pendingTasks[p];
+                        logChange(i, j, pendingBid[j], pendingWinner[j]);
+                    }
+                }
+                inExchange = false;
+                for (int c = 0; c < changeCount; c++) {
+                    store(changeAgent[c], changeTask[c], changeBid[c], changeWinner[c]);
+                }
+                if (!changed) {
+                    return;
+                }
+            }
+            lastConverged = false;
+        }
+
+        private boolean mergeOnce(int i, int k, int j) {
+            if (mark[j] == markStamp) return false;
+            mark[j] = markStamp;
+            int p = indexOf(k, j);
+            return p >= 0 ? merge(i, k, j, bid[k][p], winner[k][p]) : merge(i, k, j, 0, NONE);
+        }
+
+        // Position de j dans la liste de i, négative s'il n'y est pas
+        private int indexOf(int i, int j) {
+            return Arrays.binarySearch(known[i], 0, knownSize[i], j);
+        }
+
+        // État de i pour j, modifications de l'échange en cours comprises
+        private double bidOf(int i, int j) {
+            if (inExchange && pendingStamp[j] == exchanging) return pendingBid[j];
+            int p = indexOf(i, j);
+            return p >= 0 ? bid[i][p] : 0;
+        }
+
+        private int winnerOf(int i, int j) {
+            if (inExchange && pendingStamp[j] == exchanging) return pendingWinner[j];
+            int p = indexOf(i, j);
+            return p >= 0 ? winner[i][p] : NONE;
+        }
+
+        private void set(int i, int j, double y, int z) {
+            if (!inExchange) {
+                store(i, j, y, z);
+                return;
+            }
+            if (pendingStamp[j] != exchanging) {
+                pendingStamp[j] = exchanging;
+                if (pendingCount == pendingTasks.length) {
+                    pendingTasks = Arrays.copyOf(pendingTasks, 2 * pendingCount);
+                }
+                pendingTasks[pendingCount++] = j;
+            }
+            pendingBid[j] = y;
+            pendingWinner[j] = z;
+        }
+
+        private void logChange(int i, int j, double y, int z) {
+            if (changeCount == changeAgent.length) {
+                int size = 2 * changeCount;
+                changeAgent = Arrays.copyOf(changeAgent, size);
+                changeTask = Arrays.copyOf(changeTask, size);
+                changeBid = Arrays.copyOf(changeBid, size);
+                changeWinner = Arrays.copyOf(changeWinner, size);
+            }
+            changeAgent[changeCount] = i;
+            changeTask[changeCount] = j;
+            changeBid[changeCount] = y;
+            changeWinner[changeCount++] = z;
+        }
+
+        // Écrire l'état de i pour j; un point inconnu n'est ajouté que s'il a un gagnant
+        private void store(int i, int j, double y, int z) {
+            int p = indexOf(i, j);
+            if (p >= 0) {
+                bid[i][p] = y;
+                winner[i][p] = z;
+                return;
+            }
+            if (z == NONE) return;
+            p = -p - 1;
+            int size = knownSize[i];
+            if (size == known[i].length) {
+                known[i] = Arrays.copyOf(known[i], 2 * size);
+                bid[i] = Arrays.copyOf(bid[i], 2 * size);
+                winner[i] = Arrays.copyOf(winner[i], 2 * size);
+            }
+            System.arraycopy(known[i], p, known[i], p + 1, size - p);
+            System.arraycopy(bid[i], p, bid[i], p + 1, size - p);
+            System.arraycopy(winner[i], p, winner[i], p + 1, size - p);
+            known[i][p] = j;
+            bid[i][p] = y;
+            winner[i][p] = z;
+            knownSize[i]++;
+        }
+
+        // i reçoit de son voisin k au tour round: fusion des listes triées, tour le plus récent par drone
+        private void hear(int i, int k, int round) {
+            int[] ids = heardIds[i], rounds = heardRounds[i];
+            int[] kIds = sentIds[k], kRounds = sentRounds[k];
+            int capacity = ids.length + kIds.length + 1;
+            if (scratchIds.length < capacity) {
+                scratchIds = new int[Math.max(capacity, 2 * scratchIds.length)];
+                scratchRounds = new int[scratchIds.length];
+            }
+            int a = 0, b = 0, count = 0;
+            boolean kSeen = false;
+            while (a < ids.length || b < kIds.length || !kSeen) {
+                int m = Math.min(a < ids.length ? ids[a] : Integer.MAX_VALUE, b < kIds.length ? kIds[b] : Integer.MAX_VALUE);
+                if (!kSeen) m = Math.min(m, k);
+                int r = 0;
+                if (a < ids.length && ids[a] == m) r = Math.max(r, rounds[a++]);
+                if (b < kIds.length && kIds[b] == m) r = Math.max(r, kRounds[b++]);
+                if (m == k) {
+                    r = round;
+                    kSeen = true;
+                }
+                if (m != i) {
+                    scratchIds[count] = m;
+                    scratchRounds[count++] = r;
+                }
+            }
+            // Nouvelles listes: celles d'avant restent lisibles par les voisins
+            heardIds[i] = Arrays.copyOf(scratchIds, count);
+            heardRounds[i] = Arrays.copyOf(scratchRounds, count);
+        }
+
+        // Compléter le lot de i; vrai s'il a changé
+        private boolean buildBundle(int i) {
+            boolean changed = false;
+            while (bundleSize[i] < bundleCapacity) {
+                double scale = Math.pow(discount, bundleSize[i]);
+                int best = NONE;
+                double bestScore = 0;
+                // Cases en anneaux autour du drone: l'enchère décroît avec la distance, on
+                // s'arrête quand l'anneau suivant ne peut plus battre la meilleure trouvée
+                int ax = (int) Math.floor((agentX[i] - taskMinX) / cellSize);
+                int ay = (int) Math.floor((agentY[i] - taskMinY) / cellSize);
+                int rings = Math.max(Math.max(ax, cellsX - 1 - ax), Math.max(ay, cellsY - 1 - ay));
+                for (int r = 0; r <= rings; r++) {
+                    if (best != NONE && scale / (1 + Math.max(0, r - 1) * cellSize) < bestScore) break;
+                    for (int cy = Math.max(0, ay - r); cy <= Math.min(cellsY - 1, ay + r); cy++) {
+                        // Lignes du haut et du bas de l'anneau entières, ailleurs ses deux bords
+                        int step = cy == ay - r || cy == ay + r ? 1 : 2 * r;
+                        for (int cx = ax - r; cx <= ax + r; cx += step) {
+                            if (cx < 0 || cx >= cellsX) continue;
+                            int c = cy * cellsX + cx;
+                            for (int t = cellStart[c]; t < cellStart[c + 1]; t++) {
+                                int j = cellTasks[t];
+                                double score = scale / (1 + Math.hypot(agentX[i] - taskX[j], agentY[i] - taskY[j]));
+                                // À égalité, le plus petit indice, comme un parcours dans l'ordre des points
+                                boolean better = best == NONE || score > bestScore || (score == bestScore && j < best);
+                                if (better && !inBundle(i, j) && beats(score, i, bidOf(i, j), winnerOf(i, j))) {
+                                    best = j;
+                                    bestScore = score;
+                                }
+                            }
+                        }
+                    }
+                }
+                if (best == NONE) break;
+                bundle[i][bundleSize[i]++] = best;
+                set(i, best, bestScore, i);
+                changed = true;
+            }
+            return changed;
+        }
+
+        private boolean inBundle(int i, int j) {
+            for (int p = 0; p < bundleSize[i]; p++) {
+                if (bundle[i][p] == j) return true;
+            }
+            return false;
+        }
+
+        // Règles de CBBA pour le point j: i reçoit de son voisin k (enchère yk, gagnant zk)
+        private boolean merge(int i, int k, int j, double yk, int zk) {
+            int zi = winnerOf(i, j);
+            double yi = bidOf(i, j);
+            boolean update = false, reset = false;
+            if (zk == k) {
+                if (zi == i) update = beats(yk, zk, yi, zi);
+                else if (zi == k || zi == NONE) update = true;
+                else update = fresher(k, zi, i) || beats(yk, zk, yi, zi);
+            } else if (zk == i) {
+                if (zi == k) reset = true;
+                else if (zi != i && zi != NONE) reset = fresher(k, zi, i);
+            } else if (zk != NONE) {
+                int m = zk;
+                boolean mFresher = fresher(k, m, i);
+                if (zi == i) update = mFresher && beats(yk, zk, yi, zi);
+                else if (zi == k) { update = mFresher; reset = !mFresher; }
+                else if (zi == m || zi == NONE) update = mFresher;
+                else {
+                    boolean nFresher = fresher(k, zi, i);
+                    if (mFresher && (nFresher || beats(yk, zk, yi, zi))) update = true;
+                    else if (nFresher && heard(sentIds[k], sentRounds[k], m) < heard(heardIds[i], heardRounds[i], m)) reset = true;
+                }
+            } else {
+                if (zi == k) update = true;
+                else if (zi != i && zi != NONE) update = fresher(k, zi, i);
+            }
+            if (update && (yi != yk || zi != zk)) {
+                set(i, j, yk, zk);
+                return true;
+            }
+            if (reset && zi != NONE) {
+                set(i, j, 0, NONE);
+                return true;
+            }
+            return false;
+        }
+
+        // k a-t-il des nouvelles de m plus récentes que i?
+        private boolean fresher(int k, int m, int i) {
+            return heard(sentIds[k], sentRounds[k], m) > heard(heardIds[i], heardRounds[i], m);
+        }
+
+        // Abandonner le premier point perdu du lot et ceux ajoutés après lui
+        private boolean releaseLost(int i) {
+            for (int p = 0; p < bundleSize[i]; p++) {
+                if (winnerOf(i, bundle[i][p]) != i) {
+                    for (int q = p + 1; q < bundleSize[i]; q++) {
+                        int j = bundle[i][q];
+                        if (winnerOf(i, j) == i) {
+                            set(i, j, 0, NONE);
+                        }
+                    }
+                    bundleSize[i] = p;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Graphe de portée radio, par cases de côté commRadius
+        private int[][] neighbourGraph(List<Drone> agents) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            long[] keys = new long[n];
+            for (int i = 0; i < n; i++) {
+                long bx = (long) Math.floor(agents.get(i).getX() / commRadius);
+                long by = (long) Math.floor(agents.get(i).getY() / commRadius);
+                keys[i] = (bx << 32) ^ (by & 0xffffffffL);
+                buckets.computeIfAbsent(keys[i], key -> new ArrayList<>()).add(i);
+            }
+            int[][] graph = new int[n][];
+            List<Integer> found = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                found.clear();
+                long bx = keys[i] >> 32, by = (int) keys[i];
+                for (long dy = -1; dy <= 1; dy++) {
+                    for (long dx = -1; dx <= 1; dx++) {
+                        List<Integer> bucket = buckets.get(((bx + dx) << 32) ^ ((by + dy) & 0xffffffffL));
+                        if (bucket == null) continue;
+                        for (int k : bucket) {
+                            Drone a = agents.get(i), b = agents.get(k);
+                            if (k != i && Math.hypot(a.getX() - b.getX(), a.getY() - b.getY()) <= commRadius) {
+                                found.add(k);
+                            }
+                        }
+                    }
+                }
+                graph[i] = found.stream().mapToInt(Integer::intValue).sorted().toArray();
+            }
+            return graph;
+        }
+    }
+
+    // Tour de la dernière nouvelle de m dans une liste triée, 0 si jamais entendu
+    private static int heard(int[] ids, int[] rounds, int m) {
+        int p = Arrays.binarySearch(ids, m);
+        return p >= 0 ? rounds[p] : 0;
+    }
+
+    // L'enchère (y1, z1) bat-elle (y2, z2)? À égalité, le plus petit indice gagne
+    private static boolean beats(double y1, int z1, double y2, int z2) {
+        if (z2 == NONE) return z1 != NONE;
+        return y1 > y2 || (y1 == y2 && z1 != NONE && z1 < z2);
+    }
+}
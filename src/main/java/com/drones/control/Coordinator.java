@@ -2,99 +2,115 @@ package com.drones.control;
 import com.drones.config.SimulationParams;
 import com.drones.model.Drone;
 import com.drones.model.DroneState;
-import com.drones.model.Environment;
+import java.io.*;
 import java.util.*;
 public class Coordinator {
-    private Set<String> visitedCells; // cellules déjà explorées (x,y)
+    private CoverageTracker coverage; // cellules déjà explorées et date de dernière visite
+    private SurveillancePlanner planner; // tuiles à rebalayer, les plus anciennes d'abord
+    private BeliefMap belief; // intensité estimée à partir des mesures
+    private MeasurementRing measurements; // mesures en attente de fusion (producteurs multiples)
     private Map<Integer, List<double[]>> droneWaypoints; // Points de passage en cache par drone
+    private RetaskingStrategy retasking = new NearestDroneRetasking();
     
     public Coordinator() {
-        visitedCells = new HashSet<>();
+        this(SimulationParams.GRID_WIDTH, SimulationParams.GRID_HEIGHT);
+    }
+    
+    public Coordinator(int gridWidth, int gridHeight) {
+        coverage = new CoverageTracker(gridWidth, gridHeight);
+        planner = new SurveillancePlanner(coverage, SimulationParams.SURVEILLANCE_TILE_SIZE);
+        belief = new BeliefMap(gridWidth, gridHeight, SimulationParams.ANOMALY_DECAY_RATE,
+            SimulationParams.BELIEF_PROCESS_NOISE, SimulationParams.SENSOR_NOISE_VARIANCE,
+            SimulationParams.BELIEF_INITIAL_VARIANCE, SimulationParams.HOTSPOT_THRESHOLD);
+        measurements = new MeasurementRing(SimulationParams.MEASUREMENT_RING_CAPACITY);
         droneWaypoints = new HashMap<>();
     }
     
-    // Générer le plan de couverture initial (balayage raster)
-    public Map<Integer, List<double[]>> generateCoveragePlan(int numDrones) {
-        Map<Integer, List<double[]>> plan = new HashMap<>();
-        
-        int dronesPerRow = (int) Math.ceil(Math.sqrt(numDrones));
-        int cellsPerDrone = SimulationParams.GRID_WIDTH / dronesPerRow;
-        
-        for (int i = 0; i < numDrones; i++) {
-            List<double[]> waypoints = new ArrayList<>();
-            
-            int row = i / dronesPerRow;
-            int col = i % dronesPerRow;
-            
-            int startX = col * cellsPerDrone;
-            int startY = row * cellsPerDrone;
-            int endX = Math.min((col + 1) * cellsPerDrone, SimulationParams.GRID_WIDTH - 1);
-            int endY = Math.min((row + 1) * cellsPerDrone, SimulationParams.GRID_HEIGHT - 1);
-            
-            // Motif de balayage raster au sein de la région
-            for (int y = startY; y <= endY; y++) {
-                if ((y - startY) % 2 == 0) {
-                    for (int x = startX; x <= endX; x++) {
-                        waypoints.add(new double[]{x, y});
-                    }
-                } else {
-                    for (int x = endX; x >= startX; x--) {
-                        waypoints.add(new double[]{x, y});
-                    }
-                }
-            }
-            
-            // Retour à la base
-            waypoints.add(new double[]{0, 0});
-            
-            plan.put(i, waypoints);
-        }
-        
-        return plan;
+    public CoverageTracker getCoverage() { return coverage; }
+    public SurveillancePlanner getPlanner() { return planner; }
+    public BeliefMap getBelief() { return belief; }
+    public MeasurementRing getMeasurements() { return measurements; }
+    public RetaskingStrategy getRetaskingStrategy() { return retasking; }
+    public void setRetaskingStrategy(RetaskingStrategy retasking) { this.retasking = retasking; }
+    
+    // Mesure d'un capteur, fusionnée au prochain fuseMeasurements() (appelable depuis tout thread)
+    public boolean submitMeasurement(double x, double y, double value, int tick) {
+        return measurements.offer((int) Math.floor(x), (int) Math.floor(y), value, tick);
     }
     
-    // Réaffectation adaptive: si une anomalie élevée est détectée, affecter les drones proches
-    public void adaptiveRetasking(List<Drone> drones, Environment env) {
-        double[][] grid = env.getAnomalyIntensity();
-        
-        // Trouver les points chauds (cellules avec anomalie élevée)
+    // Intégrer les mesures en attente à la carte de croyance (thread de simulation)
+    public int fuseMeasurements() {
+        return measurements.drainTo(belief);
+    }
+    
+    // Donner la prochaine tuile à balayer à chaque drone inoccupé
+    public int assignIdleDrones(List<Drone> drones) {
+        return planner.assignIdleDrones(drones);
+    }
+    
+    // Une détection rend la tuile correspondante prioritaire
+    public void reportDetection(double x, double y, double intensity) {
+        planner.reportDetection(x, y, intensity);
+    }
+    
+    // Enregistrer le déplacement d'un drone pendant le tick (cellules traversées comprises)
+    public void recordMovement(Drone drone, double fromX, double fromY, int tick) {
+        if (drone.getState() == DroneState.CHARGING) return; // au sol
+        coverage.traverse(fromX, fromY, drone.getX(), drone.getY(), tick);
+    }
+    
+    // Réaffectation adaptive: si une anomalie élevée est crue présente, y envoyer des drones (voir RetaskingStrategy)
+    public void adaptiveRetasking(List<Drone> drones, int tick) {
+        adaptiveRetasking(drones, tick, null);
+    }
+    
+    // Idem; les points chauds vers lesquels un drone a été redirigé sont ajoutés à dispatched (si non null)
+    public void adaptiveRetasking(List<Drone> drones, int tick, List<int[]> dispatched) {
+        // Trouver les points chauds d'après la carte de croyance (cellules avec anomalie élevée)
         List<int[]> hotspots = new ArrayList<>();
-        for (int y = 0; y < env.getHeight(); y++) {
-            for (int x = 0; x < env.getWidth(); x++) {
-                if (grid[y][x] > 0.7) { // Seuil d'anomalie élevée
-                    hotspots.add(new int[]{x, y});
-                }
-            }
-        }
+        belief.collectHotspots(tick, hotspots);
         
-        // Pour chaque point chaud, si aucun drone à proximité, en rediriger un
-        for (int[] hotspot : hotspots) {
-            boolean droneNearby = drones.stream()
-                .filter(d -> d.getState() == DroneState.ACTIVE)
-                .anyMatch(d -> Math.sqrt(Math.pow(d.getX() - hotspot[0], 2) + 
-                Math.pow(d.getY() - hotspot[1], 2)) < 5);
-            
-            if (!droneNearby && !hotspots.isEmpty()) {
-                // Trouver un drone actif oisif
-                Optional<Drone> idleDrone = drones.stream()
-                    .filter(d -> d.getState() == DroneState.ACTIVE)
-                    .min(Comparator.comparingDouble(d -> 
-                    Math.sqrt(Math.pow(d.getX() - hotspot[0], 2) + 
-                    Math.pow(d.getY() - hotspot[1], 2))));
-                
-                if (idleDrone.isPresent()) {
-                    // Créer des points de passage d'urgence vers le point chaud
-                    List<double[]> emergency = new ArrayList<>();
-                    emergency.add(new double[]{hotspot[0], hotspot[1]});
-                    emergency.add(new double[]{0, 0}); // Retour à la base
-                    idleDrone.get().setWaypoints(emergency);
-                }
-            }
-        }
+        retasking.retask(drones, hotspots, tick, dispatched);
     }
     
     public void reset() {
-        visitedCells.clear();
+        coverage.reset();
+        planner.reset();
+        belief.reset();
+        measurements.drainTo((x, y, value, tick) -> { });
         droneWaypoints.clear();
     }
+    
+    // Sauvegarder l'état du coordinateur
+    public void writeState(DataOutputStream out) throws IOException {
+        coverage.writeState(out);
+        planner.writeState(out);
+        belief.writeState(out);
+        out.writeInt(droneWaypoints.size());
+        for (Map.Entry<Integer, List<double[]>> entry : droneWaypoints.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (double[] p : entry.getValue()) {
+                out.writeDouble(p[0]);
+                out.writeDouble(p[1]);
+            }
+        }
+    }
+    
+    public void readState(DataInputStream in) throws IOException {
+        reset();
+        coverage.readState(in);
+        planner.readState(in);
+        belief.readState(in);
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int id = in.readInt();
+            int n = in.readInt();
+            List<double[]> points = new ArrayList<>(n);
+            for (int k = 0; k < n; k++) {
+                points.add(new double[]{in.readDouble(), in.readDouble()});
+            }
+            droneWaypoints.put(id, points);
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.drones.control;
+import com.drones.model.Drone;
+import java.util.List;
+
+/**
+ * Plan de couverture initial des drones, donné au démarrage et à chaque
+ * remise à zéro du moteur. Chargeable par {@link java.util.ServiceLoader}
+ * (constructeur sans argument).
+ */
+public interface CoverageStrategy {
+
+    // Donner à chaque drone ses points de passage sur une grille width x height
+    void plan(List<Drone> drones, int width, int height);
+}
@@ -0,0 +1,194 @@
+package com.drones.control;
+import java.io.*;
+import java.util.Arrays;
+
+/**
+ * Carte de couverture: quelles cellules ont été survolées, et quand.
+ *
+ * Un bit par cellule pour « déjà visitée » (long[]), le tick de la
+ * première et de la dernière visite (int[]). Les déplacements d'un tick
+ * marquent toutes les cellules traversées par le segment, pas seulement
+ * la cellule d'arrivée: un drone rapide ne « saute » pas de cellules.
+ *
+ * L'âge d'une cellule (staleness) est le nombre de ticks depuis sa
+ * dernière visite; une cellule jamais visitée a l'âge de la simulation.
+ * Les percentiles d'âge sont calculés par histogramme dans des tableaux
+ * réutilisés: aucune allocation pendant un tick.
+ */
+public class CoverageTracker {
+    public static final int NEVER = -1;
+    private static final int HISTOGRAM_BINS = 1024;
+
+    private final int width, height;
+    private final long[] visited;
+    private final int[] firstVisit;
+    private final int[] lastVisit;
+    private final int[] histogram = new int[HISTOGRAM_BINS];
+    private int visitedCount;
+
+    // Dernier calcul des percentiles d'âge (en ticks)
+    private int stalenessP50, stalenessP90, stalenessP99, stalenessMax;
+
+    public CoverageTracker(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.visited = new long[(width * height + 63) >>> 6];
+        this.firstVisit = new int[width * height];
+        this.lastVisit = new int[width * height];
+        reset();
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getVisitedCount() { return visitedCount; }
+
+    // Pourcentage de cellules visitées au moins une fois
+    public double getCoveragePercentage() {
+        return (double) visitedCount / (width * height) * 100.0;
+    }
+
+    public boolean isVisited(int x, int y) {
+        int i = y * width + x;
+        return (visited[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public int getFirstVisit(int x, int y) { return firstVisit[y * width + x]; }
+    public int getLastVisit(int x, int y) { return lastVisit[y * width + x]; }
+
+    // Ticks écoulés depuis la dernière visite de la cellule, au tick donné
+    public int getAge(int x, int y, int tick) {
+        return tick - lastVisit[y * width + x];
+    }
+
+    // Marquer une cellule visitée au tick donné (hors grille: ignoré)
+    public void visit(int x, int y, int tick) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+        int i = y * width + x;
+        long bit = 1L << i;
+        if ((visited[i >>> 6] & bit) == 0) {
+            visited[i >>> 6] |= bit;
+            firstVisit[i] = tick;
+            visitedCount++;
+        }
+        lastVisit[i] = tick;
+    }
+
+    /**
+     * Marquer toutes les cellules traversées par le segment (x0, y0) -> (x1, y1),
+     * par parcours de grille (Amanatides-Woo): une cellule par frontière franchie.
+     */
+    public void traverse(double x0, double y0, double x1, double y1, int tick) {
+        int cx = (int) Math.floor(x0), cy = (int) Math.floor(y0);
+        int ex = (int) Math.floor(x1), ey = (int) Math.floor(y1);
+        visit(cx, cy, tick);
+        if (cx == ex && cy == ey) return;
+
+        double dx = x1 - x0, dy = y1 - y0;
+        int stepX = ex > cx ? 1 : -1;
+        int stepY = ey > cy ? 1 : -1;
+        double tDeltaX = dx != 0 ? Math.abs(1.0 / dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dy != 0 ? Math.abs(1.0 / dy) : Double.POSITIVE_INFINITY;
+        double tMaxX = dx > 0 ? (cx + 1 - x0) / dx : dx < 0 ? (x0 - cx) / -dx : Double.POSITIVE_INFINITY;
+        double tMaxY = dy > 0 ? (cy + 1 - y0) / dy : dy < 0 ? (y0 - cy) / -dy : Double.POSITIVE_INFINITY;
+
+        int steps = Math.abs(ex - cx) + Math.abs(ey - cy);
+        for (int s = 0; s < steps; s++) {
+            // Les bornes forcent l'axe restant: les arrondis ne font jamais dépasser la cellule d'arrivée
+            if (cy == ey || (cx != ex && tMaxX < tMaxY)) {
+                cx += stepX;
+                tMaxX += tDeltaX;
+            } else {
+                cy += stepY;
+                tMaxY += tDeltaY;
+            }
+            visit(cx, cy, tick);
+        }
+    }
+
+    /**
+     * Recalculer les percentiles d'âge au tick donné: un passage sur les
+     * cellules pour remplir l'histogramme, un passage sur l'histogramme.
+     * La largeur des classes suit la durée écoulée (1 tick tant que
+     * possible), la valeur rendue est la borne haute de la classe.
+     */
+    public void updateStaleness(int tick) {
+        int total = width * height;
+        int binWidth = Math.max(1, (tick + 1 + HISTOGRAM_BINS - 1) / HISTOGRAM_BINS);
+        Arrays.fill(histogram, 0);
+        int max = 0;
+        for (int i = 0; i < total; i++) {
+            int age = tick - lastVisit[i];
+            if (age > max) max = age;
+            int bin = age / binWidth;
+            histogram[bin < HISTOGRAM_BINS ? bin : HISTOGRAM_BINS - 1]++;
+        }
+        stalenessMax = max;
+        stalenessP50 = percentile(0.50, total, binWidth, max);
+        stalenessP90 = percentile(0.90, total, binWidth, max);
+        stalenessP99 = percentile(0.99, total, binWidth, max);
+    }
+
+    private int percentile(double p, int total, int binWidth, int max) {
+        long needed = (long) Math.ceil(p * total);
+        long cumulative = 0;
+        for (int b = 0; b < HISTOGRAM_BINS; b++) {
+            cumulative += histogram[b];
+            if (cumulative >= needed) {
+                return Math.min(max, (b + 1) * binWidth - 1);
+            }
+        }
+        return max;
+    }
+
+    public int getStalenessP50() { return stalenessP50; }
+    public int getStalenessP90() { return stalenessP90; }
+    public int getStalenessP99() { return stalenessP99; }
+    public int getStalenessMax() { return stalenessMax; }
+
+    /**
+     * Carte de chaleur de l'âge des cellules: out[y * width + x] = âge / maxAge,
+     * borné à 1. Le tableau est fourni par l'appelant (réutilisable).
+     */
+    public void fillAgeMap(int tick, int maxAge, float[] out) {
+        float scale = 1.0f / Math.max(1, maxAge);
+        for (int i = 0; i < width * height; i++) {
+            int age = tick - lastVisit[i];
+            out[i] = age >= maxAge ? 1.0f : age * scale;
+        }
+    }
+
+    public void reset() {
+        Arrays.fill(visited, 0);
+        Arrays.fill(firstVisit, NEVER);
+        Arrays.fill(lastVisit, NEVER);
+        visitedCount = 0;
+        stalenessP50 = stalenessP90 = stalenessP99 = stalenessMax = 0;
+    }
+
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(height);
+        for (long word : visited) {
+            out.writeLong(word);
+        }
+        for (int i = 0; i < firstVisit.length; i++) {
+            out.writeInt(firstVisit[i]);
+            out.writeInt(lastVisit[i]);
+        }
+    }
+
+    public void readState(DataInputStream in) throws IOException {
+        if (in.readInt() != width || in.readInt() != height) {
+            throw new IOException("Dimensions de la carte de couverture incompatibles");
+        }
+        visitedCount = 0;
+        for (int w = 0; w < visited.length; w++) {
+            visited[w] = in.readLong();
+            visitedCount += Long.bitCount(visited[w]);
+        }
+        for (int i = 0; i < firstVisit.length; i++) {
+            firstVisit[i] = in.readInt();
+            lastVisit[i] = in.readInt();
+        }
+    }
+}
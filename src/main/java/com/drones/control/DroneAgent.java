@@ -0,0 +1,162 @@
+package com.drones.control;
+import com.drones.config.SimulationParams;
+import com.drones.model.Drone;
+import com.drones.model.DroneState;
+import com.drones.model.Environment;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Drone autonome du mode agents ({@link AgentSwarm}): il ne connaît que
+ * ses propres mesures et les messages de ses voisins à portée radio.
+ *
+ * Chaque tick, il lit les messages du tick précédent, choisit le point
+ * chaud connu le plus proche que personne d'autre ne réclame, le réclame
+ * auprès de ses voisins (CLAIM, avec sa distance pour enchère), se
+ * déplace puis mesure; une détection est diffusée aux voisins et à la
+ * base. Deux drones réclamant la même cellule s'en rendent compte au tick
+ * suivant: le plus proche la garde (à égalité, le plus petit identifiant).
+ *
+ * La boîte de réception a deux cases alternées par parité du tick: les
+ * envois d'un tick vont dans la case lue au tick suivant, si bien que ce
+ * qu'un agent lit ne dépend pas de l'ordre d'exécution des autres. Chaque
+ * case est bornée; un message qui n'y tient pas est perdu.
+ */
+final class DroneAgent {
+    private static final int NONE = -1;
+    // Une réclamation est répétée à chaque tick: passé ce délai, elle est abandonnée
+    private static final int CLAIM_TTL_TICKS = 2;
+
+    private final AgentSwarm swarm;
+    private final int index;
+    private final Drone drone;
+    private final int width;
+    private final List<ArrayBlockingQueue<AgentMessage>> inbox;
+    // Cellule -> dernier tick où elle a été vue au-dessus du seuil
+    private final Map<Integer, Integer> hotspots = new HashMap<>();
+    // Cellule -> dernier tick où un autre drone l'a réclamée
+    private final Map<Integer, Integer> claimedByOthers = new HashMap<>();
+    // Cellule -> tick où un drone l'a atteinte
+    private final Map<Integer, Integer> handled = new HashMap<>();
+    private int task = NONE;
+    private double bid;
+
+    @SuppressWarnings("unchecked")
+    DroneAgent(AgentSwarm swarm, int index, Drone drone, int width, int mailboxCapacity) {
+        this.swarm = swarm;
+        this.index = index;
+        this.drone = drone;
+        this.width = width;
+        this.inbox = List.of(new ArrayBlockingQueue<>(mailboxCapacity), new ArrayBlockingQueue<>(mailboxCapacity));
+    }
+
+    Drone getDrone() { return drone; }
+    int getTask() { return task; }
+
+    // Déposer un message lu au tick suivant; faux si la case est pleine
+    boolean deliver(AgentMessage message, int tick) {
+        return inbox.get((tick + 1) & 1).offer(message);
+    }
+
+    void act(int tick, Environment environment) {
+        receive(tick);
+        if (tick % SimulationParams.AGENT_HOTSPOT_TTL_TICKS == index % SimulationParams.AGENT_HOTSPOT_TTL_TICKS) {
+            forget(tick);
+        }
+
+        if (drone.getState() != DroneState.ACTIVE) {
+            // Retour à la base ou mesure en cours: la cellule est laissée aux autres
+            task = NONE;
+        } else {
+            if (task != NONE && !drone.hasWaypoints()) {
+                handled.put(task, tick);
+                swarm.broadcast(index, new AgentMessage(AgentMessage.DONE, drone.getId(), task, 0), tick);
+                task = NONE;
+            }
+            if (task == NONE) {
+                chooseTask(tick);
+            }
+            if (task != NONE) {
+                bid = distanceTo(task);
+                AgentMessage claim = new AgentMessage(AgentMessage.CLAIM, drone.getId(), task, bid);
+                swarm.broadcast(index, claim, tick);
+                swarm.sendToBase(claim);
+            }
+        }
+
+        drone.update(SimulationParams.TICK_DURATION_MS);
+
+        if (drone.getState() == DroneState.ACTIVE
+                && environment.getAnomalyAt(drone.getX(), drone.getY()) > SimulationParams.ANOMALY_DETECTION_THRESHOLD) {
+            int cell = (int) Math.floor(drone.getY()) * width + (int) Math.floor(drone.getX());
+            hotspots.put(cell, tick);
+            AgentMessage detection = new AgentMessage(AgentMessage.DETECTION, drone.getId(), cell, 0);
+            swarm.broadcast(index, detection, tick);
+            swarm.sendToBase(detection);
+        }
+    }
+
+    private void receive(int tick) {
+        ArrayBlockingQueue<AgentMessage> box = inbox.get(tick & 1);
+        for (AgentMessage m; (m = box.poll()) != null; ) {
+            switch (m.kind) {
+                case AgentMessage.DETECTION:
+                    hotspots.merge(m.cell, tick - 1, Math::max);
+                    break;
+                case AgentMessage.CLAIM:
+                    claimedByOthers.merge(m.cell, tick - 1, Math::max);
+                    if (m.cell == task && (m.bid < bid || (m.bid == bid && m.sender < drone.getId()))) {
+                        // Enchère perdue: un voisin plus proche s'en charge
+                        task = NONE;
+                        drone.setWaypoints(Collections.emptyList());
+                    }
+                    break;
+                case AgentMessage.DONE:
+                    handled.merge(m.cell, tick - 1, Math::max);
+                    break;
+                default:
+                    throw new IllegalStateException("Message inconnu: " + m.kind);
+            }
+        }
+    }
+
+    // Le point chaud connu le plus proche qui n'est ni réclamé ni déjà atteint
+    private void chooseTask(int tick) {
+        int best = NONE;
+        double bestDistance = Double.MAX_VALUE;
+        for (Map.Entry<Integer, Integer> hotspot : hotspots.entrySet()) {
+            int cell = hotspot.getKey();
+            if (!isRecent(hotspot.getValue(), tick, SimulationParams.AGENT_HOTSPOT_TTL_TICKS)
+                    || isRecent(claimedByOthers.get(cell), tick, CLAIM_TTL_TICKS)
+                    || isRecent(handled.get(cell), tick, SimulationParams.AGENT_HOTSPOT_TTL_TICKS)) {
+                continue;
+            }
+            double distance = distanceTo(cell);
+            if (distance < bestDistance || (distance == bestDistance && cell < best)) {
+                best = cell;
+                bestDistance = distance;
+            }
+        }
+        if (best != NONE) {
+            task = best;
+            drone.setWaypoints(Collections.singletonList(new double[]{best % width + 0.5, best / width + 0.5}));
+        }
+    }
+
+    private static boolean isRecent(Integer since, int tick, int ttl) {
+        return since != null && tick - since <= ttl;
+    }
+
+    private double distanceTo(int cell) {
+        double dx = cell % width + 0.5 - drone.getX(), dy = cell / width + 0.5 - drone.getY();
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // Oublier ce qui est trop ancien (une fois par période, décalée d'un agent à l'autre)
+    private void forget(int tick) {
+        int ttl = SimulationParams.AGENT_HOTSPOT_TTL_TICKS;
+        hotspots.values().removeIf(since -> tick - since > ttl);
+        claimedByOthers.values().removeIf(since -> tick - since > CLAIM_TTL_TICKS);
+        handled.values().removeIf(since -> tick - since > ttl);
+    }
+}
@@ -0,0 +1,52 @@
+package com.drones.control;
+import com.drones.model.Drone;
+import com.drones.model.DroneState;
+import java.util.*;
+
+/**
+ * Vue directe (sans copie) sur un moteur en cours d'exécution.
+ * Ne doit être lue que depuis le thread qui fait avancer le moteur.
+ */
+public class EngineFrame implements SimulationFrame {
+    private final SimulationEngine engine;
+    
+    public EngineFrame(SimulationEngine engine) {
+        this.engine = engine;
+    }
+    
+    @Override public long getSimulationTime() { return engine.getSimulationTime(); }
+    @Override public int getGridWidth() { return engine.getEnvironment().getWidth(); }
+    @Override public int getGridHeight() { return engine.getEnvironment().getHeight(); }
+    
+    @Override
+    public double getIntensity(int x, int y) {
+        return engine.getEnvironment().getAnomalyIntensity()[y][x];
+    }
+    
+    @Override public int getDroneCount() { return engine.getDrones().size(); }
+    @Override public int getDroneId(int index) { return engine.getDrones().get(index).getId(); }
+    @Override public double getDroneX(int index) { return engine.getDrones().get(index).getX(); }
+    @Override public double getDroneY(int index) { return engine.getDrones().get(index).getY(); }
+    @Override public DroneState getDroneState(int index) { return engine.getDrones().get(index).getState(); }
+    
+    @Override
+    public List<double[]> getTrajectory(int index) {
+        List<double[]> traj = engine.getDroneTrajectories().get(getDroneId(index));
+        return traj == null ? Collections.emptyList() : traj;
+    }
+    
+    @Override public List<String> getEventLog() { return engine.getEventLog(); }
+    @Override public double getCoveragePercentage() { return engine.getMetrics().coveragePercentage; }
+    @Override public int getAnomalyCount() { return engine.getMetrics().anomaliesDetected; }
+    @Override public int getActiveDrones() { return engine.getMetrics().activeDrones; }
+    @Override public int getRechargingDrones() { return engine.getMetrics().rechargingDrones; }
+    
+    @Override
+    public int getMeasurementCount() {
+        int count = 0;
+        for (Drone d : engine.getDrones()) {
+            count += d.getMeasurements().size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,116 @@
+package com.drones.control;
+import com.drones.model.Drone;
+import com.drones.model.DroneState;
+import java.util.*;
+
+/**
+ * Copie de l'état du moteur à la fin d'un tick, transmise du thread de
+ * simulation au thread de rendu par {@link SimulationThread}.
+ *
+ * Les instances sont recyclées (triple tampon): à tout instant, une
+ * instance appartient soit au thread de simulation qui la remplit, soit au
+ * thread de rendu qui la lit, jamais aux deux. Les trajectoires et le
+ * journal ne sont pas copiés: ce sont des vues figées sur des listes à
+ * ajout seul.
+ */
+public class FrameSnapshot implements SimulationFrame {
+    private static final DroneState[] STATES = DroneState.values();
+    
+    volatile long sequence; // numéro de publication, 0 = jamais rempli
+    private long simulationTime;
+    private int tickCount;
+    private boolean running;
+    
+    private int width, height;
+    private float[] intensity = new float[0];
+    
+    private int droneCount;
+    private int[] ids = new int[0];
+    private double[] xs = new double[0], ys = new double[0];
+    private byte[] states = new byte[0];
+    private List<double[]>[] trajectories = newTrajectoryArray(0);
+    private List<String> events = Collections.emptyList();
+    
+    private double coveragePercentage;
+    private int anomalyCount, activeDrones, rechargingDrones, measurementCount;
+    
+    // Remplir depuis le moteur (thread de simulation uniquement)
+    void copyFrom(SimulationEngine engine) {
+        simulationTime = engine.getSimulationTime();
+        tickCount = engine.getTickCount();
+        running = engine.isRunning();
+        
+        double[][] grid = engine.getEnvironment().getAnomalyIntensity();
+        height = grid.length;
+        width = height == 0 ? 0 : grid[0].length;
+        if (intensity.length != width * height) {
+            intensity = new float[width * height];
+        }
+        for (int y = 0, i = 0; y < height; y++) {
+            double[] row = grid[y];
+            for (int x = 0; x < width; x++) {
+                intensity[i++] = (float) row[x];
+            }
+        }
+        
+        List<Drone> drones = engine.getDrones();
+        droneCount = drones.size();
+        if (ids.length != droneCount) {
+            ids = new int[droneCount];
+            xs = new double[droneCount];
+            ys = new double[droneCount];
+            states = new byte[droneCount];
+            trajectories = newTrajectoryArray(droneCount);
+        }
+        int measurements = 0;
+        Map<Integer, List<double[]>> logs = engine.getDroneTrajectories();
+        for (int i = 0; i < droneCount; i++) {
+            Drone d = drones.get(i);
+            ids[i] = d.getId();
+            xs[i] = d.getX();
+            ys[i] = d.getY();
+            states[i] = (byte) d.getState().ordinal();
+            measurements += d.getMeasurements().size();
+            List<double[]> traj = logs.get(d.getId());
+            trajectories[i] = traj instanceof AppendOnlyList
+                ? ((AppendOnlyList<double[]>) traj).snapshot()
+                : Collections.emptyList();
+        }
+        List<String> log = engine.getEventLog();
+        events = log instanceof AppendOnlyList ? ((AppendOnlyList<String>) log).snapshot() : Collections.emptyList();
+        
+        SimulationEngine.SimulationMetrics m = engine.getMetrics();
+        coveragePercentage = m.coveragePercentage;
+        anomalyCount = m.anomaliesDetected;
+        activeDrones = m.activeDrones;
+        rechargingDrones = m.rechargingDrones;
+        measurementCount = measurements;
+    }
+    
+    public int getTickCount() { return tickCount; }
+    public boolean isRunning() { return running; }
+    
+    @Override public long getSimulationTime() { return simulationTime; }
+    @Override public int getGridWidth() { return width; }
+    @Override public int getGridHeight() { return height; }
+    @Override public double getIntensity(int x, int y) { return intensity[y * width + x]; }
+    @Override public int getDroneCount() { return droneCount; }
+    @Override public int getDroneId(int index) { return ids[index]; }
+    @Override public double getDroneX(int index) { return xs[index]; }
+    @Override public double getDroneY(int index) { return ys[index]; }
+    @Override public DroneState getDroneState(int index) { return STATES[states[index]]; }
+    @Override public List<double[]> getTrajectory(int index) { return trajectories[index]; }
+    @Override public List<String> getEventLog() { return events; }
+    @Override public double getCoveragePercentage() { return coveragePercentage; }
+    @Override public int getAnomalyCount() { return anomalyCount; }
+    @Override public int getActiveDrones() { return activeDrones; }
+    @Override public int getRechargingDrones() { return rechargingDrones; }
+    @Override public int getMeasurementCount() { return measurementCount; }
+    
+    @SuppressWarnings("unchecked")
+    private static List<double[]>[] newTrajectoryArray(int n) {
+        List<double[]>[] array = (List<double[]>[]) new List<?>[n];
+        Arrays.fill(array, Collections.emptyList());
+        return array;
+    }
+}
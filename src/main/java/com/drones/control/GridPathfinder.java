@@ -0,0 +1,191 @@
+package com.drones.control;
+import com.drones.model.ObstacleMap;
+import com.drones.model.PathPlanner;
+import java.util.*;
+
+/**
+ * Recherche de chemin A* sur la grille, 8-connexe sans coupe de coin
+ * (un pas en diagonale exige les deux voisines orthogonales libres).
+ * Coûts entiers (10 en ligne droite, 14 en diagonale), heuristique
+ * octile; la file de priorité est un {@link IndexedMinHeap} et l'état de
+ * la recherche tient dans des tableaux primitifs, marqués par numéro de
+ * recherche plutôt que remis à zéro.
+ *
+ * Le chemin de cellules est ensuite lissé (on ne garde que les cellules
+ * où la ligne droite depuis le point précédent cesserait d'être libre),
+ * puis mis en cache: les chemins déjà calculés, repérés par leurs
+ * cellules de départ et d'arrivée, sont conservés dans un cache LRU. Les
+ * trajets répétés (base vers région, région vers point chaud) ne sont
+ * cherchés qu'une fois tant que la carte ne change pas.
+ *
+ * Un seul thread à la fois: les appels sont synchronisés.
+ */
+public class GridPathfinder implements PathPlanner {
+    private static final int STRAIGHT = 10, DIAGONAL = 14;
+    private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] DY = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final int[] NO_PATH = new int[0];
+
+    private final ObstacleMap obstacles;
+    private final int width, height;
+    private final IndexedMinHeap open;
+    private final int[] g;       // coût depuis le départ
+    private final int[] parent;  // cellule précédente
+    private final int[] seen;    // numéro de la recherche qui a atteint la cellule
+    private final int[] closed;  // numéro de la recherche qui l'a fermée
+    private int search;
+    private final LinkedHashMap<Long, int[]> cache; // (départ, arrivée) -> coins du chemin lissé, NO_PATH si aucun
+    private int cacheVersion;
+    private long hits, misses, expanded;
+
+    public GridPathfinder(ObstacleMap obstacles, int cacheCapacity) {
+        this.obstacles = obstacles;
+        this.width = obstacles.getWidth();
+        this.height = obstacles.getHeight();
+        int cells = width * height;
+        this.open = new IndexedMinHeap(cells);
+        this.g = new int[cells];
+        this.parent = new int[cells];
+        this.seen = new int[cells];
+        this.closed = new int[cells];
+        this.cache = new LinkedHashMap<Long, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+        this.cacheVersion = obstacles.getVersion();
+    }
+
+    public ObstacleMap getObstacles() { return obstacles; }
+    public synchronized long getCacheHits() { return hits; }
+    public synchronized long getCacheMisses() { return misses; }
+    public synchronized int getCacheSize() { return cache.size(); }
+    // Cellules développées par A* depuis la création
+    public synchronized long getExpandedCells() { return expanded; }
+
+    @Override
+    public synchronized List<double[]> plan(double fromX, double fromY, double toX, double toY) {
+        if (obstacles.isClear(fromX, fromY, toX, toY)) {
+            return Collections.emptyList();
+        }
+        int sx = (int) Math.floor(fromX), sy = (int) Math.floor(fromY);
+        int ex = (int) Math.floor(toX), ey = (int) Math.floor(toY);
+        if (!inside(sx, sy) || !inside(ex, ey) || obstacles.isBlocked(ex, ey)) {
+            return null;
+        }
+        int[] corners = cellPath(sy * width + sx, ey * width + ex);
+        if (corners == NO_PATH) {
+            return null;
+        }
+        List<double[]> via = new ArrayList<>(corners.length + 1);
+        double px = fromX, py = fromY;
+        for (int c = 0; c < corners.length - 1; c++) {
+            double cx = corners[c] % width + 0.5, cy = corners[c] / width + 0.5;
+            if (via.isEmpty() && !obstacles.isClear(px, py, cx, cy)) {
+                // Départ hors du centre de sa cellule: y passer d'abord
+                via.add(new double[]{sx + 0.5, sy + 0.5});
+            }
+            via.add(new double[]{cx, cy});
+            px = cx;
+            py = cy;
+        }
+        if (!obstacles.isClear(px, py, toX, toY)) {
+            via.add(new double[]{ex + 0.5, ey + 0.5}); // arrivée hors du centre de sa cellule
+        }
+        return via;
+    }
+
+    // Coins du chemin lissé de start à goal (goal compris, start exclu), depuis le cache si possible
+    private int[] cellPath(int start, int goal) {
+        if (cacheVersion != obstacles.getVersion()) {
+            cache.clear();
+            cacheVersion = obstacles.getVersion();
+        }
+        long key = ((long) start << 32) | goal;
+        int[] corners = cache.get(key);
+        if (corners != null) {
+            hits++;
+            return corners;
+        }
+        misses++;
+        corners = search(start, goal);
+        cache.put(key, corners);
+        return corners;
+    }
+
+    private int[] search(int start, int goal) {
+        if (++search == 0) {
+            // Débordement du numéro de recherche: repartir de marques vierges
+            Arrays.fill(seen, 0);
+            Arrays.fill(closed, 0);
+            search = 1;
+        }
+        int gx = goal % width, gy = goal / width;
+        open.clear();
+        g[start] = 0;
+        seen[start] = search;
+        open.put(start, key(0, heuristic(start % width, start / width, gx, gy)));
+        while (!open.isEmpty()) {
+            int cell = open.poll();
+            if (cell == goal) {
+                return smooth(start, goal);
+            }
+            closed[cell] = search;
+            expanded++;
+            int x = cell % width, y = cell / width;
+            for (int d = 0; d < 8; d++) {
+                int nx = x + DX[d], ny = y + DY[d];
+                if (!inside(nx, ny) || obstacles.isBlocked(nx, ny)) continue;
+                if (d >= 4 && (obstacles.isBlocked(nx, y) || obstacles.isBlocked(x, ny))) continue;
+                int next = ny * width + nx;
+                if (closed[next] == search) continue;
+                int cost = g[cell] + (d < 4 ? STRAIGHT : DIAGONAL);
+                if (seen[next] != search || cost < g[next]) {
+                    seen[next] = search;
+                    g[next] = cost;
+                    parent[next] = cell;
+                    open.put(next, key(cost, heuristic(nx, ny, gx, gy)));
+                }
+            }
+        }
+        return NO_PATH;
+    }
+
+    // À f égal, la cellule la plus proche de l'arrivée d'abord
+    private static long key(int cost, int h) {
+        return ((long) (cost + h) << 32) | h;
+    }
+
+    private static int heuristic(int x, int y, int gx, int gy) {
+        int dx = Math.abs(x - gx), dy = Math.abs(y - gy);
+        return STRAIGHT * Math.max(dx, dy) + (DIAGONAL - STRAIGHT) * Math.min(dx, dy);
+    }
+
+    // Ne garder que les cellules où la ligne droite depuis le coin précédent serait bloquée
+    private int[] smooth(int start, int goal) {
+        int length = 1;
+        for (int c = goal; c != start; c = parent[c]) length++;
+        int[] cells = new int[length];
+        for (int c = goal, i = length - 1; ; c = parent[c], i--) {
+            cells[i] = c;
+            if (c == start) break;
+        }
+        int[] corners = new int[length];
+        int count = 0;
+        int anchor = 0;
+        for (int i = 2; i < length; i++) {
+            if (!obstacles.isClear(cells[anchor] % width + 0.5, cells[anchor] / width + 0.5,
+                    cells[i] % width + 0.5, cells[i] / width + 0.5)) {
+                anchor = i - 1;
+                corners[count++] = cells[anchor];
+            }
+        }
+        corners[count++] = goal;
+        return Arrays.copyOf(corners, count);
+    }
+
+    private boolean inside(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+}
@@ -0,0 +1,142 @@
+package com.drones.control;
+import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+import com.drones.metrics.RunRecorder;
+import com.drones.model.AdvectionDiffusionSolver;
+import com.drones.model.BaseNetwork;
+import com.drones.model.ObstacleMap;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Exécution sans interface graphique, pour les longues simulations sur serveur.
+ *
+ * Exemple:
+ * <pre>
+ * java -cp swarm-simulator.jar com.drones.control.HeadlessRunner \
+ *     --ticks=180000 --seed=42 --out=run.drun --grid-interval=10 \
+ *     --checkpoint-dir=ckpt --checkpoint-interval=9000 [--resume] \
+ *     [--scenario=HEAVY_POLLUTION] [--event-driven] [--macro-ticks=25] \
+ *     [--retasking=ConsensusRetasking] [--coverage=...] [--field-model=...] [--measurement=...] \
+ *     [--bases=0:0:3,49:49:3] [--base-routing=LEAST_LOADED] [--no-fly=10:0:12:30,30:20:49:22]
+ * </pre>
+ * Le fichier produit se relit avec {@code MainApp --replay=run.drun}. Après
+ * une reprise, la suite est enregistrée dans un segment séparé
+ * (run.from9000.drun) pour ne pas écraser le début de l'exécution. Les
+ * stratégies et modèles se désignent par le nom de leur classe (voir
+ * {@link com.drones.config.Plugins}). Les bases se donnent sous la forme
+ * x:y:places (voir {@link BaseNetwork#parseBases}), les zones interdites
+ * sous la forme x0:y0:x1:y1 (voir {@link ObstacleMap#parse}).
+ */
+public class HeadlessRunner {
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseArgs(args);
+        long ticks = Long.parseLong(options.getOrDefault("ticks", "18000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", String.valueOf(System.nanoTime())));
+        String out = options.getOrDefault("out", "run_" + seed + ".drun");
+        int gridInterval = Integer.parseInt(options.getOrDefault("grid-interval", "10"));
+        String checkpointDir = options.get("checkpoint-dir");
+        int checkpointInterval = Integer.parseInt(options.getOrDefault("checkpoint-interval", "9000"));
+        int macroTicks = Integer.parseInt(options.getOrDefault("macro-ticks", "1"));
+        SimulationScenario scenario = SimulationScenario.valueOf(options.getOrDefault("scenario", "NORMAL_SCENARIO"));
+        
+        SimulationEngine.Builder builder = SimulationEngine.builder().seed(seed).scenario(scenario);
+        if (options.containsKey("coverage")) builder.coverage(options.get("coverage"));
+        if (options.containsKey("retasking")) builder.retasking(options.get("retasking"));
+        if (options.containsKey("field-model")) builder.fieldModel(options.get("field-model"));
+        if (options.containsKey("measurement")) builder.measurement(options.get("measurement"));
+        if (options.containsKey("bases")) {
+            builder.bases(BaseNetwork.parseBases(options.get("bases")),
+                BaseNetwork.Routing.valueOf(options.getOrDefault("base-routing", "NEAREST")));
+        }
+        if (options.containsKey("no-fly")) {
+            builder.obstacles(ObstacleMap.parse(SimulationParams.GRID_WIDTH, SimulationParams.GRID_HEIGHT, options.get("no-fly")));
+        }
+        SimulationEngine engine = builder.build();
+        engine.setEventDriven(options.containsKey("event-driven"));
+        Path outPath = Paths.get(out);
+        CheckpointWriter checkpoints = null;
+        if (checkpointDir != null) {
+            Path dir = Paths.get(checkpointDir);
+            if (options.containsKey("resume") && Files.isDirectory(dir)) {
+                Path latest = CheckpointWriter.latestIn(dir);
+                if (latest != null) {
+                    try (InputStream in = Files.newInputStream(latest)) {
+                        engine.readCheckpoint(in);
+                    }
+                    System.out.println("Reprise depuis " + latest + " (tick " + engine.getTickCount() + ")");
+                    // Ne pas écraser l'enregistrement d'avant la reprise
+                    outPath = segmentPath(outPath, engine.getTickCount());
+                }
+            }
+            checkpoints = new CheckpointWriter(dir, checkpointInterval, 3);
+            engine.setCheckpointWriter(checkpoints);
+        }
+        
+        AdvectionDiffusionSolver solver = engine.getEnvironment().getSolver();
+        if (Boolean.getBoolean("drones.simd") && solver != null && !solver.isVectorized()) {
+            System.out.println("Noyau vectoriel indisponible (--add-modules jdk.incubator.vector), noyau scalaire utilisé");
+        }
+        
+        long start = System.nanoTime();
+        try {
+            RunRecorder recorder = RunRecorder.attach(engine, outPath, gridInterval);
+            try (recorder) {
+                engine.start();
+                // Macro-pas en période calme si demandé (voir SimulationEngine.advance)
+                while (engine.getTickCount() < ticks) {
+                    engine.advance((int) Math.min(macroTicks, ticks - engine.getTickCount()));
+                }
+                engine.stop();
+            }
+        } finally {
+            if (checkpoints != null) {
+                checkpoints.close();
+            }
+        }
+        double elapsedS = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d ticks simulés (%.1f s simulées) en %.1f s -> %s%n",
+            engine.getTickCount(), engine.getSimulationTime() / 1000.0, elapsedS, outPath);
+        GridPathfinder pathfinder = engine.getPathfinder();
+        if (pathfinder != null) {
+            System.out.printf("Chemins: %d recherches, %d depuis le cache, %d cellules développées%n",
+                pathfinder.getCacheMisses(), pathfinder.getCacheHits(), pathfinder.getExpandedCells());
+        }
+    }
+    
+    /**
+     * Fichier du segment enregistré après une reprise au tick donné:
+     * run.drun devient run.from9000.drun. Un segment existant n'est
+     * jamais écrasé.
+     */
+    static Path segmentPath(Path out, int fromTick) throws IOException {
+        String name = out.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String ext = dot > 0 ? name.substring(dot) : "";
+        Path segment = out.resolveSibling(base + ".from" + fromTick + ext);
+        if (Files.exists(segment)) {
+            throw new FileAlreadyExistsException(segment.toString(), null, "segment déjà enregistré");
+        }
+        return segment;
+    }
+    
+    // Options de la forme --nom=valeur ou --drapeau
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Option inattendue: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
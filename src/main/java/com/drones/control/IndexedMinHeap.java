@@ -0,0 +1,117 @@
+package com.drones.control;
+import java.util.Arrays;
+
+/**
+ * Tas binaire min sur des identifiants entiers [0, capacity[, en tableaux
+ * primitifs. La position de chaque identifiant est suivie, ce qui permet
+ * de changer sa clé (dans les deux sens) ou de le retirer en O(log n).
+ * À clé égale, le plus petit identifiant sort en premier: l'ordre de
+ * sortie ne dépend pas de l'historique des insertions.
+ */
+public class IndexedMinHeap {
+    private final int[] heap;   // identifiants, ordonnés en tas
+    private final int[] pos;    // position de chaque identifiant dans heap, -1 si absent
+    private final long[] keys;  // clé de chaque identifiant
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        pos = new int[capacity];
+        keys = new long[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public boolean contains(int id) { return pos[id] >= 0; }
+    public long keyOf(int id) { return keys[id]; }
+
+    // Identifiant de plus petite clé (sans le retirer)
+    public int peek() {
+        return heap[0];
+    }
+
+    // Insérer, ou changer la clé si l'identifiant est déjà présent
+    public void put(int id, long key) {
+        if (pos[id] >= 0) {
+            long old = keys[id];
+            keys[id] = key;
+            if (key < old) siftUp(pos[id]); else siftDown(pos[id]);
+            return;
+        }
+        keys[id] = key;
+        heap[size] = id;
+        pos[id] = size;
+        siftUp(size++);
+    }
+
+    public int poll() {
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    public void remove(int id) {
+        if (pos[id] >= 0) {
+            removeAt(pos[id]);
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void removeAt(int i) {
+        int id = heap[i];
+        pos[id] = -1;
+        size--;
+        if (i == size) return;
+        int last = heap[size];
+        heap[i] = last;
+        pos[last] = i;
+        siftDown(i);
+        siftUp(pos[last]);
+    }
+
+    private boolean less(int a, int b) {
+        long ka = keys[a], kb = keys[b];
+        return ka < kb || (ka == kb && a < b);
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (!less(id, p)) break;
+            heap[i] = p;
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int c = heap[child];
+            int right = child + 1;
+            if (right < size && less(heap[right], c)) {
+                child = right;
+                c = heap[child];
+            }
+            if (!less(c, id)) break;
+            heap[i] = c;
+            pos[c] = i;
+            i = child;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+}
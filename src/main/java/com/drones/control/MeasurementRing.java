@@ -0,0 +1,85 @@
+package com.drones.control;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * File circulaire bornée de mesures, plusieurs producteurs et un seul
+ * consommateur, sans verrou.
+ *
+ * Les producteurs (drones, éventuellement sur d'autres threads) réservent
+ * un emplacement par compare-and-set sur la queue, écrivent les champs
+ * primitifs puis publient l'emplacement en avançant son numéro de
+ * séquence. Le consommateur (le thread qui fusionne la carte de croyance)
+ * lit les emplacements publiés dans l'ordre. File pleine: la mesure est
+ * abandonnée et comptée, le producteur ne bloque jamais.
+ */
+public class MeasurementRing {
+    // Destination des mesures retirées de la file
+    public interface Sink {
+        void accept(int x, int y, double value, int tick);
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequence; // numéro attendu par emplacement
+    private final int[] xs, ys, ticks;
+    private final double[] values;
+    private final AtomicLong tail = new AtomicLong(); // prochain emplacement à réserver
+    private final AtomicLong dropped = new AtomicLong();
+    private long head; // prochain emplacement à lire (consommateur uniquement)
+
+    public MeasurementRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity doit être une puissance de 2");
+        }
+        this.mask = capacity - 1;
+        this.sequence = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequence.set(i, i);
+        }
+        this.xs = new int[capacity];
+        this.ys = new int[capacity];
+        this.ticks = new int[capacity];
+        this.values = new double[capacity];
+    }
+
+    // Ajouter une mesure (tout thread). Retourne faux si la file est pleine.
+    public boolean offer(int x, int y, double value, int tick) {
+        while (true) {
+            long t = tail.get();
+            int slot = (int) t & mask;
+            long diff = sequence.get(slot) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    xs[slot] = x;
+                    ys[slot] = y;
+                    values[slot] = value;
+                    ticks[slot] = tick;
+                    sequence.set(slot, t + 1); // publication
+                    return true;
+                }
+            } else if (diff < 0) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            // diff > 0: un autre producteur a pris l'emplacement, réessayer
+        }
+    }
+
+    // Retirer toutes les mesures publiées (consommateur uniquement)
+    public int drainTo(Sink sink) {
+        int count = 0;
+        while (true) {
+            int slot = (int) head & mask;
+            if (sequence.get(slot) != head + 1) break; // pas encore publié
+            sink.accept(xs[slot], ys[slot], values[slot], ticks[slot]);
+            sequence.set(slot, head + mask + 1); // libre pour le tour suivant
+            head++;
+            count++;
+        }
+        return count;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,38 @@
+package com.drones.control;
+import com.drones.model.Drone;
+import com.drones.model.DroneState;
+import java.util.*;
+
+/**
+ * Stratégie centrale historique: pour chaque point chaud non couvert, le
+ * drone actif le plus proche y part puis rentre à la base la plus proche
+ * du point, quel que soit son plan en cours.
+ */
+public class NearestDroneRetasking implements RetaskingStrategy {
+
+    @Override
+    public void retask(List<Drone> drones, List<int[]> hotspots, int tick, List<int[]> dispatched) {
+        for (int[] hotspot : hotspots) {
+            if (RetaskingStrategy.isCovered(drones, hotspot)) {
+                continue;
+            }
+            // Trouver le drone actif le plus proche
+            Optional<Drone> nearest = drones.stream()
+                .filter(d -> d.getState() == DroneState.ACTIVE)
+                .min(Comparator.comparingDouble(d -> 
+                Math.sqrt(Math.pow(d.getX() - hotspot[0], 2) + 
+                Math.pow(d.getY() - hotspot[1], 2))));
+            
+            if (nearest.isPresent()) {
+                // Créer des points de passage d'urgence vers le point chaud
+                List<double[]> emergency = new ArrayList<>();
+                emergency.add(new double[]{hotspot[0], hotspot[1]});
+                emergency.add(nearest.get().baseNear(hotspot[0], hotspot[1])); // Retour à la base
+                nearest.get().setWaypoints(emergency);
+                if (dispatched != null) {
+                    dispatched.add(hotspot);
+                }
+            }
+        }
+    }
+}
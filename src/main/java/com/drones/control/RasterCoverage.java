@@ -0,0 +1,51 @@
+package com.drones.control;
+import com.drones.model.Drone;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Couverture par défaut: la carte est découpée en carrés, un par drone, que
+ * chaque drone balaie en raster (aller-retour ligne par ligne) avant de
+ * rentrer à la base la plus proche de la fin de son balayage.
+ */
+public class RasterCoverage implements CoverageStrategy {
+
+    @Override
+    public void plan(List<Drone> drones, int width, int height) {
+        int dronesPerRow = (int) Math.ceil(Math.sqrt(drones.size()));
+        int cellsPerDrone = width / dronesPerRow;
+        
+        for (int i = 0; i < drones.size(); i++) {
+            List<double[]> waypoints = new ArrayList<>();
+            
+            // Affecter une région à chaque drone
+            int row = i / dronesPerRow;
+            int col = i % dronesPerRow;
+            
+            int startX = col * cellsPerDrone;
+            int startY = row * cellsPerDrone;
+            int endX = Math.min((col + 1) * cellsPerDrone, width);
+            int endY = Math.min((row + 1) * cellsPerDrone, height);
+            
+            // Motif de balayage raster
+            for (int y = startY; y < endY; y++) {
+                if ((y - startY) % 2 == 0) {
+                    for (int x = startX; x < endX; x++) {
+                        waypoints.add(new double[]{x, y});
+                    }
+                } else {
+                    for (int x = endX - 1; x >= startX; x--) {
+                        waypoints.add(new double[]{x, y});
+                    }
+                }
+            }
+            
+            // Retour à la base
+            Drone drone = drones.get(i);
+            double[] last = waypoints.isEmpty() ? new double[]{drone.getX(), drone.getY()} : waypoints.get(waypoints.size() - 1);
+            waypoints.add(drone.baseNear(last[0], last[1]));
+            
+            drone.setWaypoints(waypoints);
+        }
+    }
+}
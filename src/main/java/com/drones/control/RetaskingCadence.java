@@ -0,0 +1,87 @@
+package com.drones.control;
+import java.io.*;
+
+/**
+ * Quand réaffecter: sur événement plutôt qu'à intervalle fixe. Un
+ * événement (nouveau foyer, drone de nouveau disponible, plan terminé)
+ * déclenche une réaffectation {@code debounceTicks} ticks plus tard, pour
+ * traiter d'un coup les événements rapprochés, et jamais moins de
+ * {@code minIntervalTicks} après la précédente. Tant que des points chauds
+ * sont connus, une réaffectation a lieu au moins tous les
+ * {@code maxIntervalTicks} ticks; sans point chaud ni événement, aucune.
+ *
+ * La prochaine échéance est connue à l'avance ({@link #nextDue}): les
+ * macro-pas du moteur s'arrêtent dessus.
+ */
+class RetaskingCadence {
+    static final int NEVER = Integer.MAX_VALUE;
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private final int debounceTicks;
+    private final int minIntervalTicks;
+    private final int maxIntervalTicks;
+    private int lastRetask;   // tick de la dernière réaffectation
+    private int quietSince;   // début de l'intervalle maximal: dernière réaffectation ou dernier tick sans point chaud
+    private int pendingSince; // tick du premier événement non traité, NONE si aucun
+    private long retasks;
+
+    RetaskingCadence(int debounceTicks, int minIntervalTicks, int maxIntervalTicks) {
+        this.debounceTicks = debounceTicks;
+        this.minIntervalTicks = minIntervalTicks;
+        this.maxIntervalTicks = maxIntervalTicks;
+        reset();
+    }
+
+    // Rien à réaffecter au départ: la première attend un événement
+    void reset() {
+        lastRetask = -minIntervalTicks;
+        quietSince = 0;
+        pendingSince = NONE;
+        retasks = 0;
+    }
+
+    // Un événement au tick donné justifie une réaffectation
+    void signal(int tick) {
+        if (pendingSince == NONE) pendingSince = tick;
+    }
+
+    boolean isPending() { return pendingSince != NONE; }
+    int getLastRetask() { return lastRetask; }
+    long getRetaskCount() { return retasks; }
+
+    // Tick de la prochaine réaffectation (NEVER: aucune prévue)
+    int nextDue(boolean hotspotsKnown) {
+        int due = hotspotsKnown ? quietSince + maxIntervalTicks : NEVER;
+        if (pendingSince != NONE) {
+            due = Math.min(due, Math.max(pendingSince + debounceTicks, lastRetask + minIntervalTicks));
+        }
+        return due;
+    }
+
+    // Appelé une fois par tick; sans point chaud, l'intervalle maximal repart de ce tick
+    boolean isDue(int tick, boolean hotspotsKnown) {
+        if (!hotspotsKnown) quietSince = tick;
+        return tick >= nextDue(hotspotsKnown);
+    }
+
+    void retasked(int tick) {
+        lastRetask = tick;
+        quietSince = tick;
+        pendingSince = NONE;
+        retasks++;
+    }
+
+    void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(lastRetask);
+        out.writeInt(quietSince);
+        out.writeInt(pendingSince);
+        out.writeLong(retasks);
+    }
+
+    void readState(DataInputStream in) throws IOException {
+        lastRetask = in.readInt();
+        quietSince = in.readInt();
+        pendingSince = in.readInt();
+        retasks = in.readLong();
+    }
+}
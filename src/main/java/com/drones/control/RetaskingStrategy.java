@@ -0,0 +1,31 @@
+package com.drones.control;
+import com.drones.model.Drone;
+import com.drones.model.DroneState;
+import java.util.List;
+
+/**
+ * Réaffectation des drones vers les points chauds de la carte de croyance,
+ * appelée périodiquement par {@link Coordinator#adaptiveRetasking}.
+ */
+public interface RetaskingStrategy {
+    // Un point chaud avec un drone actif à moins de cette distance est déjà couvert
+    double COVERED_RADIUS = 5;
+
+    /**
+     * Rediriger des drones vers les points chauds (x, y) donnés. Les points
+     * chauds vers lesquels un drone a été envoyé sont ajoutés à dispatched
+     * (si non null).
+     */
+    void retask(List<Drone> drones, List<int[]> hotspots, int tick, List<int[]> dispatched);
+
+    // Un drone actif survole-t-il déjà les environs du point chaud?
+    static boolean isCovered(List<Drone> drones, int[] hotspot) {
+        for (Drone d : drones) {
+            if (d.getState() == DroneState.ACTIVE
+                    && Math.sqrt(Math.pow(d.getX() - hotspot[0], 2) + Math.pow(d.getY() - hotspot[1], 2)) < COVERED_RADIUS) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
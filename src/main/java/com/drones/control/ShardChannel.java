@@ -0,0 +1,141 @@
+package com.drones.control;
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/**
+ * Liaison binaire entre le coordinateur et un processus de shard (voir
+ * {@link ShardCoordinator}), en TCP local ou en socket Unix. Chaque trame
+ * est faite de sa longueur (int, type compris), d'un octet de type et de
+ * la charge utile, en big-endian. Les tampons sont réutilisés d'une trame
+ * à l'autre et ne grandissent que si nécessaire.
+ *
+ * Adresses: {@code hôte:port} ou {@code unix:/chemin/du/socket}.
+ */
+final class ShardChannel implements Closeable {
+    // Coordinateur -> shard: paramètres de la simulation et place du shard
+    static final byte CONFIG = 1;
+    // Dans les deux sens: lignes de bord, une fois par sous-pas
+    static final byte HALO = 2;
+    // Shard -> coordinateur: drones sortis, détections et drones libres
+    static final byte MOVED = 3;
+    // Coordinateur -> shard: drones arrivés et réaffectations
+    static final byte ARRIVALS = 4;
+    // Shard -> coordinateur: bilan final
+    static final byte DONE = 5;
+
+    private static final String UNIX_PREFIX = "unix:";
+
+    private final SocketChannel channel;
+    private ByteBuffer out = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer in = ByteBuffer.allocate(1 << 16);
+    private final ByteBuffer header = ByteBuffer.allocate(5);
+
+    ShardChannel(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    static ShardChannel connect(String address) throws IOException {
+        SocketAddress target = parseAddress(address);
+        SocketChannel channel = SocketChannel.open(target);
+        if (target instanceof InetSocketAddress) {
+            // Trames courtes et nombreuses: pas d'attente de Nagle
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+        return new ShardChannel(channel);
+    }
+
+    static ServerSocketChannel listen(String address) throws IOException {
+        SocketAddress local = parseAddress(address);
+        if (local instanceof UnixDomainSocketAddress) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) local).getPath());
+            return ServerSocketChannel.open(StandardProtocolFamily.UNIX).bind(local);
+        }
+        return ServerSocketChannel.open().bind(local);
+    }
+
+    static ShardChannel accept(ServerSocketChannel server) throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel.getRemoteAddress() instanceof InetSocketAddress) {
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        }
+        return new ShardChannel(channel);
+    }
+
+    static SocketAddress parseAddress(String address) {
+        if (address.startsWith(UNIX_PREFIX)) {
+            return UnixDomainSocketAddress.of(address.substring(UNIX_PREFIX.length()));
+        }
+        int colon = address.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Adresse attendue hôte:port ou unix:/chemin, reçu " + address);
+        }
+        return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+    }
+
+    /**
+     * Commencer une trame; payloadBound majore la charge utile. Le tampon
+     * retourné se remplit avec les put*() de ByteBuffer puis {@link #send()}.
+     */
+    ByteBuffer frame(byte type, int payloadBound) {
+        int needed = 5 + payloadBound;
+        if (out.capacity() < needed) {
+            out = ByteBuffer.allocate(Math.max(needed, 2 * out.capacity()));
+        }
+        out.clear();
+        out.putInt(0).put(type);
+        return out;
+    }
+
+    void send() throws IOException {
+        out.putInt(0, out.position() - 4);
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+    }
+
+    // Lire la trame suivante, qui doit être du type attendu; tampon positionné sur la charge utile
+    ByteBuffer receive(byte expected) throws IOException {
+        header.clear();
+        readFully(header);
+        header.flip();
+        int length = header.getInt();
+        byte type = header.get();
+        if (type != expected) {
+            throw new IOException("Trame de type " + type + " au lieu de " + expected);
+        }
+        if (in.capacity() < length - 1) {
+            in = ByteBuffer.allocate(Math.max(length - 1, 2 * in.capacity()));
+        }
+        in.clear().limit(length - 1);
+        readFully(in);
+        in.flip();
+        return in;
+    }
+
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Liaison fermée par le pair");
+            }
+        }
+    }
+
+    static void putDoubles(ByteBuffer buffer, double[] values) {
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + 8 * values.length);
+    }
+
+    static void getDoubles(ByteBuffer buffer, double[] values) {
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + 8 * values.length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
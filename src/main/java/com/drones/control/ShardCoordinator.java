@@ -0,0 +1,269 @@
+package com.drones.control;
+import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+import com.drones.model.AdvectionDiffusionSolver;
+import com.drones.model.WindField;
+import java.io.*;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.util.*;
+
+/**
+ * Coordinateur d'une simulation répartie sur plusieurs processus, un par
+ * shard ({@link ShardWorker}). Il attend la connexion des shards, leur
+ * attribue leur bande de lignes dans l'ordre d'arrivée, puis fait office
+ * de barrière: à chaque sous-pas il reçoit les lignes de bord de tous les
+ * shards et renvoie à chacun celles de ses voisins; en fin de tick il
+ * reçoit les drones sortants et les transmet au shard d'arrivée. Ni la
+ * grille ni les drones ne sont en mémoire ici: la flotte peut dépasser ce
+ * que tient un seul tas.
+ *
+ * Réaffectation globale: tous les retaskInterval ticks, les shards
+ * signalent les cellules où une détection a eu lieu et leurs drones
+ * actifs sans plan; chaque cellule reçoit le drone libre le plus proche.
+ *
+ * Exemple sur une seule machine (un coordinateur, quatre shards):
+ * <pre>
+ * java -cp swarm-simulator.jar com.drones.control.ShardCoordinator \
+ *     --listen=unix:/tmp/drones.sock --shards=4 --width=4000 --height=4000 \
+ *     --drones=200000 --ticks=1000 --retask-interval=30 &amp;
+ * for i in 1 2 3 4; do
+ *     java -cp swarm-simulator.jar com.drones.control.ShardWorker --connect=unix:/tmp/drones.sock &amp;
+ * done
+ * </pre>
+ */
+public class ShardCoordinator implements Closeable {
+    private final ServerSocketChannel server;
+    private final int shardCount, width, height, droneCount, ticks, retaskInterval;
+    private final long seed;
+    private final SimulationScenario scenario;
+    private final int[] bounds;
+    private long detections, handoffs, retasks;
+    private int finalDroneCount;
+
+    public ShardCoordinator(String address, int shardCount, int width, int height, int droneCount,
+                            long seed, SimulationScenario scenario, int ticks, int retaskInterval) throws IOException {
+        if (shardCount < 1 || shardCount > height) {
+            throw new IllegalArgumentException("Nombre de shards invalide: " + shardCount);
+        }
+        this.server = ShardChannel.listen(address);
+        this.shardCount = shardCount;
+        this.width = width;
+        this.height = height;
+        this.droneCount = droneCount;
+        this.seed = seed;
+        this.scenario = scenario;
+        this.ticks = ticks;
+        this.retaskInterval = retaskInterval;
+        this.bounds = ShardedSimulation.rowBounds(height, shardCount);
+    }
+
+    // Adresse d'écoute effective (port choisi par le système si 0)
+    public SocketAddress getLocalAddress() throws IOException {
+        return server.getLocalAddress();
+    }
+
+    public long getDetections() { return detections; }
+    public long getHandoffs() { return handoffs; }
+    public long getRetasks() { return retasks; }
+    public int getFinalDroneCount() { return finalDroneCount; }
+
+    // Attendre les shards, conduire tous les ticks et recueillir les bilans
+    public void run() throws IOException {
+        ShardChannel[] links = new ShardChannel[shardCount];
+        try {
+            for (int s = 0; s < shardCount; s++) {
+                links[s] = ShardChannel.accept(server);
+                ByteBuffer config = links[s].frame(ShardChannel.CONFIG, 44);
+                config.putInt(s).putInt(shardCount).putInt(width).putInt(height).putInt(droneCount)
+                      .putLong(seed).putInt(scenario.ordinal()).putInt(ticks).putInt(retaskInterval);
+                links[s].send();
+            }
+
+            int steps = substepsPerTick();
+            double[][] first = new double[shardCount][width], last = new double[shardCount][width];
+            for (int t = 0; t < ticks; t++) {
+                for (int step = 0; step < steps; step++) {
+                    exchangeHalos(links, first, last);
+                }
+                exchangeDrones(links);
+            }
+
+            for (ShardChannel link : links) {
+                ByteBuffer done = link.receive(ShardChannel.DONE);
+                detections += done.getLong();
+                finalDroneCount += done.getInt();
+            }
+        } finally {
+            for (ShardChannel link : links) {
+                if (link != null) link.close();
+            }
+        }
+    }
+
+    // Même découpage en sous-pas que les tuiles (vent uniforme du scénario)
+    private int substepsPerTick() {
+        AdvectionDiffusionSolver solver = new AdvectionDiffusionSolver(1, 1);
+        solver.setDiffusivity(scenario.diffusivity);
+        solver.setWind(WindField.uniform(1, 1, scenario.windU, scenario.windV));
+        return solver.substepsFor(SimulationParams.TICK_DURATION_MS / 1000.0);
+    }
+
+    private void exchangeHalos(ShardChannel[] links, double[][] first, double[][] last) throws IOException {
+        for (int s = 0; s < shardCount; s++) {
+            ByteBuffer in = links[s].receive(ShardChannel.HALO);
+            ShardChannel.getDoubles(in, first[s]);
+            ShardChannel.getDoubles(in, last[s]);
+        }
+        for (int s = 0; s < shardCount; s++) {
+            boolean north = s > 0, south = s < shardCount - 1;
+            ByteBuffer out = links[s].frame(ShardChannel.HALO, 1 + 16 * width);
+            out.put((byte) ((north ? 1 : 0) | (south ? 2 : 0)));
+            if (north) ShardChannel.putDoubles(out, last[s - 1]);
+            if (south) ShardChannel.putDoubles(out, first[s + 1]);
+            links[s].send();
+        }
+    }
+
+    private void exchangeDrones(ShardChannel[] links) throws IOException {
+        List<List<byte[]>> arrivals = new ArrayList<>();
+        for (int s = 0; s < shardCount; s++) arrivals.add(new ArrayList<>());
+        TreeSet<Integer> detectedCells = new TreeSet<>();
+        // Drones libres: identifiant, x, y
+        List<double[]> idle = new ArrayList<>();
+        for (int s = 0; s < shardCount; s++) {
+            ByteBuffer in = links[s].receive(ShardChannel.MOVED);
+            for (int n = in.getInt(); n > 0; n--) {
+                int target = in.getInt();
+                byte[] state = new byte[in.getInt()];
+                in.get(state);
+                arrivals.get(target).add(state);
+                handoffs++;
+            }
+            for (int n = in.getInt(); n > 0; n--) {
+                detectedCells.add(in.getInt());
+            }
+            for (int n = in.getInt(); n > 0; n--) {
+                idle.add(new double[]{in.getInt(), in.getDouble(), in.getDouble()});
+            }
+        }
+
+        List<List<double[]>> assigned = assignIdleDrones(detectedCells, idle);
+        for (int s = 0; s < shardCount; s++) {
+            int bytes = 0;
+            for (byte[] state : arrivals.get(s)) bytes += 4 + state.length;
+            ByteBuffer out = links[s].frame(ShardChannel.ARRIVALS, 8 + bytes + 20 * assigned.get(s).size());
+            out.putInt(arrivals.get(s).size());
+            for (byte[] state : arrivals.get(s)) {
+                out.putInt(state.length).put(state);
+            }
+            out.putInt(assigned.get(s).size());
+            for (double[] task : assigned.get(s)) {
+                out.putInt((int) task[0]).putDouble(task[1]).putDouble(task[2]);
+            }
+            links[s].send();
+        }
+    }
+
+    // Chaque cellule détectée reçoit le drone libre le plus proche; tâches (id, x, y) par shard du drone
+    List<List<double[]>> assignIdleDrones(TreeSet<Integer> cells, List<double[]> idle) {
+        List<List<double[]>> tasks = new ArrayList<>();
+        for (int s = 0; s < shardCount; s++) tasks.add(new ArrayList<>());
+        if (idle.isEmpty()) {
+            return tasks;
+        }
+        // Drones libres par cases d'environ un drone (listes chaînées, comme AgentSwarm),
+        // insérés à rebours pour que chaque liste soit dans l'ordre des indices
+        double side = Math.max(1, Math.sqrt((double) width * height / idle.size()));
+        int bucketsX = (int) Math.ceil(width / side), bucketsY = (int) Math.ceil(height / side);
+        int[] head = new int[bucketsX * bucketsY];
+        int[] next = new int[idle.size()];
+        Arrays.fill(head, -1);
+        for (int i = idle.size() - 1; i >= 0; i--) {
+            int b = bucketOf(idle.get(i), side, bucketsX, bucketsY);
+            next[i] = head[b];
+            head[b] = i;
+        }
+        int remaining = idle.size();
+        for (int cell : cells) {
+            if (remaining == 0) {
+                break;
+            }
+            double cx = cell % width + 0.5, cy = cell / width + 0.5;
+            int bx = Math.min(bucketsX - 1, (int) (cx / side)), by = Math.min(bucketsY - 1, (int) (cy / side));
+            int best = -1;
+            double bestDist = Double.MAX_VALUE;
+            // Anneaux de cases autour de la cellule, jusqu'à ce qu'aucun drone plus proche ne soit possible
+            int rings = Math.max(Math.max(bx, bucketsX - 1 - bx), Math.max(by, bucketsY - 1 - by));
+            for (int r = 0; r <= rings; r++) {
+                double reach = Math.max(0, r - 1) * side;
+                if (best >= 0 && reach * reach > bestDist) break;
+                for (int y = Math.max(0, by - r); y <= Math.min(bucketsY - 1, by + r); y++) {
+                    int step = y == by - r || y == by + r ? 1 : 2 * r;
+                    for (int x = bx - r; x <= bx + r; x += step) {
+                        if (x < 0 || x >= bucketsX) continue;
+                        for (int i = head[y * bucketsX + x]; i >= 0; i = next[i]) {
+                            double[] d = idle.get(i);
+                            double dist = (d[1] - cx) * (d[1] - cx) + (d[2] - cy) * (d[2] - cy);
+                            // À égalité, le plus petit indice
+                            if (dist < bestDist || (dist == bestDist && i < best)) {
+                                best = i;
+                                bestDist = dist;
+                            }
+                        }
+                    }
+                }
+            }
+            // Retirer le drone de sa case
+            double[] drone = idle.get(best);
+            int b = bucketOf(drone, side, bucketsX, bucketsY);
+            if (head[b] == best) {
+                head[b] = next[best];
+            } else {
+                int prev = head[b];
+                while (next[prev] != best) prev = next[prev];
+                next[prev] = next[best];
+            }
+            remaining--;
+            // Le drone appartient désormais au shard de sa position (après les passages du tick)
+            tasks.get(ShardedSimulation.shardOf(bounds, drone[2])).add(new double[]{drone[0], cx, cy});
+            retasks++;
+        }
+        return tasks;
+    }
+
+    private static int bucketOf(double[] drone, double side, int bucketsX, int bucketsY) {
+        int bx = Math.max(0, Math.min(bucketsX - 1, (int) (drone[1] / side)));
+        int by = Math.max(0, Math.min(bucketsY - 1, (int) (drone[2] / side)));
+        return by * bucketsX + bx;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = HeadlessRunner.parseArgs(args);
+        int shards = Integer.parseInt(options.getOrDefault("shards", "4"));
+        int width = Integer.parseInt(options.getOrDefault("width", "2000"));
+        int height = Integer.parseInt(options.getOrDefault("height", "2000"));
+        int drones = Integer.parseInt(options.getOrDefault("drones", "5000"));
+        int ticks = Integer.parseInt(options.getOrDefault("ticks", "500"));
+        int retaskInterval = Integer.parseInt(options.getOrDefault("retask-interval", "30"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        SimulationScenario scenario = SimulationScenario.valueOf(options.getOrDefault("scenario", "NORMAL_SCENARIO"));
+
+        try (ShardCoordinator coordinator = new ShardCoordinator(options.getOrDefault("listen", "127.0.0.1:7070"),
+                shards, width, height, drones, seed, scenario, ticks, retaskInterval)) {
+            System.out.println("En attente de " + shards + " shards sur " + coordinator.getLocalAddress());
+            long start = System.nanoTime();
+            coordinator.run();
+            double elapsedS = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%d ticks en %.2f s (%.1f ticks/s): %d drones, %d passages, %d réaffectations, %d détections%n",
+                ticks, elapsedS, ticks / elapsedS, coordinator.getFinalDroneCount(), coordinator.getHandoffs(),
+                coordinator.getRetasks(), coordinator.getDetections());
+        }
+    }
+}
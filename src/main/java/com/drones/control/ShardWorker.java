@@ -0,0 +1,177 @@
+package com.drones.control;
+import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+import com.drones.model.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Processus d'un shard dans une simulation répartie: se connecte au
+ * {@link ShardCoordinator}, reçoit sa bande de lignes et fait avancer sa
+ * tuile et ses drones au rythme du coordinateur. Même déroulement de tick
+ * que {@link ShardedSimulation}, les barrières étant les réponses du
+ * coordinateur: lignes de bord à chaque sous-pas, drones sortants à la
+ * fin du tick. Seuls les drones de la bande sont en mémoire.
+ *
+ * Exemple (un processus par shard, le coordinateur attend leur connexion):
+ * <pre>
+ * java -cp swarm-simulator.jar com.drones.control.ShardWorker --connect=127.0.0.1:7070
+ * </pre>
+ */
+public class ShardWorker {
+    private final ShardChannel link;
+    private int index;
+    private int[] bounds;
+    private int ticks, retaskInterval;
+    private EnvironmentTile tile;
+    private List<Drone> drones;
+    private BitSet detectedCells; // cellules (locales) détectées depuis le dernier rapport
+    private long detections;
+
+    private ShardWorker(ShardChannel link) {
+        this.link = link;
+    }
+
+    public static ShardWorker connect(String address) throws IOException {
+        return new ShardWorker(ShardChannel.connect(address));
+    }
+
+    public int getIndex() { return index; }
+    public EnvironmentTile getTile() { return tile; }
+    public List<Drone> getDrones() { return drones; }
+    public long getDetections() { return detections; }
+
+    // Recevoir la configuration, simuler jusqu'au bout puis envoyer le bilan
+    public void run() throws IOException {
+        try (link) {
+            configure(link.receive(ShardChannel.CONFIG));
+            for (int t = 0; t < ticks; t++) {
+                tick(retaskInterval > 0 && t % retaskInterval == 0);
+            }
+            ByteBuffer done = link.frame(ShardChannel.DONE, 12);
+            done.putLong(detections).putInt(drones.size());
+            link.send();
+        }
+    }
+
+    private void configure(ByteBuffer config) {
+        index = config.getInt();
+        int shardCount = config.getInt();
+        int width = config.getInt();
+        int height = config.getInt();
+        int droneCount = config.getInt();
+        long seed = config.getLong();
+        SimulationScenario scenario = SimulationScenario.values()[config.getInt()];
+        ticks = config.getInt();
+        retaskInterval = config.getInt();
+
+        bounds = ShardedSimulation.rowBounds(height, shardCount);
+        tile = new EnvironmentTile(width, height, bounds[index], bounds[index + 1], seed, scenario);
+        drones = ShardedRunner.wanderingFleet(droneCount, width, height, seed, bounds[index], bounds[index + 1]);
+        detectedCells = new BitSet();
+    }
+
+    private void tick(boolean report) throws IOException {
+        int width = tile.getWidth();
+        long tickMs = SimulationParams.TICK_DURATION_MS;
+        int steps = tile.beginTick(tickMs);
+        double[] north = new double[width], south = new double[width];
+        for (int s = 0; s < steps; s++) {
+            ByteBuffer halo = link.frame(ShardChannel.HALO, 16 * width);
+            ShardChannel.putDoubles(halo, tile.firstRow());
+            ShardChannel.putDoubles(halo, tile.lastRow());
+            link.send();
+            ByteBuffer in = link.receive(ShardChannel.HALO);
+            byte sides = in.get();
+            if ((sides & 1) != 0) ShardChannel.getDoubles(in, north);
+            if ((sides & 2) != 0) ShardChannel.getDoubles(in, south);
+            tile.setHalo((sides & 1) != 0 ? north : null, (sides & 2) != 0 ? south : null);
+            tile.substep();
+        }
+        tile.endTick();
+
+        // Déplacement; les drones sortis de la bande partent avec leur état complet
+        List<Integer> targets = new ArrayList<>();
+        List<byte[]> leaving = new ArrayList<>();
+        int kept = 0, bytes = 0;
+        for (int i = 0; i < drones.size(); i++) {
+            Drone drone = drones.get(i);
+            drone.update(tickMs);
+            int target = ShardedSimulation.shardOf(bounds, drone.getY());
+            if (target == index) {
+                drones.set(kept++, drone);
+            } else {
+                ByteArrayOutputStream state = new ByteArrayOutputStream();
+                drone.writeState(new DataOutputStream(state));
+                targets.add(target);
+                leaving.add(state.toByteArray());
+                bytes += state.size();
+            }
+        }
+        drones.subList(kept, drones.size()).clear();
+
+        // Détections et drones libres pour la réaffectation globale
+        List<Drone> idle = new ArrayList<>();
+        if (report) {
+            for (Drone drone : drones) {
+                if (drone.getState() == DroneState.ACTIVE && !drone.hasWaypoints()) idle.add(drone);
+            }
+        }
+        int detected = report ? detectedCells.cardinality() : 0;
+        ByteBuffer moved = link.frame(ShardChannel.MOVED, 12 + 8 * leaving.size() + bytes + 4 * detected + 20 * idle.size());
+        moved.putInt(leaving.size());
+        for (int i = 0; i < leaving.size(); i++) {
+            moved.putInt(targets.get(i)).putInt(leaving.get(i).length).put(leaving.get(i));
+        }
+        moved.putInt(detected);
+        if (report) {
+            int offset = tile.getY0() * width;
+            for (int c = detectedCells.nextSetBit(0); c >= 0; c = detectedCells.nextSetBit(c + 1)) {
+                moved.putInt(offset + c);
+            }
+            detectedCells.clear();
+        }
+        moved.putInt(idle.size());
+        for (Drone drone : idle) {
+            moved.putInt(drone.getId()).putDouble(drone.getX()).putDouble(drone.getY());
+        }
+        link.send();
+
+        // Arrivées, réaffectations, puis mesures dans la tuile
+        ByteBuffer in = link.receive(ShardChannel.ARRIVALS);
+        for (int n = in.getInt(); n > 0; n--) {
+            byte[] state = new byte[in.getInt()];
+            in.get(state);
+            drones.add(Drone.readState(new DataInputStream(new ByteArrayInputStream(state))));
+        }
+        int retasks = in.getInt();
+        if (retasks > 0) {
+            Map<Integer, Drone> byId = new HashMap<>();
+            for (Drone drone : drones) byId.put(drone.getId(), drone);
+            for (int r = 0; r < retasks; r++) {
+                Drone drone = byId.get(in.getInt());
+                double[] target = {in.getDouble(), in.getDouble()};
+                if (drone != null) {
+                    drone.setWaypoints(Collections.singletonList(target));
+                }
+            }
+        }
+        for (Drone drone : drones) {
+            if (drone.getState() == DroneState.ACTIVE
+                    && tile.getAnomalyAt(drone.getX(), drone.getY()) > SimulationParams.ANOMALY_DETECTION_THRESHOLD) {
+                detections++;
+                int cell = ((int) Math.floor(drone.getY()) - tile.getY0()) * width + (int) Math.floor(drone.getX());
+                detectedCells.set(cell);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = HeadlessRunner.parseArgs(args);
+        ShardWorker worker = connect(options.getOrDefault("connect", "127.0.0.1:7070"));
+        worker.run();
+        System.out.printf("Shard %d: lignes [%d, %d[, %d drones, %d détections%n", worker.getIndex(),
+            worker.getTile().getY0(), worker.getTile().getY1(), worker.getDrones().size(), worker.getDetections());
+    }
+}
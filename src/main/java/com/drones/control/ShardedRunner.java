@@ -0,0 +1,70 @@
+package com.drones.control;
+import com.drones.config.SimulationScenario;
+import com.drones.model.Drone;
+import com.drones.model.SimRandom;
+import java.util.*;
+
+/**
+ * Mesure du débit d'une carte à l'échelle d'une ville découpée en shards
+ * (voir {@link ShardedSimulation}). Les drones partent de positions
+ * aléatoires et parcourent des points de passage aléatoires.
+ *
+ * Exemple, à comparer avec {@code --shards=1}:
+ * <pre>
+ * java -cp swarm-simulator.jar com.drones.control.ShardedRunner \
+ *     --width=2000 --height=2000 --drones=5000 --shards=8 --ticks=500
+ * </pre>
+ */
+public class ShardedRunner {
+    private static final int WAYPOINTS_PER_DRONE = 20;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = HeadlessRunner.parseArgs(args);
+        int width = Integer.parseInt(options.getOrDefault("width", "2000"));
+        int height = Integer.parseInt(options.getOrDefault("height", "2000"));
+        int droneCount = Integer.parseInt(options.getOrDefault("drones", "5000"));
+        int shardCount = Integer.parseInt(options.getOrDefault("shards",
+            String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int ticks = Integer.parseInt(options.getOrDefault("ticks", "500"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        SimulationScenario scenario = SimulationScenario.valueOf(options.getOrDefault("scenario", "NORMAL_SCENARIO"));
+
+        List<Drone> drones = wanderingFleet(droneCount, width, height, seed, 0, height);
+        ShardedSimulation simulation = new ShardedSimulation(width, height, shardCount, seed, scenario, drones);
+        long start = System.nanoTime();
+        simulation.run(ticks);
+        double elapsedS = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%dx%d, %d drones, %d shards: %d ticks en %.2f s (%.1f ticks/s, %.0f Mcellules/s), %d détections%n",
+            width, height, droneCount, shardCount, ticks, elapsedS, ticks / elapsedS,
+            (double) width * height * ticks / elapsedS / 1e6, simulation.getDetections());
+    }
+
+    /**
+     * Flotte de drones aux positions et points de passage aléatoires. Seuls
+     * les drones partant des lignes [y0, y1[ sont créés, mais la suite
+     * aléatoire est tirée pour toute la flotte: chaque processus d'une
+     * simulation répartie ne construit que ses drones.
+     */
+    static List<Drone> wanderingFleet(int count, int width, int height, long seed, int y0, int y1) {
+        SimRandom random = new SimRandom(seed);
+        List<Drone> drones = new ArrayList<>();
+        double[] path = new double[2 * WAYPOINTS_PER_DRONE];
+        for (int i = 0; i < count; i++) {
+            int x = random.nextInt(width), y = random.nextInt(height);
+            for (int k = 0; k < path.length; k += 2) {
+                path[k] = random.nextInt(width);
+                path[k + 1] = random.nextInt(height);
+            }
+            if (y >= y0 && y < y1) {
+                Drone drone = new Drone(i, x, y);
+                List<double[]> waypoints = new ArrayList<>();
+                for (int k = 0; k < path.length; k += 2) {
+                    waypoints.add(new double[]{path[k], path[k + 1]});
+                }
+                drone.setWaypoints(waypoints);
+                drones.add(drone);
+            }
+        }
+        return drones;
+    }
+}
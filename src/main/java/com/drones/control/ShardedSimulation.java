@@ -0,0 +1,227 @@
+package com.drones.control;
+import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+import com.drones.model.*;
+import java.util.*;
+import java.util.concurrent.Phaser;
+
+/**
+ * Simulation d'une grande carte découpée en bandes horizontales de lignes
+ * (shards). Chaque shard possède une tuile de l'environnement
+ * ({@link EnvironmentTile}) et les drones qui la survolent, et avance sur
+ * son propre thread. Il n'y a pas de verrou: les shards se synchronisent
+ * à chaque sous-pas du transport (échange des lignes de bord) et à la fin
+ * de chaque tick (passage des drones qui ont franchi une frontière), par
+ * un {@link Phaser}.
+ *
+ * Déroulement d'un tick pour un shard:
+ * <ol>
+ *   <li>apparitions, puis pour chaque sous-pas: copie des lignes de bord
+ *       des voisins, barrière, sous-pas, barrière;</li>
+ *   <li>sources et décroissance des anomalies, déplacement des drones;
+ *       ceux qui ont quitté la bande sont déposés dans la boîte du shard
+ *       d'arrivée, barrière;</li>
+ *   <li>adoption des drones arrivés et mesure des drones actifs, dans la
+ *       tuile qui les possède désormais.</li>
+ * </ol>
+ * Les boîtes de drones sont indexées par shard d'origine: chacune n'a
+ * qu'un écrivain, et les barrières séparent écriture et lecture.
+ *
+ * Le champ est exactement celui d'un {@link Environment} de même graine et
+ * le résultat ne dépend pas du nombre de shards. Seule la couche physique
+ * est découpée: les drones suivent leurs points de passage et le retour à
+ * la base, sans coordinateur (la réaffectation centrale de
+ * {@link SimulationEngine} reste à un seul moteur).
+ */
+public class ShardedSimulation {
+    private final int width, height;
+    private final Shard[] shards;
+    private final int[] bounds;
+    private int tickCount;
+
+    public ShardedSimulation(int width, int height, int shardCount, long seed,
+                             SimulationScenario scenario, List<Drone> drones) {
+        if (shardCount < 1 || shardCount > height) {
+            throw new IllegalArgumentException("Nombre de shards invalide: " + shardCount);
+        }
+        this.width = width;
+        this.height = height;
+        this.shards = new Shard[shardCount];
+        this.bounds = rowBounds(height, shardCount);
+        for (int s = 0; s < shardCount; s++) {
+            shards[s] = new Shard(s, new EnvironmentTile(width, height, bounds[s], bounds[s + 1], seed, scenario),
+                shardCount);
+        }
+        for (Drone drone : drones) {
+            shards[shardOf(drone.getY())].drones.add(drone);
+        }
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getShardCount() { return shards.length; }
+    public int getTickCount() { return tickCount; }
+    public EnvironmentTile getTile(int shard) { return shards[shard].tile; }
+
+    // Shard qui possède la ligne de l'ordonnée y (bornée à la grille)
+    public int shardOf(double y) {
+        return shardOf(bounds, y);
+    }
+
+    // Lignes de départ des shards, plus la hauteur: shard s = [bounds[s], bounds[s + 1][
+    static int[] rowBounds(int height, int shardCount) {
+        int[] bounds = new int[shardCount + 1];
+        for (int s = 0; s <= shardCount; s++) {
+            bounds[s] = (int) ((long) s * height / shardCount);
+        }
+        return bounds;
+    }
+
+    static int shardOf(int[] bounds, double y) {
+        int shardCount = bounds.length - 1;
+        int height = bounds[shardCount];
+        int iy = Math.max(0, Math.min(height - 1, (int) Math.floor(y)));
+        int s = (int) ((long) iy * shardCount / height);
+        // Les bornes entières arrondissent vers le bas: corriger d'un shard au plus
+        while (iy < bounds[s]) s--;
+        while (iy >= bounds[s + 1]) s++;
+        return s;
+    }
+
+    // Intensité en (x, y), entre deux appels à run()
+    public double getAnomalyAt(double x, double y) {
+        return shards[shardOf(y)].tile.getAnomalyAt(x, y);
+    }
+
+    // Drones de tous les shards, par identifiant
+    public List<Drone> getDrones() {
+        List<Drone> all = new ArrayList<>();
+        for (Shard shard : shards) {
+            all.addAll(shard.drones);
+        }
+        all.sort(Comparator.comparingInt(Drone::getId));
+        return all;
+    }
+
+    public int getDroneCount(int shard) { return shards[shard].drones.size(); }
+
+    // Mesures de drones actifs au-dessus du seuil de détection
+    public long getDetections() {
+        long total = 0;
+        for (Shard shard : shards) {
+            total += shard.detections;
+        }
+        return total;
+    }
+
+    /**
+     * Avancer de ticks ticks, un thread par shard (le thread appelant
+     * prend le premier). Retourne quand tous les shards ont fini.
+     */
+    public void run(int ticks) throws InterruptedException {
+        Phaser phaser = new Phaser(shards.length);
+        Thread[] threads = new Thread[shards.length];
+        RuntimeException[] failure = new RuntimeException[1];
+        for (int s = 1; s < shards.length; s++) {
+            Shard shard = shards[s];
+            threads[s] = new Thread(() -> {
+                try {
+                    shard.run(ticks, phaser);
+                } catch (RuntimeException e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                    // Libérer les autres shards bloqués sur la barrière
+                    phaser.forceTermination();
+                }
+            }, "shard-" + s);
+            threads[s].start();
+        }
+        try {
+            shards[0].run(ticks, phaser);
+        } catch (RuntimeException e) {
+            phaser.forceTermination();
+            throw e;
+        } finally {
+            for (int s = 1; s < shards.length; s++) {
+                threads[s].join();
+            }
+        }
+        synchronized (failure) {
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        if (phaser.isTerminated()) {
+            throw new IllegalStateException("Barrière interrompue");
+        }
+        tickCount += ticks;
+    }
+
+    private final class Shard {
+        final int index;
+        final EnvironmentTile tile;
+        final List<Drone> drones = new ArrayList<>();
+        // inbox[s]: drones venus du shard s, écrits par lui seul
+        final List<Drone>[] inbox;
+        long detections;
+
+        @SuppressWarnings("unchecked")
+        Shard(int index, EnvironmentTile tile, int shardCount) {
+            this.index = index;
+            this.tile = tile;
+            this.inbox = (List<Drone>[]) new List<?>[shardCount];
+            for (int s = 0; s < shardCount; s++) {
+                inbox[s] = new ArrayList<>();
+            }
+        }
+
+        void run(int ticks, Phaser phaser) {
+            EnvironmentTile north = index > 0 ? shards[index - 1].tile : null;
+            EnvironmentTile south = index < shards.length - 1 ? shards[index + 1].tile : null;
+            long tickMs = SimulationParams.TICK_DURATION_MS;
+            for (int t = 0; t < ticks; t++) {
+                int steps = tile.beginTick(tickMs);
+                for (int s = 0; s < steps; s++) {
+                    // Les voisins ne basculent leur grille qu'une fois les bords de tous copiés
+                    tile.setHalo(north, south);
+                    await(phaser);
+                    tile.substep();
+                    await(phaser);
+                }
+                tile.endTick();
+
+                int kept = 0;
+                for (int i = 0; i < drones.size(); i++) {
+                    Drone drone = drones.get(i);
+                    drone.update(tickMs);
+                    int target = shardOf(drone.getY());
+                    if (target == index) {
+                        drones.set(kept++, drone);
+                    } else {
+                        shards[target].inbox[index].add(drone);
+                    }
+                }
+                drones.subList(kept, drones.size()).clear();
+                await(phaser);
+
+                for (List<Drone> arrivals : inbox) {
+                    drones.addAll(arrivals);
+                    arrivals.clear();
+                }
+                for (Drone drone : drones) {
+                    if (drone.getState() == DroneState.ACTIVE
+                            && tile.getAnomalyAt(drone.getX(), drone.getY()) > SimulationParams.ANOMALY_DETECTION_THRESHOLD) {
+                        detections++;
+                    }
+                }
+            }
+        }
+
+        private void await(Phaser phaser) {
+            if (phaser.arriveAndAwaitAdvance() < 0) {
+                throw new IllegalStateException("Barrière interrompue (shard " + index + ")");
+            }
+        }
+    }
+}
@@ -1,102 +1,234 @@
 package com.drones.control;
+import com.drones.config.Plugins;
 import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+import com.drones.metrics.GridFrameRecorder;
 import com.drones.model.*;
+import java.io.*;
 import java.util.*;
 public class SimulationEngine {
+    private static final int CHECKPOINT_MAGIC = 0x44434B50; // "DCKP"
+    private static final int CHECKPOINT_VERSION = 10;
+    
     private Environment environment;
     private List<Drone> drones;
     private long simulationTime;
     private boolean running;
     private SimulationMetrics metrics;
     private Coordinator coordinator;
+    private final RetaskingCadence cadence = new RetaskingCadence(SimulationParams.RETASKING_DEBOUNCE_TICKS,
+        SimulationParams.RETASKING_MIN_INTERVAL_TICKS, SimulationParams.RETASKING_MAX_INTERVAL_TICKS);
     private int tickCount;
-    private List<String> eventLog; // Journal des événements
-    private Map<Integer, List<double[]>> droneTrajectories; // Trajectoires des drones
+    private List<String> eventLog; // Journal des événements (ajout seul, lisible par le rendu)
+    private Map<Integer, List<double[]>> droneTrajectories; // Trajectoires des drones (ajout seul)
+    private int eventLogOffset; // événements antérieurs au point de sauvegarde restauré (absents du journal)
+    private Map<Integer, Integer> trajectoryOffsets = new HashMap<>(); // idem pour les points de trajectoire
+    private GridFrameRecorder frameRecorder; // Enregistrement optionnel de la grille
+    private CheckpointWriter checkpointWriter; // Points de sauvegarde périodiques optionnels
+    private List<TickListener> tickListeners; // Observateurs de fin de tick (enregistrement, ...)
+    private SimRandom random; // Bruit de mesure
+    private final MeasurementModel measurement; // Capteur des drones
+    private final CoverageStrategy coverageStrategy; // Plan de couverture initial
+    private final BaseNetwork baseNetwork; // Bases de recharge
+    private final GridPathfinder pathfinder; // Contournement des zones interdites (null: aucune)
+    private boolean eventDriven; // drones immobiles réveillés à leur transition au lieu d'être mis à jour à chaque tick
+    private IndexedMinHeap wakeups = new IndexedMinHeap(0); // indice de drone -> tick de sa prochaine transition
+    private int[] lastUpdateTick = new int[0]; // tick de la dernière mise à jour de chaque drone endormi
     
     public SimulationEngine() {
-        this.environment = new Environment(SimulationParams.GRID_WIDTH, SimulationParams.GRID_HEIGHT);
+        this(System.nanoTime());
+    }
+    
+    // Moteur reproductible: même graine, même déroulement
+    public SimulationEngine(long seed) {
+        this(seed, SimulationScenario.NORMAL_SCENARIO);
+    }
+    
+    public SimulationEngine(long seed, SimulationScenario scenario) {
+        this(new Builder().seed(seed).scenario(scenario));
+    }
+    
+    private SimulationEngine(Builder builder) {
+        long seed = builder.seed;
+        this.environment = new Environment(SimulationParams.GRID_WIDTH, SimulationParams.GRID_HEIGHT, seed,
+            builder.scenario, builder.fieldModel != null ? builder.fieldModel : new PlumeTransportModel());
+        this.random = new SimRandom(seed * 31 + 17);
+        this.measurement = builder.measurement != null ? builder.measurement : new UniformNoiseMeasurement();
+        this.coverageStrategy = builder.coverage != null ? builder.coverage : new RasterCoverage();
+        this.baseNetwork = builder.bases != null
+            ? new BaseNetwork(SimulationParams.GRID_WIDTH, SimulationParams.GRID_HEIGHT, builder.bases, builder.routing)
+            : BaseNetwork.origin();
+        this.pathfinder = builder.obstacles != null
+            ? new GridPathfinder(builder.obstacles, SimulationParams.PATH_CACHE_CAPACITY)
+            : null;
+        for (Base base : baseNetwork.getBases()) {
+            if (builder.obstacles != null && builder.obstacles.isBlocked((int) Math.floor(base.getX()), (int) Math.floor(base.getY()))) {
+                throw new IllegalArgumentException("Base en zone interdite: (" + base.getX() + ", " + base.getY() + ")");
+            }
+        }
         this.drones = new ArrayList<>();
         this.simulationTime = 0;
         this.running = false;
         this.metrics = new SimulationMetrics();
         this.coordinator = new Coordinator();
+        if (builder.retasking != null) {
+            coordinator.setRetaskingStrategy(builder.retasking);
+        }
         this.tickCount = 0;
-        this.eventLog = new ArrayList<>();
+        this.eventLog = new AppendOnlyList<>();
         this.droneTrajectories = new HashMap<>();
+        this.tickListeners = new ArrayList<>();
         
-        // Initialiser les drones à la base (0, 0)
+        // Initialiser les drones sur les bases, à tour de rôle
         for (int i = 0; i < SimulationParams.NUM_DRONES; i++) {
-            Drone drone = new Drone(i, 0, 0);
+            Base base = baseNetwork.getBase(i % baseNetwork.size());
+            Drone drone = new Drone(i, base.getX(), base.getY(), baseNetwork);
+            drone.setPathPlanner(pathfinder);
             drones.add(drone);
-            droneTrajectories.put(i, new ArrayList<>());
+            droneTrajectories.put(i, new AppendOnlyList<>());
         }
         
-        // Initialiser les points de passage (balayage raster simple)
-        initializeCoverageWaypoints();
+        // Initialiser les points de passage (balayage raster par défaut)
+        coverageStrategy.plan(drones, SimulationParams.GRID_WIDTH, SimulationParams.GRID_HEIGHT);
+    }
+    
+    public static Builder builder() {
+        return new Builder();
     }
     
-    private void initializeCoverageWaypoints() {
-        int dronesPerRow = (int) Math.ceil(Math.sqrt(SimulationParams.NUM_DRONES));
-        int cellsPerDrone = SimulationParams.GRID_WIDTH / dronesPerRow;
+    /**
+     * Moteur avec d'autres stratégies ou modèles que ceux par défaut, pour
+     * les comparer sur la même graine sans modifier le moteur. Chaque
+     * composant peut aussi être désigné par son nom (voir {@link Plugins}).
+     * Les composants ne sont pas sauvegardés dans les points de reprise: une
+     * reprise doit reconstruire le moteur avec les mêmes.
+     */
+    public static class Builder {
+        private long seed = System.nanoTime();
+        private SimulationScenario scenario = SimulationScenario.NORMAL_SCENARIO;
+        private CoverageStrategy coverage;
+        private RetaskingStrategy retasking;
+        private FieldModel fieldModel;
+        private MeasurementModel measurement;
+        private List<Base> bases;
+        private BaseNetwork.Routing routing = BaseNetwork.Routing.NEAREST;
+        private ObstacleMap obstacles;
         
-        for (int i = 0; i < drones.size(); i++) {
-            List<double[]> waypoints = new ArrayList<>();
-            
-            // Affecter une région à chaque drone
-            int row = i / dronesPerRow;
-            int col = i % dronesPerRow;
-            
-            int startX = col * cellsPerDrone;
-            int startY = row * cellsPerDrone;
-            int endX = Math.min((col + 1) * cellsPerDrone, SimulationParams.GRID_WIDTH);
-            int endY = Math.min((row + 1) * cellsPerDrone, SimulationParams.GRID_HEIGHT);
-            
-            // Motif de balayage raster
-            for (int y = startY; y < endY; y++) {
-                if ((y - startY) % 2 == 0) {
-                    for (int x = startX; x < endX; x++) {
-                        waypoints.add(new double[]{x, y});
-                    }
-                } else {
-                    for (int x = endX - 1; x >= startX; x--) {
-                        waypoints.add(new double[]{x, y});
-                    }
-                }
-            }
-            
-            // Retour à la base
-            waypoints.add(new double[]{0, 0});
-            
-            drones.get(i).setWaypoints(waypoints);
+        public Builder seed(long seed) { this.seed = seed; return this; }
+        public Builder scenario(SimulationScenario scenario) { this.scenario = scenario; return this; }
+        public Builder coverage(CoverageStrategy coverage) { this.coverage = coverage; return this; }
+        public Builder retasking(RetaskingStrategy retasking) { this.retasking = retasking; return this; }
+        public Builder fieldModel(FieldModel fieldModel) { this.fieldModel = fieldModel; return this; }
+        public Builder measurement(MeasurementModel measurement) { this.measurement = measurement; return this; }
+        // Bases de recharge (défaut: une seule en (0, 0), sans limite de places)
+        public Builder bases(List<Base> bases, BaseNetwork.Routing routing) {
+            this.bases = bases;
+            this.routing = routing;
+            return this;
+        }
+        // Zones interdites de survol, contournées par A* (défaut: aucune)
+        public Builder obstacles(ObstacleMap obstacles) { this.obstacles = obstacles; return this; }
+        
+        public Builder coverage(String name) { return coverage(Plugins.load(CoverageStrategy.class, name)); }
+        public Builder retasking(String name) { return retasking(Plugins.load(RetaskingStrategy.class, name)); }
+        public Builder fieldModel(String name) { return fieldModel(Plugins.load(FieldModel.class, name)); }
+        public Builder measurement(String name) { return measurement(Plugins.load(MeasurementModel.class, name)); }
+        
+        public SimulationEngine build() {
+            return new SimulationEngine(this);
         }
     }
     
     public void tick() {
+        tick(1);
+    }
+    
+    /**
+     * Avancer d'au plus {@code maxTicks} ticks si la période est calme
+     * (aucune cellule au-dessus du seuil de détection au dernier tick),
+     * d'un seul sinon. Retourne le nombre de ticks effectués.
+     */
+    public int advance(int maxTicks) {
+        int before = tickCount;
+        tick(isQuiet() ? maxTicks : 1);
+        return tickCount - before;
+    }
+    
+    // Rien à détecter: les mesures et réaffectations peuvent attendre quelques ticks
+    public boolean isQuiet() {
+        return metrics.anomalousCellPercentage == 0;
+    }
+    
+    /**
+     * Macro-pas de {@code ticks} ticks (1: tick ordinaire). L'environnement
+     * et les drones avancent tick par tick (voir {@link Drone#update}), mais
+     * les mesures, la couverture (ligne droite entre les positions de début
+     * et de fin), l'affectation, les métriques et les observateurs ne sont
+     * traités qu'une fois, au dernier tick. Le pas est raccourci pour
+     * finir sur la prochaine échéance (réaffectation prévue, snapshot de
+     * métriques, image de grille, point de sauvegarde, échéance d'un
+     * observateur, voir {@link TickListener#nextDeadline}), qui a donc lieu
+     * au même tick qu'en pas à pas. Un événement survenu pendant le
+     * macro-pas n'est vu qu'à son dernier tick.
+     */
+    public void tick(int ticks) {
         if (!running) return;
+        int n = Math.max(1, Math.min(ticks, ticksToNextDeadline()));
+        long durationMs = (long) n * SimulationParams.TICK_DURATION_MS;
+        // Le reste du tick se déroule au dernier tick couvert
+        tickCount += n - 1;
+        simulationTime += durationMs - SimulationParams.TICK_DURATION_MS;
         
         // Mettre à jour l'environnement
-        environment.update(SimulationParams.TICK_DURATION_MS);
+        environment.update(durationMs);
+        if (frameRecorder != null) {
+            frameRecorder.offer(tickCount, environment.getAnomalyIntensity());
+        }
         
         // Mettre à jour les drones
-        for (Drone drone : drones) {
+        for (int i = 0; i < drones.size(); i++) {
+            Drone drone = drones.get(i);
+            long elapsedMs = durationMs;
+            if (eventDriven && wakeups.contains(i)) {
+                // Drone endormi: rien à faire avant sa transition, puis tout le temps écoulé d'un coup
+                if (wakeups.keyOf(i) > tickCount) continue;
+                wakeups.remove(i);
+                elapsedMs = (long) (tickCount - lastUpdateTick[i]) * SimulationParams.TICK_DURATION_MS;
+            }
             double oldState = drone.getState().ordinal();
-            drone.update(SimulationParams.TICK_DURATION_MS);
+            double oldX = drone.getX(), oldY = drone.getY();
+            boolean hadPlan = drone.hasWaypoints();
+            drone.update(elapsedMs);
+            coordinator.recordMovement(drone, oldX, oldY, tickCount);
+            if (eventDriven) {
+                scheduleWakeup(i, tickCount);
+            }
             
-            // Suivi de la trajectoire
-            droneTrajectories.get(drone.getId()).add(new double[]{drone.getX(), drone.getY()});
+            // Suivi de la trajectoire (x, y, état)
+            droneTrajectories.get(drone.getId()).add(new double[]{drone.getX(), drone.getY(), drone.getState().ordinal()});
             
             // Journal des changements d'état
             if (drone.getState().ordinal() != oldState) {
                 logEvent("Drone " + drone.getId() + " → " + drone.getState().getLabel());
             }
             
-            // Si le drone est actif et à un point de passage, mesurer
+            // Drone de nouveau disponible (fin de recharge) ou plan terminé: utile s'il reste des points chauds
+            boolean available = oldState == DroneState.CHARGING.ordinal() && drone.getState() == DroneState.ACTIVE;
+            boolean planDone = hadPlan && !drone.hasWaypoints() && drone.getState() == DroneState.ACTIVE;
+            if ((available || planDone) && coordinator.getBelief().hasHotspots()) {
+                cadence.signal(tickCount);
+            }
+            
+            // Si le drone est actif, mesurer la cellule survolée
             if (drone.getState() == DroneState.ACTIVE) {
                 double intensity = environment.getAnomalyAt(drone.getX(), drone.getY());
+                // Mesure bruitée par le capteur
+                double measured = measurement.measure(intensity, random);
+                coordinator.submitMeasurement(drone.getX(), drone.getY(), measured, tickCount);
                 if (intensity > SimulationParams.ANOMALY_DETECTION_THRESHOLD) {
-                    // Ajouter du bruit à la mesure
-                    double measured = intensity + (Math.random() - 0.5) * 0.1;
                     drone.addMeasurement(measured, simulationTime, drone.getX(), drone.getY());
+                    coordinator.reportDetection(drone.getX(), drone.getY(), measured);
+                    environment.recordDetection(drone.getX(), drone.getY());
                     logEvent("Drone " + drone.getId() + " détecte anomalie à (" + 
                     String.format("%.1f", drone.getX()) + "," + 
                     String.format("%.1f", drone.getY()) + ") - Intensité: " +
@@ -110,15 +242,114 @@ public class SimulationEngine {
             }
         }
         
-        // Réaffectation adaptative chaque 30 ticks (6 secondes)
-        if (tickCount++ % 30 == 0) {
-            coordinator.adaptiveRetasking(drones, environment);
+        // Fusionner les mesures du tick dans la carte de croyance
+        coordinator.fuseMeasurements();
+        if (coordinator.getBelief().drainNewClusters() > 0) {
+            cadence.signal(tickCount);
         }
         
-        // Mettre à jour les métriques
-        metrics.update(drones, environment, simulationTime);
+        // Surveillance persistante: les drones inoccupés repartent balayer les tuiles les plus anciennes
+        coordinator.assignIdleDrones(drones);
+        
+        // Mettre à jour les métriques (avant la réaffectation: l'âge est mesuré à ce tick)
+        metrics.update(drones, environment, coordinator.getCoverage(), tickCount, simulationTime);
+        
+        // Réaffectation adaptative sur événement (voir RetaskingCadence)
+        int tick = tickCount++;
+        if (cadence.isDue(tick, coordinator.getBelief().hasHotspots())) {
+            coordinator.adaptiveRetasking(drones, tick);
+            cadence.retasked(tick);
+        }
         
         simulationTime += SimulationParams.TICK_DURATION_MS;
+        
+        for (TickListener listener : tickListeners) {
+            listener.onTick(this);
+        }
+        
+        if (checkpointWriter != null) {
+            checkpointWriter.onTick(this, tickCount);
+        }
+    }
+    
+    // Plus petit nombre de ticks (>= 1) dont le dernier tombe sur une échéance (réaffectation prévue, périodique ou d'un observateur)
+    private int ticksToNextDeadline() {
+        int due = cadence.nextDue(coordinator.getBelief().hasHotspots());
+        int n = due == RetaskingCadence.NEVER ? Integer.MAX_VALUE : Math.max(1, due - tickCount + 1);
+        n = Math.min(n, untilMultiple(tickCount, SimulationMetrics.SNAPSHOT_INTERVAL_MS / SimulationParams.TICK_DURATION_MS));
+        if (frameRecorder != null) {
+            n = Math.min(n, untilMultiple(tickCount, frameRecorder.getFrameInterval()));
+        }
+        if (checkpointWriter != null) {
+            // Le point de sauvegarde est déclenché après le tick, sur le compteur incrémenté
+            n = Math.min(n, untilMultiple(tickCount + 1, checkpointWriter.getIntervalTicks()));
+        }
+        for (TickListener listener : tickListeners) {
+            int deadline = listener.nextDeadline(tickCount);
+            if (deadline != Integer.MAX_VALUE) {
+                n = Math.min(n, Math.max(1, deadline - tickCount + 1));
+            }
+        }
+        return n;
+    }
+    
+    // n >= 1 tel que from + n - 1 soit multiple de period
+    private static int untilMultiple(int from, int period) {
+        return period - Math.floorMod(from - 1, period);
+    }
+    
+    /**
+     * Mode à événements: un drone immobile (en recharge ou en mesure) n'est
+     * plus mis à jour à chaque tick; sa prochaine transition est placée
+     * dans une file de priorité et il est réveillé au tick où elle se
+     * produit. Seuls les drones en mouvement et l'environnement avancent
+     * à chaque tick. Le déroulement est celui du mode pas à pas, sauf les
+     * trajectoires, qui ne reçoivent pas de point pendant le sommeil.
+     */
+    public void setEventDriven(boolean eventDriven) {
+        if (eventDriven == this.eventDriven) return;
+        syncParkedDrones();
+        this.eventDriven = eventDriven;
+        rescheduleParkedDrones();
+    }
+    
+    public boolean isEventDriven() { return eventDriven; }
+    
+    // Nombre de drones endormis en attente de leur transition
+    public int getParkedDroneCount() { return wakeups.size(); }
+    
+    /**
+     * Rattraper les minuteries des drones endormis (sans transition): leur
+     * état est alors celui du mode pas à pas. Appelé avant toute lecture de
+     * ces minuteries hors du moteur, par exemple un point de sauvegarde.
+     */
+    public void syncParkedDrones() {
+        if (!eventDriven) return;
+        int last = tickCount - 1; // dernier tick exécuté
+        for (int i = 0; i < drones.size(); i++) {
+            if (wakeups.contains(i) && lastUpdateTick[i] < last) {
+                drones.get(i).update((long) (last - lastUpdateTick[i]) * SimulationParams.TICK_DURATION_MS);
+                lastUpdateTick[i] = last;
+            }
+        }
+    }
+    
+    // Endormir les drones immobiles, comme s'ils venaient d'être mis à jour au dernier tick
+    private void rescheduleParkedDrones() {
+        wakeups = new IndexedMinHeap(drones.size());
+        lastUpdateTick = new int[drones.size()];
+        if (!eventDriven) return;
+        for (int i = 0; i < drones.size(); i++) {
+            scheduleWakeup(i, tickCount - 1);
+        }
+    }
+    
+    private void scheduleWakeup(int droneIndex, int tick) {
+        long ticks = drones.get(droneIndex).ticksUntilTransition(SimulationParams.TICK_DURATION_MS);
+        if (ticks > 0) {
+            wakeups.put(droneIndex, tick + ticks);
+            lastUpdateTick[droneIndex] = tick;
+        }
     }
     
     public void start() {
@@ -130,6 +361,7 @@ public class SimulationEngine {
     }
     
     public void reset() {
+        syncParkedDrones();
         environment.reset();
         for (Drone d : drones) {
             d.clearMeasurements();
@@ -139,11 +371,15 @@ public class SimulationEngine {
         running = false;
         metrics.reset();
         coordinator.reset();
+        cadence.reset();
         eventLog.clear();
         for (List<double[]> traj : droneTrajectories.values()) {
             traj.clear();
         }
-        initializeCoverageWaypoints();
+        eventLogOffset = 0;
+        trajectoryOffsets.clear();
+        coverageStrategy.plan(drones, SimulationParams.GRID_WIDTH, SimulationParams.GRID_HEIGHT);
+        rescheduleParkedDrones();
     }
     
     public void logEvent(String message) {
@@ -159,25 +395,182 @@ public class SimulationEngine {
         return droneTrajectories;
     }
     
+    // L'enregistreur reçoit la grille à chaque tick et filtre selon son intervalle
+    public void setFrameRecorder(GridFrameRecorder recorder) {
+        this.frameRecorder = recorder;
+    }
+    
+    public GridFrameRecorder getFrameRecorder() { return frameRecorder; }
+    
+    public void addTickListener(TickListener listener) {
+        tickListeners.add(listener);
+    }
+    
+    public void removeTickListener(TickListener listener) {
+        tickListeners.remove(listener);
+    }
+    
+    public void setCheckpointWriter(CheckpointWriter writer) {
+        this.checkpointWriter = writer;
+    }
+    
+    public CheckpointWriter getCheckpointWriter() { return checkpointWriter; }
+    
+    /**
+     * Sérialiser l'état complet du moteur dans un point de sauvegarde binaire:
+     * environnement, drones, coordinateur, générateurs aléatoires et
+     * métriques. L'état "en marche" n'est pas sauvegardé.
+     *
+     * Le journal, les trajectoires et les instantanés de métriques ne font
+     * que croître et sont déjà écrits au fil de l'eau par {@link
+     * com.drones.metrics.RunRecorder}: seuls leurs nombres d'éléments sont
+     * sauvegardés, si bien que la taille du point de sauvegarde (et la pause
+     * du thread de simulation) ne dépend pas de la durée de l'exécution.
+     */
+    public void writeCheckpoint(OutputStream output) throws IOException {
+        syncParkedDrones(); // minuteries à jour: le point de sauvegarde ne dépend pas du mode
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeInt(CHECKPOINT_VERSION);
+        out.writeLong(simulationTime);
+        out.writeInt(tickCount);
+        out.writeLong(random.getState());
+        out.writeBoolean(random.hasCachedGaussian());
+        out.writeDouble(random.getCachedGaussian());
+        
+        environment.writeState(out);
+        
+        out.writeInt(drones.size());
+        for (Drone drone : drones) {
+            drone.writeState(out);
+        }
+        
+        coordinator.writeState(out);
+        cadence.writeState(out);
+        metrics.writeState(out);
+        
+        out.writeInt(eventLogOffset + eventLog.size());
+        out.writeInt(droneTrajectories.size());
+        for (Map.Entry<Integer, List<double[]>> entry : droneTrajectories.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(trajectoryOffsets.getOrDefault(entry.getKey(), 0) + entry.getValue().size());
+        }
+        out.flush();
+    }
+    
+    // Instantané en mémoire, rapide à produire sur le thread de simulation
+    public byte[] checkpoint() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        try {
+            writeCheckpoint(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Restaurer exactement un état écrit par writeCheckpoint(). Le moteur
+     * reste à l'arrêt; la simulation reprend au prochain start(). Le
+     * journal et les trajectoires repartent vides: leur historique est dans
+     * l'enregistrement de l'exécution précédente.
+     */
+    public void readCheckpoint(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16));
+        if (in.readInt() != CHECKPOINT_MAGIC) {
+            throw new IOException("Point de sauvegarde invalide");
+        }
+        int version = in.readInt();
+        if (version != CHECKPOINT_VERSION) {
+            throw new IOException("Version de point de sauvegarde non supportée: " + version);
+        }
+        running = false;
+        simulationTime = in.readLong();
+        tickCount = in.readInt();
+        long state = in.readLong();
+        boolean hasGaussian = in.readBoolean();
+        random.restore(state, hasGaussian, in.readDouble());
+        
+        environment.readState(in);
+        
+        int count = in.readInt();
+        drones.clear();
+        for (int i = 0; i < count; i++) {
+            drones.add(Drone.readState(in));
+        }
+        
+        for (Drone drone : drones) {
+            drone.setPathPlanner(pathfinder);
+        }
+        try {
+            baseNetwork.recount(drones);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Point de sauvegarde incompatible avec les bases du moteur", e);
+        }
+        coordinator.readState(in);
+        cadence.readState(in);
+        metrics.readState(in);
+        
+        eventLog.clear();
+        eventLogOffset = in.readInt();
+        
+        count = in.readInt();
+        droneTrajectories.clear();
+        trajectoryOffsets.clear();
+        for (int i = 0; i < count; i++) {
+            int id = in.readInt();
+            droneTrajectories.put(id, new AppendOnlyList<>());
+            trajectoryOffsets.put(id, in.readInt());
+        }
+        rescheduleParkedDrones();
+    }
+    
+    public void restore(byte[] checkpoint) {
+        try {
+            readCheckpoint(new ByteArrayInputStream(checkpoint));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Nombre de ticks exécutés depuis le début (le dernier tick a l'indice getTickCount() - 1)
+    public int getTickCount() { return tickCount; }
     public Environment getEnvironment() { return environment; }
     public List<Drone> getDrones() { return drones; }
     public long getSimulationTime() { return simulationTime; }
     public boolean isRunning() { return running; }
     public SimulationMetrics getMetrics() { return metrics; }
+    public Coordinator getCoordinator() { return coordinator; }
+    // Réaffectations effectuées depuis le début
+    public long getRetaskCount() { return cadence.getRetaskCount(); }
+    RetaskingCadence getRetaskingCadence() { return cadence; }
+    public CoverageStrategy getCoverageStrategy() { return coverageStrategy; }
+    public BaseNetwork getBaseNetwork() { return baseNetwork; }
+    public GridPathfinder getPathfinder() { return pathfinder; }
+    public MeasurementModel getMeasurementModel() { return measurement; }
     
     // Conteneur de métriques
     public static class SimulationMetrics {
-        public double coveragePercentage;
+        public static final int SNAPSHOT_INTERVAL_MS = 5000;
+        public double coveragePercentage; // cellules visitées au moins une fois (%)
+        public double anomalousCellPercentage; // cellules au-dessus du seuil de détection (%)
+        public int stalenessP50, stalenessP90, stalenessMax; // ticks depuis la dernière visite
         public int anomaliesDetected;
-        public double averageDetectionTime;
+        public double averageDetectionTime; // délai moyen entre apparition et première détection (s)
         public int activeDrones;
         public int rechargingDrones;
         private List<MetricsSnapshot> snapshots = new ArrayList<>();
+        private int snapshotOffset; // instantanés antérieurs au point de sauvegarde restauré
         
-        public void update(List<Drone> drones, Environment env, long time) {
+        public void update(List<Drone> drones, Environment env, CoverageTracker coverage, int tick, long time) {
             // Compter actifs/recharge
-            activeDrones = (int) drones.stream().filter(d -> d.getState() == DroneState.ACTIVE).count();
-            rechargingDrones = (int) drones.stream().filter(d -> d.getState() == DroneState.CHARGING).count();
+            int active = 0, charging = 0;
+            for (Drone d : drones) {
+                if (d.getState() == DroneState.ACTIVE) active++;
+                else if (d.getState() == DroneState.CHARGING) charging++;
+            }
+            activeDrones = active;
+            rechargingDrones = charging;
             
             // Compter les cellules avec anomalies détectées
             double[][] grid = env.getAnomalyIntensity();
@@ -191,29 +584,70 @@ public class SimulationEngine {
             }
             
             int totalCells = env.getWidth() * env.getHeight();
-            coveragePercentage = (double) cellsWithAnomaly / totalCells * 100.0;
+            anomalousCellPercentage = (double) cellsWithAnomaly / totalCells * 100.0;
+            
+            // Couverture: cellules survolées au moins une fois, et âge depuis la dernière visite
+            coveragePercentage = coverage.getCoveragePercentage();
+            coverage.updateStaleness(tick);
+            stalenessP50 = coverage.getStalenessP50();
+            stalenessP90 = coverage.getStalenessP90();
+            stalenessMax = coverage.getStalenessMax();
             
             anomaliesDetected = env.getAnomalies().size();
+            averageDetectionTime = env.getAnomalyPool().getAverageDetectionDelay() / 1000.0;
             
             // Ajouter un snapshot chaque 5 secondes
-            if (time % 5000 == 0) {
+            if (time % SNAPSHOT_INTERVAL_MS == 0) {
                 snapshots.add(new MetricsSnapshot(time, coveragePercentage, anomaliesDetected, activeDrones, rechargingDrones));
             }
         }
         
         public void reset() {
             coveragePercentage = 0;
+            anomalousCellPercentage = 0;
+            stalenessP50 = stalenessP90 = stalenessMax = 0;
             anomaliesDetected = 0;
             averageDetectionTime = 0;
             activeDrones = 0;
             rechargingDrones = 0;
             snapshots.clear();
+            snapshotOffset = 0;
         }
         
         public List<MetricsSnapshot> toSnapshots() {
             return new ArrayList<>(snapshots);
         }
         
+        public int getSnapshotCount() { return snapshots.size(); }
+        public MetricsSnapshot getSnapshot(int index) { return snapshots.get(index); }
+        
+        void writeState(DataOutputStream out) throws IOException {
+            out.writeDouble(coveragePercentage);
+            out.writeDouble(anomalousCellPercentage);
+            out.writeInt(stalenessP50);
+            out.writeInt(stalenessP90);
+            out.writeInt(stalenessMax);
+            out.writeInt(anomaliesDetected);
+            out.writeDouble(averageDetectionTime);
+            out.writeInt(activeDrones);
+            out.writeInt(rechargingDrones);
+            out.writeInt(snapshotOffset + snapshots.size()); // l'historique est dans l'enregistrement
+        }
+        
+        void readState(DataInputStream in) throws IOException {
+            coveragePercentage = in.readDouble();
+            anomalousCellPercentage = in.readDouble();
+            stalenessP50 = in.readInt();
+            stalenessP90 = in.readInt();
+            stalenessMax = in.readInt();
+            anomaliesDetected = in.readInt();
+            averageDetectionTime = in.readDouble();
+            activeDrones = in.readInt();
+            rechargingDrones = in.readInt();
+            snapshotOffset = in.readInt();
+            snapshots.clear();
+        }
+        
         public static class MetricsSnapshot {
             public long time;
             public double coverage;
@@ -0,0 +1,35 @@
+package com.drones.control;
+import com.drones.model.DroneState;
+import java.util.List;
+
+/**
+ * Vue en lecture seule de l'état de la simulation à un instant donné.
+ *
+ * Le rendu ne dépend que de cette interface: la source peut être le moteur
+ * en direct ou la relecture d'une exécution enregistrée.
+ */
+public interface SimulationFrame {
+    long getSimulationTime();
+    
+    int getGridWidth();
+    int getGridHeight();
+    double getIntensity(int x, int y);
+    
+    // Drones, indexés de 0 à getDroneCount() - 1
+    int getDroneCount();
+    int getDroneId(int index);
+    double getDroneX(int index);
+    double getDroneY(int index);
+    DroneState getDroneState(int index);
+    
+    // Trajectoire du drone jusqu'à cet instant, points {x, y, ...}
+    List<double[]> getTrajectory(int index);
+    
+    List<String> getEventLog();
+    
+    double getCoveragePercentage();
+    int getAnomalyCount();
+    int getActiveDrones();
+    int getRechargingDrones();
+    int getMeasurementCount();
+}
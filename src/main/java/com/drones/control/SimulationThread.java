@@ -0,0 +1,152 @@
+package com.drones.control;
+import com.drones.config.SimulationParams;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Fait avancer le moteur sur son propre thread, à son propre rythme, et
+ * publie des {@link FrameSnapshot} vers le thread de rendu.
+ *
+ * L'échange se fait par triple tampon sans verrou: le thread de simulation
+ * remplit son tampon arrière puis l'échange avec le tampon du milieu
+ * ({@link AtomicReference#getAndSet}); le rendu ne récupère le tampon du
+ * milieu que s'il est plus récent que le sien. Les images intermédiaires
+ * sont simplement écrasées: aucun des deux côtés n'attend l'autre.
+ *
+ * En avance rapide (facteur de vitesse élevé), les ticks en retard sont
+ * rattrapés par macro-pas pendant les périodes calmes
+ * ({@link SimulationEngine#advance}): 100x à 1000x restent fluides tant
+ * que le moteur suit.
+ *
+ * Toutes les actions sur le moteur (start, pause, reset, journal) doivent
+ * passer par {@link #submit} afin d'être exécutées sur le thread de simulation.
+ */
+public class SimulationThread {
+    private static final long TICK_NANOS = SimulationParams.TICK_DURATION_MS * 1_000_000L;
+    private static final long MAX_LAG_NANOS = 250_000_000L; // au-delà, on abandonne le rattrapage
+    private static final long IDLE_PARK_NANOS = 2_000_000L;
+    
+    private final SimulationEngine engine;
+    private final Queue<Consumer<SimulationEngine>> commands;
+    private final AtomicReference<FrameSnapshot> middle;
+    private FrameSnapshot back; // thread de simulation
+    private FrameSnapshot front; // thread de rendu
+    private final Thread thread;
+    private volatile boolean stopped;
+    private volatile double speedFactor = 1.0;
+    private volatile long minPublishIntervalNanos = 4_000_000L;
+    private long sequence;
+    
+    public SimulationThread(SimulationEngine engine) {
+        this.engine = engine;
+        this.commands = new ConcurrentLinkedQueue<>();
+        this.back = new FrameSnapshot();
+        this.front = new FrameSnapshot();
+        FrameSnapshot initial = new FrameSnapshot();
+        initial.copyFrom(engine);
+        initial.sequence = ++sequence;
+        this.middle = new AtomicReference<>(initial);
+        this.thread = new Thread(this::run, "simulation");
+        this.thread.setDaemon(true);
+    }
+    
+    public void start() {
+        thread.start();
+    }
+    
+    // Arrêter le thread et attendre sa fin
+    public void shutdown() {
+        stopped = true;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    // Exécuter une action sur le moteur depuis le thread de simulation
+    public void submit(Consumer<SimulationEngine> command) {
+        commands.add(command);
+        LockSupport.unpark(thread);
+    }
+    
+    public void setSpeedFactor(double speedFactor) {
+        this.speedFactor = Math.max(0.01, speedFactor);
+        LockSupport.unpark(thread);
+    }
+    
+    public double getSpeedFactor() { return speedFactor; }
+    
+    // Fréquence maximale de publication des images (le rendu n'en affiche pas plus)
+    public void setMinPublishIntervalNanos(long nanos) {
+        this.minPublishIntervalNanos = Math.max(0, nanos);
+    }
+    
+    /**
+     * Dernière image publiée (thread de rendu uniquement). L'instance renvoyée
+     * reste valide et inchangée jusqu'au prochain appel.
+     */
+    public FrameSnapshot latestFrame() {
+        if (middle.get().sequence > front.sequence) {
+            front = middle.getAndSet(front);
+        }
+        return front;
+    }
+    
+    private void run() {
+        long nextTickAt = System.nanoTime();
+        long lastPublish = 0;
+        boolean dirty = false;
+        
+        while (!stopped) {
+            Consumer<SimulationEngine> command;
+            while ((command = commands.poll()) != null) {
+                command.accept(engine);
+                dirty = true;
+            }
+            
+            long now = System.nanoTime();
+            long interval = (long) (TICK_NANOS / speedFactor);
+            if (engine.isRunning()) {
+                if (now - nextTickAt > MAX_LAG_NANOS) {
+                    nextTickAt = now; // trop en retard: ralentir plutôt que geler
+                }
+                while (now >= nextTickAt && engine.isRunning() && !stopped) {
+                    long due = (now - nextTickAt) / interval + 1;
+                    int done = engine.advance((int) Math.min(due, SimulationParams.MACRO_STEP_MAX_TICKS));
+                    dirty = true;
+                    nextTickAt += done * interval;
+                    // Rendre la main régulièrement pour les commandes et la publication
+                    if (System.nanoTime() - now > minPublishIntervalNanos) break;
+                }
+            } else {
+                nextTickAt = now;
+            }
+            
+            now = System.nanoTime();
+            if (dirty && now - lastPublish >= minPublishIntervalNanos) {
+                publish();
+                lastPublish = now;
+                dirty = false;
+            }
+            
+            long wait = engine.isRunning() ? Math.min(nextTickAt - now, IDLE_PARK_NANOS) : IDLE_PARK_NANOS;
+            if (dirty) {
+                wait = Math.min(wait, minPublishIntervalNanos - (now - lastPublish));
+            }
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+    
+    private void publish() {
+        back.copyFrom(engine);
+        back.sequence = ++sequence;
+        back = middle.getAndSet(back);
+    }
+}
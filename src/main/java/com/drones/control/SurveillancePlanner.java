@@ -0,0 +1,234 @@
+package com.drones.control;
+import com.drones.config.SimulationParams;
+import com.drones.model.Drone;
+import com.drones.model.DroneState;
+import java.io.*;
+import java.util.*;
+
+/**
+ * Surveillance persistante: chaque drone inoccupé reçoit la tuile à
+ * balayer dont la dernière visite est la plus ancienne.
+ *
+ * La grille est découpée en tuiles carrées. La clé d'une tuile est le tick
+ * de dernière visite de sa cellule la plus ancienne (voir
+ * {@link CoverageTracker}), diminué d'un bonus quand une détection y a été
+ * signalée: plus la clé est petite, plus la tuile est urgente. Tous les
+ * âges croissant au même rythme, l'ordre des tuiles ne change qu'aux
+ * visites et aux détections; les tuiles libres sont donc gardées dans un
+ * tas indexé ({@link IndexedMinHeap}) mis à jour incrémentalement.
+ *
+ * Les visites ne font que rendre une tuile moins urgente: la clé stockée
+ * peut être en retard sur la vraie, elle est corrigée quand la tuile
+ * arrive en tête du tas. Une affectation coûte O(log tuiles), quel que
+ * soit le nombre de drones.
+ */
+public class SurveillancePlanner {
+    // Tuiles candidates examinées par affectation, départagées par la distance au drone
+    private static final int CANDIDATES = 4;
+
+    private final CoverageTracker coverage;
+    private final int tileSize;
+    private final int tilesX, tilesY;
+    private final long[] bonus;        // avance de la tuile dans la file, en ticks
+    private final int[] assignedDrone; // indice du drone qui balaye la tuile, -1 si libre
+    private int[] droneTile = new int[0]; // tuile balayée par chaque drone, -1 si aucune
+    private final IndexedMinHeap freeTiles;
+    private final int[] candidates = new int[CANDIDATES];
+
+    public SurveillancePlanner(CoverageTracker coverage, int tileSize) {
+        this.coverage = coverage;
+        this.tileSize = tileSize;
+        this.tilesX = (coverage.getWidth() + tileSize - 1) / tileSize;
+        this.tilesY = (coverage.getHeight() + tileSize - 1) / tileSize;
+        this.bonus = new long[tilesX * tilesY];
+        this.assignedDrone = new int[tilesX * tilesY];
+        this.freeTiles = new IndexedMinHeap(tilesX * tilesY);
+        reset();
+    }
+
+    public int getTileCount() { return tilesX * tilesY; }
+    public int getTileSize() { return tileSize; }
+
+    public int tileOf(double x, double y) {
+        int tx = Math.max(0, Math.min(tilesX - 1, (int) Math.floor(x) / tileSize));
+        int ty = Math.max(0, Math.min(tilesY - 1, (int) Math.floor(y) / tileSize));
+        return ty * tilesX + tx;
+    }
+
+    // Tuile balayée par le drone d'indice donné, -1 si aucune
+    public int getAssignedTile(int droneIndex) {
+        return droneIndex < droneTile.length ? droneTile[droneIndex] : -1;
+    }
+
+    // Tick de la visite la plus ancienne parmi les cellules de la tuile
+    public int getTileLastVisit(int tile) {
+        int x0 = (tile % tilesX) * tileSize, y0 = (tile / tilesX) * tileSize;
+        int x1 = Math.min(coverage.getWidth(), x0 + tileSize), y1 = Math.min(coverage.getHeight(), y0 + tileSize);
+        int oldest = Integer.MAX_VALUE;
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                oldest = Math.min(oldest, coverage.getLastVisit(x, y));
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Détection signalée en (x, y): la tuile passe devant les tuiles dont la
+     * dernière visite est plus récente de moins de intensité x bonus ticks.
+     */
+    public void reportDetection(double x, double y, double intensity) {
+        int tile = tileOf(x, y);
+        long b = Math.round(Math.max(0, intensity) * SimulationParams.SURVEILLANCE_DETECTION_BONUS_TICKS);
+        if (b <= bonus[tile]) return;
+        bonus[tile] = b;
+        if (freeTiles.contains(tile)) {
+            freeTiles.put(tile, trueKey(tile));
+        }
+    }
+
+    /**
+     * Libérer les tuiles des drones qui ont terminé leur balayage (ou sont
+     * repartis à la base), puis affecter une tuile à chaque drone actif sans
+     * point de passage. Retourne le nombre d'affectations.
+     */
+    public int assignIdleDrones(List<Drone> drones) {
+        if (droneTile.length < drones.size()) {
+            int old = droneTile.length;
+            droneTile = Arrays.copyOf(droneTile, drones.size());
+            Arrays.fill(droneTile, old, droneTile.length, -1);
+        }
+        int assigned = 0;
+        for (int i = 0; i < drones.size(); i++) {
+            Drone drone = drones.get(i);
+            boolean idle = drone.getState() == DroneState.ACTIVE && !drone.hasWaypoints();
+            int tile = droneTile[i];
+            if (tile >= 0 && (idle || drone.getState() == DroneState.RETURNING || drone.getState() == DroneState.CHARGING)) {
+                release(i);
+            }
+            if (idle && assign(i, drone)) {
+                assigned++;
+            }
+        }
+        return assigned;
+    }
+
+    private boolean assign(int droneIndex, Drone drone) {
+        // Les CANDIDATES tuiles les plus urgentes (clés corrigées au passage)
+        int count = 0;
+        while (count < CANDIDATES && !freeTiles.isEmpty()) {
+            int tile = freeTiles.peek();
+            long key = trueKey(tile);
+            if (key != freeTiles.keyOf(tile)) {
+                freeTiles.put(tile, key);
+                continue;
+            }
+            candidates[count++] = freeTiles.poll();
+        }
+        if (count == 0) return false;
+
+        // Des tuiles dont l'âge diffère de moins d'un balayage sont équivalentes: prendre la plus proche
+        double cellsPerTick = SimulationParams.DRONE_SPEED * SimulationParams.TICK_DURATION_MS / 1000.0;
+        long slack = (long) (tileSize * tileSize / cellsPerTick);
+        long limit = freeTiles.keyOf(candidates[0]) + slack;
+        int best = candidates[0];
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int c = 0; c < count; c++) {
+            int tile = candidates[c];
+            if (freeTiles.keyOf(tile) > limit) break; // candidats triés par clé
+            double cx = (tile % tilesX) * tileSize + tileSize / 2.0;
+            double cy = (tile / tilesX) * tileSize + tileSize / 2.0;
+            double distance = Math.hypot(cx - drone.getX(), cy - drone.getY());
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = tile;
+            }
+        }
+        for (int c = 0; c < count; c++) {
+            if (candidates[c] != best) {
+                freeTiles.put(candidates[c], freeTiles.keyOf(candidates[c]));
+            }
+        }
+
+        droneTile[droneIndex] = best;
+        assignedDrone[best] = droneIndex;
+        bonus[best] = 0; // le balayage répond à la détection signalée
+        drone.setWaypoints(sweep(best, drone.getX(), drone.getY()));
+        return true;
+    }
+
+    private void release(int droneIndex) {
+        int tile = droneTile[droneIndex];
+        droneTile[droneIndex] = -1;
+        assignedDrone[tile] = -1;
+        freeTiles.put(tile, trueKey(tile));
+    }
+
+    private long trueKey(int tile) {
+        return getTileLastVisit(tile) - bonus[tile];
+    }
+
+    // Balayage en raster de la tuile, depuis le coin le plus proche du drone
+    private List<double[]> sweep(int tile, double fromX, double fromY) {
+        int x0 = (tile % tilesX) * tileSize, y0 = (tile / tilesX) * tileSize;
+        int x1 = Math.min(coverage.getWidth(), x0 + tileSize) - 1;
+        int y1 = Math.min(coverage.getHeight(), y0 + tileSize) - 1;
+        boolean down = Math.abs(fromY - y0) <= Math.abs(fromY - y1);
+        boolean right = Math.abs(fromX - x0) <= Math.abs(fromX - x1);
+        List<double[]> waypoints = new ArrayList<>((x1 - x0 + 1) * (y1 - y0 + 1));
+        for (int r = 0; r <= y1 - y0; r++) {
+            int y = down ? y0 + r : y1 - r;
+            for (int c = 0; c <= x1 - x0; c++) {
+                int x = right ? x0 + c : x1 - c;
+                waypoints.add(new double[]{x, y});
+            }
+            right = !right;
+        }
+        return waypoints;
+    }
+
+    public void reset() {
+        Arrays.fill(bonus, 0);
+        Arrays.fill(assignedDrone, -1);
+        Arrays.fill(droneTile, -1);
+        rebuildQueue();
+    }
+
+    private void rebuildQueue() {
+        freeTiles.clear();
+        for (int t = 0; t < assignedDrone.length; t++) {
+            if (assignedDrone[t] < 0) {
+                freeTiles.put(t, trueKey(t));
+            }
+        }
+    }
+
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(bonus.length);
+        for (int t = 0; t < bonus.length; t++) {
+            out.writeLong(bonus[t]);
+            out.writeInt(assignedDrone[t]);
+        }
+    }
+
+    // La carte de couverture doit déjà être restaurée: les clés en dépendent
+    public void readState(DataInputStream in) throws IOException {
+        if (in.readInt() != bonus.length) {
+            throw new IOException("Nombre de tuiles incompatible");
+        }
+        int maxDrone = -1;
+        for (int t = 0; t < bonus.length; t++) {
+            bonus[t] = in.readLong();
+            assignedDrone[t] = in.readInt();
+            maxDrone = Math.max(maxDrone, assignedDrone[t]);
+        }
+        droneTile = new int[Math.max(droneTile.length, maxDrone + 1)];
+        Arrays.fill(droneTile, -1);
+        for (int t = 0; t < bonus.length; t++) {
+            if (assignedDrone[t] >= 0) {
+                droneTile[assignedDrone[t]] = t;
+            }
+        }
+        rebuildQueue();
+    }
+}
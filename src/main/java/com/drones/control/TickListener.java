@@ -0,0 +1,17 @@
+package com.drones.control;
+
+/**
+ * Observateur appelé par le moteur à la fin de chaque tick, sur le thread de simulation.
+ */
+public interface TickListener {
+    void onTick(SimulationEngine engine);
+    
+    /**
+     * Prochain tick (>= {@code fromTick}) que l'observateur doit voir: un
+     * macro-pas (voir {@link SimulationEngine#tick(int)}) est raccourci pour
+     * finir sur ce tick. Par défaut, aucune échéance.
+     */
+    default int nextDeadline(int fromTick) {
+        return Integer.MAX_VALUE;
+    }
+}
@@ -1,7 +1,10 @@
 package com.drones.metrics;
+import com.drones.config.SimulationParams;
 import com.drones.model.Drone;
+import com.drones.model.Environment;
 import com.drones.control.SimulationEngine;
 import java.io.*;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.*;
 public class ExportUtils {
@@ -51,6 +54,76 @@ public class ExportUtils {
         }
     }
     
+    /**
+     * Exporter les métriques de simulation au format binaire colonnaire
+     */
+    public static void exportMetricsToBinary(List<SimulationEngine.SimulationMetrics.MetricsSnapshot> snapshots,
+        int tickDurationMs, String filename) throws IOException {
+        try (RunFileWriter writer = new RunFileWriter(Paths.get(filename), 0, 0, 0, tickDurationMs)) {
+            for (SimulationEngine.SimulationMetrics.MetricsSnapshot snapshot : snapshots) {
+                writer.writeMetrics(snapshot);
+            }
+        }
+    }
+    
+    /**
+     * Exporter les mesures des drones au format binaire colonnaire
+     */
+    public static void exportMeasurementsToBinary(List<Drone> drones, int tickDurationMs,
+        String filename) throws IOException {
+        try (RunFileWriter writer = new RunFileWriter(Paths.get(filename), 0, 0, drones.size(), tickDurationMs)) {
+            writeMeasurements(writer, drones);
+        }
+    }
+    
+    /**
+     * Exporter une exécution complète au format binaire colonnaire:
+     * trajectoires, mesures, grille d'intensité courante et métriques
+     */
+    public static void exportRunToBinary(SimulationEngine engine, String filename) throws IOException {
+        Environment env = engine.getEnvironment();
+        try (RunFileWriter writer = new RunFileWriter(Paths.get(filename), env.getWidth(), env.getHeight(),
+            engine.getDrones().size(), SimulationParams.TICK_DURATION_MS)) {
+            // Trajectoires: un point par drone et par tick, écrites tick par tick
+            Map<Integer, List<double[]>> trajectories = engine.getDroneTrajectories();
+            int ticks = 0;
+            for (List<double[]> traj : trajectories.values()) {
+                ticks = Math.max(ticks, traj.size());
+            }
+            for (int tick = 0; tick < ticks; tick++) {
+                for (Map.Entry<Integer, List<double[]>> entry : trajectories.entrySet()) {
+                    List<double[]> traj = entry.getValue();
+                    if (tick < traj.size()) {
+                        double[] p = traj.get(tick);
+                        writer.writeTrajectory(tick, entry.getKey(), p[0], p[1], p.length > 2 ? (int) p[2] : 0);
+                    }
+                }
+            }
+            
+            writeMeasurements(writer, engine.getDrones());
+            writer.writeGridFrame(Math.max(0, ticks - 1), env.getAnomalyIntensity());
+            for (SimulationEngine.SimulationMetrics.MetricsSnapshot snapshot : engine.getMetrics().toSnapshots()) {
+                writer.writeMetrics(snapshot);
+            }
+        }
+    }
+    
+    private static void writeMeasurements(RunFileWriter writer, List<Drone> drones) throws IOException {
+        // Les blocs sont indexés par tick: trier les mesures de tous les drones par horodatage
+        List<Drone.Measurement> all = new ArrayList<>();
+        Map<Drone.Measurement, Integer> owners = new IdentityHashMap<>();
+        for (Drone drone : drones) {
+            for (Drone.Measurement m : drone.getMeasurements()) {
+                all.add(m);
+                owners.put(m, drone.getId());
+            }
+        }
+        all.sort(Comparator.comparingLong(m -> m.timestamp));
+        for (Drone.Measurement m : all) {
+            writer.writeMeasurement(owners.get(m), m.timestamp, m.intensity, m.x, m.y);
+        }
+    }
+    
     /**
      * Générer un horodatage pour le nom de fichier d'exportation
      */
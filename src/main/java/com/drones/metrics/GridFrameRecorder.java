@@ -0,0 +1,381 @@
+package com.drones.metrics;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ * Enregistreur compressé des images de la grille d'intensité.
+ *
+ * Sur le chemin du tick, {@link #offer} se contente de quantifier la grille
+ * (8 ou 16 bits) dans un tampon recyclé. Un thread d'arrière-plan encode
+ * ensuite chaque image en delta par rapport à la précédente (la plupart des
+ * cellules restent à zéro) puis la compresse avec {@link Deflater}. Une image
+ * clé est insérée régulièrement pour borner le coût de décodage; quand le
+ * budget mémoire est dépassé, les groupes d'images les plus anciens sont
+ * supprimés.
+ */
+public class GridFrameRecorder implements Closeable {
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+    private static final int FILE_MAGIC = 0x44475246; // "DGRF"
+    private static final int POOL_SIZE = 4;
+
+    private final int width, height;
+    private final int bits;
+    private final int maxLevel;
+    private final int frameInterval;
+    private final int keyframeInterval;
+    private final long memoryBudgetBytes;
+
+    private final BlockingQueue<short[]> freeBuffers;
+    private final BlockingQueue<PendingFrame> pending;
+    private final Thread worker;
+    private volatile boolean closed;
+    private volatile int droppedFrames;
+
+    // État du thread d'encodage
+    private final short[] previous;
+    private final byte[] raw;
+    private final Deflater deflater;
+    private byte[] compressBuffer;
+    private int framesSinceKey;
+    private boolean forceKeyframe = true;
+
+    // Images encodées (protégées par le verrou de la liste)
+    private final List<Frame> frames;
+    private long storedBytes;
+    private int evictedFrames;
+    private int inFlight;
+
+    public GridFrameRecorder(int width, int height, int bits, int frameInterval, long memoryBudgetBytes) {
+        this(width, height, bits, frameInterval, memoryBudgetBytes, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    public GridFrameRecorder(int width, int height, int bits, int frameInterval, long memoryBudgetBytes,
+        int keyframeInterval) {
+        this(width, height, bits, frameInterval, memoryBudgetBytes, keyframeInterval, true);
+    }
+
+    // Sans enregistrement: lecture seule, ni tampons ni thread d'encodage (voir load)
+    private GridFrameRecorder(int width, int height, int bits, int frameInterval, long memoryBudgetBytes,
+        int keyframeInterval, boolean recording) {
+        if (bits != 8 && bits != 16) {
+            throw new IllegalArgumentException("Quantification sur 8 ou 16 bits uniquement: " + bits);
+        }
+        if (frameInterval <= 0 || keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Les intervalles doivent être positifs");
+        }
+        this.width = width;
+        this.height = height;
+        this.bits = bits;
+        this.maxLevel = (1 << bits) - 1;
+        this.frameInterval = frameInterval;
+        this.keyframeInterval = keyframeInterval;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+
+        this.frames = new ArrayList<>();
+        if (!recording) {
+            this.freeBuffers = null;
+            this.pending = null;
+            this.previous = null;
+            this.raw = null;
+            this.deflater = null;
+            this.worker = null;
+            this.closed = true;
+            return;
+        }
+
+        int cells = width * height;
+        this.freeBuffers = new ArrayBlockingQueue<>(POOL_SIZE);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            freeBuffers.add(new short[cells]);
+        }
+        this.pending = new ArrayBlockingQueue<>(POOL_SIZE);
+        this.previous = new short[cells];
+        this.raw = new byte[cells * (bits / 8)];
+        this.deflater = new Deflater(Deflater.BEST_SPEED);
+        this.compressBuffer = new byte[raw.length / 4 + 64];
+
+        this.worker = new Thread(this::encodeLoop, "grid-frame-recorder");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public int getBits() { return bits; }
+    public int getFrameInterval() { return frameInterval; }
+    public int getDroppedFrames() { return droppedFrames; }
+
+    /**
+     * Proposer la grille du tick courant. Ne bloque jamais: si l'encodeur est
+     * en retard, l'image est abandonnée et comptée dans {@link #getDroppedFrames()}.
+     * @return true si l'image a été retenue
+     */
+    public boolean offer(long tick, double[][] grid) {
+        if (closed || tick % frameInterval != 0) return false;
+        short[] buffer = freeBuffers.poll();
+        if (buffer == null) {
+            droppedFrames++;
+            return false;
+        }
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            double[] row = grid[y];
+            for (int x = 0; x < width; x++) {
+                buffer[i++] = (short) quantize(row[x]);
+            }
+        }
+        synchronized (frames) {
+            inFlight++;
+        }
+        pending.add(new PendingFrame(tick, buffer));
+        return true;
+    }
+
+    // Attendre que toutes les images proposées soient encodées
+    public void flush() throws InterruptedException {
+        synchronized (frames) {
+            while (inFlight > 0) {
+                frames.wait();
+            }
+        }
+    }
+
+    public int getFrameCount() {
+        synchronized (frames) {
+            return frames.size();
+        }
+    }
+
+    public long getFrameTick(int index) {
+        synchronized (frames) {
+            return frames.get(index).tick;
+        }
+    }
+
+    public long getStoredBytes() {
+        synchronized (frames) {
+            return storedBytes;
+        }
+    }
+
+    public int getEvictedFrames() {
+        synchronized (frames) {
+            return evictedFrames;
+        }
+    }
+
+    /**
+     * Décoder l'image d'indice donné (depuis l'image clé qui la précède).
+     * @param out largeur*hauteur valeurs dans [0, 1], rangées ligne par ligne
+     * @return le tick de l'image
+     */
+    public long decodeFrame(int index, float[] out) {
+        List<Frame> chain = new ArrayList<>();
+        synchronized (frames) {
+            int k = index;
+            while (!frames.get(k).keyframe) {
+                k--;
+            }
+            chain.addAll(frames.subList(k, index + 1));
+        }
+        int[] levels = new int[width * height];
+        byte[] buffer = new byte[width * height * (bits / 8)];
+        Inflater inflater = new Inflater();
+        try {
+            for (Frame frame : chain) {
+                inflater.reset();
+                inflater.setInput(frame.data);
+                int n = 0;
+                while (n < buffer.length && !inflater.finished()) {
+                    n += inflater.inflate(buffer, n, buffer.length - n);
+                }
+                applyDelta(buffer, levels);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Image corrompue", e);
+        } finally {
+            inflater.end();
+        }
+        for (int i = 0; i < levels.length; i++) {
+            out[i] = levels[i] / (float) maxLevel;
+        }
+        return chain.get(chain.size() - 1).tick;
+    }
+
+    // Sauvegarder les images compressées telles quelles
+    public void save(Path path) throws IOException, InterruptedException {
+        flush();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            synchronized (frames) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(width);
+                out.writeInt(height);
+                out.writeInt(bits);
+                out.writeInt(frameInterval);
+                out.writeInt(frames.size());
+                for (Frame frame : frames) {
+                    out.writeLong(frame.tick);
+                    out.writeBoolean(frame.keyframe);
+                    out.writeInt(frame.data.length);
+                    out.write(frame.data);
+                }
+            }
+        }
+    }
+
+    // Recharger un enregistrement sauvegardé (lecture seule, sans budget ni thread d'encodage)
+    public static GridFrameRecorder load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Enregistrement de grille invalide: " + path);
+            }
+            int w = in.readInt();
+            int h = in.readInt();
+            int b = in.readInt();
+            int interval = in.readInt();
+            int count = in.readInt();
+            GridFrameRecorder recorder = new GridFrameRecorder(w, h, b, interval, Long.MAX_VALUE,
+                DEFAULT_KEYFRAME_INTERVAL, false);
+            for (int i = 0; i < count; i++) {
+                long tick = in.readLong();
+                boolean key = in.readBoolean();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                recorder.frames.add(new Frame(tick, key, data));
+                recorder.storedBytes += data.length;
+            }
+            return recorder;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        worker.interrupt();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deflater.end();
+    }
+
+    private int quantize(double value) {
+        double v = value <= 0 ? 0 : (value >= 1 ? 1 : value);
+        return (int) Math.round(v * maxLevel);
+    }
+
+    private void encodeLoop() {
+        try {
+            while (true) {
+                encode(pending.take());
+            }
+        } catch (InterruptedException e) {
+            // Fermeture: encoder ce qui reste avant de sortir
+            PendingFrame frame;
+            while ((frame = pending.poll()) != null) {
+                encode(frame);
+            }
+        }
+    }
+
+    private void encode(PendingFrame frame) {
+        short[] current = frame.levels;
+        boolean keyframe = forceKeyframe || framesSinceKey >= keyframeInterval - 1;
+        int mask = maxLevel;
+        if (bits == 8) {
+            for (int i = 0; i < current.length; i++) {
+                int prev = keyframe ? 0 : previous[i];
+                raw[i] = (byte) ((current[i] - prev) & mask);
+            }
+        } else {
+            for (int i = 0, j = 0; i < current.length; i++, j += 2) {
+                int prev = keyframe ? 0 : (previous[i] & 0xFFFF);
+                int d = ((current[i] & 0xFFFF) - prev) & mask;
+                raw[j] = (byte) d;
+                raw[j + 1] = (byte) (d >>> 8);
+            }
+        }
+        System.arraycopy(current, 0, previous, 0, current.length);
+        freeBuffers.add(current);
+
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        int n = 0;
+        while (!deflater.finished()) {
+            if (n == compressBuffer.length) {
+                compressBuffer = Arrays.copyOf(compressBuffer, compressBuffer.length * 2);
+            }
+            n += deflater.deflate(compressBuffer, n, compressBuffer.length - n);
+        }
+        byte[] data = Arrays.copyOf(compressBuffer, n);
+        framesSinceKey = keyframe ? 0 : framesSinceKey + 1;
+        forceKeyframe = false;
+
+        synchronized (frames) {
+            frames.add(new Frame(frame.tick, keyframe, data));
+            storedBytes += data.length;
+            enforceBudget();
+            inFlight--;
+            frames.notifyAll();
+        }
+    }
+
+    // Supprimer les groupes (image clé + deltas) les plus anciens jusqu'à respecter le budget
+    private void enforceBudget() {
+        while (storedBytes > memoryBudgetBytes && !frames.isEmpty()) {
+            int end = 1;
+            while (end < frames.size() && !frames.get(end).keyframe) {
+                end++;
+            }
+            if (end == frames.size()) {
+                // Le groupe courant est le seul: tout vider et repartir d'une image clé
+                forceKeyframe = true;
+            }
+            for (Frame f : frames.subList(0, end)) {
+                storedBytes -= f.data.length;
+            }
+            evictedFrames += end;
+            frames.subList(0, end).clear();
+        }
+    }
+
+    private void applyDelta(byte[] buffer, int[] levels) {
+        int mask = maxLevel;
+        if (bits == 8) {
+            for (int i = 0; i < levels.length; i++) {
+                levels[i] = (levels[i] + (buffer[i] & 0xFF)) & mask;
+            }
+        } else {
+            for (int i = 0, j = 0; i < levels.length; i++, j += 2) {
+                int d = (buffer[j] & 0xFF) | ((buffer[j + 1] & 0xFF) << 8);
+                levels[i] = (levels[i] + d) & mask;
+            }
+        }
+    }
+
+    private static class PendingFrame {
+        final long tick;
+        final short[] levels;
+
+        PendingFrame(long tick, short[] levels) {
+            this.tick = tick;
+            this.levels = levels;
+        }
+    }
+
+    private static class Frame {
+        final long tick;
+        final boolean keyframe;
+        final byte[] data;
+
+        Frame(long tick, boolean keyframe, byte[] data) {
+            this.tick = tick;
+            this.keyframe = keyframe;
+            this.data = data;
+        }
+    }
+}
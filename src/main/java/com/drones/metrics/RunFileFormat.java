@@ -0,0 +1,68 @@
+package com.drones.metrics;
+
+/**
+ * Constantes du format binaire colonnaire des exécutions (.drun).
+ *
+ * Disposition du fichier (little-endian) :
+ * <pre>
+ * [entête 32 octets] [bloc]* [index: 40 octets par bloc] [pied 16 octets]
+ * </pre>
+ * Chaque bloc contient des colonnes primitives de largeur fixe stockées
+ * l'une après l'autre (toutes les valeurs de la colonne 0, puis de la
+ * colonne 1, ...). L'index donne pour chaque bloc son type, son nombre de
+ * lignes, l'intervalle de ticks couvert, sa position et sa taille, ce qui
+ * permet d'atteindre n'importe quel tick sans lire le reste du fichier.
+ */
+public final class RunFileFormat {
+    public static final int MAGIC = 0x4452554E; // "DRUN"
+    public static final int VERSION = 1;
+
+    public static final int HEADER_BYTES = 32;
+    public static final int INDEX_ENTRY_BYTES = 40;
+    public static final int TRAILER_BYTES = 16;
+
+    // Types de blocs
+    public static final int BLOCK_TRAJECTORY = 1;
+    public static final int BLOCK_MEASUREMENT = 2;
+    public static final int BLOCK_GRID = 3;
+    public static final int BLOCK_METRICS = 4;
+    public static final int BLOCK_EVENT = 5;
+
+    // Largeur des colonnes (octets) par type de bloc
+    // Trajectoire: tick(int), drone(int), x(float), y(float), état(byte)
+    static final int[] TRAJECTORY_COLUMNS = {4, 4, 4, 4, 1};
+    // Mesure: temps(long), drone(int), intensité(float), x(float), y(float)
+    static final int[] MEASUREMENT_COLUMNS = {8, 4, 4, 4, 4};
+    // Grille: une image par bloc, une ligne par cellule, intensité(float)
+    static final int[] GRID_COLUMNS = {4};
+    // Métriques: temps(long), couverture(double), anomalies(int), actifs(int), recharge(int)
+    static final int[] METRICS_COLUMNS = {8, 8, 4, 4, 4};
+    // Événement: tick(int), longueur(int), suivis du texte UTF-8 concaténé après les colonnes
+    static final int[] EVENT_COLUMNS = {4, 4};
+
+    public static final int DEFAULT_ROWS_PER_BLOCK = 16 * 1024;
+
+    static int[] columnsOf(int blockType) {
+        switch (blockType) {
+            case BLOCK_TRAJECTORY: return TRAJECTORY_COLUMNS;
+            case BLOCK_MEASUREMENT: return MEASUREMENT_COLUMNS;
+            case BLOCK_GRID: return GRID_COLUMNS;
+            case BLOCK_METRICS: return METRICS_COLUMNS;
+            case BLOCK_EVENT: return EVENT_COLUMNS;
+            default: throw new IllegalArgumentException("Type de bloc inconnu: " + blockType);
+        }
+    }
+
+    // Position du début de la colonne `column` dans un bloc de `rows` lignes
+    static long columnOffset(int[] widths, int column, int rows) {
+        long offset = 0;
+        for (int c = 0; c < column; c++) {
+            offset += (long) widths[c] * rows;
+        }
+        return offset;
+    }
+
+    private RunFileFormat() {
+        // Pas d'instanciation
+    }
+}
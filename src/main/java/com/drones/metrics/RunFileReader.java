@@ -0,0 +1,343 @@
+package com.drones.metrics;
+import com.drones.control.SimulationEngine;
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Lecture d'une exécution au format binaire colonnaire (voir {@link RunFileFormat}).
+ *
+ * Seuls l'entête et l'index sont lus à l'ouverture. Les blocs sont projetés
+ * en mémoire ({@link MappedByteBuffer}) à la demande, ce qui permet de
+ * parcourir ou d'atteindre un tick quelconque sans charger tout le fichier.
+ */
+public class RunFileReader implements Closeable {
+    private final FileChannel channel;
+    private final int gridWidth, gridHeight;
+    private final int numDrones;
+    private final int tickDurationMs;
+    private final Map<Integer, BlockIndex> blocks;
+    private MappedByteBuffer cachedBlock;
+    private long cachedOffset = -1;
+
+    public RunFileReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < RunFileFormat.HEADER_BYTES + RunFileFormat.TRAILER_BYTES) {
+                throw new IOException("Fichier d'exécution tronqué: " + path);
+            }
+            MappedByteBuffer header = map(0, RunFileFormat.HEADER_BYTES);
+            if (header.getInt(0) != RunFileFormat.MAGIC) {
+                throw new IOException("Fichier d'exécution invalide: " + path);
+            }
+            if (header.getInt(4) != RunFileFormat.VERSION) {
+                throw new IOException("Version de format non supportée: " + header.getInt(4));
+            }
+            this.gridWidth = header.getInt(8);
+            this.gridHeight = header.getInt(12);
+            this.numDrones = header.getInt(16);
+            this.tickDurationMs = header.getInt(20);
+
+            MappedByteBuffer trailer = map(size - RunFileFormat.TRAILER_BYTES, RunFileFormat.TRAILER_BYTES);
+            if (trailer.getInt(12) != RunFileFormat.MAGIC) {
+                throw new IOException("Index absent (fichier non fermé?): " + path);
+            }
+            int blockCount = trailer.getInt(0);
+            long indexOffset = trailer.getLong(4);
+
+            this.blocks = new HashMap<>();
+            MappedByteBuffer entries = map(indexOffset, (long) blockCount * RunFileFormat.INDEX_ENTRY_BYTES);
+            for (int i = 0; i < blockCount; i++) {
+                int base = i * RunFileFormat.INDEX_ENTRY_BYTES;
+                int type = entries.getInt(base);
+                blocks.computeIfAbsent(type, t -> new BlockIndex()).add(
+                    entries.getInt(base + 4),
+                    entries.getLong(base + 8),
+                    entries.getLong(base + 16),
+                    entries.getLong(base + 24),
+                    entries.getLong(base + 32));
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int getGridWidth() { return gridWidth; }
+    public int getGridHeight() { return gridHeight; }
+    public int getNumDrones() { return numDrones; }
+    public int getTickDurationMs() { return tickDurationMs; }
+
+    public int getBlockCount(int blockType) {
+        BlockIndex idx = blocks.get(blockType);
+        return idx == null ? 0 : idx.size;
+    }
+
+    // Dernier tick enregistré dans les trajectoires (-1 si aucun)
+    public long getLastTick() {
+        BlockIndex idx = blocks.get(RunFileFormat.BLOCK_TRAJECTORY);
+        return idx == null || idx.size == 0 ? -1 : idx.lastKey[idx.size - 1];
+    }
+
+    /**
+     * Positions des drones à un tick donné, rangées par identifiant de drone.
+     * @return le nombre de drones trouvés pour ce tick
+     */
+    public int readTrajectoryAt(long tick, float[] xs, float[] ys, byte[] states) throws IOException {
+        BlockIndex idx = blocks.get(RunFileFormat.BLOCK_TRAJECTORY);
+        int b = idx == null ? -1 : idx.find(tick);
+        if (b < 0) return 0;
+
+        int rows = idx.rows[b];
+        MappedByteBuffer block = block(idx, b);
+        int[] widths = RunFileFormat.TRAJECTORY_COLUMNS;
+        int ticks = (int) RunFileFormat.columnOffset(widths, 0, rows);
+        int ids = (int) RunFileFormat.columnOffset(widths, 1, rows);
+        int cx = (int) RunFileFormat.columnOffset(widths, 2, rows);
+        int cy = (int) RunFileFormat.columnOffset(widths, 3, rows);
+        int cs = (int) RunFileFormat.columnOffset(widths, 4, rows);
+
+        // Recherche dichotomique de la première ligne du tick (colonne triée)
+        int lo = 0, hi = rows;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (block.getInt(ticks + mid * 4) < tick) lo = mid + 1; else hi = mid;
+        }
+        int found = 0;
+        for (int r = lo; r < rows && block.getInt(ticks + r * 4) == tick; r++) {
+            int id = block.getInt(ids + r * 4);
+            if (id >= 0 && id < xs.length) {
+                xs[id] = block.getFloat(cx + r * 4);
+                ys[id] = block.getFloat(cy + r * 4);
+                states[id] = block.get(cs + r);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    // Parcourir les lignes de trajectoire dont le tick est dans [fromTick, toTick]
+    public void scanTrajectories(long fromTick, long toTick, TrajectoryVisitor visitor) throws IOException {
+        BlockIndex idx = blocks.get(RunFileFormat.BLOCK_TRAJECTORY);
+        if (idx == null) return;
+        int[] widths = RunFileFormat.TRAJECTORY_COLUMNS;
+        for (int b = idx.firstEndingAtOrAfter(fromTick); b < idx.size && idx.firstKey[b] <= toTick; b++) {
+            int rows = idx.rows[b];
+            MappedByteBuffer block = block(idx, b);
+            int ticks = (int) RunFileFormat.columnOffset(widths, 0, rows);
+            int ids = (int) RunFileFormat.columnOffset(widths, 1, rows);
+            int cx = (int) RunFileFormat.columnOffset(widths, 2, rows);
+            int cy = (int) RunFileFormat.columnOffset(widths, 3, rows);
+            int cs = (int) RunFileFormat.columnOffset(widths, 4, rows);
+            for (int r = 0; r < rows; r++) {
+                int tick = block.getInt(ticks + r * 4);
+                if (tick < fromTick) continue;
+                if (tick > toTick) break;
+                visitor.visit(tick, block.getInt(ids + r * 4), block.getFloat(cx + r * 4),
+                    block.getFloat(cy + r * 4), block.get(cs + r));
+            }
+        }
+    }
+
+    // Nombre de mesures enregistrées jusqu'au tick donné inclus
+    public long countMeasurementsUpTo(long tick) throws IOException {
+        BlockIndex idx = blocks.get(RunFileFormat.BLOCK_MEASUREMENT);
+        if (idx == null) return 0;
+        long count = 0;
+        int b = 0;
+        for (; b < idx.size && idx.lastKey[b] <= tick; b++) {
+            count += idx.rows[b];
+        }
+        if (b < idx.size && idx.firstKey[b] <= tick) {
+            // Bloc partiel: compter les lignes par horodatage
+            int rows = idx.rows[b];
+            MappedByteBuffer block = block(idx, b);
+            long limit = (tick + 1) * tickDurationMs;
+            for (int r = 0; r < rows && block.getLong(r * 8) < limit; r++) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    // Parcourir toutes les mesures dans l'ordre d'écriture
+    public void scanMeasurements(MeasurementVisitor visitor) throws IOException {
+        BlockIndex idx = blocks.get(RunFileFormat.BLOCK_MEASUREMENT);
+        if (idx == null) return;
+        int[] widths = RunFileFormat.MEASUREMENT_COLUMNS;
+        for (int b = 0; b < idx.size; b++) {
+            int rows = idx.rows[b];
+            MappedByteBuffer block = block(idx, b);
+            int times = (int) RunFileFormat.columnOffset(widths, 0, rows);
+            int ids = (int) RunFileFormat.columnOffset(widths, 1, rows);
+            int ci = (int) RunFileFormat.columnOffset(widths, 2, rows);
+            int cx = (int) RunFileFormat.columnOffset(widths, 3, rows);
+            int cy = (int) RunFileFormat.columnOffset(widths, 4, rows);
+            for (int r = 0; r < rows; r++) {
+                visitor.visit(block.getInt(ids + r * 4), block.getLong(times + r * 8),
+                    block.getFloat(ci + r * 4), block.getFloat(cx + r * 4), block.getFloat(cy + r * 4));
+            }
+        }
+    }
+
+    // Parcourir les événements dont le tick est dans [fromTick, toTick]
+    public void scanEvents(long fromTick, long toTick, EventVisitor visitor) throws IOException {
+        BlockIndex idx = blocks.get(RunFileFormat.BLOCK_EVENT);
+        if (idx == null) return;
+        int[] widths = RunFileFormat.EVENT_COLUMNS;
+        byte[] text = new byte[256];
+        for (int b = idx.firstEndingAtOrAfter(fromTick); b < idx.size && idx.firstKey[b] <= toTick; b++) {
+            int rows = idx.rows[b];
+            MappedByteBuffer block = block(idx, b);
+            int ticks = (int) RunFileFormat.columnOffset(widths, 0, rows);
+            int lengths = (int) RunFileFormat.columnOffset(widths, 1, rows);
+            int heap = (int) RunFileFormat.columnOffset(widths, 2, rows);
+            for (int r = 0; r < rows; r++) {
+                int tick = block.getInt(ticks + r * 4);
+                int length = block.getInt(lengths + r * 4);
+                if (tick >= fromTick && tick <= toTick) {
+                    if (text.length < length) text = new byte[length];
+                    block.get(heap, text, 0, length);
+                    visitor.visit(tick, new String(text, 0, length, StandardCharsets.UTF_8));
+                }
+                heap += length;
+            }
+        }
+    }
+    
+    /**
+     * Dernière image de grille enregistrée au tick donné ou avant.
+     * @param out tableau de largeur*hauteur valeurs, rangées ligne par ligne
+     * @return le tick de l'image lue, ou -1 si aucune
+     */
+    public long readGridFrame(long tick, float[] out) throws IOException {
+        BlockIndex idx = blocks.get(RunFileFormat.BLOCK_GRID);
+        if (idx == null) return -1;
+        int b = idx.lastStartingAtOrBefore(tick);
+        if (b < 0) return -1;
+        MappedByteBuffer block = block(idx, b);
+        int cells = Math.min(idx.rows[b], out.length);
+        for (int i = 0; i < cells; i++) {
+            out[i] = block.getFloat(i * 4);
+        }
+        return idx.firstKey[b];
+    }
+
+    public List<SimulationEngine.SimulationMetrics.MetricsSnapshot> readMetrics() throws IOException {
+        List<SimulationEngine.SimulationMetrics.MetricsSnapshot> result = new ArrayList<>();
+        BlockIndex idx = blocks.get(RunFileFormat.BLOCK_METRICS);
+        if (idx == null) return result;
+        int[] widths = RunFileFormat.METRICS_COLUMNS;
+        for (int b = 0; b < idx.size; b++) {
+            int rows = idx.rows[b];
+            MappedByteBuffer block = block(idx, b);
+            int times = (int) RunFileFormat.columnOffset(widths, 0, rows);
+            int cov = (int) RunFileFormat.columnOffset(widths, 1, rows);
+            int anom = (int) RunFileFormat.columnOffset(widths, 2, rows);
+            int act = (int) RunFileFormat.columnOffset(widths, 3, rows);
+            int chg = (int) RunFileFormat.columnOffset(widths, 4, rows);
+            for (int r = 0; r < rows; r++) {
+                result.add(new SimulationEngine.SimulationMetrics.MetricsSnapshot(
+                    block.getLong(times + r * 8),
+                    block.getDouble(cov + r * 8),
+                    block.getInt(anom + r * 4),
+                    block.getInt(act + r * 4),
+                    block.getInt(chg + r * 4)));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        cachedBlock = null;
+        channel.close();
+    }
+
+    private MappedByteBuffer block(BlockIndex idx, int b) throws IOException {
+        if (cachedOffset != idx.offset[b]) {
+            cachedBlock = map(idx.offset[b], idx.length[b]);
+            cachedOffset = idx.offset[b];
+        }
+        return cachedBlock;
+    }
+
+    private MappedByteBuffer map(long offset, long length) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    public interface TrajectoryVisitor {
+        void visit(int tick, int droneId, float x, float y, byte state);
+    }
+
+    public interface MeasurementVisitor {
+        void visit(int droneId, long timestamp, float intensity, float x, float y);
+    }
+
+    public interface EventVisitor {
+        void visit(int tick, String message);
+    }
+
+    // Index des blocs d'un même type, triés par tick
+    private static class BlockIndex {
+        int size;
+        int[] rows = new int[16];
+        long[] firstKey = new long[16];
+        long[] lastKey = new long[16];
+        long[] offset = new long[16];
+        long[] length = new long[16];
+
+        void add(int r, long first, long last, long off, long len) {
+            if (size == rows.length) {
+                int n = size * 2;
+                rows = Arrays.copyOf(rows, n);
+                firstKey = Arrays.copyOf(firstKey, n);
+                lastKey = Arrays.copyOf(lastKey, n);
+                offset = Arrays.copyOf(offset, n);
+                length = Arrays.copyOf(length, n);
+            }
+            rows[size] = r;
+            firstKey[size] = first;
+            lastKey[size] = last;
+            offset[size] = off;
+            length[size] = len;
+            size++;
+        }
+
+        // Bloc contenant le tick, ou -1
+        int find(long tick) {
+            int b = lastStartingAtOrBefore(tick);
+            return b >= 0 && lastKey[b] >= tick ? b : -1;
+        }
+
+        int lastStartingAtOrBefore(long tick) {
+            int lo = 0, hi = size - 1, result = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (firstKey[mid] <= tick) {
+                    result = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return result;
+        }
+
+        int firstEndingAtOrAfter(long tick) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (lastKey[mid] < tick) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.drones.metrics;
+import com.drones.control.SimulationEngine;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Écriture d'une exécution au format binaire colonnaire (voir {@link RunFileFormat}).
+ *
+ * Les lignes sont accumulées par type dans des colonnes en mémoire et écrites
+ * bloc par bloc via un {@link FileChannel}. Les lignes de trajectoire et de
+ * mesure doivent être ajoutées par tick croissant; un bloc n'est jamais coupé
+ * au milieu d'un tick. L'index est écrit à la fermeture.
+ */
+public class RunFileWriter implements Closeable {
+    private final FileChannel channel;
+    private final int rowsPerBlock;
+    private final int tickDurationMs;
+    private final int gridWidth, gridHeight;
+    private final ColumnBlock trajectories;
+    private final ColumnBlock measurements;
+    private final ColumnBlock metrics;
+    private final ColumnBlock events;
+    private final ByteBuffer gridBuffer;
+    private final List<long[]> index; // {type, lignes, premierTick, dernierTick, position, taille}
+    private long position;
+    private boolean closed;
+
+    public RunFileWriter(Path path, int gridWidth, int gridHeight, int numDrones, int tickDurationMs) throws IOException {
+        this(path, gridWidth, gridHeight, numDrones, tickDurationMs, RunFileFormat.DEFAULT_ROWS_PER_BLOCK);
+    }
+
+    public RunFileWriter(Path path, int gridWidth, int gridHeight, int numDrones, int tickDurationMs,
+        int rowsPerBlock) throws IOException {
+        if (rowsPerBlock <= 0) {
+            throw new IllegalArgumentException("rowsPerBlock doit être positif");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        this.rowsPerBlock = rowsPerBlock;
+        this.tickDurationMs = tickDurationMs;
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.trajectories = new ColumnBlock(RunFileFormat.BLOCK_TRAJECTORY, rowsPerBlock);
+        this.measurements = new ColumnBlock(RunFileFormat.BLOCK_MEASUREMENT, rowsPerBlock);
+        this.metrics = new ColumnBlock(RunFileFormat.BLOCK_METRICS, rowsPerBlock);
+        this.events = new ColumnBlock(RunFileFormat.BLOCK_EVENT, rowsPerBlock);
+        this.events.heap = ByteBuffer.allocateDirect(rowsPerBlock * 64).order(ByteOrder.LITTLE_ENDIAN);
+        this.gridBuffer = ByteBuffer.allocateDirect(gridWidth * gridHeight * 4).order(ByteOrder.LITTLE_ENDIAN);
+        this.index = new ArrayList<>();
+
+        ByteBuffer header = ByteBuffer.allocate(RunFileFormat.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(RunFileFormat.MAGIC);
+        header.putInt(RunFileFormat.VERSION);
+        header.putInt(gridWidth);
+        header.putInt(gridHeight);
+        header.putInt(numDrones);
+        header.putInt(tickDurationMs);
+        header.putInt(rowsPerBlock);
+        header.putInt(0); // réservé
+        header.flip();
+        writeFully(header);
+    }
+
+    // Position d'un drone à un tick donné
+    public void writeTrajectory(int tick, int droneId, double x, double y, int stateOrdinal) throws IOException {
+        if (trajectories.rows >= rowsPerBlock && tick != trajectories.lastKey) {
+            flush(trajectories);
+        }
+        trajectories.beginRow(tick);
+        trajectories.column(0).putInt(tick);
+        trajectories.column(1).putInt(droneId);
+        trajectories.column(2).putFloat((float) x);
+        trajectories.column(3).putFloat((float) y);
+        trajectories.column(4).put((byte) stateOrdinal);
+    }
+
+    // Mesure d'un drone (indexée par le tick correspondant à son horodatage)
+    public void writeMeasurement(int droneId, long timestamp, double intensity, double x, double y) throws IOException {
+        long tick = timestamp / tickDurationMs;
+        if (measurements.rows >= rowsPerBlock && tick != measurements.lastKey) {
+            flush(measurements);
+        }
+        measurements.beginRow(tick);
+        measurements.column(0).putLong(timestamp);
+        measurements.column(1).putInt(droneId);
+        measurements.column(2).putFloat((float) intensity);
+        measurements.column(3).putFloat((float) x);
+        measurements.column(4).putFloat((float) y);
+    }
+
+    // Image complète de la grille d'intensité (un bloc par image)
+    public void writeGridFrame(int tick, double[][] grid) throws IOException {
+        gridBuffer.clear();
+        for (int y = 0; y < gridHeight; y++) {
+            double[] row = grid[y];
+            for (int x = 0; x < gridWidth; x++) {
+                gridBuffer.putFloat((float) row[x]);
+            }
+        }
+        gridBuffer.flip();
+        long offset = position;
+        writeFully(gridBuffer);
+        index.add(new long[]{RunFileFormat.BLOCK_GRID, gridWidth * gridHeight, tick, tick, offset, position - offset});
+    }
+
+    public void writeMetrics(SimulationEngine.SimulationMetrics.MetricsSnapshot snapshot) throws IOException {
+        if (metrics.rows >= rowsPerBlock) {
+            flush(metrics);
+        }
+        metrics.beginRow(snapshot.time / tickDurationMs);
+        metrics.column(0).putLong(snapshot.time);
+        metrics.column(1).putDouble(snapshot.coverage);
+        metrics.column(2).putInt(snapshot.anomalies);
+        metrics.column(3).putInt(snapshot.activeDrones);
+        metrics.column(4).putInt(snapshot.rechargingDrones);
+    }
+
+    // Entrée du journal d'événements
+    public void writeEvent(int tick, String message) throws IOException {
+        if (events.rows >= rowsPerBlock && tick != events.lastKey) {
+            flush(events);
+        }
+        byte[] text = message.getBytes(StandardCharsets.UTF_8);
+        events.beginRow(tick);
+        events.column(0).putInt(tick);
+        events.column(1).putInt(text.length);
+        events.reserveHeap(text.length).put(text);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            flush(trajectories);
+            flush(measurements);
+            flush(metrics);
+            flush(events);
+
+            long indexOffset = position;
+            ByteBuffer entry = ByteBuffer.allocate(RunFileFormat.INDEX_ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (long[] e : index) {
+                entry.clear();
+                entry.putInt((int) e[0]);
+                entry.putInt((int) e[1]);
+                entry.putLong(e[2]);
+                entry.putLong(e[3]);
+                entry.putLong(e[4]);
+                entry.putLong(e[5]);
+                entry.flip();
+                writeFully(entry);
+            }
+
+            ByteBuffer trailer = ByteBuffer.allocate(RunFileFormat.TRAILER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            trailer.putInt(index.size());
+            trailer.putLong(indexOffset);
+            trailer.putInt(RunFileFormat.MAGIC);
+            trailer.flip();
+            writeFully(trailer);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush(ColumnBlock block) throws IOException {
+        if (block.rows == 0) return;
+        long offset = position;
+        ByteBuffer[] columns = block.columns;
+        if (block.heap != null) {
+            columns = Arrays.copyOf(columns, columns.length + 1);
+            columns[columns.length - 1] = block.heap;
+        }
+        for (ByteBuffer column : columns) {
+            column.flip();
+        }
+        while (columns[columns.length - 1].hasRemaining()) {
+            position += channel.write(columns);
+        }
+        index.add(new long[]{block.type, block.rows, block.firstKey, block.lastKey, offset, position - offset});
+        block.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    // Colonnes d'un bloc en cours de remplissage
+    private static class ColumnBlock {
+        final int type;
+        final int[] widths;
+        ByteBuffer[] columns;
+        ByteBuffer heap; // données de longueur variable (texte des événements)
+        int rows;
+        long firstKey, lastKey;
+
+        ColumnBlock(int type, int capacity) {
+            this.type = type;
+            this.widths = RunFileFormat.columnsOf(type);
+            this.columns = new ByteBuffer[widths.length];
+            for (int c = 0; c < widths.length; c++) {
+                columns[c] = ByteBuffer.allocateDirect(widths[c] * capacity).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+
+        void beginRow(long key) {
+            if (rows == 0) firstKey = key;
+            lastKey = key;
+            rows++;
+            // Un tick peut déborder la capacité nominale: agrandir les colonnes
+            if (columns[0].remaining() < widths[0]) {
+                for (int c = 0; c < columns.length; c++) {
+                    ByteBuffer bigger = ByteBuffer.allocateDirect(columns[c].capacity() * 2).order(ByteOrder.LITTLE_ENDIAN);
+                    columns[c].flip();
+                    bigger.put(columns[c]);
+                    columns[c] = bigger;
+                }
+            }
+        }
+
+        ByteBuffer column(int c) {
+            return columns[c];
+        }
+
+        ByteBuffer reserveHeap(int bytes) {
+            if (heap.remaining() < bytes) {
+                ByteBuffer bigger = ByteBuffer.allocateDirect(Math.max(heap.capacity() * 2, heap.position() + bytes))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+                heap.flip();
+                bigger.put(heap);
+                heap = bigger;
+            }
+            return heap;
+        }
+
+        void clear() {
+            for (ByteBuffer column : columns) {
+                column.clear();
+            }
+            if (heap != null) {
+                heap.clear();
+            }
+            rows = 0;
+        }
+    }
+}
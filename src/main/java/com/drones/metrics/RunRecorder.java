@@ -0,0 +1,121 @@
+package com.drones.metrics;
+import com.drones.config.SimulationParams;
+import com.drones.control.SimulationEngine;
+import com.drones.control.TickListener;
+import com.drones.model.Drone;
+import com.drones.model.Environment;
+import java.io.*;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Enregistre une exécution en direct dans un fichier au format colonnaire:
+ * positions de tous les drones à chaque tick, nouveaux événements, nouvelles
+ * mesures, métriques et une image de la grille tous les k ticks. Le fichier
+ * peut ensuite être relu par l'interface sans recalculer la simulation.
+ * En macro-pas, les positions ne sont enregistrées qu'au dernier tick de
+ * chaque pas; les pas s'arrêtent sur les ticks des images de grille.
+ */
+public class RunRecorder implements TickListener, Closeable {
+    private final RunFileWriter writer;
+    private final int gridInterval;
+    private int lastEventCount;
+    private int lastSnapshotCount;
+    private int[] lastMeasurementCount;
+    
+    public RunRecorder(RunFileWriter writer, int gridInterval) {
+        if (gridInterval <= 0) {
+            throw new IllegalArgumentException("gridInterval doit être positif");
+        }
+        this.writer = writer;
+        this.gridInterval = gridInterval;
+        this.lastMeasurementCount = new int[0];
+    }
+    
+    /**
+     * Enregistreur attaché au moteur donné. Les événements, mesures et
+     * métriques déjà présents (moteur restauré d'un point de sauvegarde)
+     * ne sont pas réécrits: le fichier ne contient que la suite.
+     */
+    public static RunRecorder attach(SimulationEngine engine, Path path, int gridInterval) throws IOException {
+        Environment env = engine.getEnvironment();
+        RunFileWriter writer = new RunFileWriter(path, env.getWidth(), env.getHeight(),
+            engine.getDrones().size(), SimulationParams.TICK_DURATION_MS);
+        RunRecorder recorder = new RunRecorder(writer, gridInterval);
+        recorder.skipExisting(engine);
+        engine.addTickListener(recorder);
+        return recorder;
+    }
+    
+    // Partir des compteurs actuels du moteur
+    private void skipExisting(SimulationEngine engine) {
+        List<Drone> drones = engine.getDrones();
+        lastMeasurementCount = new int[drones.size()];
+        for (int i = 0; i < drones.size(); i++) {
+            lastMeasurementCount[i] = drones.get(i).getMeasurements().size();
+        }
+        lastEventCount = engine.getEventLog().size();
+        lastSnapshotCount = engine.getMetrics().getSnapshotCount();
+    }
+    
+    @Override
+    public void onTick(SimulationEngine engine) {
+        int tick = engine.getTickCount() - 1;
+        try {
+            List<Drone> drones = engine.getDrones();
+            if (lastMeasurementCount.length != drones.size()) {
+                lastMeasurementCount = new int[drones.size()];
+            }
+            for (int i = 0; i < drones.size(); i++) {
+                Drone d = drones.get(i);
+                writer.writeTrajectory(tick, d.getId(), d.getX(), d.getY(), d.getState().ordinal());
+                
+                // Les mesures sont vidées au retour à la base: repartir de zéro
+                List<Drone.Measurement> measurements = d.getMeasurements();
+                if (measurements.size() < lastMeasurementCount[i]) {
+                    lastMeasurementCount[i] = 0;
+                }
+                for (int k = lastMeasurementCount[i]; k < measurements.size(); k++) {
+                    Drone.Measurement m = measurements.get(k);
+                    writer.writeMeasurement(d.getId(), m.timestamp, m.intensity, m.x, m.y);
+                }
+                lastMeasurementCount[i] = measurements.size();
+            }
+            
+            List<String> events = engine.getEventLog();
+            if (events.size() < lastEventCount) {
+                lastEventCount = 0;
+            }
+            for (int k = lastEventCount; k < events.size(); k++) {
+                writer.writeEvent(tick, events.get(k));
+            }
+            lastEventCount = events.size();
+            
+            SimulationEngine.SimulationMetrics metrics = engine.getMetrics();
+            if (metrics.getSnapshotCount() < lastSnapshotCount) {
+                lastSnapshotCount = 0;
+            }
+            for (int k = lastSnapshotCount; k < metrics.getSnapshotCount(); k++) {
+                writer.writeMetrics(metrics.getSnapshot(k));
+            }
+            lastSnapshotCount = metrics.getSnapshotCount();
+            
+            if (tick % gridInterval == 0) {
+                writer.writeGridFrame(tick, engine.getEnvironment().getAnomalyIntensity());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    // Le macro-pas doit finir sur le tick de la prochaine image de grille
+    @Override
+    public int nextDeadline(int fromTick) {
+        return fromTick + Math.floorMod(-fromTick, gridInterval);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
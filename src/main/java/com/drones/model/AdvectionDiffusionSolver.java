@@ -0,0 +1,136 @@
+package com.drones.model;
+import java.util.stream.IntStream;
+
+/**
+ * Résolution explicite de l'équation de diffusion-advection avec
+ * décroissance sur la grille d'intensité:
+ * <pre>
+ *   dC/dt = D (d²C/dx² + d²C/dy²) - (u dC/dx + v dC/dy) - k C
+ * </pre>
+ * Différences finies sur un pas d'une cellule: laplacien à 5 points et
+ * advection décentrée amont (upwind). Le schéma n'est stable et monotone
+ * (pas d'intensité négative ni de dépassement) que si
+ * dt (4 D + |u| + |v|) &lt;= 1: un tick est donc découpé en autant de
+ * sous-pas que nécessaire. Les bords sont absorbants (intensité nulle
+ * hors de la grille): un panache poussé par le vent sort de la zone.
+ *
+ * Le noyau ({@link FieldKernel}, scalaire ou vectoriel) travaille sur
+ * deux grilles alternées allouées une fois pour toutes; la variante
+ * parallèle découpe les lignes en bandes. Chaque cellule ne dépend que de
+ * la grille précédente: les variantes donnent le même résultat.
+ */
+public class AdvectionDiffusionSolver {
+    // Marge sous la limite de stabilité
+    private static final double STABILITY_SAFETY = 0.9;
+    // Lignes par bande dans la variante parallèle
+    private static final int BAND_ROWS = 16;
+
+    private final int width, height;
+    private final double[][] scratch;
+    private final double[] zeroRow; // voisine hors grille
+    private double diffusivity;     // cellules² par seconde
+    private WindField wind;
+    private boolean parallel;
+    private FieldKernel kernel = new ScalarFieldKernel();
+
+    public AdvectionDiffusionSolver(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.scratch = new double[height][width];
+        this.zeroRow = new double[width];
+        this.wind = new WindField(width, height);
+    }
+
+    public double getDiffusivity() { return diffusivity; }
+    public void setDiffusivity(double diffusivity) { this.diffusivity = diffusivity; }
+    public WindField getWind() { return wind; }
+    public boolean isParallel() { return parallel; }
+    public void setParallel(boolean parallel) { this.parallel = parallel; }
+    public boolean isVectorized() { return !(kernel instanceof ScalarFieldKernel); }
+
+    /**
+     * Utiliser le noyau vectoriel (API Vector, module incubateur, compilé
+     * avec le profil Maven simd). Sans cette classe ou sans
+     * {@code --add-modules jdk.incubator.vector} au lancement, le noyau
+     * scalaire est conservé. Retourne vrai si le noyau vectoriel est actif.
+     */
+    public boolean setVectorized(boolean vectorized) {
+        kernel = vectorized ? loadVectorKernel() : new ScalarFieldKernel();
+        return isVectorized();
+    }
+
+    private static FieldKernel loadVectorKernel() {
+        try {
+            // Chargé par réflexion: la classe ne se lie qu'avec le module incubateur
+            return (FieldKernel) Class.forName("com.drones.model.VectorFieldKernel")
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarFieldKernel();
+        }
+    }
+
+    public void setWind(WindField wind) {
+        if (wind.getWidth() != width || wind.getHeight() != height) {
+            throw new IllegalArgumentException("Champ de vent " + wind.getWidth() + "x" + wind.getHeight()
+                + " au lieu de " + width + "x" + height);
+        }
+        this.wind = wind;
+    }
+
+    // Nombre de sous-pas nécessaires pour avancer de la durée donnée
+    public int substepsFor(double seconds) {
+        double rate = 4 * diffusivity + wind.getMaxSpeedSum();
+        return Math.max(1, (int) Math.ceil(seconds * rate / STABILITY_SAFETY));
+    }
+
+    /**
+     * Avancer la grille (en place) de la durée donnée. {@code decay} est le
+     * facteur de décroissance sur toute la durée, réparti entre les sous-pas.
+     */
+    public void advance(double[][] field, double seconds, double decay) {
+        int steps = substepsFor(seconds);
+        double dt = seconds / steps;
+        double stepDecay = stepDecay(decay, steps);
+        double[][] src = field, dst = scratch;
+        for (int s = 0; s < steps; s++) {
+            if (parallel) {
+                stepParallel(src, dst, dt, stepDecay);
+            } else {
+                step(src, dst, 0, height, dt, stepDecay);
+            }
+            double[][] t = src;
+            src = dst;
+            dst = t;
+        }
+        if (src != field) {
+            for (int y = 0; y < height; y++) {
+                System.arraycopy(src[y], 0, field[y], 0, width);
+            }
+        }
+    }
+
+    // Décroissance d'un sous-pas quand la durée est découpée en steps sous-pas
+    static double stepDecay(double decay, int steps) {
+        return steps == 1 ? decay : Math.pow(decay, 1.0 / steps);
+    }
+
+    /**
+     * Un sous-pas sur les lignes [y0, y1[ de src vers dst, sans échange
+     * des grilles: pour les tuiles dont les lignes 0 et height - 1 sont des
+     * copies des tuiles voisines (voir {@link EnvironmentTile}).
+     */
+    void substep(double[][] src, double[][] dst, int y0, int y1, double dt, double decay) {
+        step(src, dst, y0, y1, dt, decay);
+    }
+
+    private void stepParallel(double[][] src, double[][] dst, double dt, double decay) {
+        int bands = (height + BAND_ROWS - 1) / BAND_ROWS;
+        IntStream.range(0, bands).parallel().forEach(b ->
+            step(src, dst, b * BAND_ROWS, Math.min(height, (b + 1) * BAND_ROWS), dt, decay));
+    }
+
+    // Un sous-pas sur les lignes [y0, y1[
+    private void step(double[][] src, double[][] dst, int y0, int y1, double dt, double decay) {
+        kernel.step(src, dst, y0, y1, zeroRow, wind.rawU(), wind.rawV(), diffusivity, dt, decay);
+    }
+}
@@ -1,15 +1,23 @@
 package com.drones.model;
 public class Anomaly {
+    // En dessous, l'anomalie est considérée comme éteinte
+    public static final double MIN_INTENSITY = 0.01;
+
     private double x, y;
     private double intensity; 
     private double maxIntensity;
     private long creationTime;
     
     public Anomaly(double x, double y, double intensity, long creationTime) {
+        this(x, y, intensity, intensity, creationTime);
+    }
+    
+    // Reconstruction d'une anomalie existante (reprise depuis un point de sauvegarde)
+    public Anomaly(double x, double y, double intensity, double maxIntensity, long creationTime) {
         this.x = x;
         this.y = y;
         this.intensity = intensity;
-        this.maxIntensity = intensity;
+        this.maxIntensity = maxIntensity;
         this.creationTime = creationTime;
     }
     
@@ -28,6 +36,6 @@ public class Anomaly {
     }
     
     public boolean isAlive() {
-        return intensity > 0.01;
+        return intensity > MIN_INTENSITY;
     }
 }
@@ -0,0 +1,368 @@
+package com.drones.model;
+import com.drones.control.IndexedMinHeap;
+import java.io.*;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Anomalies actives en structure de tableaux (un tableau primitif par
+ * champ), avec retrait par échange avec la dernière (swap-remove) et un
+ * index spatial par cellule.
+ *
+ * Chaque cellule de la grille a une liste chaînée (par indices) des
+ * anomalies qu'elle contient: apparition et recherche de l'anomalie
+ * responsable d'une détection coûtent O(1) ou O(voisinage),
+ * indépendamment du nombre total d'anomalies. L'ordre des anomalies n'est
+ * pas stable: un retrait déplace la dernière anomalie à la place libérée.
+ *
+ * La décroissance n'est pas appliquée anomalie par anomalie: chacune garde
+ * son intensité et son pas de décroissance d'apparition, et son intensité
+ * courante vaut i0 · taux^âge, calculée à la lecture. Le pas où elle
+ * passera sous le seuil d'expiration est calculé à l'apparition et rangé
+ * dans un tas ({@link IndexedMinHeap}): {@link #decay} est en O(1) et
+ * {@link #removeExpired} ne touche que les anomalies arrivées à échéance,
+ * en O(log n) chacune. Changer de taux ou de seuil replanifie toutes les
+ * anomalies (O(n), une fois).
+ *
+ * Le pool mémorise aussi, pour chaque anomalie, l'instant de sa première
+ * détection, et cumule les délais de détection (y compris des anomalies
+ * expirées depuis).
+ */
+public class AnomalyPool {
+    private static final int NONE = -1;
+    private static final int MAX_POWERS = 1 << 16; // au-delà, taux^âge par Math.pow
+
+    private final int width, height;
+    private int size;
+    private double[] xs, ys, intensity, maxIntensity; // intensity: à l'apparition (pas spawnStep)
+    private long[] creationTime, detectedTime, spawnStep, expiryStep;
+    private int[] ids, cell, next, prev;
+    private final int[] cellHead; // première anomalie de chaque cellule
+    private int nextId;
+    private long detectedCount;
+    private long detectionDelaySum; // ms
+    private long step; // pas de décroissance écoulés
+    private double rate = 1.0; // taux de décroissance par pas
+    private double threshold = Anomaly.MIN_INTENSITY; // seuil d'expiration planifié
+    private double[] powers = {1.0}; // powers[k] = rate^k, par multiplications successives
+    private IndexedMinHeap expiries = new IndexedMinHeap(0); // indice -> expiryStep
+
+    public AnomalyPool(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cellHead = new int[width * height];
+        Arrays.fill(cellHead, NONE);
+        allocate(16);
+    }
+
+    public int size() { return size; }
+    public double getX(int i) { return xs[i]; }
+    public double getY(int i) { return ys[i]; }
+    // Intensité courante: intensité d'apparition décrue depuis
+    public double getIntensity(int i) { return intensity[i] * power(step - spawnStep[i]); }
+    public double getMaxIntensity(int i) { return maxIntensity[i]; }
+    public long getCreationTime(int i) { return creationTime[i]; }
+    public int getId(int i) { return ids[i]; }
+    // Instant de la première détection, -1 si pas encore détectée
+    public long getDetectedTime(int i) { return detectedTime[i]; }
+
+    // Cellule de la grille où l'anomalie dépose son intensité, -1 hors grille
+    public int getCell(int i) { return cell[i]; }
+
+    public long getDetectedCount() { return detectedCount; }
+
+    // Délai moyen entre apparition et première détection (ms), 0 si aucune détection
+    public double getAverageDetectionDelay() {
+        return detectedCount == 0 ? 0 : (double) detectionDelaySum / detectedCount;
+    }
+
+    // Ajouter une anomalie, retourne son indice
+    public int spawn(double x, double y, double value, double max, long time) {
+        if (size == xs.length) {
+            allocate(size * 2);
+        }
+        int i = size++;
+        xs[i] = x;
+        ys[i] = y;
+        intensity[i] = value;
+        maxIntensity[i] = max;
+        creationTime[i] = time;
+        detectedTime[i] = -1;
+        ids[i] = nextId++;
+        int ix = (int) Math.round(x), iy = (int) Math.round(y);
+        cell[i] = ix >= 0 && ix < width && iy >= 0 && iy < height ? iy * width + ix : NONE;
+        link(i);
+        spawnStep[i] = step;
+        schedule(i);
+        return i;
+    }
+
+    // Retirer l'anomalie i: la dernière prend sa place
+    public void remove(int i) {
+        unlink(i);
+        expiries.remove(i);
+        int last = --size;
+        if (i != last) {
+            unlink(last);
+            expiries.remove(last);
+            xs[i] = xs[last];
+            ys[i] = ys[last];
+            intensity[i] = intensity[last];
+            maxIntensity[i] = maxIntensity[last];
+            creationTime[i] = creationTime[last];
+            detectedTime[i] = detectedTime[last];
+            ids[i] = ids[last];
+            cell[i] = cell[last];
+            spawnStep[i] = spawnStep[last];
+            expiryStep[i] = expiryStep[last];
+            link(i);
+            expiries.put(i, expiryStep[i]);
+        }
+    }
+
+    // Un pas de décroissance de toutes les anomalies (O(1) tant que le taux ne change pas)
+    public void decay(double rate) {
+        if (rate != this.rate) {
+            // Nouveau taux: repartir de l'intensité courante
+            for (int i = 0; i < size; i++) {
+                intensity[i] = getIntensity(i);
+                spawnStep[i] = step;
+            }
+            this.rate = rate;
+            powers = new double[]{1.0};
+            rescheduleAll();
+        }
+        step++;
+    }
+
+    // Retirer les anomalies trop faibles (même critère que Anomaly.isAlive())
+    public void removeExpired(double minIntensity) {
+        if (minIntensity != threshold) {
+            threshold = minIntensity;
+            rescheduleAll();
+        }
+        while (!expiries.isEmpty() && expiries.keyOf(expiries.peek()) <= step) {
+            remove(expiries.peek());
+        }
+    }
+
+    /**
+     * Anomalie responsable de l'intensité mesurée en (x, y): parmi les
+     * cellules à au plus {@code radius} cellules (distance de Chebyshev),
+     * celle dont l'intensité atténuée de {@code falloff} par cellule
+     * d'écart est la plus forte. Retourne -1 si aucune anomalie n'est assez
+     * proche.
+     */
+    public int findSource(double x, double y, int radius, double falloff) {
+        int cx = (int) Math.floor(x), cy = (int) Math.floor(y);
+        int best = NONE;
+        double bestContribution = 0;
+        for (int ny = Math.max(0, cy - radius); ny <= Math.min(height - 1, cy + radius); ny++) {
+            for (int nx = Math.max(0, cx - radius); nx <= Math.min(width - 1, cx + radius); nx++) {
+                int head = cellHead[ny * width + nx];
+                if (head == NONE) continue;
+                double weight = Math.pow(falloff, Math.max(Math.abs(nx - cx), Math.abs(ny - cy)));
+                for (int i = head; i != NONE; i = next[i]) {
+                    double contribution = getIntensity(i) * weight;
+                    // À contribution égale, la plus ancienne: résultat indépendant de l'ordre des listes
+                    if (contribution > bestContribution
+                        || (contribution == bestContribution && best != NONE && ids[i] < ids[best])) {
+                        best = i;
+                        bestContribution = contribution;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Attribuer une détection faite en (x, y) au temps donné (voir
+     * {@link #findSource}): la première détection de l'anomalie
+     * responsable fixe son délai de détection. Retourne l'indice de
+     * l'anomalie, -1 si aucune.
+     */
+    public int recordDetection(double x, double y, long time, int radius, double falloff) {
+        int i = findSource(x, y, radius, falloff);
+        if (i != NONE && detectedTime[i] < 0) {
+            detectedTime[i] = time;
+            detectedCount++;
+            detectionDelaySum += time - creationTime[i];
+        }
+        return i;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            if (cell[i] != NONE) cellHead[cell[i]] = NONE;
+        }
+        expiries.clear();
+        size = 0;
+        nextId = 0;
+        detectedCount = 0;
+        detectionDelaySum = 0;
+    }
+
+    /**
+     * Vue {@link List} compatible avec l'ancienne liste d'anomalies:
+     * {@code add} fait apparaître une anomalie, {@code get} rend une copie
+     * (la modifier n'a pas d'effet sur le pool).
+     */
+    public List<Anomaly> asList() {
+        return new AbstractList<Anomaly>() {
+            @Override
+            public Anomaly get(int i) {
+                if (i < 0 || i >= size) throw new IndexOutOfBoundsException("index " + i + ", taille " + size);
+                return new Anomaly(xs[i], ys[i], getIntensity(i), maxIntensity[i], creationTime[i]);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean add(Anomaly a) {
+                spawn(a.getX(), a.getY(), a.getIntensity(), a.getMaxIntensity(), a.getCreationTime());
+                return true;
+            }
+
+            @Override
+            public Anomaly remove(int i) {
+                Anomaly removed = get(i);
+                AnomalyPool.this.remove(i);
+                return removed;
+            }
+
+            @Override
+            public void clear() {
+                AnomalyPool.this.clear();
+            }
+        };
+    }
+
+    // Intensités d'apparition et âges: les intensités reprises sont identiques au bit près
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(nextId);
+        out.writeLong(detectedCount);
+        out.writeLong(detectionDelaySum);
+        out.writeDouble(rate);
+        out.writeDouble(threshold);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeDouble(xs[i]);
+            out.writeDouble(ys[i]);
+            out.writeDouble(intensity[i]);
+            out.writeLong(step - spawnStep[i]);
+            out.writeDouble(maxIntensity[i]);
+            out.writeLong(creationTime[i]);
+            out.writeLong(detectedTime[i]);
+            out.writeInt(ids[i]);
+        }
+    }
+
+    // L'ordre des indices est conservé: la suite de la simulation est identique
+    public void readState(DataInputStream in) throws IOException {
+        clear();
+        int savedNextId = in.readInt();
+        long savedCount = in.readLong();
+        long savedSum = in.readLong();
+        rate = in.readDouble();
+        threshold = in.readDouble();
+        powers = new double[]{1.0};
+        step = 0;
+        int count = in.readInt();
+        for (int k = 0; k < count; k++) {
+            double x = in.readDouble(), y = in.readDouble(), value = in.readDouble();
+            long age = in.readLong();
+            int i = spawn(x, y, value, in.readDouble(), in.readLong());
+            spawnStep[i] = -age;
+            schedule(i);
+            detectedTime[i] = in.readLong();
+            ids[i] = in.readInt();
+        }
+        nextId = savedNextId;
+        detectedCount = savedCount;
+        detectionDelaySum = savedSum;
+    }
+
+    // rate^k, table prolongée à la demande
+    private double power(long k) {
+        if (k < powers.length) return powers[(int) k];
+        if (k >= MAX_POWERS) return Math.pow(rate, k);
+        int n = powers.length;
+        powers = Arrays.copyOf(powers, (int) Math.min(MAX_POWERS, Math.max(2L * n, k + 1)));
+        for (int j = n; j < powers.length; j++) {
+            powers[j] = powers[j - 1] * rate;
+        }
+        return powers[(int) k];
+    }
+
+    // Planifier l'expiration de i: premier pas où son intensité ne dépasse plus le seuil
+    private void schedule(int i) {
+        double i0 = intensity[i];
+        long age;
+        if (i0 <= threshold) {
+            age = 0;
+        } else {
+            // Estimation par logarithmes, corrigée sur la table pour suivre getIntensity exactement
+            double estimate = Math.ceil(Math.log(threshold / i0) / Math.log(rate));
+            if (rate >= 1 || !(estimate < 1L << 40)) {
+                age = Long.MAX_VALUE; // jamais
+            } else {
+                age = (long) Math.max(1, estimate);
+                while (age > 1 && i0 * power(age - 1) <= threshold) age--;
+                while (i0 * power(age) > threshold) age++;
+            }
+        }
+        expiryStep[i] = age == Long.MAX_VALUE ? Long.MAX_VALUE : spawnStep[i] + age;
+        expiries.put(i, expiryStep[i]);
+    }
+
+    private void rescheduleAll() {
+        for (int i = 0; i < size; i++) {
+            schedule(i);
+        }
+    }
+
+    private void link(int i) {
+        int c = cell[i];
+        prev[i] = NONE;
+        if (c == NONE) {
+            next[i] = NONE;
+            return;
+        }
+        int head = cellHead[c];
+        next[i] = head;
+        if (head != NONE) prev[head] = i;
+        cellHead[c] = i;
+    }
+
+    private void unlink(int i) {
+        int c = cell[i];
+        if (c == NONE) return;
+        if (prev[i] != NONE) next[prev[i]] = next[i]; else cellHead[c] = next[i];
+        if (next[i] != NONE) prev[next[i]] = prev[i];
+    }
+
+    private void allocate(int capacity) {
+        xs = xs == null ? new double[capacity] : Arrays.copyOf(xs, capacity);
+        ys = ys == null ? new double[capacity] : Arrays.copyOf(ys, capacity);
+        intensity = intensity == null ? new double[capacity] : Arrays.copyOf(intensity, capacity);
+        maxIntensity = maxIntensity == null ? new double[capacity] : Arrays.copyOf(maxIntensity, capacity);
+        creationTime = creationTime == null ? new long[capacity] : Arrays.copyOf(creationTime, capacity);
+        detectedTime = detectedTime == null ? new long[capacity] : Arrays.copyOf(detectedTime, capacity);
+        ids = ids == null ? new int[capacity] : Arrays.copyOf(ids, capacity);
+        cell = cell == null ? new int[capacity] : Arrays.copyOf(cell, capacity);
+        next = next == null ? new int[capacity] : Arrays.copyOf(next, capacity);
+        prev = prev == null ? new int[capacity] : Arrays.copyOf(prev, capacity);
+        spawnStep = spawnStep == null ? new long[capacity] : Arrays.copyOf(spawnStep, capacity);
+        expiryStep = expiryStep == null ? new long[capacity] : Arrays.copyOf(expiryStep, capacity);
+        // Tas de capacité fixe: reconstruit à chaque agrandissement (coût amorti O(1))
+        expiries = new IndexedMinHeap(capacity);
+        for (int i = 0; i < size; i++) {
+            expiries.put(i, expiryStep[i]);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.drones.model;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base de recharge: position et nombre de places de recharge. Un drone qui
+ * arrive sur une base pleine attend au-dessus d'elle qu'une place se
+ * libère. Les compteurs sont atomiques (drones mis à jour depuis plusieurs
+ * threads); une base de capacité {@link #UNLIMITED} ne compte rien.
+ */
+public class Base {
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final double x, y;
+    private final int capacity;
+    private final AtomicInteger charging = new AtomicInteger(); // places occupées
+    private final AtomicInteger inbound = new AtomicInteger();  // drones en route ou en attente
+
+    public Base(double x, double y, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacité de recharge invalide: " + capacity);
+        }
+        this.x = x;
+        this.y = y;
+        this.capacity = capacity;
+    }
+
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public int getCapacity() { return capacity; }
+    public boolean isUnlimited() { return capacity == UNLIMITED; }
+    public int getCharging() { return charging.get(); }
+    public int getInbound() { return inbound.get(); }
+
+    // Charge relative: drones en recharge ou attendus par place
+    public double getLoad() {
+        return isUnlimited() ? 0 : (double) (charging.get() + inbound.get()) / capacity;
+    }
+
+    // Un drone part vers la base
+    void expect() {
+        if (!isUnlimited()) inbound.incrementAndGet();
+    }
+
+    // Occuper une place si possible (le drone cesse alors d'être attendu)
+    boolean dock() {
+        if (isUnlimited()) return true;
+        while (true) {
+            int used = charging.get();
+            if (used >= capacity) return false;
+            if (charging.compareAndSet(used, used + 1)) {
+                inbound.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    // Fin de recharge: libérer la place
+    void undock() {
+        if (!isUnlimited()) charging.decrementAndGet();
+    }
+
+    // Remettre les compteurs à zéro (avant recomptage, voir BaseNetwork#recount)
+    void clearCounts() {
+        charging.set(0);
+        inbound.set(0);
+    }
+
+    void restoreCounts(int chargingDrones, int inboundDrones) {
+        charging.addAndGet(chargingDrones);
+        inbound.addAndGet(inboundDrones);
+    }
+}
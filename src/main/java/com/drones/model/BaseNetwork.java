@@ -0,0 +1,136 @@
+package com.drones.model;
+import java.util.*;
+
+/**
+ * Ensemble des bases de recharge et choix de la base de retour.
+ *
+ * Pour chaque cellule de la grille, les CANDIDATES bases les plus proches
+ * de son centre sont précalculées, de la plus proche à la plus lointaine
+ * (la première colonne est le diagramme de Voronoi des bases): trouver la
+ * base de retour d'un drone coûte O(1), quel que soit le nombre de bases.
+ * Hors de la grille, la cellule la plus proche fait foi. Les bases sont
+ * copiées: chaque réseau a ses propres compteurs de places.
+ *
+ * <ul>
+ *   <li>{@link Routing#NEAREST}: la base la plus proche.</li>
+ *   <li>{@link Routing#LEAST_LOADED}: parmi les bases candidates, la moins
+ *       chargée (drones en recharge ou attendus par place), la plus proche
+ *       à égalité.</li>
+ * </ul>
+ */
+public class BaseNetwork {
+    public enum Routing { NEAREST, LEAST_LOADED }
+
+    private static final int CANDIDATES = 3;
+    // Base historique en (0, 0), sans limite de places: réseau par défaut des drones
+    private static final BaseNetwork ORIGIN = new BaseNetwork(1, 1,
+        Collections.singletonList(new Base(0, 0, Base.UNLIMITED)), Routing.NEAREST);
+
+    private final int width, height;
+    private final List<Base> bases;
+    private final Routing routing;
+    private final int candidates;  // bases par cellule
+    private final short[] nearest; // nearest[cell * candidates + k]: k-ième base la plus proche
+
+    public BaseNetwork(int width, int height, List<Base> bases, Routing routing) {
+        if (bases.isEmpty() || bases.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Nombre de bases invalide: " + bases.size());
+        }
+        this.width = width;
+        this.height = height;
+        List<Base> copies = new ArrayList<>();
+        for (Base base : bases) {
+            copies.add(new Base(base.getX(), base.getY(), base.getCapacity()));
+        }
+        this.bases = Collections.unmodifiableList(copies);
+        this.routing = routing;
+        this.candidates = Math.min(CANDIDATES, bases.size());
+        this.nearest = new short[width * height * candidates];
+        Integer[] order = new Integer[bases.size()];
+        double[] distance = new double[bases.size()];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                for (int b = 0; b < order.length; b++) {
+                    order[b] = b;
+                    distance[b] = Math.hypot(bases.get(b).getX() - (x + 0.5), bases.get(b).getY() - (y + 0.5));
+                }
+                // Tri stable: à égalité, la base déclarée en premier
+                Arrays.sort(order, Comparator.comparingDouble(b -> distance[b]));
+                int cell = (y * width + x) * candidates;
+                for (int k = 0; k < candidates; k++) {
+                    nearest[cell + k] = (short) (int) order[k];
+                }
+            }
+        }
+    }
+
+    public static BaseNetwork origin() { return ORIGIN; }
+
+    /**
+     * Bases décrites par "x:y:places,x:y:places" (places facultatif:
+     * sans limite), par exemple "0:0:3,49:49:3".
+     */
+    public static List<Base> parseBases(String spec) {
+        List<Base> bases = new ArrayList<>();
+        for (String item : spec.split(",")) {
+            String[] parts = item.trim().split(":");
+            if (parts.length < 2 || parts.length > 3) {
+                throw new IllegalArgumentException("Base invalide (x:y[:places]): " + item);
+            }
+            int capacity = parts.length == 3 ? Integer.parseInt(parts[2]) : Base.UNLIMITED;
+            bases.add(new Base(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), capacity));
+        }
+        return bases;
+    }
+
+    public List<Base> getBases() { return bases; }
+    public Base getBase(int index) { return bases.get(index); }
+    public int size() { return bases.size(); }
+    public Routing getRouting() { return routing; }
+
+    // Indice de la base la plus proche de (x, y)
+    public int nearest(double x, double y) {
+        return nearest[cellOf(x, y) * candidates];
+    }
+
+    // Indice de la base vers laquelle rentrer depuis (x, y), selon le routage
+    public int route(double x, double y) {
+        int cell = cellOf(x, y) * candidates;
+        int best = nearest[cell];
+        if (routing == Routing.LEAST_LOADED) {
+            double bestLoad = bases.get(best).getLoad();
+            for (int k = 1; k < candidates; k++) {
+                int b = nearest[cell + k];
+                double load = bases.get(b).getLoad();
+                if (load < bestLoad) {
+                    best = b;
+                    bestLoad = load;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int cellOf(double x, double y) {
+        int ix = Math.max(0, Math.min(width - 1, (int) Math.floor(x)));
+        int iy = Math.max(0, Math.min(height - 1, (int) Math.floor(y)));
+        return iy * width + ix;
+    }
+
+    /**
+     * Recompter les drones en recharge et attendus sur chaque base, par
+     * exemple après la lecture d'un point de sauvegarde. Les drones sont
+     * rattachés à ce réseau.
+     */
+    public void recount(List<Drone> drones) {
+        for (Base base : bases) {
+            base.clearCounts();
+        }
+        for (Drone drone : drones) {
+            drone.setBaseNetwork(this);
+            Base base = bases.get(drone.getBaseIndex());
+            if (drone.getState() == DroneState.CHARGING) base.restoreCounts(1, 0);
+            else if (drone.getState() == DroneState.RETURNING) base.restoreCounts(0, 1);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.drones.model;
 import com.drones.config.SimulationParams;
+import java.io.*;
 import java.util.*;
 public class Drone {
     private int id;
@@ -11,9 +12,20 @@ public class Drone {
     private long rechargingTimer; // ms, compte à rebours pendant la recharge
     private List<Measurement> measurements;
     private Deque<double[]> waypoints; // file d'attente de cibles (x,y)
+    private BaseNetwork bases; // bases de recharge (par défaut une seule, en (0, 0))
+    private int baseIndex; // base de rattachement: celle du dernier retour
+    private PathPlanner pathPlanner; // contournement des zones interdites (null: lignes droites)
+    private double[] routedTarget; // point de passage en tête déjà contourné
+    private Deque<double[]> returnPath = new ArrayDeque<>(); // détours du retour à la base
     
     public Drone(int id, double startX, double startY) {
+        this(id, startX, startY, BaseNetwork.origin());
+    }
+    
+    public Drone(int id, double startX, double startY, BaseNetwork bases) {
         this.id = id;
+        this.bases = bases;
+        this.baseIndex = bases.nearest(startX, startY);
         this.x = startX;
         this.y = startY;
         this.targetX = startX;
@@ -32,6 +44,27 @@ public class Drone {
     public DroneState getState() { return state; }
     public long getAutonomyRemaining() { return autonomyRemaining; }
     public List<Measurement> getMeasurements() { return measurements; }
+    public BaseNetwork getBaseNetwork() { return bases; }
+    public int getBaseIndex() { return baseIndex; }
+    public Base getBase() { return bases.getBase(baseIndex); }
+    
+    // Rattacher le drone à un autre réseau de bases (indice de base conservé)
+    public void setBaseNetwork(BaseNetwork bases) {
+        if (baseIndex >= bases.size()) {
+            throw new IllegalArgumentException("Base " + baseIndex + " absente du réseau (" + bases.size() + " bases)");
+        }
+        this.bases = bases;
+    }
+    
+    public PathPlanner getPathPlanner() { return pathPlanner; }
+    // Contourner les zones interdites vers chaque point de passage et au retour (null: lignes droites)
+    public void setPathPlanner(PathPlanner pathPlanner) { this.pathPlanner = pathPlanner; }
+    
+    // Point de retour d'un plan qui se termine en (x, y): la base la plus proche
+    public double[] baseNear(double x, double y) {
+        Base base = bases.getBase(bases.nearest(x, y));
+        return new double[]{base.getX(), base.getY()};
+    }
     
     // Ajouter une mesure (provenant d'une lecture de capteur)
     public void addMeasurement(double intensity, long timestamp, double x, double y) {
@@ -47,10 +80,19 @@ public class Drone {
     public void setWaypoints(List<double[]> points) {
         waypoints.clear();
         waypoints.addAll(points);
+        routedTarget = null;
+    }
+    
+    // Reste-t-il des points de passage à atteindre?
+    public boolean hasWaypoints() {
+        return !waypoints.isEmpty();
     }
     
     // Obtenir le prochain point de passage
     private boolean updateTargetWaypoint() {
+        if (pathPlanner != null) {
+            routeNextWaypoint();
+        }
         if (waypoints.isEmpty()) {
             return false;
         }
@@ -67,6 +109,22 @@ public class Drone {
         return true;
     }
     
+    // Insérer les détours vers le point de passage en tête; les points inaccessibles sont abandonnés
+    private void routeNextWaypoint() {
+        while (!waypoints.isEmpty() && waypoints.peek() != routedTarget) {
+            double[] next = waypoints.peek();
+            List<double[]> via = pathPlanner.plan(x, y, next[0], next[1]);
+            if (via == null) {
+                waypoints.poll();
+                continue;
+            }
+            for (int i = via.size() - 1; i >= 0; i--) {
+                waypoints.push(via.get(i));
+            }
+            routedTarget = waypoints.peek();
+        }
+    }
+    
     // Se déplacer vers la cible
     private void moveToward(double tx, double ty, double tickDurationS) {
         double dist = Math.sqrt(Math.pow(tx - x, 2) + Math.pow(ty - y, 2));
@@ -80,8 +138,27 @@ public class Drone {
         y += (ty - y) * ratio;
     }
     
-    // Mettre à jour l'état du drone à chaque tick
-    public void update(long tickDurationMs) {
+    /**
+     * Faire avancer le drone de la durée donnée, qui peut couvrir plusieurs
+     * ticks. L'intégration reste à pas fixe: jamais plus d'un tick de
+     * déplacement d'un coup, et l'arrivée sur un point de passage
+     * (distance &lt; 0.5) est vérifiée avant chaque pas, si bien qu'un long
+     * pas ne dépasse jamais sa cible. Les comptes à rebours (recharge,
+     * mesure) avancent d'un seul pas jusqu'à leur transition. Le résultat
+     * est celui d'autant d'appels d'un tick.
+     */
+    public void update(long durationMs) {
+        long tickMs = SimulationParams.TICK_DURATION_MS;
+        while (durationMs > 0) {
+            long parked = ticksUntilTransition(tickMs);
+            long step = Math.min(durationMs, parked > 0 ? parked * tickMs : tickMs);
+            step(step);
+            durationMs -= step;
+        }
+    }
+    
+    // Un pas d'intégration (au plus un tick en déplacement)
+    private void step(long tickDurationMs) {
         double tickDurationS = tickDurationMs / 1000.0;
         
         switch (state) {
@@ -94,8 +171,6 @@ public class Drone {
                 autonomyRemaining -= tickDurationMs;
                 if (autonomyRemaining <= 0) {
                     setState(DroneState.RETURNING);
-                    targetX = 0;
-                    targetY = 0;
                 }
                 break;
                 
@@ -112,15 +187,27 @@ public class Drone {
                 break;
                 
             case RETURNING:
-                // Se déplacer vers la base (0, 0)
-                double dist = Math.sqrt(x * x + y * y);
-                if (dist < 0.5) {
-                    // Base atteinte
-                    setState(DroneState.CHARGING);
-                    rechargingTimer = SimulationParams.DRONE_RECHARGE_MS;
-                    measurements.clear(); // télécharger à la base
+                // Se déplacer vers la base choisie au départ
+                Base base = getBase();
+                if (isAtBase()) {
+                    // Base atteinte: recharge si une place est libre, attente sur place sinon
+                    if (base.dock()) {
+                        state = DroneState.CHARGING;
+                        rechargingTimer = SimulationParams.DRONE_RECHARGE_MS;
+                        measurements.clear(); // télécharger à la base
+                    }
                 } else {
-                    moveToward(0, 0, tickDurationS);
+                    // Détours éventuels avant la base
+                    double[] via = returnPath.peek();
+                    if (via != null && Math.sqrt(Math.pow(x - via[0], 2) + Math.pow(y - via[1], 2)) < 0.5) {
+                        returnPath.poll();
+                        via = returnPath.peek();
+                    }
+                    if (via != null) {
+                        moveToward(via[0], via[1], tickDurationS);
+                    } else {
+                        moveToward(base.getX(), base.getY(), tickDurationS);
+                    }
                     autonomyRemaining -= tickDurationMs;
                 }
                 break;
@@ -128,6 +215,7 @@ public class Drone {
             case CHARGING:
                 rechargingTimer -= tickDurationMs;
                 if (rechargingTimer <= 0) {
+                    getBase().undock();
                     setState(DroneState.ACTIVE);
                     autonomyRemaining = SimulationParams.DRONE_AUTONOMY_MS;
                 }
@@ -135,20 +223,116 @@ public class Drone {
         }
     }
     
+    /**
+     * Nombre de ticks avant la prochaine transition d'un drone immobile
+     * (fin de recharge, fin de mesure ou autonomie épuisée pendant la
+     * mesure), -1 si le drone se déplace. Jusque-là, un seul appel à
+     * update() avec la durée écoulée équivaut à un appel par tick.
+     */
+    public long ticksUntilTransition(long tickDurationMs) {
+        long remaining;
+        switch (state) {
+            case CHARGING:
+                remaining = rechargingTimer;
+                break;
+            case MEASURING:
+                remaining = Math.min(measurementTimer, autonomyRemaining);
+                break;
+            default:
+                return -1;
+        }
+        return Math.max(1, (remaining + tickDurationMs - 1) / tickDurationMs);
+    }
+    
     // Commencer une mesure à la position actuelle
     public void startMeasurement() {
         setState(DroneState.MEASURING);
         measurementTimer = SimulationParams.MEASUREMENT_DURATION_MS;
     }
     
-    // Définir l'état
+    // Définir l'état; le passage au retour choisit la base (voir BaseNetwork#route)
     public void setState(DroneState newState) {
+        if (newState == DroneState.RETURNING && state != DroneState.RETURNING) {
+            baseIndex = bases.route(x, y);
+            Base base = getBase();
+            base.expect();
+            targetX = base.getX();
+            targetY = base.getY();
+            returnPath.clear();
+            if (pathPlanner != null) {
+                List<double[]> via = pathPlanner.plan(x, y, base.getX(), base.getY());
+                if (via != null) returnPath.addAll(via); // base inaccessible: ligne droite
+            }
+        }
         this.state = newState;
     }
     
-    // Commodité: est à la base?
+    // Commodité: est à sa base?
     public boolean isAtBase() {
-        return Math.sqrt(x * x + y * y) < 0.5;
+        Base base = getBase();
+        double dx = x - base.getX(), dy = y - base.getY();
+        return Math.sqrt(dx * dx + dy * dy) < 0.5;
+    }
+    
+    // Sauvegarder l'état complet (position, minuteries, mesures, points de passage)
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(id);
+        out.writeDouble(x);
+        out.writeDouble(y);
+        out.writeDouble(targetX);
+        out.writeDouble(targetY);
+        out.writeByte(state.ordinal());
+        out.writeLong(autonomyRemaining);
+        out.writeLong(measurementTimer);
+        out.writeLong(rechargingTimer);
+        out.writeShort(baseIndex);
+        out.writeInt(measurements.size());
+        for (Measurement m : measurements) {
+            out.writeDouble(m.intensity);
+            out.writeLong(m.timestamp);
+            out.writeDouble(m.x);
+            out.writeDouble(m.y);
+        }
+        out.writeInt(waypoints.size());
+        for (double[] p : waypoints) {
+            out.writeDouble(p[0]);
+            out.writeDouble(p[1]);
+        }
+        out.writeBoolean(routedTarget != null && routedTarget == waypoints.peek());
+        out.writeInt(returnPath.size());
+        for (double[] p : returnPath) {
+            out.writeDouble(p[0]);
+            out.writeDouble(p[1]);
+        }
+    }
+    
+    // Recréer un drone à partir d'un état écrit par writeState(), rattaché aux bases par défaut
+    // (BaseNetwork#recount le rattache à d'autres) et sans contournement (voir setPathPlanner)
+    public static Drone readState(DataInputStream in) throws IOException {
+        Drone d = new Drone(in.readInt(), in.readDouble(), in.readDouble());
+        d.targetX = in.readDouble();
+        d.targetY = in.readDouble();
+        d.state = DroneState.values()[in.readByte()];
+        d.autonomyRemaining = in.readLong();
+        d.measurementTimer = in.readLong();
+        d.rechargingTimer = in.readLong();
+        d.baseIndex = in.readShort();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            d.measurements.add(new Measurement(in.readDouble(), in.readLong(), in.readDouble(), in.readDouble()));
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            d.waypoints.add(new double[]{in.readDouble(), in.readDouble()});
+        }
+        if (in.readBoolean()) {
+            d.routedTarget = d.waypoints.peek();
+        }
+        count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            d.returnPath.add(new double[]{in.readDouble(), in.readDouble()});
+        }
+        return d;
     }
     
     // Enregistrement des mesures
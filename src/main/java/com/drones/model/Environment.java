@@ -1,26 +1,56 @@
 package com.drones.model;
 import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 public class Environment {
     private int width, height;
     private double[][] anomalyIntensity; // grille d'intensité des anomalies
-    private List<Anomaly> anomalies;
-    private Random random;
+    private AnomalyPool anomalies;
+    private List<Anomaly> anomalyList; // vue liste sur le pool
+    private final SimulationScenario scenario;
+    private final FieldModel fieldModel; // transport des panaches
+    private SimRandom random;
     private long elapsedTime;
     
     public Environment(int width, int height) {
+        this(width, height, System.currentTimeMillis());
+    }
+    
+    public Environment(int width, int height, long seed) {
+        this(width, height, seed, SimulationScenario.NORMAL_SCENARIO);
+    }
+    
+    public Environment(int width, int height, long seed, SimulationScenario scenario) {
+        this(width, height, seed, scenario, new PlumeTransportModel());
+    }
+    
+    // Environnement avec un autre modèle de champ, initialisé ici
+    public Environment(int width, int height, long seed, SimulationScenario scenario, FieldModel fieldModel) {
         this.width = width;
         this.height = height;
         this.anomalyIntensity = new double[height][width];
-        this.anomalies = new ArrayList<>();
-        this.random = new Random(System.currentTimeMillis());
+        this.anomalies = new AnomalyPool(width, height);
+        this.anomalyList = anomalies.asList();
+        this.random = new SimRandom(seed);
         this.elapsedTime = 0;
+        this.scenario = scenario;
+        this.fieldModel = fieldModel;
+        fieldModel.init(width, height, scenario);
     }
     
     public int getWidth() { return width; }
     public int getHeight() { return height; }
     public double[][] getAnomalyIntensity() { return anomalyIntensity; }
-    public List<Anomaly> getAnomalies() { return anomalies; }
+    public List<Anomaly> getAnomalies() { return anomalyList; }
+    public AnomalyPool getAnomalyPool() { return anomalies; }
+    public SimulationScenario getScenario() { return scenario; }
+    public FieldModel getFieldModel() { return fieldModel; }
+    // Solveur de transport: vent et diffusivité modifiables en cours de simulation (null hors modèle par défaut)
+    public AdvectionDiffusionSolver getSolver() {
+        return fieldModel instanceof PlumeTransportModel ? ((PlumeTransportModel) fieldModel).getSolver() : null;
+    }
     public long getElapsedTime() { return elapsedTime; }
     
     // Obtenir l'intensité des anomalies à une position (avec interpolation)
@@ -35,84 +65,62 @@ public class Environment {
         return anomalyIntensity[iy][ix];
     }
     
-    // Mettre à jour l'environnement (apparition, diffusion, décomposition)
-    public void update(long tickDurationMs) {
-        elapsedTime += tickDurationMs;
-        
-        // Étape 1: Créer de nouvelles anomalies aléatoirement
-        spawnAnomalies();
-        
-        // Étape 2: Décomposer et diffuser les anomalies
-        decayAndDiffuse();
-        
-        // Étape 3: Supprimer les anomalies mortes
-        anomalies.removeIf(a -> !a.isAlive());
+    // Mettre à jour l'environnement (apparition, transport, décomposition)
+    // (durée éventuellement de plusieurs ticks, intégrée tick par tick)
+    public void update(long durationMs) {
+        while (durationMs > 0) {
+            long step = Math.min(durationMs, SimulationParams.TICK_DURATION_MS);
+            durationMs -= step;
+            elapsedTime += step;
+            
+            // Étape 1: Créer de nouvelles anomalies aléatoirement
+            spawnAnomalies();
+            
+            // Étape 2: Transporter les panaches et y injecter les anomalies
+            transportAndEmit(step);
+            
+            // Étape 3: Supprimer les anomalies mortes
+            anomalies.removeExpired(Anomaly.MIN_INTENSITY);
+        }
+    }
+
+    /**
+     * Attribuer une détection en (x, y) à l'anomalie qui en est la source
+     * (la première détection fixe son délai de détection). Retourne
+     * l'indice de l'anomalie dans le pool, -1 si aucune.
+     */
+    public int recordDetection(double x, double y) {
+        return anomalies.recordDetection(x, y, elapsedTime, 
+            SimulationParams.ANOMALY_SOURCE_RADIUS, SimulationParams.ANOMALY_SOURCE_FALLOFF);
     }
     
     private void spawnAnomalies() {
-        if (random.nextDouble() < SimulationParams.ANOMALY_SPAWN_PROBABILITY) {
+        if (random.nextDouble() < scenario.spawnProbability) {
             int x = random.nextInt(width);
             int y = random.nextInt(height);
             double intensity = 0.5 + random.nextDouble() * 0.5; // 0.5-1.0
-            anomalies.add(new Anomaly(x, y, intensity, elapsedTime));
+            anomalies.spawn(x, y, intensity, intensity, elapsedTime);
         }
     }
     
-    private void decayAndDiffuse() {
-        // Effacer la grille
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                anomalyIntensity[i][j] = 0;
-            }
-        }
+    private void transportAndEmit(long tickDurationMs) {
+        // Diffusion, advection par le vent et décroissance du panache existant
+        double ticks = (double) tickDurationMs / SimulationParams.TICK_DURATION_MS;
+        fieldModel.advance(anomalyIntensity, tickDurationMs / 1000.0, Math.pow(SimulationParams.FIELD_DECAY_RATE, ticks));
         
-        // Reconstruire la grille à partir des anomalies
-        for (Anomaly a : anomalies) {
-            int ix = (int) Math.round(a.getX());
-            int iy = (int) Math.round(a.getY());
-            
-            if (ix >= 0 && ix < width && iy >= 0 && iy < height) {
-                anomalyIntensity[iy][ix] += a.getIntensity();
+        // Chaque anomalie maintient au moins son intensité dans sa cellule
+        // (le schéma est monotone: la grille reste dans [0, 1] sans écrêtage)
+        for (int k = 0; k < anomalies.size(); k++) {
+            int cell = anomalies.getCell(k);
+            if (cell >= 0) {
+                double[] row = anomalyIntensity[cell / width];
+                int x = cell % width;
+                row[x] = Math.max(row[x], Math.min(1.0, anomalies.getIntensity(k)));
             }
-            
-            // Décomposer
-            a.decay(SimulationParams.ANOMALY_DECAY_RATE);
         }
         
-        // Diffuser vers les voisins
-        double[][] newIntensity = new double[height][width];
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                newIntensity[i][j] = anomalyIntensity[i][j];
-            }
-        }
-        
-        double diffusion = SimulationParams.ANOMALY_DIFFUSION_FACTOR;
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                if (anomalyIntensity[i][j] > 0) {
-                    // Propager aux voisins
-                    for (int di = -1; di <= 1; di++) {
-                        for (int dj = -1; dj <= 1; dj++) {
-                            if (di == 0 && dj == 0) continue;
-                            int ni = i + di;
-                            int nj = j + dj;
-                            if (ni >= 0 && ni < height && nj >= 0 && nj < width) {
-                                double spread = anomalyIntensity[i][j] * diffusion / 8.0;
-                                newIntensity[ni][nj] += spread;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        
-        // Restreindre et copier
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                anomalyIntensity[i][j] = Math.min(1.0, newIntensity[i][j]);
-            }
-        }
+        // Décomposer les sources
+        anomalies.decay(scenario.decayRate);
     }
     
     // Effacer l'environnement
@@ -125,4 +133,45 @@ public class Environment {
         }
         elapsedTime = 0;
     }
+    
+    // Sauvegarder l'état complet (grille, anomalies, générateur aléatoire)
+    public void writeState(DataOutputStream out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(height);
+        out.writeLong(elapsedTime);
+        out.writeLong(random.getState());
+        out.writeBoolean(random.hasCachedGaussian());
+        out.writeDouble(random.getCachedGaussian());
+        
+        // Grille écrite ligne par ligne en un seul bloc d'octets
+        ByteBuffer rowBytes = ByteBuffer.allocate(width * 8);
+        for (double[] row : anomalyIntensity) {
+            rowBytes.clear();
+            rowBytes.asDoubleBuffer().put(row);
+            out.write(rowBytes.array(), 0, width * 8);
+        }
+        
+        anomalies.writeState(out);
+    }
+    
+    // Restaurer un état écrit par writeState() (mêmes dimensions)
+    public void readState(DataInputStream in) throws IOException {
+        int w = in.readInt();
+        int h = in.readInt();
+        if (w != width || h != height) {
+            throw new IOException("Dimensions incompatibles: " + w + "x" + h + " au lieu de " + width + "x" + height);
+        }
+        elapsedTime = in.readLong();
+        long state = in.readLong();
+        boolean hasGaussian = in.readBoolean();
+        random.restore(state, hasGaussian, in.readDouble());
+        
+        byte[] bytes = new byte[width * 8];
+        for (double[] row : anomalyIntensity) {
+            in.readFully(bytes);
+            ByteBuffer.wrap(bytes).asDoubleBuffer().get(row);
+        }
+        
+        anomalies.readState(in);
+    }
 }
@@ -0,0 +1,149 @@
+package com.drones.model;
+import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+
+/**
+ * Bande de lignes [y0, y1[ d'un environnement découpé entre plusieurs
+ * threads (ou processus). La tuile possède le champ de ses lignes, les
+ * anomalies qui y apparaissent et une ligne de bord de chaque côté, copie
+ * de la ligne voisine de la tuile adjacente (nulle au bord de la grille,
+ * qui est absorbant).
+ *
+ * Toutes les tuiles tirent la même suite aléatoire d'apparitions que
+ * {@link Environment} avec la même graine et ne gardent que celles de
+ * leurs lignes: chaque tick, tuile par tuile, donne exactement la grille
+ * de l'environnement complet. Un tick se déroule en trois temps:
+ * {@link #beginTick}, puis pour chaque sous-pas {@link #setHalo} et
+ * {@link #substep} (les tuiles voisines doivent avoir fini le sous-pas
+ * précédent), puis {@link #endTick}.
+ */
+public class EnvironmentTile {
+    private final int width, height; // grille complète
+    private final int y0, y1;
+    private final int rows;
+    private final SimulationScenario scenario;
+    private final AdvectionDiffusionSolver solver;
+    private final AnomalyPool anomalies; // ordonnées relatives à y0
+    private final SimRandom random;
+    private double[][] field;   // rows + 2 lignes: bords en 0 et rows + 1
+    private double[][] scratch;
+    private long elapsedTime;
+    private int steps;          // sous-pas du tick en cours
+    private double dt, stepDecay;
+
+    public EnvironmentTile(int width, int height, int y0, int y1, long seed, SimulationScenario scenario) {
+        if (y0 < 0 || y1 > height || y0 >= y1) {
+            throw new IllegalArgumentException("Lignes [" + y0 + ", " + y1 + "[ hors de la grille");
+        }
+        this.width = width;
+        this.height = height;
+        this.y0 = y0;
+        this.y1 = y1;
+        this.rows = y1 - y0;
+        this.scenario = scenario;
+        this.solver = new AdvectionDiffusionSolver(width, rows + 2);
+        solver.setDiffusivity(scenario.diffusivity);
+        solver.setWind(WindField.uniform(width, rows + 2, scenario.windU, scenario.windV));
+        solver.setVectorized(Boolean.getBoolean("drones.simd"));
+        this.anomalies = new AnomalyPool(width, rows);
+        this.random = new SimRandom(seed);
+        this.field = new double[rows + 2][width];
+        this.scratch = new double[rows + 2][width];
+    }
+
+    public int getY0() { return y0; }
+    public int getY1() { return y1; }
+    public int getWidth() { return width; }
+    public long getElapsedTime() { return elapsedTime; }
+    public int getAnomalyCount() { return anomalies.size(); }
+
+    public boolean contains(double y) {
+        int iy = (int) Math.floor(y);
+        return iy >= y0 && iy < y1;
+    }
+
+    // Intensité à une position de la grille complète, 0 hors de la tuile
+    public double getAnomalyAt(double x, double y) {
+        int ix = (int) Math.floor(x);
+        int iy = (int) Math.floor(y) - y0;
+        if (ix < 0 || ix >= width || iy < 0 || iy >= rows) {
+            return 0;
+        }
+        return field[iy + 1][ix];
+    }
+
+    // Ligne y de la grille complète (y0 <= y < y1), en lecture seule
+    public double[] row(int y) {
+        return field[y - y0 + 1];
+    }
+
+    // Apparitions du tick; retourne le nombre de sous-pas de transport à faire
+    public int beginTick(long durationMs) {
+        elapsedTime += durationMs;
+        // Même tirage que Environment.spawnAnomalies(), pour toute la grille
+        if (random.nextDouble() < scenario.spawnProbability) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            double intensity = 0.5 + random.nextDouble() * 0.5;
+            if (y >= y0 && y < y1) {
+                anomalies.spawn(x, y - y0, intensity, intensity, elapsedTime);
+            }
+        }
+        double seconds = durationMs / 1000.0;
+        double ticks = (double) durationMs / SimulationParams.TICK_DURATION_MS;
+        steps = solver.substepsFor(seconds);
+        dt = seconds / steps;
+        stepDecay = AdvectionDiffusionSolver.stepDecay(Math.pow(SimulationParams.FIELD_DECAY_RATE, ticks), steps);
+        return steps;
+    }
+
+    /**
+     * Copier dans les lignes de bord la dernière ligne de la tuile du nord
+     * et la première de celle du sud (null: bord de la grille). Les voisines
+     * ne doivent pas faire leur sous-pas avant la fin de la copie.
+     */
+    public void setHalo(EnvironmentTile north, EnvironmentTile south) {
+        if (north != null) {
+            System.arraycopy(north.field[north.rows], 0, field[0], 0, width);
+        }
+        if (south != null) {
+            System.arraycopy(south.field[1], 0, field[rows + 1], 0, width);
+        }
+    }
+
+    // Lignes de bord reçues d'ailleurs (autre processus), null: inchangée
+    public void setHalo(double[] northRow, double[] southRow) {
+        if (northRow != null) {
+            System.arraycopy(northRow, 0, field[0], 0, width);
+        }
+        if (southRow != null) {
+            System.arraycopy(southRow, 0, field[rows + 1], 0, width);
+        }
+    }
+
+    // Première et dernière ligne de la tuile, à envoyer aux voisines
+    public double[] firstRow() { return field[1]; }
+    public double[] lastRow() { return field[rows]; }
+
+    // Un sous-pas de transport
+    public void substep() {
+        solver.substep(field, scratch, 1, rows + 1, dt, stepDecay);
+        double[][] t = field;
+        field = scratch;
+        scratch = t;
+    }
+
+    // Sources, décroissance et expiration des anomalies de la tuile
+    public void endTick() {
+        for (int k = 0; k < anomalies.size(); k++) {
+            int cell = anomalies.getCell(k);
+            if (cell >= 0) {
+                double[] row = field[cell / width + 1];
+                int x = cell % width;
+                row[x] = Math.max(row[x], Math.min(1.0, anomalies.getIntensity(k)));
+            }
+        }
+        anomalies.decay(scenario.decayRate);
+        anomalies.removeExpired(Anomaly.MIN_INTENSITY);
+    }
+}
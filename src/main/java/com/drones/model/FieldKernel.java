@@ -0,0 +1,16 @@
+package com.drones.model;
+
+/**
+ * Un sous-pas du schéma de {@link AdvectionDiffusionSolver} sur une bande
+ * de lignes. Deux implémentations: scalaire, et vectorielle (SIMD) quand
+ * le module {@code jdk.incubator.vector} est disponible.
+ */
+interface FieldKernel {
+    /**
+     * Calculer {@code dst} à partir de {@code src} sur les lignes [y0, y1[.
+     * {@code zeroRow} tient lieu de ligne voisine hors de la grille;
+     * {@code u} et {@code v} sont le vent par cellule, ligne par ligne.
+     */
+    void step(double[][] src, double[][] dst, int y0, int y1, double[] zeroRow,
+              double[] u, double[] v, double diffusivity, double dt, double decay);
+}
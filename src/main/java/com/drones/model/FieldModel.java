@@ -0,0 +1,20 @@
+package com.drones.model;
+import com.drones.config.SimulationScenario;
+
+/**
+ * Évolution de la grille d'intensité entre deux apparitions d'anomalies
+ * (transport, décroissance), utilisée par {@link Environment}. Chargeable
+ * par {@link java.util.ServiceLoader}: constructeur sans argument, puis
+ * {@link #init} une fois la taille de la grille connue.
+ */
+public interface FieldModel {
+
+    // Préparer le modèle pour une grille et un scénario (appelé une fois par l'environnement)
+    void init(int width, int height, SimulationScenario scenario);
+
+    /**
+     * Faire évoluer la grille (en place) de la durée donnée. {@code decay}
+     * est le facteur de décroissance du champ sur toute la durée.
+     */
+    void advance(double[][] field, double seconds, double decay);
+}
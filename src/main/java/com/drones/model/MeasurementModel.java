@@ -0,0 +1,12 @@
+package com.drones.model;
+
+/**
+ * Capteur d'un drone: valeur mesurée pour une intensité réelle. Le tirage
+ * se fait dans le générateur du moteur, sauvegardé avec lui, pour que les
+ * exécutions restent reproductibles. Chargeable par
+ * {@link java.util.ServiceLoader} (constructeur sans argument).
+ */
+public interface MeasurementModel {
+
+    double measure(double intensity, SimRandom random);
+}
@@ -0,0 +1,108 @@
+package com.drones.model;
+import java.util.Arrays;
+
+/**
+ * Zones interdites de survol, une cellule par bit. Hors de la grille,
+ * rien n'est interdit. Le numéro de version change à chaque modification
+ * (les chemins calculés avant sont alors périmés).
+ */
+public class ObstacleMap {
+    private final int width, height;
+    private final long[] blocked;
+    private int blockedCount;
+    private int version;
+
+    public ObstacleMap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.blocked = new long[(width * height + 63) >>> 6];
+    }
+
+    /**
+     * Carte décrite par des rectangles "x0:y0:x1:y1" (bornes incluses)
+     * séparés par des virgules, par exemple "10:0:12:30,30:20:49:22".
+     */
+    public static ObstacleMap parse(int width, int height, String spec) {
+        ObstacleMap map = new ObstacleMap(width, height);
+        for (String item : spec.split(",")) {
+            String[] parts = item.trim().split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Zone interdite invalide (x0:y0:x1:y1): " + item);
+            }
+            map.blockRect(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+        }
+        return map;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getBlockedCount() { return blockedCount; }
+    public int getVersion() { return version; }
+
+    public boolean isBlocked(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return false;
+        int i = y * width + x;
+        return (blocked[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public void setBlocked(int x, int y, boolean value) {
+        if (x < 0 || x >= width || y < 0 || y >= height || isBlocked(x, y) == value) return;
+        int i = y * width + x;
+        blocked[i >>> 6] ^= 1L << i;
+        blockedCount += value ? 1 : -1;
+        version++;
+    }
+
+    // Interdire le rectangle [x0, x1] x [y0, y1] (bornes incluses, ramenées dans la grille)
+    public void blockRect(int x0, int y0, int x1, int y1) {
+        for (int y = Math.max(0, Math.min(y0, y1)); y <= Math.min(height - 1, Math.max(y0, y1)); y++) {
+            for (int x = Math.max(0, Math.min(x0, x1)); x <= Math.min(width - 1, Math.max(x0, x1)); x++) {
+                setBlocked(x, y, true);
+            }
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(blocked, 0);
+        blockedCount = 0;
+        version++;
+    }
+
+    /**
+     * Le segment (x0, y0)-(x1, y1) ne traverse-t-il aucune cellule
+     * interdite? Parcours des cellules traversées (voir
+     * CoverageTracker#traverse); au passage exact par un coin, les deux
+     * cellules voisines doivent être libres (pas de coupe de coin).
+     */
+    public boolean isClear(double x0, double y0, double x1, double y1) {
+        int cx = (int) Math.floor(x0), cy = (int) Math.floor(y0);
+        int ex = (int) Math.floor(x1), ey = (int) Math.floor(y1);
+        if (isBlocked(cx, cy)) return false;
+        if (cx == ex && cy == ey) return true;
+
+        double dx = x1 - x0, dy = y1 - y0;
+        int stepX = ex > cx ? 1 : -1;
+        int stepY = ey > cy ? 1 : -1;
+        double tDeltaX = dx != 0 ? Math.abs(1.0 / dx) : Double.POSITIVE_INFINITY;
+        double tDeltaY = dy != 0 ? Math.abs(1.0 / dy) : Double.POSITIVE_INFINITY;
+        double tMaxX = dx > 0 ? (cx + 1 - x0) / dx : dx < 0 ? (x0 - cx) / -dx : Double.POSITIVE_INFINITY;
+        double tMaxY = dy > 0 ? (cy + 1 - y0) / dy : dy < 0 ? (y0 - cy) / -dy : Double.POSITIVE_INFINITY;
+
+        int steps = Math.abs(ex - cx) + Math.abs(ey - cy);
+        for (int s = 0; s < steps; s++) {
+            if (cx != ex && cy != ey && Math.abs(tMaxX - tMaxY) < 1e-9 && isBlocked(cx + stepX, cy)) {
+                return false; // coin: l'autre voisine compte aussi
+            }
+            if (cy == ey || (cx != ex && tMaxX < tMaxY)) {
+                cx += stepX;
+                tMaxX += tDeltaX;
+            } else {
+                cy += stepY;
+                tMaxY += tDeltaY;
+            }
+            if (isBlocked(cx, cy)) return false;
+        }
+        return true;
+    }
+}
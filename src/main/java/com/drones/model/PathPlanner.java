@@ -0,0 +1,16 @@
+package com.drones.model;
+import java.util.List;
+
+/**
+ * Contournement des zones interdites pour un drone (voir
+ * {@link Drone#setPathPlanner}).
+ */
+public interface PathPlanner {
+
+    /**
+     * Points intermédiaires pour aller de (fromX, fromY) à (toX, toY) sans
+     * survoler de zone interdite, sans le point d'arrivée: liste vide si la
+     * ligne droite convient, null si l'arrivée est inaccessible.
+     */
+    List<double[]> plan(double fromX, double fromY, double toX, double toY);
+}
@@ -0,0 +1,29 @@
+package com.drones.model;
+import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+
+/**
+ * Modèle de champ par défaut: diffusion et advection par le vent du
+ * scénario ({@link AdvectionDiffusionSolver}).
+ */
+public class PlumeTransportModel implements FieldModel {
+    private AdvectionDiffusionSolver solver;
+
+    @Override
+    public void init(int width, int height, SimulationScenario scenario) {
+        solver = new AdvectionDiffusionSolver(width, height);
+        solver.setDiffusivity(scenario.diffusivity);
+        solver.setWind(WindField.uniform(width, height, scenario.windU, scenario.windV));
+        solver.setParallel(width * height >= SimulationParams.SOLVER_PARALLEL_MIN_CELLS);
+        // -Ddrones.simd=true: noyau vectoriel si le module incubateur est chargé
+        solver.setVectorized(Boolean.getBoolean("drones.simd"));
+    }
+
+    // Solveur de transport: vent et diffusivité modifiables en cours de simulation
+    public AdvectionDiffusionSolver getSolver() { return solver; }
+
+    @Override
+    public void advance(double[][] field, double seconds, double decay) {
+        solver.advance(field, seconds, decay);
+    }
+}
@@ -0,0 +1,34 @@
+package com.drones.model;
+
+// Noyau de référence, une cellule à la fois
+final class ScalarFieldKernel implements FieldKernel {
+
+    @Override
+    public void step(double[][] src, double[][] dst, int y0, int y1, double[] zeroRow,
+                     double[] u, double[] v, double diffusivity, double dt, double decay) {
+        int width = zeroRow.length;
+        int height = src.length;
+        for (int y = y0; y < y1; y++) {
+            double[] row = src[y];
+            double[] north = y > 0 ? src[y - 1] : zeroRow;
+            double[] south = y < height - 1 ? src[y + 1] : zeroRow;
+            double[] out = dst[y];
+            int base = y * width;
+            for (int x = 0; x < width; x++) {
+                out[x] = cell(row, north, south, x, u[base + x], v[base + x], diffusivity, dt, decay);
+            }
+        }
+    }
+
+    // Nouvelle valeur de la cellule x: laplacien à 5 points, advection décentrée amont
+    static double cell(double[] row, double[] north, double[] south, int x,
+                       double u, double v, double diffusivity, double dt, double decay) {
+        double c = row[x];
+        double w = x > 0 ? row[x - 1] : 0;
+        double e = x < row.length - 1 ? row[x + 1] : 0;
+        double n = north[x], s = south[x];
+        double advection = (u > 0 ? u * (c - w) : u * (e - c))
+                         + (v > 0 ? v * (c - n) : v * (s - c));
+        return (c + dt * (diffusivity * (w + e + n + s - 4 * c) - advection)) * decay;
+    }
+}
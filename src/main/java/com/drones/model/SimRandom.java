@@ -0,0 +1,65 @@
+package com.drones.model;
+import java.util.Random;
+
+/**
+ * Générateur pseudo-aléatoire de la simulation.
+ *
+ * Même algorithme (congruentiel linéaire 48 bits) que {@link Random}, mais
+ * dont l'état interne est lisible et restaurable, ce qui permet de
+ * sauvegarder puis reprendre une simulation à l'identique.
+ */
+public class SimRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+    private boolean haveNextNextGaussian;
+    private double nextNextGaussian;
+
+    public SimRandom(long seed) {
+        super(seed); // appelle setSeed()
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+        haveNextNextGaussian = false;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    // Méthode polaire, identique à Random mais avec un cache restaurable
+    @Override
+    public synchronized double nextGaussian() {
+        if (haveNextNextGaussian) {
+            haveNextNextGaussian = false;
+            return nextNextGaussian;
+        }
+        double v1, v2, s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        nextNextGaussian = v2 * multiplier;
+        haveNextNextGaussian = true;
+        return v1 * multiplier;
+    }
+
+    public long getState() { return state; }
+    public boolean hasCachedGaussian() { return haveNextNextGaussian; }
+    public double getCachedGaussian() { return nextNextGaussian; }
+
+    public synchronized void restore(long state, boolean hasCachedGaussian, double cachedGaussian) {
+        this.state = state & MASK;
+        this.haveNextNextGaussian = hasCachedGaussian;
+        this.nextNextGaussian = cachedGaussian;
+    }
+}
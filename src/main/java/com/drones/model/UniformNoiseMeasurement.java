@@ -0,0 +1,11 @@
+package com.drones.model;
+
+// Capteur par défaut: bruit uniforme de ±0.05 ajouté à l'intensité
+public class UniformNoiseMeasurement implements MeasurementModel {
+    private static final double NOISE_AMPLITUDE = 0.1; // largeur de l'intervalle de bruit
+
+    @Override
+    public double measure(double intensity, SimRandom random) {
+        return intensity + (random.nextDouble() - 0.5) * NOISE_AMPLITUDE;
+    }
+}
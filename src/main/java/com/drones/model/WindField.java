@@ -0,0 +1,51 @@
+package com.drones.model;
+import java.util.Arrays;
+
+/**
+ * Champ de vent sur la grille: une vitesse (u vers les x croissants, v vers
+ * les y croissants) par cellule, en cellules par seconde. Stocké en
+ * tableaux primitifs ligne par ligne, comme la grille d'intensité.
+ */
+public class WindField {
+    private final int width, height;
+    private final double[] u, v;
+    private double maxSpeedSum; // borne de |u| + |v|, pour le critère de stabilité
+
+    public WindField(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.u = new double[width * height];
+        this.v = new double[width * height];
+    }
+
+    // Vent uniforme sur toute la grille
+    public static WindField uniform(int width, int height, double u, double v) {
+        WindField wind = new WindField(width, height);
+        wind.setUniform(u, v);
+        return wind;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public double getU(int x, int y) { return u[y * width + x]; }
+    public double getV(int x, int y) { return v[y * width + x]; }
+    public double getMaxSpeedSum() { return maxSpeedSum; }
+
+    // Tableaux bruts (lecture seule) pour les noyaux de calcul
+    double[] rawU() { return u; }
+    double[] rawV() { return v; }
+
+    public void setUniform(double windU, double windV) {
+        Arrays.fill(u, windU);
+        Arrays.fill(v, windV);
+        maxSpeedSum = Math.abs(windU) + Math.abs(windV);
+    }
+
+    public void set(int x, int y, double windU, double windV) {
+        int i = y * width + x;
+        u[i] = windU;
+        v[i] = windV;
+        // Borne jamais réduite: reste valable (et stable) sans reparcourir la grille
+        maxSpeedSum = Math.max(maxSpeedSum, Math.abs(windU) + Math.abs(windV));
+    }
+}
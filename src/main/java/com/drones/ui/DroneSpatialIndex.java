@@ -0,0 +1,102 @@
+package com.drones.ui;
+import com.drones.control.SimulationFrame;
+import java.util.Arrays;
+
+/**
+ * Index spatial des drones pour le rendu: grille uniforme de seaux.
+ *
+ * Reconstruit à chaque image par tri par comptage (deux passes sur les
+ * drones, aucune allocation une fois les tableaux dimensionnés). Une
+ * requête rectangulaire ne parcourt que les seaux qui l'intersectent, ce
+ * qui évite de tester tous les drones quand la vue est rapprochée.
+ */
+public class DroneSpatialIndex {
+    private final int bucketSize; // côté d'un seau, en cellules
+    private int cols, rows;
+    private int[] bucketStart = new int[1]; // début de chaque seau dans entries (+1 sentinelle)
+    private int[] entries = new int[0];     // indices des drones, groupés par seau
+    private int[] bucketOf = new int[0];
+    private int[] result = new int[16];
+    private int resultCount;
+
+    public DroneSpatialIndex(int bucketSize) {
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("bucketSize doit être positif");
+        }
+        this.bucketSize = bucketSize;
+    }
+
+    public void build(SimulationFrame frame) {
+        int w = Math.max(1, (frame.getGridWidth() + bucketSize - 1) / bucketSize);
+        int h = Math.max(1, (frame.getGridHeight() + bucketSize - 1) / bucketSize);
+        if (w != cols || h != rows) {
+            cols = w;
+            rows = h;
+            bucketStart = new int[cols * rows + 1];
+        } else {
+            Arrays.fill(bucketStart, 0);
+        }
+        int n = frame.getDroneCount();
+        if (entries.length < n) {
+            entries = new int[n];
+            bucketOf = new int[n];
+        }
+        for (int i = 0; i < n; i++) {
+            int b = bucket(frame.getDroneX(i), frame.getDroneY(i));
+            bucketOf[i] = b;
+            bucketStart[b + 1]++;
+        }
+        // Sommes préfixes: bucketStart[b] = début du seau b
+        for (int b = 0; b < cols * rows; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        // Remplissage en utilisant bucketStart[b] comme curseur: il finit sur la fin du seau b
+        for (int i = 0; i < n; i++) {
+            entries[bucketStart[bucketOf[i]]++] = i;
+        }
+        System.arraycopy(bucketStart, 0, bucketStart, 1, cols * rows);
+        bucketStart[0] = 0;
+    }
+
+    /**
+     * Drones dont la position est dans le rectangle [minX, maxX] x [minY, maxY]
+     * (cellules). Retourne le nombre de résultats, lus via {@link #result(int)}.
+     */
+    public int query(double minX, double minY, double maxX, double maxY, SimulationFrame frame) {
+        resultCount = 0;
+        int bx0 = clamp((int) Math.floor(minX / bucketSize), cols);
+        int by0 = clamp((int) Math.floor(minY / bucketSize), rows);
+        int bx1 = clamp((int) Math.floor(maxX / bucketSize), cols);
+        int by1 = clamp((int) Math.floor(maxY / bucketSize), rows);
+        for (int by = by0; by <= by1; by++) {
+            for (int bx = bx0; bx <= bx1; bx++) {
+                int b = by * cols + bx;
+                for (int k = bucketStart[b]; k < bucketStart[b + 1]; k++) {
+                    int i = entries[k];
+                    double x = frame.getDroneX(i), y = frame.getDroneY(i);
+                    if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                        if (resultCount == result.length) {
+                            result = Arrays.copyOf(result, result.length * 2);
+                        }
+                        result[resultCount++] = i;
+                    }
+                }
+            }
+        }
+        return resultCount;
+    }
+
+    public int result(int i) {
+        return result[i];
+    }
+
+    private int bucket(double x, double y) {
+        int bx = clamp((int) Math.floor(x / bucketSize), cols);
+        int by = clamp((int) Math.floor(y / bucketSize), rows);
+        return by * cols + bx;
+    }
+
+    private static int clamp(int v, int size) {
+        return v < 0 ? 0 : (v >= size ? size - 1 : v);
+    }
+}
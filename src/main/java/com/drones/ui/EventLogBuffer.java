@@ -0,0 +1,98 @@
+package com.drones.ui;
+import javafx.collections.ObservableListBase;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Journal affiché: liste observable bornée, sur un tampon circulaire.
+ *
+ * Sert de modèle à une {@code ListView}, qui ne crée des cellules que pour
+ * les lignes visibles. Au-delà de la capacité, les entrées les plus
+ * anciennes sont retirées; chaque synchronisation avec le journal du
+ * moteur produit un seul changement groupé.
+ */
+public class EventLogBuffer extends ObservableListBase<String> {
+    private final String[] entries;
+    private int head; // indice de la plus ancienne entrée
+    private int size;
+    private int sourceCount; // entrées du journal source déjà reprises
+
+    public EventLogBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity doit être positive");
+        }
+        this.entries = new String[capacity];
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", taille " + size);
+        }
+        return entries[(head + index) % entries.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reprendre les entrées ajoutées au journal source depuis l'appel
+     * précédent. Un journal plus court qu'avant (réinitialisation, retour
+     * en arrière) remplace tout le contenu. Retourne vrai si la liste a changé.
+     */
+    public boolean sync(List<String> source) {
+        int total = source.size();
+        if (total < sourceCount) {
+            clear();
+        }
+        if (total == sourceCount) return false;
+        // Seules les dernières entrées tiennent dans le tampon
+        int from = Math.max(sourceCount, total - entries.length);
+        appendAll(source, from, total);
+        sourceCount = total;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        sourceCount = 0;
+        if (size == 0) return;
+        List<String> removed = new ArrayList<>(this);
+        head = 0;
+        size = 0;
+        Arrays.fill(entries, null);
+        beginChange();
+        nextRemove(0, removed);
+        endChange();
+    }
+
+    private void appendAll(List<String> source, int from, int to) {
+        int count = to - from;
+        int overflow = Math.max(0, size + count - entries.length);
+        List<String> removed = new ArrayList<>(overflow);
+        for (int i = 0; i < overflow; i++) {
+            removed.add(entries[head]);
+            entries[head] = null;
+            head = (head + 1) % entries.length;
+        }
+        size -= overflow;
+        int firstAdded = size;
+        for (int i = from; i < to; i++) {
+            entries[(head + size) % entries.length] = source.get(i);
+            size++;
+        }
+        beginChange();
+        if (overflow > 0) {
+            nextRemove(0, removed);
+        }
+        nextAdd(firstAdded, size);
+        endChange();
+    }
+}
@@ -0,0 +1,59 @@
+package com.drones.ui;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.ImagePattern;
+
+/**
+ * Lignes de la grille, précalculées une fois sous forme de motif d'une
+ * cellule répété: une seule opération de remplissage par image, au lieu
+ * d'un trait par ligne de la grille. Le motif est reconstruit seulement
+ * quand la taille des cellules à l'écran change (zoom).
+ */
+public class GridLayer {
+    private static final Color LINE_COLOR = Color.web("#e0e0e0");
+    // En dessous, les lignes ne seraient qu'un aplat gris: elles ne sont pas dessinées
+    private static final double MIN_CELL_PX = 4;
+
+    private int tileSize;
+    private WritableImage tile;
+
+    public GridLayer(int cellSize) {
+        buildTile(cellSize);
+    }
+
+    // Lignes de la partie visible de la grille
+    public void draw(GraphicsContext gc, Viewport viewport, int gridWidth, int gridHeight) {
+        double scale = viewport.getScale();
+        if (scale < MIN_CELL_PX) return;
+        int size = (int) Math.round(scale);
+        if (size != tileSize) {
+            buildTile(size);
+        }
+        double left = Math.max(0, viewport.toScreenX(0));
+        double top = Math.max(0, viewport.toScreenY(0));
+        double right = Math.min(viewport.getWidth(), viewport.toScreenX(gridWidth));
+        double bottom = Math.min(viewport.getHeight(), viewport.toScreenY(gridHeight));
+        if (right <= left || bottom <= top) return;
+
+        gc.setFill(new ImagePattern(tile, viewport.toScreenX(0), viewport.toScreenY(0), scale, scale, false));
+        gc.fillRect(left, top, right - left, bottom - top);
+        // Bords droit et bas de la grille
+        gc.setStroke(LINE_COLOR);
+        gc.setLineWidth(1);
+        double gridRight = viewport.toScreenX(gridWidth) - 0.5;
+        double gridBottom = viewport.toScreenY(gridHeight) - 0.5;
+        gc.strokeLine(gridRight, top, gridRight, bottom);
+        gc.strokeLine(left, gridBottom, right, gridBottom);
+    }
+
+    private void buildTile(int size) {
+        tileSize = size;
+        tile = new WritableImage(size, size);
+        for (int i = 0; i < size; i++) {
+            // Bords haut et gauche de la cellule
+            tile.getPixelWriter().setColor(i, 0, LINE_COLOR);
+            tile.getPixelWriter().setColor(0, i, LINE_COLOR);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.drones.ui;
+import com.drones.control.SimulationFrame;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import java.nio.IntBuffer;
+
+/**
+ * Rendu de la carte de chaleur des anomalies.
+ *
+ * Une cellule = un pixel d'un tampon ARGB réutilisé ({@link PixelBuffer}),
+ * coloré via une table de 256 couleurs précalculée. L'image est ensuite
+ * dessinée en un seul {@code drawImage} mis à l'échelle de la taille des
+ * cellules, sans lissage. Seule la fenêtre visible est colorée, à partir
+ * du niveau de la {@link IntensityPyramid} adapté au zoom.
+ */
+public class HeatmapRenderer {
+    // Seuil d'affichage: en dessous, la cellule reste transparente
+    private static final double MIN_VISIBLE_INTENSITY = 0.01;
+    private static final int[] LUT = buildColorTable();
+    
+    private int width, height; // partie utile du tampon
+    private int stride;        // largeur réelle du tampon
+    private int[] pixels;
+    private PixelBuffer<IntBuffer> pixelBuffer;
+    private WritableImage image;
+    
+    // Mettre à jour le tampon depuis l'image de simulation (grille entière)
+    public void update(SimulationFrame frame) {
+        ensureSize(frame.getGridWidth(), frame.getGridHeight());
+        for (int y = 0; y < height; y++) {
+            int i = y * stride;
+            for (int x = 0; x < width; x++) {
+                pixels[i++] = colorOf(frame.getIntensity(x, y));
+            }
+        }
+        pixelBuffer.updateBuffer(b -> null); // toute l'image est modifiée
+    }
+    
+    /**
+     * Mettre à jour le tampon avec une fenêtre d'un niveau de la pyramide:
+     * cellules [x0, x0 + w[ x [y0, y0 + h[ du niveau {@code level}. Le
+     * maximum garde visibles les points chauds isolés en vue éloignée, la
+     * moyenne donne une image plus fidèle de la masse totale.
+     */
+    public void update(IntensityPyramid pyramid, int level, boolean useMax, int x0, int y0, int w, int h) {
+        ensureSize(w, h);
+        for (int y = y0; y < y0 + h; y++) {
+            int i = (y - y0) * stride;
+            for (int x = x0; x < x0 + w; x++) {
+                pixels[i++] = colorOf(useMax ? pyramid.getMax(level, x, y) : pyramid.getMean(level, x, y));
+            }
+        }
+        pixelBuffer.updateBuffer(b -> null);
+    }
+    
+    // Dessiner la carte à l'échelle d'une cellule par cellSize pixels
+    public void draw(GraphicsContext gc, double cellSize) {
+        draw(gc, 0, 0, width * cellSize, height * cellSize);
+    }
+    
+    // Dessiner le tampon dans le rectangle donné (pixels du canvas)
+    public void draw(GraphicsContext gc, double x, double y, double w, double h) {
+        if (image == null) return;
+        boolean smoothing = gc.isImageSmoothing();
+        gc.setImageSmoothing(false);
+        // Seule la partie utile du tampon est dessinée (il peut être plus grand que la fenêtre)
+        gc.drawImage(image, 0, 0, width, height, x, y, w, h);
+        gc.setImageSmoothing(smoothing);
+    }
+    
+    public WritableImage getImage() { return image; }
+    
+    static int colorOf(double intensity) {
+        if (intensity <= MIN_VISIBLE_INTENSITY) return 0;
+        int index = intensity >= 1.0 ? 255 : (int) (intensity * 255);
+        return LUT[index];
+    }
+    
+    // Le tampon n'est réalloué que s'il est trop petit: la fenêtre visible change souvent de taille
+    private void ensureSize(int w, int h) {
+        width = w;
+        height = h;
+        if (image != null && w <= (int) image.getWidth() && h <= (int) image.getHeight()) {
+            // Réutiliser le tampon existant avec sa largeur de ligne
+            stride = (int) image.getWidth();
+            return;
+        }
+        int cw = Math.max(1, Math.max(w, image == null ? 0 : (int) image.getWidth()));
+        int ch = Math.max(1, Math.max(h, image == null ? 0 : (int) image.getHeight()));
+        pixels = new int[cw * ch];
+        stride = cw;
+        pixelBuffer = new PixelBuffer<>(cw, ch, IntBuffer.wrap(pixels), PixelFormat.getIntArgbPreInstance());
+        image = new WritableImage(pixelBuffer);
+    }
+    
+    // Dégradé jaune -> orange -> rouge, opaque
+    private static int[] buildColorTable() {
+        int[] lut = new int[256];
+        for (int i = 0; i < 256; i++) {
+            double intensity = i / 255.0;
+            double green;
+            if (intensity < 0.5) {
+                double t = intensity / 0.5;
+                green = 1.0 * (1 - t * 0.5);
+            } else {
+                double t = (intensity - 0.5) / 0.5;
+                green = 0.5 * (1 - t);
+            }
+            int g = (int) Math.round(green * 255);
+            lut[i] = 0xFF000000 | (255 << 16) | (g << 8);
+        }
+        return lut;
+    }
+}
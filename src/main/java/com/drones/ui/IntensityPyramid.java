@@ -0,0 +1,127 @@
+package com.drones.ui;
+import com.drones.control.SimulationFrame;
+
+/**
+ * Pyramide (mipmap) max/moyenne de la grille d'intensité.
+ *
+ * Le niveau 0 est la grille elle-même, lue directement dans l'image de
+ * simulation. Chaque niveau suivant divise la résolution par deux: une
+ * cellule du niveau l résume un bloc de 2^l x 2^l cellules (maximum et
+ * moyenne). Les niveaux sont construits à la demande, une seule fois par
+ * image: en vue rapprochée, rien n'est calculé au-delà du niveau 0.
+ */
+public class IntensityPyramid {
+    private SimulationFrame source;
+    private int width, height;
+    private int levelCount;
+    private int[] levelWidth, levelHeight;
+    private float[][] max, mean; // index 0 inutilisé (niveau 0 lu dans la source)
+    private int builtLevels;     // niveaux à jour pour la source courante
+
+    /**
+     * Image lue pour le niveau 0. Les niveaux déjà construits restent
+     * valides tant que {@link #invalidate()} n'est pas appelé: une autre
+     * instance portant le même état peut ainsi remplacer la source.
+     */
+    public void setSource(SimulationFrame frame) {
+        source = frame;
+        ensureSize(frame.getGridWidth(), frame.getGridHeight());
+    }
+
+    // Le contenu de la grille a changé: les niveaux réduits seront reconstruits à la demande
+    public void invalidate() {
+        builtLevels = 1;
+    }
+
+    public int getLevelCount() { return levelCount; }
+    public int getLevelWidth(int level) { return levelWidth[level]; }
+    public int getLevelHeight(int level) { return levelHeight[level]; }
+
+    public double getMax(int level, int x, int y) {
+        if (level == 0) return source.getIntensity(x, y);
+        build(level);
+        return max[level][y * levelWidth[level] + x];
+    }
+
+    public double getMean(int level, int x, int y) {
+        if (level == 0) return source.getIntensity(x, y);
+        build(level);
+        return mean[level][y * levelWidth[level] + x];
+    }
+
+    private void ensureSize(int w, int h) {
+        if (levelWidth != null && w == width && h == height) return;
+        width = w;
+        height = h;
+        builtLevels = 1;
+        int count = 1;
+        for (int lw = w, lh = h; lw > 1 || lh > 1; lw = (lw + 1) / 2, lh = (lh + 1) / 2) {
+            count++;
+        }
+        levelCount = count;
+        levelWidth = new int[count];
+        levelHeight = new int[count];
+        max = new float[count][];
+        mean = new float[count][];
+        levelWidth[0] = w;
+        levelHeight[0] = h;
+        for (int l = 1; l < count; l++) {
+            levelWidth[l] = (levelWidth[l - 1] + 1) / 2;
+            levelHeight[l] = (levelHeight[l - 1] + 1) / 2;
+            max[l] = new float[levelWidth[l] * levelHeight[l]];
+            mean[l] = new float[levelWidth[l] * levelHeight[l]];
+        }
+    }
+
+    private void build(int level) {
+        while (builtLevels <= level) {
+            reduce(builtLevels);
+            builtLevels++;
+        }
+    }
+
+    // Niveau l à partir du niveau l-1 (blocs de 2x2, incomplets sur les bords)
+    private void reduce(int l) {
+        int pw = levelWidth[l - 1], ph = levelHeight[l - 1];
+        int w = levelWidth[l], h = levelHeight[l];
+        float[] pMax = max[l - 1], pMean = mean[l - 1];
+        float[] outMax = max[l], outMean = mean[l];
+        // Poids d'une cellule du niveau précédent: nombre de cellules de la grille couvertes
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                float m = 0;
+                double sum = 0;
+                double weight = 0;
+                for (int dy = 0; dy < 2; dy++) {
+                    int py = 2 * y + dy;
+                    if (py >= ph) break;
+                    for (int dx = 0; dx < 2; dx++) {
+                        int px = 2 * x + dx;
+                        if (px >= pw) break;
+                        float vMax, vMean;
+                        if (l == 1) {
+                            vMax = vMean = (float) source.getIntensity(px, py);
+                        } else {
+                            vMax = pMax[py * pw + px];
+                            vMean = pMean[py * pw + px];
+                        }
+                        double cells = coveredCells(l - 1, px, py);
+                        if (vMax > m) m = vMax;
+                        sum += vMean * cells;
+                        weight += cells;
+                    }
+                }
+                outMax[y * w + x] = m;
+                outMean[y * w + x] = (float) (sum / weight);
+            }
+        }
+    }
+
+    // Nombre de cellules de la grille couvertes par la cellule (x, y) du niveau l
+    private double coveredCells(int level, int x, int y) {
+        int size = 1 << level;
+        int cw = Math.min(size, width - x * size);
+        int ch = Math.min(size, height - y * size);
+        return (double) cw * ch;
+    }
+}
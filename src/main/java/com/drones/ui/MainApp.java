@@ -3,73 +3,107 @@ package com.drones.ui;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
-import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import javafx.animation.AnimationTimer;
 import javafx.stage.FileChooser;
+import javafx.util.StringConverter;
 
 import com.drones.config.SimulationParams;
 import com.drones.control.SimulationEngine;
+import com.drones.control.SimulationFrame;
+import com.drones.control.SimulationThread;
 import com.drones.metrics.ExportUtils;
 import com.drones.model.*;
 import java.io.File;
-import java.util.List;
-import java.util.Map;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 
 public class MainApp extends Application {
     
-    private SimulationEngine engine;
-    private Canvas canvas;
+    private SimulationThread simulation; // moteur sur son propre thread, null en mode relecture
+    private ReplaySource replay; // non null en mode relecture (--replay=fichier.drun)
+    private final SimulationView view = new SimulationView();
     private AnimationTimer animationTimer;
-    private TextArea logArea;
+    private final EventLogBuffer logBuffer = new EventLogBuffer(SimulationParams.UI_LOG_CAPACITY);
+    private ListView<String> logView;
+    private long panelRefreshNanos; // intervalle entre deux mises à jour des panneaux
+    private String metricsText = "";
     private Label metricsLabel;
- private Button startButton, pauseButton, stopButton, resetButton;    private Slider speedSlider;
+    private Button startButton, pauseButton, stopButton, resetButton;
+    private Slider speedSlider;
+    private Slider timelineSlider;
+    private boolean updatingTimeline = false;
     private double speedFactor = 1.0;
     private boolean isPaused = false;
-    private int lastEventCount = 0;
     
     @Override
-    public void start(Stage primaryStage) {
-        engine = new SimulationEngine();
+    public void start(Stage primaryStage) throws IOException {
+        String replayFile = getParameters().getNamed().get("replay");
+        String panelHz = getParameters().getNamed().get("panel-hz");
+        double hz = panelHz != null ? Double.parseDouble(panelHz) : SimulationParams.UI_PANEL_REFRESH_HZ;
+        panelRefreshNanos = (long) (1_000_000_000L / hz);
+        if (replayFile != null) {
+            replay = new ReplaySource(Paths.get(replayFile));
+        } else {
+            SimulationEngine engine = new SimulationEngine();
+            view.setBases(engine.getBaseNetwork().getBases());
+            if (engine.getPathfinder() != null) {
+                view.setObstacles(engine.getPathfinder().getObstacles());
+            }
+            simulation = new SimulationThread(engine);
+            simulation.start();
+        }
+        SimulationFrame frame = currentFrame();
         
         // Root layout
         BorderPane root = new BorderPane();
         
-        // Center: Canvas for simulation
-        canvas = new Canvas(
-            SimulationParams.GRID_WIDTH * SimulationParams.CELL_SIZE_PX,
-            SimulationParams.GRID_HEIGHT * SimulationParams.CELL_SIZE_PX
-        );
-        root.setCenter(canvas);
+        // Center: calques de la simulation
+        view.render(frame);
+        root.setCenter(view);
         
         // Right: Control panel
-        VBox controlPanel = createControlPanel();
+        VBox controlPanel = createControlPanel(primaryStage);
         root.setRight(controlPanel);
         
-        // Bottom: Log area
-        logArea = new TextArea();
-        logArea.setPrefHeight(120);
-        logArea.setEditable(false);
-        logArea.setWrapText(true);
-        root.setBottom(logArea);
+        // Bottom: journal (seules les lignes visibles ont une cellule)
+        logView = new ListView<>(logBuffer);
+        logView.setPrefHeight(120);
+        logView.setFixedCellSize(18);
+        logView.setFocusTraversable(false);
+        root.setBottom(logView);
         
         // Scene
         Scene scene = new Scene(root, 1000, 850);
-        primaryStage.setTitle("Autonomous Drone Swarm Simulator - IASC 2025");
+        primaryStage.setTitle("Autonomous Drone Swarm Simulator - IASC 2025"
+            + (replay != null ? " (relecture: " + replayFile + ")" : ""));
         primaryStage.setScene(scene);
         primaryStage.show();
         
         // Start animation loop
         startAnimationLoop();
         
-        engine.logEvent("Simulation initialisée. Appuyez sur Start pour commencer.");
+        log(replay != null
+            ? "Relecture chargée (" + (replay.getLastTick() + 1) + " ticks). Appuyez sur Start pour lire."
+            : "Simulation initialisée. Appuyez sur Start pour commencer.");
     }
     
-    private VBox createControlPanel() {
+    // Image à afficher: dernière image publiée par le thread de simulation, ou relecture
+    private SimulationFrame currentFrame() {
+        return replay != null ? replay.getFrame() : simulation.latestFrame();
+    }
+    
+    // Journal du moteur (sans effet en relecture: le journal enregistré est affiché tel quel)
+    private void log(String message) {
+        if (simulation != null) {
+            simulation.submit(engine -> engine.logEvent(message));
+        }
+    }
+    
+    private VBox createControlPanel(Stage primaryStage) {
         VBox panel = new VBox(10);
         panel.setPadding(new Insets(10));
         panel.setStyle("-fx-border-color: #ccc; -fx-border-width: 0 0 0 1;");
@@ -92,60 +126,123 @@ public class MainApp extends Application {
         resetButton.setPrefWidth(200);
         
         startButton.setOnAction(e -> {
-            engine.start();
+            if (replay != null) {
+                replay.play();
+            } else {
+                simulation.submit(SimulationEngine::start);
+            }
             isPaused = false;
-            engine.logEvent("▶ Simulation démarrée.");
+            log("▶ Simulation démarrée.");
         });
         
         pauseButton.setOnAction(e -> {
             if (!isPaused) {
-                engine.stop();
+                if (replay != null) replay.pause(); else simulation.submit(SimulationEngine::stop);
                 isPaused = true;
-                engine.logEvent("⏸ Simulation en pause.");
+                log("⏸ Simulation en pause.");
             } else {
-                engine.start();
+                if (replay != null) replay.play(); else simulation.submit(SimulationEngine::start);
                 isPaused = false;
-                engine.logEvent("▶ Simulation reprise.");
+                log("▶ Simulation reprise.");
             }
         });
         
         stopButton.setOnAction(e -> {
-            engine.stop();
+            if (replay != null) replay.pause(); else simulation.submit(SimulationEngine::stop);
             isPaused = false;
-            engine.logEvent("⏹ Simulation arrêtée.");
+            log("⏹ Simulation arrêtée.");
         });
         
         resetButton.setOnAction(e -> {
-            engine.reset();
-            logArea.clear();
-            lastEventCount = 0;
-            engine.logEvent("🔄 Simulation réinitialisée.");
+            if (replay != null) {
+                replay.pause();
+                seekReplay(0);
+            } else {
+                simulation.submit(SimulationEngine::reset);
+            }
+            log("🔄 Simulation réinitialisée.");
         });
         
         
- panel.getChildren().addAll(startButton, pauseButton, stopButton, resetButton);        
+        panel.getChildren().addAll(startButton, pauseButton, stopButton, resetButton);
+        
         // Separator
         Separator sep1 = new Separator();
         panel.getChildren().add(sep1);
-         \n // Window size control\n Label sizeLabel = new Label("Taille Fenetre");\n sizeLabel.setStyle("-fx-font-size: 11; -fx-font-weight: bold;");\n panel.getChildren().add(sizeLabel);\n \n Button shrinkButton = new Button("Reduire");\n Button expandButton = new Button("Agrandir");\n Button fitButton = new Button("Ajuster");\n \n shrinkButton.setPrefWidth(200);\n expandButton.setPrefWidth(200);\n fitButton.setPrefWidth(200);\n \n shrinkButton.setOnAction(e -> {\n primaryStage.setWidth(primaryStage.getWidth() * 0.8);\n primaryStage.setHeight(primaryStage.getHeight() * 0.8);\n });\n \n expandButton.setOnAction(e -> {\n primaryStage.setWidth(primaryStage.getWidth() * 1.2);\n primaryStage.setHeight(primaryStage.getHeight() * 1.2);\n });\n \n fitButton.setOnAction(e -> {\n primaryStage.setWidth(1000);\n primaryStage.setHeight(850);\n });\n \n panel.getChildren().addAll(shrinkButton, expandButton, fitButton);
+        
+        // Window size control
+        Label sizeLabel = new Label("Taille Fenetre");
+        sizeLabel.setStyle("-fx-font-size: 11; -fx-font-weight: bold;");
+        panel.getChildren().add(sizeLabel);
+        
+        Button shrinkButton = new Button("Reduire");
+        Button expandButton = new Button("Agrandir");
+        Button fitButton = new Button("Ajuster");
+        
+        shrinkButton.setPrefWidth(200);
+        expandButton.setPrefWidth(200);
+        fitButton.setPrefWidth(200);
+        
+        shrinkButton.setOnAction(e -> {
+            primaryStage.setWidth(primaryStage.getWidth() * 0.8);
+            primaryStage.setHeight(primaryStage.getHeight() * 0.8);
+        });
+        
+        expandButton.setOnAction(e -> {
+            primaryStage.setWidth(primaryStage.getWidth() * 1.2);
+            primaryStage.setHeight(primaryStage.getHeight() * 1.2);
+        });
+        
+        fitButton.setOnAction(e -> {
+            primaryStage.setWidth(1000);
+            primaryStage.setHeight(850);
+        });
+        
+        panel.getChildren().addAll(shrinkButton, expandButton, fitButton);
         
         // Speed control
         Label speedLabel = new Label("Vitesse Simulation");
         speedLabel.setStyle("-fx-font-size: 11; -fx-font-weight: bold;");
         panel.getChildren().add(speedLabel);
         
-        speedSlider = new Slider(0.5, 4.0, 1.0);
+        // Échelle logarithmique: de 0,5x à 1000x (avance rapide)
+        speedSlider = new Slider(Math.log10(0.5), 3.0, 0.0);
         speedSlider.setShowTickLabels(true);
         speedSlider.setShowTickMarks(true);
         speedSlider.setMajorTickUnit(1.0);
-        speedSlider.setBlockIncrement(0.5);
+        speedSlider.setBlockIncrement(0.1);
         speedSlider.setPrefWidth(200);
+        speedSlider.setLabelFormatter(new StringConverter<Double>() {
+            @Override public String toString(Double value) { return String.format("%.0fx", Math.pow(10, value)); }
+            @Override public Double fromString(String text) { return Math.log10(Double.parseDouble(text.replace("x", ""))); }
+        });
         speedSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
-            speedFactor = newVal.doubleValue();
-            engine.logEvent("Vitesse: " + String.format("%.1f", speedFactor) + "x");
+            speedFactor = Math.pow(10, newVal.doubleValue());
+            if (replay != null) {
+                replay.setSpeed(speedFactor);
+            } else {
+                simulation.setSpeedFactor(speedFactor);
+            }
+            log("Vitesse: " + String.format("%.1f", speedFactor) + "x");
         });
         panel.getChildren().add(speedSlider);
         
+        // Timeline (relecture uniquement): recherche et défilement
+        if (replay != null) {
+            Label timelineLabel = new Label("Position (tick)");
+            timelineLabel.setStyle("-fx-font-size: 11; -fx-font-weight: bold;");
+            panel.getChildren().add(timelineLabel);
+            
+            timelineSlider = new Slider(0, Math.max(1, replay.getLastTick()), 0);
+            timelineSlider.setPrefWidth(200);
+            timelineSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+                if (!updatingTimeline) {
+                    seekReplay(newVal.longValue());
+                }
+            });
+            panel.getChildren().add(timelineSlider);
+        }
+        
         // Separator
         Separator sep2 = new Separator();
         panel.getChildren().add(sep2);
@@ -169,9 +266,10 @@ public class MainApp extends Application {
         infoTitle.setStyle("-fx-font-size: 11; -fx-font-weight: bold;");
         panel.getChildren().add(infoTitle);
         
+        SimulationFrame frame = currentFrame();
         Label infoText = new Label(
-            "Grille: " + SimulationParams.GRID_WIDTH + "x" + SimulationParams.GRID_HEIGHT + "\n" +
-            "Drones: " + SimulationParams.NUM_DRONES + "\n" +
+            "Grille: " + frame.getGridWidth() + "x" + frame.getGridHeight() + "\n" +
+            "Drones: " + frame.getDroneCount() + "\n" +
             "Tick: " + SimulationParams.TICK_DURATION_MS + " ms\n" +
             "Autonomie: 30 min\n" +
             "Recharge: 10 min"
@@ -183,154 +281,60 @@ public class MainApp extends Application {
     }
     
     private void startAnimationLoop() {
+        // Le moteur avance sur son propre thread: le rendu affiche seulement la dernière image
         animationTimer = new AnimationTimer() {
-            private long lastTick = 0;
-            private static final long TICK_NANOS = SimulationParams.TICK_DURATION_MS * 1_000_000L;
+            private long lastFrame = 0;
+            private long lastPanelRefresh = 0;
             
             @Override
             public void handle(long now) {
-                if (engine.isRunning()) {
-                    long adjustedTick = (long) (TICK_NANOS / speedFactor);
-                    if (now - lastTick >= adjustedTick) {
-                        engine.tick();
-                        lastTick = now;
-                    }
+                if (replay != null) {
+                    advanceReplay(lastFrame == 0 ? 0 : now - lastFrame);
                 }
+                lastFrame = now;
                 
-                render();
-                updateMetrics();
-                updateLog();
+                SimulationFrame frame = currentFrame();
+                view.render(frame);
+                
+                // Métriques, journal et position: à cadence réduite, le texte n'a pas besoin de 60 Hz
+                if (now - lastPanelRefresh >= panelRefreshNanos) {
+                    lastPanelRefresh = now;
+                    updateMetrics(frame);
+                    updateLog(frame);
+                    if (replay != null) {
+                        updateTimeline();
+                    }
+                }
             }
         };
         animationTimer.start();
     }
     
-    private void render() {
-        GraphicsContext gc = canvas.getGraphicsContext2D();
-        
-        // Clear canvas
-        gc.setFill(Color.WHITE);
-        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
-        
-        // Draw grid lines
-        gc.setStroke(Color.web("#e0e0e0"));
-        gc.setLineWidth(0.5);
-        for (int i = 0; i <= SimulationParams.GRID_WIDTH; i++) {
-            gc.strokeLine(i * SimulationParams.CELL_SIZE_PX, 0,
-                         i * SimulationParams.CELL_SIZE_PX, canvas.getHeight());
-        }
-        for (int i = 0; i <= SimulationParams.GRID_HEIGHT; i++) {
-            gc.strokeLine(0, i * SimulationParams.CELL_SIZE_PX,
-                         canvas.getWidth(), i * SimulationParams.CELL_SIZE_PX);
-        }
-        
-        // Draw anomaly heatmap
-        Environment env = engine.getEnvironment();
-        double[][] anomalyGrid = env.getAnomalyIntensity();
-        
-        for (int y = 0; y < env.getHeight(); y++) {
-            for (int x = 0; x < env.getWidth(); x++) {
-                double intensity = anomalyGrid[y][x];
-                if (intensity > 0.01) {
-                    Color color = interpolateColor(intensity);
-                    gc.setFill(color);
-                    gc.fillRect(x * SimulationParams.CELL_SIZE_PX,
-                               y * SimulationParams.CELL_SIZE_PX,
-                               SimulationParams.CELL_SIZE_PX,
-                               SimulationParams.CELL_SIZE_PX);
-                }
-            }
-        }
-        
-        // Draw drone trajectories
-        drawTrajectories(gc);
-        
-        // Draw base
-        gc.setFill(Color.GREEN);
-        gc.fillRect(0, 0, SimulationParams.CELL_SIZE_PX, SimulationParams.CELL_SIZE_PX);
-        gc.setStroke(Color.DARKGREEN);
-        gc.setLineWidth(2);
-        gc.strokeRect(0, 0, SimulationParams.CELL_SIZE_PX, SimulationParams.CELL_SIZE_PX);
-        gc.setFill(Color.BLACK);
-        gc.setFont(new javafx.scene.text.Font(9));
-        gc.fillText("BASE", 2, 11);
-        
-        // Draw drones
-        for (Drone drone : engine.getDrones()) {
-            drawDrone(gc, drone);
-        }
-    }
-    
-    private void drawTrajectories(GraphicsContext gc) {
-        for (Map.Entry<Integer, List<double[]>> entry : engine.getDroneTrajectories().entrySet()) {
-            List<double[]> trajectory = entry.getValue();
-            
-            if (trajectory.size() < 2) continue;
-            
-            gc.setStroke(Color.web("#cccccc", 0.3));
-            gc.setLineWidth(1);
-            
-            for (int i = 1; i < trajectory.size(); i++) {
-                double[] prev = trajectory.get(i - 1);
-                double[] curr = trajectory.get(i);
-                
-                int x1 = (int) (prev[0] * SimulationParams.CELL_SIZE_PX) + SimulationParams.CELL_SIZE_PX / 2;
-                int y1 = (int) (prev[1] * SimulationParams.CELL_SIZE_PX) + SimulationParams.CELL_SIZE_PX / 2;
-                int x2 = (int) (curr[0] * SimulationParams.CELL_SIZE_PX) + SimulationParams.CELL_SIZE_PX / 2;
-                int y2 = (int) (curr[1] * SimulationParams.CELL_SIZE_PX) + SimulationParams.CELL_SIZE_PX / 2;
-                
-                gc.strokeLine(x1, y1, x2, y2);
-            }
+    private void advanceReplay(long elapsedNanos) {
+        try {
+            replay.advance(elapsedNanos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
     
-    private void drawDrone(GraphicsContext gc, Drone drone) {
-        int px = (int) (drone.getX() * SimulationParams.CELL_SIZE_PX) + SimulationParams.CELL_SIZE_PX / 2;
-        int py = (int) (drone.getY() * SimulationParams.CELL_SIZE_PX) + SimulationParams.CELL_SIZE_PX / 2;
-        int radius = 5;
-        
-        Color stateColor;
-        switch (drone.getState()) {
-            case ACTIVE:
-                stateColor = Color.GREEN;
-                break;
-            case MEASURING:
-                stateColor = Color.BLUE;
-                break;
-            case RETURNING:
-                stateColor = Color.ORANGE;
-                break;
-            case CHARGING:
-                stateColor = Color.RED;
-                break;
-            default:
-                stateColor = Color.GRAY;
+    private void seekReplay(long tick) {
+        try {
+            replay.seek(tick);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        
-        gc.setFill(stateColor);
-        gc.fillOval(px - radius, py - radius, radius * 2, radius * 2);
-        gc.setStroke(Color.BLACK);
-        gc.setLineWidth(1);
-        gc.strokeOval(px - radius, py - radius, radius * 2, radius * 2);
-        
-        gc.setFill(Color.BLACK);
-        gc.setFont(new javafx.scene.text.Font(8));
-        gc.fillText(String.valueOf(drone.getId()), px - 2, py + 3);
+        updateTimeline();
     }
     
-    private Color interpolateColor(double intensity) {
-        if (intensity < 0.5) {
-            double t = intensity / 0.5;
-            return Color.color(1.0, 1.0 * (1 - t * 0.5), 0);
-        } else {
-            double t = (intensity - 0.5) / 0.5;
-            return Color.color(1.0, 0.5 * (1 - t), 0);
-        }
+    private void updateTimeline() {
+        updatingTimeline = true;
+        timelineSlider.setValue(replay.getCurrentTick());
+        updatingTimeline = false;
     }
     
-    private void updateMetrics() {
-        SimulationEngine.SimulationMetrics m = engine.getMetrics();
-        String metricsText = String.format(
+    private void updateMetrics(SimulationFrame frame) {
+        String text = String.format(
             "Temps: %.1f s\n" +
             "Couverture: %.1f%%\n" +
             "Anomalies: %d\n" +
@@ -338,28 +342,24 @@ public class MainApp extends Application {
             "Recharge: %d\n" +
             "Mesures: %d\n" +
             "Vitesse: %.1fx",
-            engine.getSimulationTime() / 1000.0,
-            m.coveragePercentage,
-            m.anomaliesDetected,
-            m.activeDrones,
-            m.rechargingDrones,
-            (int)engine.getDrones().stream()
-                .flatMap(d -> d.getMeasurements().stream())
-                .count(),
+            frame.getSimulationTime() / 1000.0,
+            frame.getCoveragePercentage(),
+            frame.getAnomalyCount(),
+            frame.getActiveDrones(),
+            frame.getRechargingDrones(),
+            frame.getMeasurementCount(),
             speedFactor
         );
-        metricsLabel.setText(metricsText);
+        // Éviter une nouvelle mise en page quand rien n'a changé (simulation en pause)
+        if (!text.equals(metricsText)) {
+            metricsText = text;
+            metricsLabel.setText(text);
+        }
     }
     
-    private void updateLog() {
-        List<String> events = engine.getEventLog();
-        if (events.size() > lastEventCount) {
-            logArea.clear();
-            for (String event : events) {
-                logArea.appendText(event + "\n");
-            }
-            logArea.setScrollTop(Double.MAX_VALUE);
-            lastEventCount = events.size();
+    private void updateLog(SimulationFrame frame) {
+        if (logBuffer.sync(frame.getEventLog())) {
+            logView.scrollTo(logBuffer.size() - 1);
         }
     }
     
@@ -377,6 +377,16 @@ public class MainApp extends Application {
         if (animationTimer != null) {
             animationTimer.stop();
         }
+        if (simulation != null) {
+            simulation.shutdown();
+        }
+        if (replay != null) {
+            try {
+                replay.close();
+            } catch (IOException e) {
+                // Fermeture en fin d'application: rien de plus à faire
+            }
+        }
     }
     
     public static void main(String[] args) {
@@ -0,0 +1,79 @@
+package com.drones.ui;
+import com.drones.model.ObstacleMap;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import java.nio.IntBuffer;
+
+/**
+ * Zones interdites rastérisées une fois dans une image d'un pixel par
+ * cellule (tampon ARGB comme {@link HeatmapRenderer}), reconstruite
+ * seulement quand la carte change (numéro de version). Un déplacement ou
+ * un zoom redessine la partie visible en un seul {@code drawImage}, sans
+ * parcourir les cellules.
+ */
+public class ObstacleLayer {
+    private final int color;
+    private ObstacleMap map;
+    private int version;
+    private int width, height;
+    private int[] pixels = new int[0];
+    private WritableImage image;
+
+    public ObstacleLayer(Color color) {
+        int a = (int) Math.round(color.getOpacity() * 255);
+        this.color = (a << 24) | ((int) Math.round(color.getRed() * a) << 16)
+            | ((int) Math.round(color.getGreen() * a) << 8) | (int) Math.round(color.getBlue() * a);
+    }
+
+    // Reconstruire le tampon si la carte a changé; vrai s'il a été reconstruit
+    public boolean update(ObstacleMap obstacles) {
+        if (obstacles == map && (map == null || map.getVersion() == version)) {
+            return false;
+        }
+        map = obstacles;
+        image = null;
+        if (map == null) {
+            width = height = 0;
+            pixels = new int[0];
+            return true;
+        }
+        version = map.getVersion();
+        width = map.getWidth();
+        height = map.getHeight();
+        pixels = new int[width * height];
+        if (map.getBlockedCount() > 0) {
+            for (int y = 0, i = 0; y < height; y++) {
+                for (int x = 0; x < width; x++, i++) {
+                    if (map.isBlocked(x, y)) pixels[i] = color;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Dessiner la partie visible de la carte à l'échelle de la vue
+    public void draw(GraphicsContext gc, Viewport viewport) {
+        if (map == null || map.getBlockedCount() == 0) return;
+        int x0 = viewport.firstCol(), x1 = viewport.lastCol(width);
+        int y0 = viewport.firstRow(), y1 = viewport.lastRow(height);
+        if (x1 <= x0 || y1 <= y0) return;
+        if (image == null) {
+            image = new WritableImage(new PixelBuffer<>(width, height, IntBuffer.wrap(pixels),
+                PixelFormat.getIntArgbPreInstance()));
+        }
+        double scale = viewport.getScale();
+        boolean smoothing = gc.isImageSmoothing();
+        gc.setImageSmoothing(false);
+        gc.drawImage(image, x0, y0, x1 - x0, y1 - y0,
+            viewport.toScreenX(x0), viewport.toScreenY(y0), (x1 - x0) * scale, (y1 - y0) * scale);
+        gc.setImageSmoothing(smoothing);
+    }
+
+    // Cellule (x, y) peinte dans le tampon
+    boolean isDrawn(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && pixels[y * width + x] != 0;
+    }
+}
@@ -0,0 +1,151 @@
+package com.drones.ui;
+import com.drones.control.SimulationEngine;
+import com.drones.control.SimulationFrame;
+import com.drones.metrics.RunFileReader;
+import com.drones.model.DroneState;
+import java.io.*;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Relecture d'une exécution enregistrée (voir {@link com.drones.metrics.RunRecorder}).
+ *
+ * Fournit au rendu une {@link SimulationFrame} reconstruite depuis le fichier,
+ * à vitesse quelconque, avec recherche directe d'un tick. Les trajectoires et
+ * le journal sont complétés au fil de la lecture et reconstruits en cas de
+ * retour en arrière.
+ */
+public class ReplaySource implements Closeable {
+    private final RunFileReader reader;
+    private final long lastTick;
+    private final int tickDurationMs;
+    private final int numDrones;
+    
+    private long currentTick = -1;
+    private boolean playing;
+    private double speed = 1.0;
+    private double pendingTicks;
+    
+    private final float[] xs, ys;
+    private final byte[] states;
+    private final float[] grid;
+    private final List<List<double[]>> trajectories;
+    private final List<String> events;
+    private long loadedTick = -1; // trajectoires et événements chargés jusqu'à ce tick
+    private final List<SimulationEngine.SimulationMetrics.MetricsSnapshot> metrics;
+    private SimulationEngine.SimulationMetrics.MetricsSnapshot currentMetrics;
+    private int measurementCount;
+    private final ReplayFrame frame;
+    
+    public ReplaySource(Path path) throws IOException {
+        this.reader = new RunFileReader(path);
+        this.lastTick = reader.getLastTick();
+        this.tickDurationMs = reader.getTickDurationMs();
+        this.numDrones = reader.getNumDrones();
+        this.xs = new float[numDrones];
+        this.ys = new float[numDrones];
+        this.states = new byte[numDrones];
+        this.grid = new float[reader.getGridWidth() * reader.getGridHeight()];
+        this.trajectories = new ArrayList<>();
+        for (int i = 0; i < numDrones; i++) {
+            trajectories.add(new ArrayList<>());
+        }
+        this.events = new ArrayList<>();
+        this.metrics = reader.readMetrics();
+        this.frame = new ReplayFrame();
+        seek(0);
+    }
+    
+    public long getCurrentTick() { return currentTick; }
+    public long getLastTick() { return lastTick; }
+    public boolean isPlaying() { return playing; }
+    public double getSpeed() { return speed; }
+    public SimulationFrame getFrame() { return frame; }
+    
+    public void play() { playing = currentTick < lastTick; }
+    public void pause() { playing = false; }
+    
+    public void setSpeed(double speed) {
+        this.speed = Math.max(0, speed);
+    }
+    
+    // Avancer la lecture du temps réel écoulé (multiplié par la vitesse)
+    public void advance(long elapsedNanos) throws IOException {
+        if (!playing) return;
+        pendingTicks += elapsedNanos * speed / (tickDurationMs * 1_000_000.0);
+        long step = (long) pendingTicks;
+        if (step > 0) {
+            pendingTicks -= step;
+            seek(currentTick + step);
+            if (currentTick >= lastTick) {
+                playing = false;
+            }
+        }
+    }
+    
+    // Aller directement au tick donné (en avant ou en arrière)
+    public void seek(long tick) throws IOException {
+        long target = Math.max(0, Math.min(tick, Math.max(0, lastTick)));
+        if (target < loadedTick) {
+            for (List<double[]> traj : trajectories) {
+                traj.clear();
+            }
+            events.clear();
+            loadedTick = -1;
+        }
+        if (target > loadedTick) {
+            reader.scanTrajectories(loadedTick + 1, target, (t, id, x, y, state) -> {
+                if (id >= 0 && id < numDrones) {
+                    trajectories.get(id).add(new double[]{x, y, state});
+                }
+            });
+            reader.scanEvents(loadedTick + 1, target, (t, message) -> events.add(message));
+            loadedTick = target;
+        }
+        
+        reader.readTrajectoryAt(target, xs, ys, states);
+        if (reader.readGridFrame(target, grid) < 0) {
+            Arrays.fill(grid, 0f);
+        }
+        
+        long time = (target + 1) * tickDurationMs;
+        currentMetrics = null;
+        for (SimulationEngine.SimulationMetrics.MetricsSnapshot m : metrics) {
+            if (m.time > time) break;
+            currentMetrics = m;
+        }
+        measurementCount = (int) reader.countMeasurementsUpTo(target);
+        currentTick = target;
+        pendingTicks = 0;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+    
+    // Vue sur l'état courant de la relecture
+    private class ReplayFrame implements SimulationFrame {
+        @Override public long getSimulationTime() { return (currentTick + 1) * tickDurationMs; }
+        @Override public int getGridWidth() { return reader.getGridWidth(); }
+        @Override public int getGridHeight() { return reader.getGridHeight(); }
+        
+        @Override
+        public double getIntensity(int x, int y) {
+            return grid[y * reader.getGridWidth() + x];
+        }
+        
+        @Override public int getDroneCount() { return numDrones; }
+        @Override public int getDroneId(int index) { return index; }
+        @Override public double getDroneX(int index) { return xs[index]; }
+        @Override public double getDroneY(int index) { return ys[index]; }
+        @Override public DroneState getDroneState(int index) { return DroneState.values()[states[index]]; }
+        @Override public List<double[]> getTrajectory(int index) { return trajectories.get(index); }
+        @Override public List<String> getEventLog() { return events; }
+        @Override public double getCoveragePercentage() { return currentMetrics == null ? 0 : currentMetrics.coverage; }
+        @Override public int getAnomalyCount() { return currentMetrics == null ? 0 : currentMetrics.anomalies; }
+        @Override public int getActiveDrones() { return currentMetrics == null ? 0 : currentMetrics.activeDrones; }
+        @Override public int getRechargingDrones() { return currentMetrics == null ? 0 : currentMetrics.rechargingDrones; }
+        @Override public int getMeasurementCount() { return measurementCount; }
+    }
+}
@@ -0,0 +1,290 @@
+package com.drones.ui;
+import com.drones.config.SimulationParams;
+import com.drones.control.SimulationFrame;
+import com.drones.model.Base;
+import com.drones.model.BaseNetwork;
+import com.drones.model.ObstacleMap;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import java.util.List;
+
+/**
+ * Vue de la simulation en calques superposés.
+ *
+ * Quatre canvas empilés: grille et base (statiques), carte de chaleur,
+ * trajectoires et drones. Un calque n'est redessiné que si ses données ont
+ * changé depuis l'image précédente. Les trajectoires sont tracées de façon
+ * incrémentale dans une image en coordonnées de grille ({@link TrajectoryLayer}):
+ * seuls les segments ajoutés depuis la dernière image sont tracés, et un
+ * déplacement de la vue ne retrace pas l'historique. Le coût d'une image ne
+ * dépend donc pas de la durée de la course.
+ *
+ * La vue est une fenêtre déplaçable (glisser) et zoomable (molette) sur la
+ * grille, voir {@link Viewport}; un double-clic affiche toute la grille.
+ * Seule la partie visible est dessinée: en vue éloignée, la carte de
+ * chaleur vient d'un niveau réduit de la {@link IntensityPyramid} et les
+ * drones hors champ sont écartés par un {@link DroneSpatialIndex}.
+ */
+public class SimulationView extends StackPane {
+    private static final Color TRAJECTORY_COLOR = Color.web("#cccccc", 0.3);
+    private static final Font BASE_FONT = new Font(9);
+    private static final Font DRONE_FONT = new Font(8);
+    private static final int DRONE_RADIUS = 5;
+    // En dessous (pixels par cellule), les drones sont de simples points sans numéro
+    private static final double DETAILED_DRONE_SCALE = 4;
+    private static final double ZOOM_PER_SCROLL_PIXEL = 1.005;
+
+    private final int cellSize;
+    private final Canvas gridCanvas = new Canvas();
+    private final Canvas heatmapCanvas = new Canvas();
+    private final Canvas trajectoryCanvas = new Canvas();
+    private final Canvas droneCanvas = new Canvas();
+    private final GridLayer gridLayer;
+    private final HeatmapRenderer heatmap = new HeatmapRenderer();
+    private final TrajectoryLayer trajectories = new TrajectoryLayer(TRAJECTORY_COLOR);
+    private final ObstacleLayer obstacleLayer = new ObstacleLayer(Color.DIMGRAY);
+    private final IntensityPyramid pyramid = new IntensityPyramid();
+    private final DroneSpatialIndex droneIndex = new DroneSpatialIndex(8);
+    private final Viewport viewport;
+    private boolean lodUseMax = true;
+    private List<Base> bases = BaseNetwork.origin().getBases();
+    private ObstacleMap obstacles; // zones interdites, null si aucune
+
+    private int gridWidth = -1, gridHeight = -1;
+    private boolean fitted;
+    private long lastTime = -1;
+    private long lastViewVersion = -1;
+    private double dragX, dragY;
+
+    public SimulationView() {
+        this(SimulationParams.CELL_SIZE_PX);
+    }
+
+    public SimulationView(int cellSize) {
+        this.cellSize = cellSize;
+        this.gridLayer = new GridLayer(cellSize);
+        this.viewport = new Viewport(cellSize);
+        getChildren().addAll(gridCanvas, heatmapCanvas, trajectoryCanvas, droneCanvas);
+        setMinSize(0, 0);
+
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(widthProperty());
+        clip.heightProperty().bind(heightProperty());
+        setClip(clip);
+
+        setOnScroll(e -> viewport.zoomAt(Math.pow(ZOOM_PER_SCROLL_PIXEL, e.getDeltaY()), e.getX(), e.getY()));
+        setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        setOnMouseDragged(e -> {
+            viewport.pan(e.getX() - dragX, e.getY() - dragY);
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) {
+                viewport.fit(gridWidth, gridHeight, cellSize);
+            }
+        });
+    }
+
+    public Viewport getViewport() { return viewport; }
+
+    // Zones interdites dessinées sur le calque statique (null: aucune)
+    public void setObstacles(ObstacleMap obstacles) {
+        this.obstacles = obstacles;
+        lastViewVersion = -1;
+    }
+
+    // Bases dessinées sur le calque statique (défaut: une seule en (0, 0))
+    public void setBases(List<Base> bases) {
+        this.bases = bases;
+        lastViewVersion = -1;
+    }
+
+    // Carte de chaleur en vue éloignée: maximum (défaut) ou moyenne des cellules regroupées
+    public void setLodUseMax(boolean useMax) {
+        if (useMax != lodUseMax) {
+            lodUseMax = useMax;
+            lastViewVersion = -1;
+        }
+    }
+
+    @Override
+    protected void layoutChildren() {
+        super.layoutChildren();
+        double w = getWidth(), h = getHeight();
+        for (Canvas canvas : new Canvas[]{gridCanvas, heatmapCanvas, trajectoryCanvas, droneCanvas}) {
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+        }
+        viewport.setSize(w, h);
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return gridWidth > 0 ? gridWidth * cellSize : 0;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return gridHeight > 0 ? gridHeight * cellSize : 0;
+    }
+
+    // Mettre à jour les calques dont les données ont changé
+    public void render(SimulationFrame frame) {
+        if (frame.getGridWidth() != gridWidth || frame.getGridHeight() != gridHeight) {
+            gridWidth = frame.getGridWidth();
+            gridHeight = frame.getGridHeight();
+            fitted = false;
+            requestLayout();
+        }
+        if (!fitted && viewport.getWidth() > 0 && viewport.getHeight() > 0) {
+            viewport.fit(gridWidth, gridHeight, cellSize);
+            fitted = true;
+        }
+
+        long time = frame.getSimulationTime();
+        boolean frameChanged = time != lastTime;
+        boolean viewChanged = viewport.getVersion() != lastViewVersion;
+        pyramid.setSource(frame);
+        if (frameChanged) {
+            pyramid.invalidate();
+            droneIndex.build(frame);
+        }
+
+        // Zones interdites modifiées: le calque statique change aussi
+        if (obstacleLayer.update(obstacles) || viewChanged) {
+            drawStaticLayer();
+        }
+
+        // Nouveaux segments tracés dans l'image des trajectoires, puis partie visible affichée
+        if (trajectories.update(frame) || viewChanged) {
+            drawTrajectories();
+        }
+
+        if (frameChanged || viewChanged) {
+            drawHeatmap();
+            drawDrones(frame);
+        }
+        lastTime = time;
+        lastViewVersion = viewport.getVersion();
+    }
+
+    // Fond, lignes de la grille, zones interdites (image précalculée) et bases: redessinés quand la vue change
+    private void drawStaticLayer() {
+        GraphicsContext gc = gridCanvas.getGraphicsContext2D();
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, gridCanvas.getWidth(), gridCanvas.getHeight());
+        gridLayer.draw(gc, viewport, gridWidth, gridHeight);
+
+        double scale = viewport.getScale();
+        obstacleLayer.draw(gc, viewport);
+        double size = Math.max(3, scale);
+        for (Base base : bases) {
+            double bx = viewport.toScreenX(Math.floor(base.getX())), by = viewport.toScreenY(Math.floor(base.getY()));
+            gc.setFill(Color.GREEN);
+            gc.fillRect(bx, by, size, size);
+            gc.setStroke(Color.DARKGREEN);
+            gc.setLineWidth(2);
+            gc.strokeRect(bx, by, size, size);
+            if (scale >= cellSize) {
+                gc.setFill(Color.BLACK);
+                gc.setFont(BASE_FONT);
+                gc.fillText("BASE", bx + 2, by + 11);
+            }
+        }
+    }
+
+    private void drawHeatmap() {
+        GraphicsContext gc = heatmapCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, heatmapCanvas.getWidth(), heatmapCanvas.getHeight());
+        int x0 = viewport.firstCol(), x1 = viewport.lastCol(gridWidth);
+        int y0 = viewport.firstRow(), y1 = viewport.lastRow(gridHeight);
+        if (x1 <= x0 || y1 <= y0) return;
+
+        int level = Math.min(viewport.lodLevel(), pyramid.getLevelCount() - 1);
+        int span = 1 << level; // cellules de la grille par cellule du niveau
+        int lx0 = x0 >> level, ly0 = y0 >> level;
+        int lx1 = (x1 + span - 1) >> level, ly1 = (y1 + span - 1) >> level;
+        heatmap.update(pyramid, level, lodUseMax, lx0, ly0, lx1 - lx0, ly1 - ly0);
+
+        double scale = viewport.getScale();
+        boolean clipToGrid = level > 0; // la dernière cellule d'un niveau réduit peut déborder de la grille
+        if (clipToGrid) {
+            gc.save();
+            gc.beginPath();
+            gc.rect(viewport.toScreenX(0), viewport.toScreenY(0), gridWidth * scale, gridHeight * scale);
+            gc.clip();
+        }
+        heatmap.draw(gc, viewport.toScreenX(lx0 * span), viewport.toScreenY(ly0 * span),
+            (lx1 - lx0) * span * scale, (ly1 - ly0) * span * scale);
+        if (clipToGrid) {
+            gc.restore();
+        }
+    }
+
+    private void drawTrajectories() {
+        GraphicsContext gc = trajectoryCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, trajectoryCanvas.getWidth(), trajectoryCanvas.getHeight());
+        trajectories.draw(gc, viewport);
+    }
+
+    private void drawDrones(SimulationFrame frame) {
+        GraphicsContext gc = droneCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, droneCanvas.getWidth(), droneCanvas.getHeight());
+        gc.setLineWidth(1);
+        gc.setFont(DRONE_FONT);
+        boolean detailed = viewport.getScale() >= DETAILED_DRONE_SCALE;
+
+        // Cellules visibles, élargies du rayon d'un drone
+        double margin = (DRONE_RADIUS + 1) / viewport.getScale() + 1;
+        int count = droneIndex.query(
+            viewport.toCellX(0) - margin, viewport.toCellY(0) - margin,
+            viewport.toCellX(viewport.getWidth()) + margin, viewport.toCellY(viewport.getHeight()) + margin,
+            frame);
+        for (int k = 0; k < count; k++) {
+            drawDrone(gc, frame, droneIndex.result(k), detailed);
+        }
+    }
+
+    private void drawDrone(GraphicsContext gc, SimulationFrame frame, int index, boolean detailed) {
+        double half = viewport.getScale() / 2;
+        int px = (int) (viewport.toScreenX(frame.getDroneX(index)) + half);
+        int py = (int) (viewport.toScreenY(frame.getDroneY(index)) + half);
+        int radius = detailed ? DRONE_RADIUS : 2;
+
+        Color stateColor;
+        switch (frame.getDroneState(index)) {
+            case ACTIVE:
+                stateColor = Color.GREEN;
+                break;
+            case MEASURING:
+                stateColor = Color.BLUE;
+                break;
+            case RETURNING:
+                stateColor = Color.ORANGE;
+                break;
+            case CHARGING:
+                stateColor = Color.RED;
+                break;
+            default:
+                stateColor = Color.GRAY;
+        }
+
+        gc.setFill(stateColor);
+        gc.fillOval(px - radius, py - radius, radius * 2, radius * 2);
+        if (!detailed) return;
+        gc.setStroke(Color.BLACK);
+        gc.strokeOval(px - radius, py - radius, radius * 2, radius * 2);
+
+        gc.setFill(Color.BLACK);
+        gc.fillText(String.valueOf(frame.getDroneId(index)), px - 2, py + 3);
+    }
+}
@@ -0,0 +1,175 @@
+package com.drones.ui;
+import com.drones.control.SimulationFrame;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trajectoires tracées une fois pour toutes dans une image en coordonnées
+ * de grille ({@code resolution} pixels par cellule, tampon ARGB comme
+ * {@link HeatmapRenderer}). Seuls les segments ajoutés depuis l'image
+ * précédente sont tracés (Bresenham), et seul leur rectangle englobant est
+ * signalé comme modifié; un déplacement ou un zoom ne fait que redessiner
+ * la partie visible de l'image en un {@code drawImage}, quel que soit le
+ * nombre de points déjà parcourus. L'image ne dépasse pas
+ * {@link #MAX_PIXELS}: sur les grandes grilles, un pixel couvre plusieurs
+ * cellules (résolution 1/k). Au-delà de {@code resolution} pixels par
+ * cellule, les traits s'épaississent.
+ */
+public class TrajectoryLayer {
+    // Taille maximale de l'image: les grandes grilles ont moins de pixels par cellule
+    static final int MAX_PIXELS = 1 << 22;
+    static final int MAX_RESOLUTION = 16;
+
+    private final int color;
+    private int gridWidth = -1, gridHeight = -1;
+    private double resolution; // pixels par cellule: entier >= 1, ou 1/k cellules par pixel
+    private int width, height; // taille de l'image en pixels
+    private int[] pixels = new int[0];
+    private int[] drawnPoints = new int[0]; // points de trajectoire déjà tracés, par drone
+    private PixelBuffer<IntBuffer> pixelBuffer;
+    private WritableImage image;
+    private Rectangle2D dirty; // pixels modifiés par le dernier update, null = toute l'image
+
+    public TrajectoryLayer(Color color) {
+        // ARGB prémultiplié
+        int a = (int) Math.round(color.getOpacity() * 255);
+        int r = (int) Math.round(color.getRed() * a);
+        int g = (int) Math.round(color.getGreen() * a);
+        int b = (int) Math.round(color.getBlue() * a);
+        this.color = (a << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    public double getResolution() { return resolution; }
+
+    /**
+     * Tracer les segments ajoutés depuis l'appel précédent. Tout est
+     * retracé si la grille ou le nombre de drones change, ou si une
+     * trajectoire a raccourci (réinitialisation, recherche en relecture).
+     * Retourne vrai si l'image a changé; seul le rectangle englobant les
+     * nouveaux segments est alors recopié vers la texture.
+     */
+    public boolean update(SimulationFrame frame) {
+        boolean reset = frame.getGridWidth() != gridWidth || frame.getGridHeight() != gridHeight
+            || frame.getDroneCount() != drawnPoints.length;
+        for (int d = 0; !reset && d < drawnPoints.length; d++) {
+            reset = frame.getTrajectory(d).size() < drawnPoints[d];
+        }
+        if (reset) {
+            reset(frame.getGridWidth(), frame.getGridHeight(), frame.getDroneCount());
+        }
+
+        // Rectangle englobant des pixels tracés, borné à l'image
+        int minX = width, minY = height, maxX = -1, maxY = -1;
+        for (int d = 0; d < drawnPoints.length; d++) {
+            List<double[]> trajectory = frame.getTrajectory(d);
+            int size = trajectory.size();
+            for (int i = Math.max(1, drawnPoints[d]); i < size; i++) {
+                // Les points sont tracés au centre de leur cellule
+                double[] prev = trajectory.get(i - 1);
+                double[] curr = trajectory.get(i);
+                int px0 = (int) ((prev[0] + 0.5) * resolution), py0 = (int) ((prev[1] + 0.5) * resolution);
+                int px1 = (int) ((curr[0] + 0.5) * resolution), py1 = (int) ((curr[1] + 0.5) * resolution);
+                drawLine(px0, py0, px1, py1);
+                minX = Math.min(minX, Math.min(px0, px1));
+                minY = Math.min(minY, Math.min(py0, py1));
+                maxX = Math.max(maxX, Math.max(px0, px1));
+                maxY = Math.max(maxY, Math.max(py0, py1));
+            }
+            drawnPoints[d] = size;
+        }
+        minX = Math.max(0, minX);
+        minY = Math.max(0, minY);
+        maxX = Math.min(width - 1, maxX);
+        maxY = Math.min(height - 1, maxY);
+
+        if (reset) {
+            dirty = null;
+        } else if (maxX >= minX && maxY >= minY) {
+            dirty = new Rectangle2D(minX, minY, maxX - minX + 1, maxY - minY + 1);
+        } else {
+            return false; // rien de nouveau, ou seulement hors de l'image
+        }
+        if (pixelBuffer != null) {
+            Rectangle2D region = dirty;
+            pixelBuffer.updateBuffer(b -> region);
+        }
+        return true;
+    }
+
+    // Dessiner la partie visible de l'image à l'échelle de la vue
+    public void draw(GraphicsContext gc, Viewport viewport) {
+        int x0 = viewport.firstCol(), x1 = viewport.lastCol(gridWidth);
+        int y0 = viewport.firstRow(), y1 = viewport.lastRow(gridHeight);
+        if (x1 <= x0 || y1 <= y0 || width == 0) return;
+        if (image == null) {
+            pixelBuffer = new PixelBuffer<>(width, height, IntBuffer.wrap(pixels), PixelFormat.getIntArgbPreInstance());
+            image = new WritableImage(pixelBuffer);
+        }
+        double scale = viewport.getScale();
+        gc.drawImage(image, x0 * resolution, y0 * resolution, (x1 - x0) * resolution, (y1 - y0) * resolution,
+            viewport.toScreenX(x0), viewport.toScreenY(y0), (x1 - x0) * scale, (y1 - y0) * scale);
+    }
+
+    int getWidth() { return width; }
+    int getHeight() { return height; }
+
+    // Pixels recopiés vers la texture par le dernier update qui a retourné vrai (null = toute l'image)
+    Rectangle2D getDirtyRegion() { return dirty; }
+
+    // Pixel (x, y) de l'image déjà tracé
+    boolean isDrawn(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && pixels[y * width + x] != 0;
+    }
+
+    private void reset(int gridWidth, int gridHeight, int droneCount) {
+        if (gridWidth != this.gridWidth || gridHeight != this.gridHeight) {
+            this.gridWidth = gridWidth;
+            this.gridHeight = gridHeight;
+            long cells = Math.max(1L, (long) gridWidth * gridHeight);
+            double fit = Math.sqrt((double) MAX_PIXELS / cells);
+            if (fit >= 1) {
+                resolution = Math.min(MAX_RESOLUTION, (int) fit);
+            } else {
+                // k x k cellules par pixel, k entier: les cellules ne chevauchent pas deux pixels
+                resolution = 1.0 / (int) Math.ceil(1 / fit);
+            }
+            width = (int) Math.ceil(Math.max(0, gridWidth) * resolution);
+            height = (int) Math.ceil(Math.max(0, gridHeight) * resolution);
+            pixels = new int[width * height];
+            pixelBuffer = null;
+            image = null;
+        } else {
+            Arrays.fill(pixels, 0);
+        }
+        drawnPoints = new int[droneCount];
+    }
+
+    // Bresenham, pixels hors de l'image ignorés
+    private void drawLine(int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0), sx = x0 < x1 ? 1 : -1;
+        int dy = -Math.abs(y1 - y0), sy = y0 < y1 ? 1 : -1;
+        int err = dx + dy;
+        while (true) {
+            if (x0 >= 0 && y0 >= 0 && x0 < width && y0 < height) {
+                pixels[y0 * width + x0] = color;
+            }
+            if (x0 == x1 && y0 == y1) return;
+            int e2 = 2 * err;
+            if (e2 >= dy) {
+                err += dy;
+                x0 += sx;
+            }
+            if (e2 <= dx) {
+                err += dx;
+                y0 += sy;
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.drones.ui;
+
+/**
+ * Fenêtre d'affichage sur la grille: position, zoom et niveau de détail.
+ *
+ * Les coordonnées « cellule » sont celles de la simulation, les coordonnées
+ * « écran » sont des pixels du canvas. Toute modification incrémente
+ * {@link #getVersion()}, ce qui permet aux calques de savoir s'ils doivent
+ * être redessinés.
+ */
+public class Viewport {
+    public static final double MIN_SCALE = 1.0 / 64;
+    public static final double MAX_SCALE = 64;
+
+    private double originX, originY; // cellule affichée au coin haut-gauche
+    private double scale;            // pixels par cellule
+    private double width, height;    // taille de la fenêtre en pixels
+    private long version;
+
+    public Viewport(double scale) {
+        this.scale = clampScale(scale);
+    }
+
+    public double getOriginX() { return originX; }
+    public double getOriginY() { return originY; }
+    public double getScale() { return scale; }
+    public double getWidth() { return width; }
+    public double getHeight() { return height; }
+    public long getVersion() { return version; }
+
+    public void setSize(double width, double height) {
+        if (width == this.width && height == this.height) return;
+        this.width = width;
+        this.height = height;
+        version++;
+    }
+
+    // Déplacement de la vue, en pixels
+    public void pan(double dxPx, double dyPx) {
+        if (dxPx == 0 && dyPx == 0) return;
+        originX -= dxPx / scale;
+        originY -= dyPx / scale;
+        version++;
+    }
+
+    // Zoom autour d'un point de l'écran, qui reste fixe
+    public void zoomAt(double factor, double px, double py) {
+        double newScale = clampScale(scale * factor);
+        if (newScale == scale) return;
+        double cx = toCellX(px);
+        double cy = toCellY(py);
+        scale = newScale;
+        originX = cx - px / scale;
+        originY = cy - py / scale;
+        version++;
+    }
+
+    // Afficher toute la grille, sans dépasser maxScale pixels par cellule
+    public void fit(int gridWidth, int gridHeight, double maxScale) {
+        if (width <= 0 || height <= 0 || gridWidth <= 0 || gridHeight <= 0) return;
+        scale = clampScale(Math.min(maxScale, Math.min(width / gridWidth, height / gridHeight)));
+        originX = 0;
+        originY = 0;
+        version++;
+    }
+
+    public double toScreenX(double cellX) { return (cellX - originX) * scale; }
+    public double toScreenY(double cellY) { return (cellY - originY) * scale; }
+    public double toCellX(double px) { return originX + px / scale; }
+    public double toCellY(double py) { return originY + py / scale; }
+
+    // Cellules visibles, bornées à la grille: [firstCol, lastCol[ x [firstRow, lastRow[
+    public int firstCol() { return (int) Math.max(0, Math.floor(originX)); }
+    public int firstRow() { return (int) Math.max(0, Math.floor(originY)); }
+    public int lastCol(int gridWidth) { return (int) Math.min(gridWidth, Math.ceil(originX + width / scale)); }
+    public int lastRow(int gridHeight) { return (int) Math.min(gridHeight, Math.ceil(originY + height / scale)); }
+
+    /**
+     * Niveau de la pyramide d'intensité à utiliser: le plus petit niveau
+     * dont une cellule (2^niveau cellules de la grille) couvre au moins un
+     * pixel. Au-delà, plusieurs cellules tomberaient dans le même pixel.
+     */
+    public int lodLevel() {
+        int level = 0;
+        double cellPx = scale;
+        while (cellPx < 1.0) {
+            cellPx *= 2;
+            level++;
+        }
+        return level;
+    }
+
+    private static double clampScale(double s) {
+        return Math.max(MIN_SCALE, Math.min(MAX_SCALE, s));
+    }
+}
@@ -0,0 +1,54 @@
+package com.drones.model;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Noyau vectoriel: les cellules intérieures d'une ligne sont traitées par
+ * paquets de la largeur des registres SIMD (voisines ouest et est lues par
+ * des chargements décalés d'une cellule). Le choix amont de l'advection
+ * devient max(u, 0) (c - w) + min(u, 0) (e - c), sans branche: un des deux
+ * termes est nul, le résultat est celui du noyau scalaire. Les cellules de
+ * bord et la fin de ligne passent par le calcul scalaire.
+ *
+ * Compilé avec le profil Maven simd, ne se charge qu'avec
+ * {@code --add-modules jdk.incubator.vector}; voir
+ * {@link AdvectionDiffusionSolver#setVectorized}.
+ */
+final class VectorFieldKernel implements FieldKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void step(double[][] src, double[][] dst, int y0, int y1, double[] zeroRow,
+                     double[] u, double[] v, double diffusivity, double dt, double decay) {
+        int width = zeroRow.length;
+        int height = src.length;
+        int lanes = SPECIES.length();
+        for (int y = y0; y < y1; y++) {
+            double[] row = src[y];
+            double[] north = y > 0 ? src[y - 1] : zeroRow;
+            double[] south = y < height - 1 ? src[y + 1] : zeroRow;
+            double[] out = dst[y];
+            int base = y * width;
+
+            out[0] = ScalarFieldKernel.cell(row, north, south, 0, u[base], v[base], diffusivity, dt, decay);
+            int x = 1;
+            // Intérieur: x - 1 et x + lanes restent dans la ligne
+            for (; x + lanes < width; x += lanes) {
+                DoubleVector c = DoubleVector.fromArray(SPECIES, row, x);
+                DoubleVector w = DoubleVector.fromArray(SPECIES, row, x - 1);
+                DoubleVector e = DoubleVector.fromArray(SPECIES, row, x + 1);
+                DoubleVector n = DoubleVector.fromArray(SPECIES, north, x);
+                DoubleVector s = DoubleVector.fromArray(SPECIES, south, x);
+                DoubleVector wu = DoubleVector.fromArray(SPECIES, u, base + x);
+                DoubleVector wv = DoubleVector.fromArray(SPECIES, v, base + x);
+                DoubleVector advection = wu.max(0).mul(c.sub(w)).add(wu.min(0).mul(e.sub(c)))
+                    .add(wv.max(0).mul(c.sub(n)).add(wv.min(0).mul(s.sub(c))));
+                DoubleVector laplacian = w.add(e).add(n).add(s).sub(c.mul(4));
+                c.add(laplacian.mul(diffusivity).sub(advection).mul(dt)).mul(decay).intoArray(out, x);
+            }
+            for (; x < width; x++) {
+                out[x] = ScalarFieldKernel.cell(row, north, south, x, u[base + x], v[base + x], diffusivity, dt, decay);
+            }
+        }
+    }
+}
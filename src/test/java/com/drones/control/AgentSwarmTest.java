@@ -0,0 +1,82 @@
+package com.drones.control;
+
+import com.drones.config.SimulationScenario;
+import com.drones.model.Drone;
+import com.drones.model.Environment;
+import org.junit.Test;
+import java.io.*;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class AgentSwarmTest {
+
+    private static byte[] droneState(Drone drone) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        drone.writeState(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static AgentSwarm swarm(int agents, int mailboxCapacity) {
+        Environment environment = new Environment(40, 40, 6, SimulationScenario.HEAVY_POLLUTION);
+        return new AgentSwarm(environment, ShardedRunner.wanderingFleet(agents, 40, 40, 6, 0, 40), mailboxCapacity, 10.0);
+    }
+
+    @Test
+    public void testRunIsIndependentOfThreadScheduling() throws Exception {
+        // Boîtes assez grandes pour ne rien perdre: seul l'ordre d'exécution pourrait différer
+        try (AgentSwarm a = swarm(120, 100000); AgentSwarm b = swarm(120, 100000)) {
+            for (int t = 0; t < 400; t++) {
+                a.tick();
+                b.tick();
+            }
+            assertEquals(0, a.getDroppedMessages());
+            assertTrue(a.getReactions() > 0);
+            assertEquals(a.getReactions(), b.getReactions());
+            assertEquals(a.getSentMessages(), b.getSentMessages());
+            for (int i = 0; i < a.getAgentCount(); i++) {
+                assertArrayEquals(droneState(a.getDrone(i)), droneState(b.getDrone(i)));
+                assertEquals(a.getTask(i), b.getTask(i));
+            }
+        }
+    }
+
+    @Test
+    public void testClaimsResolveBetweenNeighbours() throws Exception {
+        try (AgentSwarm swarm = swarm(120, 100000)) {
+            Set<String> previous = new HashSet<>();
+            for (int t = 0; t < 400; t++) {
+                swarm.tick();
+                // Deux drones à portée réclamant la même cellule: le moins bien placé renonce au tick suivant
+                Set<String> current = new HashSet<>();
+                Map<Integer, Integer> holder = new HashMap<>();
+                for (int i = 0; i < swarm.getAgentCount(); i++) {
+                    int task = swarm.getTask(i);
+                    if (task < 0) continue;
+                    Integer other = holder.putIfAbsent(task, i);
+                    if (other != null) {
+                        Drone a = swarm.getDrone(i), b = swarm.getDrone(other);
+                        if (Math.hypot(a.getX() - b.getX(), a.getY() - b.getY()) < 9.0) {
+                            current.add(other + "-" + i);
+                        }
+                    }
+                }
+                for (String pair : current) {
+                    assertFalse(pair, previous.contains(pair));
+                }
+                previous = current;
+            }
+            assertTrue(swarm.getReactions() > 0);
+        }
+    }
+
+    @Test
+    public void testBoundedMailboxesDropMessages() throws Exception {
+        try (AgentSwarm swarm = swarm(120, 1)) {
+            for (int t = 0; t < 200; t++) {
+                swarm.tick();
+            }
+            assertTrue(swarm.getDroppedMessages() > 0);
+            assertEquals(200, swarm.getTickCount());
+        }
+    }
+}
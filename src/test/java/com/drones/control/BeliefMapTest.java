@@ -0,0 +1,87 @@
+package com.drones.control;
+
+import com.drones.model.Drone;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.Assert.*;
+
+public class BeliefMapTest {
+
+    private static BeliefMap newMap() {
+        return new BeliefMap(10, 10, 0.95, 1e-4, 0.001, 0.25, 0.7);
+    }
+
+    @Test
+    public void testFusionAndDecay() {
+        BeliefMap belief = newMap();
+        assertEquals(0.25, belief.getVariance(3, 3, 0), 1e-6);
+
+        belief.accept(3, 3, 0.9, 10);
+        belief.accept(3, 3, 0.92, 10);
+        assertEquals(0.91, belief.getMean(3, 3, 10), 0.01);
+        assertTrue(belief.getVariance(3, 3, 10) < 0.001);
+
+        // Sans nouvelle mesure: la moyenne suit la décroissance, l'incertitude remonte
+        assertEquals(belief.getMean(3, 3, 10) * Math.pow(0.95, 5), belief.getMean(3, 3, 15), 1e-6);
+        assertTrue(belief.getVariance(3, 3, 40) > belief.getVariance(3, 3, 10));
+
+        List<int[]> hotspots = new ArrayList<>();
+        belief.collectHotspots(11, hotspots);
+        assertEquals(1, hotspots.size());
+        assertArrayEquals(new int[]{3, 3}, hotspots.get(0));
+        hotspots.clear();
+        belief.collectHotspots(30, hotspots); // 0.91 * 0.95^20 < 0.7
+        assertTrue(hotspots.isEmpty());
+    }
+
+    @Test
+    public void testRingWithConcurrentProducers() throws InterruptedException {
+        MeasurementRing ring = new MeasurementRing(1024);
+        int producers = 4, perProducer = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(id, i, i, i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        AtomicLong received = new AtomicLong();
+        int[] nextExpected = new int[producers];
+        MeasurementRing.Sink sink = (x, y, value, tick) -> {
+            // Ordre conservé pour chaque producteur, champs cohérents
+            assertEquals(nextExpected[x]++, y);
+            assertEquals(y, value, 0);
+            received.incrementAndGet();
+        };
+        while (received.get() < (long) producers * perProducer) {
+            ring.drainTo(sink);
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(0, ring.drainTo(sink));
+    }
+
+    @Test
+    public void testRetaskingUsesBelief() {
+        Coordinator coordinator = new Coordinator(20, 20);
+        List<Drone> drones = new ArrayList<>();
+        drones.add(new Drone(0, 0, 0));
+        // Aucune mesure: pas de point chaud, pas de réaffectation
+        coordinator.adaptiveRetasking(drones, 5);
+        assertFalse(drones.get(0).hasWaypoints());
+
+        assertTrue(coordinator.submitMeasurement(12.3, 14.8, 0.95, 5));
+        assertEquals(1, coordinator.fuseMeasurements());
+        coordinator.adaptiveRetasking(drones, 5);
+        assertTrue(drones.get(0).hasWaypoints());
+    }
+}
@@ -0,0 +1,109 @@
+package com.drones.control;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.InputStream;
+import java.nio.file.*;
+import static org.junit.Assert.*;
+
+public class CheckpointTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static void run(SimulationEngine engine, int ticks) {
+        engine.start();
+        for (int i = 0; i < ticks; i++) {
+            engine.tick();
+        }
+        engine.stop();
+    }
+
+    @Test
+    public void testRestoreContinuesIdentically() {
+        SimulationEngine original = new SimulationEngine(42);
+        run(original, 300);
+        byte[] checkpoint = original.checkpoint();
+        run(original, 200);
+
+        // Un moteur de graine différente reprend exactement la même suite
+        SimulationEngine restored = new SimulationEngine(7);
+        restored.restore(checkpoint);
+        assertEquals(300 * 200L, restored.getSimulationTime());
+        run(restored, 200);
+
+        assertEquals(original.getSimulationTime(), restored.getSimulationTime());
+        assertEquals(original.getEnvironment().getAnomalies().size(), restored.getEnvironment().getAnomalies().size());
+        for (int i = 0; i < original.getDrones().size(); i++) {
+            assertEquals(original.getDrones().get(i).getX(), restored.getDrones().get(i).getX(), 0.0);
+            assertEquals(original.getDrones().get(i).getState(), restored.getDrones().get(i).getState());
+        }
+        assertArrayEquals(original.checkpoint(), restored.checkpoint());
+    }
+
+    @Test
+    public void testCheckpointSizeDoesNotGrowWithRunLength() {
+        SimulationEngine engine = new SimulationEngine(5);
+        run(engine, 500);
+        int early = engine.checkpoint().length;
+        run(engine, 5000);
+        assertTrue(engine.getEventLog().size() > 0);
+        int late = engine.checkpoint().length;
+
+        // Journal et trajectoires hors du point de sauvegarde: seul l'état varie (anomalies, plans)
+        long history = 5500L * engine.getDrones().size() * 17;
+        assertTrue("point de sauvegarde de " + late + " octets", late < early + history / 10);
+
+        // La reprise garde les compteurs: les points de sauvegarde suivants restent identiques
+        SimulationEngine restored = new SimulationEngine(9);
+        restored.restore(engine.checkpoint());
+        assertTrue(restored.getEventLog().isEmpty());
+        assertArrayEquals(engine.checkpoint(), restored.checkpoint());
+    }
+
+    @Test
+    public void testPeriodicCheckpointsOnDisk() throws Exception {
+        Path dir = folder.newFolder("ckpt").toPath();
+        SimulationEngine engine = new SimulationEngine(3);
+        try (CheckpointWriter writer = new CheckpointWriter(dir, 50, 2)) {
+            engine.setCheckpointWriter(writer);
+            for (int i = 0; i < 4; i++) {
+                run(engine, 50);
+                writer.flush();
+            }
+            assertNull(writer.getLastError());
+            Path latest = writer.getLatest();
+            assertNotNull(latest);
+            assertTrue(latest.getFileName().toString().contains("0000000200"));
+
+            long files;
+            try (java.util.stream.Stream<Path> list = Files.list(dir)) {
+                files = list.count();
+            }
+            assertEquals(2, files);
+
+            SimulationEngine restored = new SimulationEngine(11);
+            try (InputStream in = Files.newInputStream(latest)) {
+                restored.readCheckpoint(in);
+            }
+            assertEquals(engine.getSimulationTime(), restored.getSimulationTime());
+            assertEquals(engine.getTickCount(), restored.getTickCount());
+        }
+    }
+
+    @Test
+    public void testResumedRecordingGoesToNewSegment() throws Exception {
+        Path out = folder.newFile("run.drun").toPath();
+        Path segment = HeadlessRunner.segmentPath(out, 9000);
+        assertEquals("run.from9000.drun", segment.getFileName().toString());
+        assertEquals(out.getParent(), segment.getParent());
+
+        Files.createFile(segment);
+        try {
+            HeadlessRunner.segmentPath(out, 9000);
+            fail("un segment existant ne doit pas être écrasé");
+        } catch (FileAlreadyExistsException expected) {
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.drones.control;
+
+import com.drones.model.Drone;
+import com.drones.model.SimRandom;
+import org.junit.Test;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class ConsensusRetaskingTest {
+
+    private static List<Drone> randomDrones(int count, int size, long seed) {
+        SimRandom random = new SimRandom(seed);
+        List<Drone> drones = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            drones.add(new Drone(i, random.nextDouble() * size, random.nextDouble() * size));
+        }
+        return drones;
+    }
+
+    private static List<int[]> randomHotspots(int count, int size, long seed) {
+        SimRandom random = new SimRandom(seed);
+        List<int[]> hotspots = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            hotspots.add(new int[]{random.nextInt(size), random.nextInt(size)});
+        }
+        return hotspots;
+    }
+
+    @Test
+    public void testEachDroneTakesItsNearestHotspot() {
+        List<Drone> drones = new ArrayList<>();
+        drones.add(new Drone(0, 10, 10));
+        drones.add(new Drone(1, 30, 10));
+        List<int[]> hotspots = Arrays.asList(new int[]{32, 18}, new int[]{8, 18});
+        ConsensusRetasking strategy = new ConsensusRetasking(1, 50, 50, 0.8);
+        List<int[]> dispatched = new ArrayList<>();
+        strategy.retask(drones, hotspots, 0, dispatched);
+
+        assertTrue(strategy.hasConverged());
+        assertEquals(2, dispatched.size());
+        // Chaque drone part vers le point le plus proche de lui
+        for (Drone drone : drones) {
+            drone.update(200);
+        }
+        assertTrue(drones.get(0).getX() < 10);
+        assertTrue(drones.get(1).getX() > 30);
+    }
+
+    @Test
+    public void testConnectedSwarmAssignsEachHotspotOnce() {
+        int size = 60;
+        List<Drone> drones = randomDrones(40, size, 1);
+        List<int[]> hotspots = randomHotspots(25, size, 2);
+        // Portée couvrant toute la carte: un seul groupe, donc aucun doublon possible
+        ConsensusRetasking strategy = new ConsensusRetasking(2, 200, 500, 0.8);
+        List<int[]> dispatched = new ArrayList<>();
+        strategy.retask(drones, hotspots, 0, dispatched);
+
+        assertTrue(strategy.hasConverged());
+        assertTrue(strategy.getLastRounds() > 1);
+        Set<int[]> unique = Collections.newSetFromMap(new IdentityHashMap<>());
+        unique.addAll(dispatched);
+        assertEquals(dispatched.size(), unique.size());
+        // Points non couverts: tous attribués (40 drones, 2 points chacun au plus)
+        int uncovered = 0;
+        for (int[] hotspot : hotspots) {
+            if (!RetaskingStrategy.isCovered(drones, hotspot)) uncovered++;
+        }
+        assertEquals(uncovered, dispatched.size());
+    }
+
+    @Test
+    public void testConvergesWithLimitedRange() {
+        int size = 200;
+        List<Drone> drones = randomDrones(300, size, 3);
+        List<int[]> hotspots = randomHotspots(60, size, 4);
+        ConsensusRetasking strategy = new ConsensusRetasking();
+        strategy.retask(drones, hotspots, 0, null);
+
+        assertTrue(strategy.hasConverged());
+        assertTrue(strategy.getLastMessages() > 0);
+    }
+
+    @Test
+    public void testLargeSparseSwarmConverges() {
+        // Densité du banc d'essai (25 drones par carré de 100): petits groupes à portée
+        int size = 1265;
+        List<Drone> drones = randomDrones(4000, size, 5);
+        List<int[]> hotspots = randomHotspots(800, size, 6);
+        ConsensusRetasking strategy = new ConsensusRetasking();
+        List<int[]> dispatched = new ArrayList<>();
+        strategy.retask(drones, hotspots, 0, dispatched);
+
+        assertTrue(strategy.hasConverged());
+        assertFalse(dispatched.isEmpty());
+    }
+
+    @Test
+    public void testCoordinatorUsesStrategy() {
+        Coordinator coordinator = new Coordinator(20, 20);
+        assertTrue(coordinator.getRetaskingStrategy() instanceof NearestDroneRetasking);
+        ConsensusRetasking consensus = new ConsensusRetasking();
+        coordinator.setRetaskingStrategy(consensus);
+        List<Drone> drones = new ArrayList<>();
+        drones.add(new Drone(0, 0, 0));
+
+        assertTrue(coordinator.submitMeasurement(12.3, 14.8, 0.95, 5));
+        coordinator.fuseMeasurements();
+        coordinator.adaptiveRetasking(drones, 5);
+        assertTrue(drones.get(0).hasWaypoints());
+        assertTrue(consensus.hasConverged());
+    }
+}
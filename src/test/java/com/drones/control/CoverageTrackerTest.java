@@ -0,0 +1,78 @@
+package com.drones.control;
+
+import com.drones.config.SimulationParams;
+import org.junit.Test;
+import java.io.*;
+import static org.junit.Assert.*;
+
+public class CoverageTrackerTest {
+
+    @Test
+    public void testTraverseMarksCrossedCells() {
+        CoverageTracker coverage = new CoverageTracker(10, 10);
+        // Déplacement de plus d'une cellule en un tick: les cellules intermédiaires comptent
+        coverage.traverse(0.5, 0.5, 4.5, 0.5, 3);
+        for (int x = 0; x <= 4; x++) {
+            assertTrue(coverage.isVisited(x, 0));
+            assertEquals(3, coverage.getLastVisit(x, 0));
+        }
+        assertEquals(5, coverage.getVisitedCount());
+
+        // Diagonale: chemin connexe de (0,0) à (3,3)
+        coverage.traverse(0.2, 0.1, 3.7, 3.9, 5);
+        assertTrue(coverage.isVisited(3, 3));
+        assertEquals(3, coverage.getFirstVisit(0, 0));
+        assertEquals(5, coverage.getLastVisit(0, 0));
+        int crossed = 0;
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 10; x++) {
+                if (coverage.getLastVisit(x, y) == 5) crossed++;
+            }
+        }
+        assertEquals(7, crossed); // 3 pas en x + 3 pas en y + la cellule de départ
+        assertEquals(coverage.getVisitedCount(), coverage.getCoveragePercentage(), 1e-9);
+
+        // Hors grille: ignoré
+        coverage.traverse(9.5, 9.5, 12, 9.5, 6);
+        assertTrue(coverage.isVisited(9, 9));
+    }
+
+    @Test
+    public void testStalenessPercentiles() {
+        CoverageTracker coverage = new CoverageTracker(10, 10);
+        for (int x = 0; x < 10; x++) {
+            for (int y = 0; y < 5; y++) {
+                coverage.visit(x, y, 99);
+            }
+        }
+        coverage.updateStaleness(100);
+        assertEquals(1, coverage.getStalenessP50());   // moitié visitée au tick précédent
+        assertEquals(101, coverage.getStalenessP90()); // le reste jamais visité
+        assertEquals(101, coverage.getStalenessMax());
+
+        float[] ages = new float[100];
+        coverage.fillAgeMap(100, 50, ages);
+        assertEquals(1 / 50f, ages[0], 1e-6);
+        assertEquals(1f, ages[99], 0);
+    }
+
+    @Test
+    public void testEngineCoverageAndCheckpoint() throws IOException {
+        SimulationEngine engine = new SimulationEngine(11);
+        engine.start();
+        for (int i = 0; i < 300; i++) {
+            engine.tick();
+        }
+        SimulationEngine.SimulationMetrics metrics = engine.getMetrics();
+        CoverageTracker coverage = engine.getCoordinator().getCoverage();
+        assertTrue(coverage.getVisitedCount() > SimulationParams.NUM_DRONES);
+        assertEquals(coverage.getCoveragePercentage(), metrics.coveragePercentage, 1e-9);
+        assertTrue(metrics.stalenessMax >= metrics.stalenessP90);
+
+        SimulationEngine copy = new SimulationEngine(1);
+        copy.restore(engine.checkpoint());
+        CoverageTracker restored = copy.getCoordinator().getCoverage();
+        assertEquals(coverage.getVisitedCount(), restored.getVisitedCount());
+        assertEquals(coverage.getLastVisit(0, 0), restored.getLastVisit(0, 0));
+    }
+}
@@ -0,0 +1,64 @@
+package com.drones.control;
+
+import com.drones.model.Drone;
+import org.junit.Test;
+import java.io.*;
+import static org.junit.Assert.*;
+
+public class EventDrivenTest {
+
+    private static byte[] droneState(Drone drone) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        drone.writeState(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testMatchesSteppedRun() throws IOException {
+        SimulationEngine stepped = new SimulationEngine(11);
+        SimulationEngine events = new SimulationEngine(11);
+        events.setEventDriven(true);
+        stepped.start();
+        events.start();
+
+        // Au-delà de l'autonomie (9000 ticks): retours à la base et recharges
+        int maxParked = 0;
+        for (int t = 0; t < 11000; t++) {
+            stepped.tick();
+            events.tick();
+            maxParked = Math.max(maxParked, events.getParkedDroneCount());
+        }
+        assertTrue(maxParked > 0);
+
+        events.syncParkedDrones();
+        for (int i = 0; i < stepped.getDrones().size(); i++) {
+            assertArrayEquals(droneState(stepped.getDrones().get(i)), droneState(events.getDrones().get(i)));
+        }
+        assertEquals(stepped.getEventLog(), events.getEventLog());
+        assertEquals(stepped.getMetrics().coveragePercentage, events.getMetrics().coveragePercentage, 0.0);
+    }
+
+    @Test
+    public void testCheckpointRestoresSchedule() {
+        SimulationEngine original = new SimulationEngine(5);
+        original.setEventDriven(true);
+        original.start();
+        for (int t = 0; t < 9500; t++) {
+            original.tick();
+        }
+        byte[] checkpoint = original.checkpoint();
+
+        SimulationEngine restored = new SimulationEngine(1);
+        restored.setEventDriven(true);
+        restored.restore(checkpoint);
+        assertEquals(original.getParkedDroneCount(), restored.getParkedDroneCount());
+
+        original.start();
+        restored.start();
+        for (int t = 0; t < 3500; t++) {
+            original.tick();
+            restored.tick();
+        }
+        assertArrayEquals(original.checkpoint(), restored.checkpoint());
+    }
+}
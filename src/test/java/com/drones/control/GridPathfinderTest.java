@@ -0,0 +1,132 @@
+package com.drones.control;
+
+import com.drones.config.SimulationParams;
+import com.drones.model.*;
+import org.junit.Test;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class GridPathfinderTest {
+
+    // Mur vertical en x = 20, percé en y = 45..49
+    private static ObstacleMap wall() {
+        return ObstacleMap.parse(50, 50, "20:0:20:44");
+    }
+
+    private static void assertClearPath(ObstacleMap map, double x, double y, List<double[]> via, double tx, double ty) {
+        assertNotNull(via);
+        for (double[] p : via) {
+            assertTrue(map.isClear(x, y, p[0], p[1]));
+            x = p[0];
+            y = p[1];
+        }
+        assertTrue(map.isClear(x, y, tx, ty));
+    }
+
+    @Test
+    public void testRoutesAroundWall() {
+        ObstacleMap map = wall();
+        GridPathfinder pathfinder = new GridPathfinder(map, 16);
+        assertTrue(pathfinder.plan(2, 2, 15, 30).isEmpty()); // ligne droite libre
+        List<double[]> via = pathfinder.plan(10.3, 10.7, 30, 10);
+        assertFalse(via.isEmpty());
+        assertClearPath(map, 10.3, 10.7, via, 30, 10);
+        // Chemin lissé: quelques coins, pas une cellule par pas
+        assertTrue(via.size() <= 4);
+        // Passage par la brèche
+        boolean throughGap = false;
+        for (double[] p : via) throughGap |= p[1] >= 44;
+        assertTrue(throughGap);
+    }
+
+    @Test
+    public void testUnreachableGoals() {
+        ObstacleMap map = ObstacleMap.parse(50, 50, "30:30:34:30,30:34:34:34,30:31:30:33,34:31:34:33");
+        GridPathfinder pathfinder = new GridPathfinder(map, 16);
+        assertNull(pathfinder.plan(5, 5, 32.5, 32.5)); // enclos
+        assertNull(pathfinder.plan(5, 5, 30.5, 30.5)); // cellule interdite
+        // Pas de coupe de coin entre deux cellules interdites en diagonale
+        ObstacleMap corners = ObstacleMap.parse(50, 50, "10:10:10:10,11:11:11:11");
+        assertFalse(corners.isClear(10.5, 11.5, 11.5, 10.5));
+        assertFalse(corners.isClear(10, 12, 12, 10));
+    }
+
+    @Test
+    public void testCacheReusesAndInvalidates() {
+        ObstacleMap map = wall();
+        GridPathfinder pathfinder = new GridPathfinder(map, 2);
+        List<double[]> first = pathfinder.plan(10.5, 10.5, 30.5, 10.5);
+        // Même cellule de départ et d'arrivée: chemin repris du cache
+        List<double[]> second = pathfinder.plan(10.2, 10.8, 30.9, 10.1);
+        assertEquals(1, pathfinder.getCacheMisses());
+        assertEquals(1, pathfinder.getCacheHits());
+        assertClearPath(map, 10.2, 10.8, second, 30.9, 10.1);
+        assertEquals(first.get(first.size() - 1)[1], second.get(second.size() - 1)[1], 0.0);
+
+        // LRU: deux chemins au plus
+        pathfinder.plan(5.5, 5.5, 40.5, 5.5);
+        pathfinder.plan(5.5, 40.5, 40.5, 40.5);
+        assertEquals(2, pathfinder.getCacheSize());
+        pathfinder.plan(10.5, 10.5, 30.5, 10.5);
+        assertEquals(4, pathfinder.getCacheMisses());
+
+        // Carte modifiée: brèche fermée, le cache est vidé
+        map.blockRect(20, 45, 20, 49);
+        assertNull(pathfinder.plan(10.5, 10.5, 30.5, 10.5));
+        assertEquals(1, pathfinder.getCacheSize());
+    }
+
+    @Test
+    public void testDroneNeverEntersNoFlyZone() {
+        ObstacleMap map = wall();
+        GridPathfinder pathfinder = new GridPathfinder(map, 16);
+        Drone drone = new Drone(0, 5, 5);
+        drone.setPathPlanner(pathfinder);
+        drone.setWaypoints(Arrays.asList(new double[]{35, 5}, new double[]{20, 20}, new double[]{35, 30}));
+        for (int t = 0; t < 2000 && drone.hasWaypoints(); t++) {
+            drone.update(SimulationParams.TICK_DURATION_MS);
+            assertFalse(map.isBlocked((int) Math.floor(drone.getX()), (int) Math.floor(drone.getY())));
+        }
+        // Le point en zone interdite est abandonné, les autres atteints
+        assertFalse(drone.hasWaypoints());
+        assertEquals(35, drone.getX(), 0.5);
+        assertEquals(30, drone.getY(), 0.5);
+
+        // Retour à la base (0, 0) par la brèche
+        drone.update(drone.getAutonomyRemaining());
+        assertEquals(DroneState.RETURNING, drone.getState());
+        for (int t = 0; t < 2000 && drone.getState() == DroneState.RETURNING; t++) {
+            drone.update(SimulationParams.TICK_DURATION_MS);
+            assertFalse(map.isBlocked((int) Math.floor(drone.getX()), (int) Math.floor(drone.getY())));
+        }
+        assertEquals(DroneState.CHARGING, drone.getState());
+    }
+
+    @Test
+    public void testEngineWithNoFlyZones() {
+        SimulationEngine.Builder builder = SimulationEngine.builder().seed(4)
+            .obstacles(ObstacleMap.parse(SimulationParams.GRID_WIDTH, SimulationParams.GRID_HEIGHT, "10:0:12:30,30:20:49:22"));
+        SimulationEngine engine = builder.build();
+        ObstacleMap map = engine.getPathfinder().getObstacles();
+        engine.start();
+        for (int t = 0; t < 2000; t++) {
+            engine.tick();
+            for (Drone drone : engine.getDrones()) {
+                assertFalse(map.isBlocked((int) Math.floor(drone.getX()), (int) Math.floor(drone.getY())));
+            }
+        }
+        assertTrue(engine.getPathfinder().getCacheMisses() > 0);
+
+        // Reprise: mêmes détours
+        byte[] checkpoint = engine.checkpoint();
+        SimulationEngine restored = builder.build();
+        restored.restore(checkpoint);
+        engine.start();
+        restored.start();
+        for (int t = 0; t < 500; t++) {
+            engine.tick();
+            restored.tick();
+        }
+        assertArrayEquals(engine.checkpoint(), restored.checkpoint());
+    }
+}
@@ -0,0 +1,108 @@
+package com.drones.control;
+
+import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+import org.junit.Test;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class RetaskingCadenceTest {
+
+    @Test
+    public void testDebounceAndIntervals() {
+        RetaskingCadence cadence = new RetaskingCadence(2, 5, 30);
+        assertEquals(RetaskingCadence.NEVER, cadence.nextDue(false));
+        assertEquals(30, cadence.nextDue(true));
+
+        // Événements groupés: une seule réaffectation, 2 ticks après le premier
+        cadence.signal(10);
+        cadence.signal(11);
+        assertFalse(cadence.isDue(11, false));
+        assertTrue(cadence.isDue(12, false));
+        cadence.retasked(12);
+
+        // Intervalle minimal entre deux réaffectations
+        cadence.signal(13);
+        assertEquals(17, cadence.nextDue(false));
+        cadence.retasked(17);
+
+        // Intervalle maximal tant que des points chauds sont connus
+        assertEquals(47, cadence.nextDue(true));
+        assertEquals(RetaskingCadence.NEVER, cadence.nextDue(false));
+        assertEquals(2, cadence.getRetaskCount());
+    }
+
+    private static SimulationEngine run(SimulationScenario scenario, int ticks) {
+        SimulationEngine engine = new SimulationEngine(8, scenario);
+        engine.start();
+        for (int t = 0; t < ticks; t++) {
+            engine.tick();
+        }
+        return engine;
+    }
+
+    @Test
+    public void testQuietScenarioSkipsRetasking() {
+        assertEquals(0, run(SimulationScenario.NO_ANOMALIES, 3000).getRetaskCount());
+    }
+
+    // Mesures fortes injectées au tick courant (cellule déjà mesurée ou non): point chaud à la prochaine fusion
+    private static void reportHotspot(SimulationEngine engine, int x, int y) {
+        for (int i = 0; i < 5; i++) {
+            engine.getCoordinator().submitMeasurement(x, y, 0.95, engine.getTickCount());
+        }
+    }
+
+    @Test
+    public void testNewClusterTriggersRetask() {
+        SimulationEngine engine = run(SimulationScenario.NORMAL_SCENARIO, 100);
+        assertEquals(0, engine.getRetaskCount());
+        int detected = engine.getTickCount();
+        reportHotspot(engine, 40, 40);
+        engine.tick();
+        engine.tick();
+        assertEquals(0, engine.getRetaskCount());
+        engine.tick();
+        // Après le délai de regroupement, sans attendre un multiple de 30
+        assertEquals(1, engine.getRetaskCount());
+        assertEquals(detected + SimulationParams.RETASKING_DEBOUNCE_TICKS, engine.getRetaskingCadence().getLastRetask());
+
+        // Une mesure voisine appartient au même foyer
+        reportHotspot(engine, 42, 41);
+        engine.tick();
+        assertFalse(engine.getRetaskingCadence().isPending());
+    }
+
+    @Test
+    public void testMinimumInterval() {
+        SimulationEngine engine = run(SimulationScenario.NORMAL_SCENARIO, 10);
+        List<Integer> retaskTicks = new ArrayList<>();
+        engine.addTickListener(e -> {
+            if (e.getRetaskCount() > retaskTicks.size()) retaskTicks.add(e.getTickCount() - 1);
+        });
+        // Un nouveau foyer par tick, loin des précédents
+        for (int t = 0; t < 40; t++) {
+            reportHotspot(engine, (t * 13) % 50, (t * 29) % 50);
+            engine.tick();
+        }
+        assertTrue(retaskTicks.size() > 3);
+        for (int i = 1; i < retaskTicks.size(); i++) {
+            assertTrue(retaskTicks.get(i) - retaskTicks.get(i - 1) >= SimulationParams.RETASKING_MIN_INTERVAL_TICKS);
+        }
+    }
+
+    @Test
+    public void testMacroStepStopsAtPlannedRetask() {
+        SimulationEngine engine = run(SimulationScenario.NORMAL_SCENARIO, 100);
+        int detected = engine.getTickCount();
+        reportHotspot(engine, 40, 40);
+        engine.tick();
+        engine.tick(25);
+        assertEquals(detected + SimulationParams.RETASKING_DEBOUNCE_TICKS + 1, engine.getTickCount());
+        assertEquals(1, engine.getRetaskCount());
+        // Point chaud connu: la suivante au plus tard après l'intervalle maximal
+        engine.tick(50);
+        assertTrue(engine.getTickCount() - 1 <= detected + SimulationParams.RETASKING_DEBOUNCE_TICKS
+            + SimulationParams.RETASKING_MAX_INTERVAL_TICKS);
+    }
+}
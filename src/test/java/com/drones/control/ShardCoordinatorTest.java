@@ -0,0 +1,131 @@
+package com.drones.control;
+
+import com.drones.config.SimulationScenario;
+import com.drones.model.Drone;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.Assert.*;
+
+public class ShardCoordinatorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] droneState(Drone drone) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        drone.writeState(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    // Coordinateur et shards sur des threads, reliés par de vraies sockets
+    private static List<ShardWorker> runDistributed(ShardCoordinator coordinator, String address, int shards)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(shards + 1);
+        try {
+            Future<?> coordination = pool.submit(() -> { coordinator.run(); return null; });
+            List<ShardWorker> workers = new ArrayList<>();
+            List<Future<?>> runs = new ArrayList<>();
+            for (int s = 0; s < shards; s++) {
+                ShardWorker worker = ShardWorker.connect(address);
+                workers.add(worker);
+                runs.add(pool.submit(() -> { worker.run(); return null; }));
+            }
+            for (Future<?> run : runs) run.get(60, TimeUnit.SECONDS);
+            coordination.get(60, TimeUnit.SECONDS);
+            workers.sort(Comparator.comparingInt(ShardWorker::getIndex));
+            return workers;
+        } finally {
+            pool.shutdownNow();
+            coordinator.close();
+        }
+    }
+
+    @Test
+    public void testMatchesInProcessShards() throws Exception {
+        int w = 40, h = 36, shards = 3, drones = 30, ticks = 300;
+        ShardCoordinator coordinator = new ShardCoordinator("127.0.0.1:0", shards, w, h, drones, 8,
+            SimulationScenario.HEAVY_POLLUTION, ticks, 0);
+        String address = "127.0.0.1:" + ((java.net.InetSocketAddress) coordinator.getLocalAddress()).getPort();
+        List<ShardWorker> workers = runDistributed(coordinator, address, shards);
+
+        ShardedSimulation local = new ShardedSimulation(w, h, shards, 8, SimulationScenario.HEAVY_POLLUTION,
+            ShardedRunner.wanderingFleet(drones, w, h, 8, 0, h));
+        local.run(ticks);
+
+        assertEquals(local.getDetections(), coordinator.getDetections());
+        assertEquals(drones, coordinator.getFinalDroneCount());
+        assertTrue(coordinator.getHandoffs() > 0);
+        List<Drone> remote = new ArrayList<>();
+        for (ShardWorker worker : workers) {
+            remote.addAll(worker.getDrones());
+            for (int y = worker.getTile().getY0(); y < worker.getTile().getY1(); y++) {
+                for (int x = 0; x < w; x++) {
+                    assertEquals(local.getAnomalyAt(x, y), worker.getTile().getAnomalyAt(x, y), 0.0);
+                }
+            }
+        }
+        remote.sort(Comparator.comparingInt(Drone::getId));
+        List<Drone> expected = local.getDrones();
+        for (int i = 0; i < drones; i++) {
+            assertArrayEquals(droneState(expected.get(i)), droneState(remote.get(i)));
+        }
+    }
+
+    @Test
+    public void testRetaskingOverUnixSocket() throws Exception {
+        String address = "unix:" + new File(folder.getRoot(), "shards.sock").getPath();
+        // Petite carte: les drones épuisent vite leurs points de passage et deviennent libres
+        ShardCoordinator coordinator = new ShardCoordinator(address, 2, 20, 20, 12, 3,
+            SimulationScenario.HEAVY_POLLUTION, 1200, 30);
+        runDistributed(coordinator, address, 2);
+
+        assertTrue(coordinator.getRetasks() > 0);
+        assertEquals(12, coordinator.getFinalDroneCount());
+    }
+
+    @Test
+    public void testIdleDronesGoToNearestFreeDrone() throws Exception {
+        int w = 300, h = 200;
+        try (ShardCoordinator coordinator = new ShardCoordinator("127.0.0.1:0", 3, w, h, 0, 1,
+                SimulationScenario.NORMAL_SCENARIO, 0, 30)) {
+            Random random = new Random(4);
+            List<double[]> idle = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                idle.add(new double[]{i, random.nextDouble() * w, random.nextDouble() * h});
+            }
+            TreeSet<Integer> cells = new TreeSet<>();
+            while (cells.size() < 150) {
+                cells.add(random.nextInt(w * h));
+            }
+            Map<Integer, double[]> assigned = new HashMap<>();
+            for (List<double[]> shardTasks : coordinator.assignIdleDrones(cells, idle)) {
+                for (double[] task : shardTasks) {
+                    assigned.put((int) (task[2] - 0.5) * w + (int) (task[1] - 0.5), task);
+                }
+            }
+
+            // Même résultat qu'un parcours de tous les drones libres pour chaque cellule
+            boolean[] taken = new boolean[idle.size()];
+            for (int cell : cells) {
+                double cx = cell % w + 0.5, cy = cell / w + 0.5;
+                int best = -1;
+                double bestDist = Double.MAX_VALUE;
+                for (int i = 0; i < idle.size(); i++) {
+                    double[] d = idle.get(i);
+                    double dist = (d[1] - cx) * (d[1] - cx) + (d[2] - cy) * (d[2] - cy);
+                    if (!taken[i] && dist < bestDist) {
+                        best = i;
+                        bestDist = dist;
+                    }
+                }
+                taken[best] = true;
+                assertEquals(best, (int) assigned.get(cell)[0]);
+            }
+            assertEquals(cells.size(), assigned.size());
+        }
+    }
+}
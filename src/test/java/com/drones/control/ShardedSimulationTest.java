@@ -0,0 +1,91 @@
+package com.drones.control;
+
+import com.drones.config.SimulationParams;
+import com.drones.config.SimulationScenario;
+import com.drones.model.Drone;
+import com.drones.model.Environment;
+import com.drones.model.SimRandom;
+import org.junit.Test;
+import java.io.*;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class ShardedSimulationTest {
+
+    private static byte[] droneState(Drone drone) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        drone.writeState(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    // Drones aux trajets aléatoires, qui traversent les frontières entre shards
+    private static List<Drone> wanderingDrones(int count, int width, int height) {
+        SimRandom random = new SimRandom(9);
+        List<Drone> drones = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Drone drone = new Drone(i, random.nextInt(width), random.nextInt(height));
+            List<double[]> path = new ArrayList<>();
+            for (int k = 0; k < 6; k++) {
+                path.add(new double[]{random.nextInt(width), random.nextInt(height)});
+            }
+            drone.setWaypoints(path);
+            drones.add(drone);
+        }
+        return drones;
+    }
+
+    @Test
+    public void testFieldMatchesEnvironment() throws InterruptedException {
+        int w = 60, h = 40;
+        SimulationScenario scenario = SimulationScenario.RAPIDLY_SPREADING;
+        Environment environment = new Environment(w, h, 17, scenario);
+        ShardedSimulation sharded = new ShardedSimulation(w, h, 4, 17, scenario, new ArrayList<>());
+
+        for (int t = 0; t < 300; t++) {
+            environment.update(SimulationParams.TICK_DURATION_MS);
+        }
+        sharded.run(300);
+
+        double total = 0;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                assertEquals(environment.getAnomalyAt(x, y), sharded.getAnomalyAt(x, y), 0.0);
+                total += environment.getAnomalyAt(x, y);
+            }
+        }
+        assertTrue(total > 0);
+    }
+
+    @Test
+    public void testShardCountDoesNotChangeResult() throws Exception {
+        int w = 50, h = 50;
+        ShardedSimulation single = new ShardedSimulation(w, h, 1, 4, SimulationScenario.HEAVY_POLLUTION,
+            wanderingDrones(40, w, h));
+        ShardedSimulation sharded = new ShardedSimulation(w, h, 7, 4, SimulationScenario.HEAVY_POLLUTION,
+            wanderingDrones(40, w, h));
+        single.run(400);
+        sharded.run(150);
+        sharded.run(250);
+        assertEquals(400, sharded.getTickCount());
+
+        List<Drone> expected = single.getDrones(), actual = sharded.getDrones();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(droneState(expected.get(i)), droneState(actual.get(i)));
+        }
+        assertEquals(single.getDetections(), sharded.getDetections());
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                assertEquals(single.getAnomalyAt(x, y), sharded.getAnomalyAt(x, y), 0.0);
+            }
+        }
+        // Chaque drone est dans le shard qui possède sa ligne
+        for (int s = 0; s < sharded.getShardCount(); s++) {
+            int owned = 0;
+            for (Drone drone : actual) {
+                if (sharded.shardOf(drone.getY()) == s) owned++;
+            }
+            assertEquals(owned, sharded.getDroneCount(s));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.drones.control;
+
+import com.drones.config.Plugins;
+import com.drones.config.SimulationScenario;
+import com.drones.model.*;
+import org.junit.Test;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class SimulationEngineBuilderTest {
+
+    private static void run(SimulationEngine engine, int ticks) {
+        engine.start();
+        for (int i = 0; i < ticks; i++) {
+            engine.tick();
+        }
+        engine.stop();
+    }
+
+    @Test
+    public void testDefaultBuilderMatchesConstructor() {
+        SimulationEngine direct = new SimulationEngine(42, SimulationScenario.HEAVY_POLLUTION);
+        SimulationEngine built = SimulationEngine.builder().seed(42).scenario(SimulationScenario.HEAVY_POLLUTION).build();
+        run(direct, 400);
+        run(built, 400);
+
+        assertArrayEquals(direct.checkpoint(), built.checkpoint());
+        assertTrue(built.getCoverageStrategy() instanceof RasterCoverage);
+        assertTrue(built.getCoordinator().getRetaskingStrategy() instanceof NearestDroneRetasking);
+        assertNotNull(built.getEnvironment().getSolver());
+    }
+
+    @Test
+    public void testLoadByName() {
+        assertTrue(Plugins.load(RetaskingStrategy.class, "ConsensusRetasking") instanceof ConsensusRetasking);
+        assertTrue(Plugins.load(RetaskingStrategy.class, "com.drones.control.NearestDroneRetasking") instanceof NearestDroneRetasking);
+        assertTrue(Plugins.load(FieldModel.class, "PlumeTransportModel") instanceof PlumeTransportModel);
+        assertTrue(Plugins.available(CoverageStrategy.class).contains("RasterCoverage"));
+        try {
+            Plugins.load(MeasurementModel.class, "Inconnu");
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("UniformNoiseMeasurement"));
+        }
+
+        SimulationEngine engine = SimulationEngine.builder().seed(3).retasking("ConsensusRetasking").build();
+        assertTrue(engine.getCoordinator().getRetaskingStrategy() instanceof ConsensusRetasking);
+    }
+
+    @Test
+    public void testCustomComponents() {
+        // Champ figé, capteur parfait, drones laissés sur place
+        List<Integer> plans = new ArrayList<>();
+        SimulationEngine engine = SimulationEngine.builder()
+            .seed(5)
+            .fieldModel(new FieldModel() {
+                public void init(int width, int height, SimulationScenario scenario) {}
+                public void advance(double[][] field, double seconds, double decay) {}
+            })
+            .measurement((intensity, random) -> intensity)
+            .coverage((drones, width, height) -> plans.add(drones.size()))
+            .build();
+        run(engine, 50);
+
+        assertNull(engine.getEnvironment().getSolver());
+        assertEquals(1, plans.size());
+        engine.reset();
+        assertEquals(2, plans.size());
+    }
+
+    @Test
+    public void testBasesSurviveCheckpoint() {
+        SimulationEngine.Builder builder = SimulationEngine.builder().seed(9)
+            .bases(BaseNetwork.parseBases("0:0:2,49:49:2"), BaseNetwork.Routing.LEAST_LOADED);
+        SimulationEngine original = builder.build();
+        assertEquals(49, original.getDrones().get(1).getX(), 0.0);
+        // Au-delà de l'autonomie (9000 ticks): retours et recharges sur les deux bases
+        run(original, 9500);
+        byte[] checkpoint = original.checkpoint();
+        SimulationEngine restored = builder.build();
+        restored.restore(checkpoint);
+        for (int i = 0; i < 2; i++) {
+            Base base = original.getBaseNetwork().getBase(i);
+            assertEquals(base.getCharging(), restored.getBaseNetwork().getBase(i).getCharging());
+            assertEquals(base.getInbound(), restored.getBaseNetwork().getBase(i).getInbound());
+            assertTrue(base.getCharging() <= base.getCapacity());
+        }
+        run(original, 1000);
+        run(restored, 1000);
+        assertArrayEquals(original.checkpoint(), restored.checkpoint());
+    }
+}
@@ -95,4 +95,17 @@ public class SimulationEngineTest {
         assertTrue(metrics.activeDrones >= 0);
         assertTrue(metrics.rechargingDrones >= 0);
     }
+    
+    @Test
+    public void testMacroStepStopsAtDeadlines() {
+        engine.start();
+        engine.tick(100);
+        assertEquals(1, engine.getTickCount()); // snapshot au tick 0
+        engine.tick(100);
+        assertEquals(26, engine.getTickCount()); // snapshot de métriques au tick 25
+        engine.tick(100);
+        assertEquals(51, engine.getTickCount()); // aucun point chaud ni événement: pas de réaffectation prévue
+        assertEquals(51L * SimulationParams.TICK_DURATION_MS, engine.getSimulationTime());
+        assertEquals(engine.getSimulationTime(), engine.getEnvironment().getElapsedTime());
+    }
 }
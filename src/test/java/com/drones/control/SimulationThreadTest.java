@@ -0,0 +1,86 @@
+package com.drones.control;
+
+import com.drones.config.SimulationParams;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.List;
+import static org.junit.Assert.*;
+
+public class SimulationThreadTest {
+
+    private SimulationThread simulation;
+
+    @Before
+    public void setUp() {
+        simulation = new SimulationThread(new SimulationEngine(9));
+        simulation.setSpeedFactor(200.0);
+        simulation.start();
+    }
+
+    @After
+    public void tearDown() {
+        simulation.shutdown();
+    }
+
+    private FrameSnapshot waitForTicks(int ticks) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        FrameSnapshot frame = simulation.latestFrame();
+        while (frame.getTickCount() < ticks && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+            frame = simulation.latestFrame();
+        }
+        return frame;
+    }
+
+    @Test
+    public void testInitialFrameAvailableBeforeStart() {
+        FrameSnapshot frame = simulation.latestFrame();
+        assertEquals(SimulationParams.NUM_DRONES, frame.getDroneCount());
+        assertEquals(SimulationParams.GRID_WIDTH, frame.getGridWidth());
+        assertEquals(0, frame.getSimulationTime());
+    }
+
+    @Test
+    public void testEngineRunsOnItsOwnThread() throws InterruptedException {
+        simulation.submit(SimulationEngine::start);
+        FrameSnapshot frame = waitForTicks(50);
+        assertTrue(frame.getTickCount() >= 50);
+        assertEquals((long) frame.getTickCount() * SimulationParams.TICK_DURATION_MS, frame.getSimulationTime());
+
+        // L'image reçue reste cohérente pendant que le moteur continue
+        List<double[]> traj = frame.getTrajectory(0);
+        int size = traj.size();
+        long time = frame.getSimulationTime();
+        Thread.sleep(50);
+        assertEquals(size, traj.size());
+        assertEquals(time, frame.getSimulationTime());
+
+        simulation.submit(SimulationEngine::stop);
+        simulation.submit(engine -> engine.logEvent("arrêt"));
+        long deadline = System.currentTimeMillis() + 5_000;
+        FrameSnapshot latest = simulation.latestFrame();
+        while ((latest.isRunning() || latest.getEventLog().isEmpty()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+            latest = simulation.latestFrame();
+        }
+        assertFalse(latest.isRunning());
+        assertTrue(latest.getEventLog().get(latest.getEventLog().size() - 1).contains("arrêt"));
+    }
+
+    @Test
+    public void testAppendOnlySnapshotIsStable() {
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        for (int i = 0; i < 3000; i++) {
+            list.add(i);
+        }
+        List<Integer> view = list.snapshot();
+        for (int i = 0; i < 3000; i++) {
+            list.add(-i);
+        }
+        list.clear();
+        assertEquals(3000, view.size());
+        assertEquals(Integer.valueOf(2999), view.get(2999));
+        assertEquals(0, list.size());
+    }
+}
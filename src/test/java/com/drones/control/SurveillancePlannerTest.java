@@ -0,0 +1,77 @@
+package com.drones.control;
+
+import com.drones.model.Drone;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static org.junit.Assert.*;
+
+public class SurveillancePlannerTest {
+
+    @Test
+    public void testHeapKeyChanges() {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.put(0, 50);
+        heap.put(1, 10);
+        heap.put(2, 30);
+        heap.put(3, 10);
+        heap.put(1, 60); // clé augmentée
+        heap.put(2, 5);  // clé diminuée
+        heap.remove(4);  // absent: sans effet
+        assertEquals(2, heap.poll());
+        assertEquals(3, heap.poll());
+        heap.remove(0);
+        assertEquals(1, heap.poll());
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testIdleDroneGetsStalestTile() {
+        CoverageTracker coverage = new CoverageTracker(20, 20);
+        SurveillancePlanner planner = new SurveillancePlanner(coverage, 5);
+        // Toutes les tuiles visitées au tick 500, sauf la tuile (3, 3) visitée au tick 2
+        for (int y = 0; y < 20; y++) {
+            for (int x = 0; x < 20; x++) {
+                coverage.visit(x, y, x >= 15 && y >= 15 ? 2 : 500);
+            }
+        }
+        Drone drone = new Drone(0, 0, 0);
+        List<Drone> drones = Collections.singletonList(drone);
+        assertEquals(1, planner.assignIdleDrones(drones));
+        assertEquals(planner.tileOf(17, 17), planner.getAssignedTile(0));
+        assertTrue(drone.hasWaypoints());
+
+        // Drone occupé: pas de nouvelle affectation
+        assertEquals(0, planner.assignIdleDrones(drones));
+
+        // Une détection fait passer une tuile récemment visitée devant les autres
+        Drone other = new Drone(1, 0, 0);
+        planner.reportDetection(2, 12, 1.0);
+        planner.assignIdleDrones(List.of(drone, other));
+        assertEquals(planner.tileOf(2, 12), planner.getAssignedTile(1));
+    }
+
+    @Test
+    public void testThousandsOfDrones() {
+        CoverageTracker coverage = new CoverageTracker(400, 400);
+        SurveillancePlanner planner = new SurveillancePlanner(coverage, 5);
+        List<Drone> drones = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            drones.add(new Drone(i, i % 400, (i / 400) * 20));
+        }
+        assertEquals(5000, planner.assignIdleDrones(drones));
+        // Tuiles toutes distinctes
+        boolean[] used = new boolean[planner.getTileCount()];
+        for (int i = 0; i < drones.size(); i++) {
+            int tile = planner.getAssignedTile(i);
+            assertFalse(used[tile]);
+            used[tile] = true;
+        }
+        // Plus de drones que de tuiles: les derniers restent sans tuile
+        for (int i = 0; i < 2000; i++) {
+            drones.add(new Drone(5000 + i, 0, 0));
+        }
+        assertEquals(planner.getTileCount() - 5000, planner.assignIdleDrones(drones));
+    }
+}
@@ -0,0 +1,95 @@
+package com.drones.metrics;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.nio.file.Path;
+import static org.junit.Assert.*;
+
+public class GridFrameRecorderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static double[][] frame(int w, int h, int t) {
+        double[][] grid = new double[h][w];
+        grid[t % h][t % w] = 1.0;
+        grid[h / 2][w / 2] = 0.25 + 0.01 * t;
+        return grid;
+    }
+
+    @Test
+    public void testRoundTripWithinQuantization() throws Exception {
+        int w = 20, h = 10;
+        for (int bits : new int[]{8, 16}) {
+            try (GridFrameRecorder recorder = new GridFrameRecorder(w, h, bits, 2, Long.MAX_VALUE, 4)) {
+                for (int t = 0; t < 20; t++) {
+                    recorder.offer(t, frame(w, h, t));
+                    recorder.flush(); // l'encodeur ne doit pas prendre de retard dans ce test
+                }
+                assertEquals(10, recorder.getFrameCount());
+
+                float[] out = new float[w * h];
+                double tolerance = 1.0 / ((1 << bits) - 1);
+                for (int i = 0; i < recorder.getFrameCount(); i++) {
+                    long tick = recorder.decodeFrame(i, out);
+                    assertEquals(i * 2, tick);
+                    double[][] expected = frame(w, h, (int) tick);
+                    for (int y = 0; y < h; y++) {
+                        for (int x = 0; x < w; x++) {
+                            assertEquals(expected[y][x], out[y * w + x], tolerance);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMemoryBudgetEvictsOldestGroups() throws Exception {
+        int w = 64, h = 64;
+        try (GridFrameRecorder recorder = new GridFrameRecorder(w, h, 8, 1, 600, 4)) {
+            for (int t = 0; t < 100; t++) {
+                recorder.offer(t, frame(w, h, t));
+                recorder.flush();
+            }
+            assertTrue(recorder.getStoredBytes() <= 600);
+            assertTrue(recorder.getEvictedFrames() > 0);
+            int count = recorder.getFrameCount();
+            assertTrue(count > 0);
+
+            // La dernière image reste décodable
+            float[] out = new float[w * h];
+            assertEquals(99, recorder.decodeFrame(count - 1, out));
+            assertEquals(1.0, out[(99 % h) * w + (99 % w)], 1e-6);
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        int w = 8, h = 8;
+        Path file = folder.newFile("frames.dgrf").toPath();
+        try (GridFrameRecorder recorder = new GridFrameRecorder(w, h, 16, 1, Long.MAX_VALUE)) {
+            for (int t = 0; t < 5; t++) {
+                recorder.offer(t, frame(w, h, t));
+                recorder.flush();
+            }
+            recorder.save(file);
+        }
+        long encoders = encoderThreads();
+        GridFrameRecorder loaded = GridFrameRecorder.load(file);
+        // Lecture seule: aucun thread d'encodage, aucune image acceptée
+        assertEquals(encoders, encoderThreads());
+        assertFalse(loaded.offer(5, frame(w, h, 5)));
+        assertEquals(5, loaded.getFrameCount());
+        float[] out = new float[w * h];
+        assertEquals(4, loaded.decodeFrame(4, out));
+        assertEquals(0.29, out[(h / 2) * w + w / 2], 1e-4);
+        loaded.close();
+    }
+
+    private static long encoderThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(t -> t.getName().equals("grid-frame-recorder")).count();
+    }
+}
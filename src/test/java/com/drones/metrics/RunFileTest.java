@@ -0,0 +1,166 @@
+package com.drones.metrics;
+
+import com.drones.control.SimulationEngine;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class RunFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testTrajectorySeekAcrossBlocks() throws Exception {
+        Path file = folder.newFile("run.drun").toPath();
+        int drones = 3;
+        try (RunFileWriter writer = new RunFileWriter(file, 4, 4, drones, 200, 8)) {
+            for (int tick = 0; tick < 50; tick++) {
+                for (int d = 0; d < drones; d++) {
+                    writer.writeTrajectory(tick, d, tick + d * 0.5, tick * 2.0, d % 4);
+                }
+            }
+        }
+
+        try (RunFileReader reader = new RunFileReader(file)) {
+            assertEquals(drones, reader.getNumDrones());
+            assertTrue(reader.getBlockCount(RunFileFormat.BLOCK_TRAJECTORY) > 1);
+            assertEquals(49, reader.getLastTick());
+
+            float[] xs = new float[drones];
+            float[] ys = new float[drones];
+            byte[] states = new byte[drones];
+            // Un tick n'est jamais coupé entre deux blocs
+            for (int tick : new int[]{0, 7, 8, 33, 49}) {
+                assertEquals(drones, reader.readTrajectoryAt(tick, xs, ys, states));
+                for (int d = 0; d < drones; d++) {
+                    assertEquals(tick + d * 0.5, xs[d], 1e-5);
+                    assertEquals(tick * 2.0, ys[d], 1e-5);
+                    assertEquals(d % 4, states[d]);
+                }
+            }
+            assertEquals(0, reader.readTrajectoryAt(50, xs, ys, states));
+
+            int[] count = {0};
+            reader.scanTrajectories(10, 19, (tick, id, x, y, state) -> {
+                assertTrue(tick >= 10 && tick <= 19);
+                count[0]++;
+            });
+            assertEquals(10 * drones, count[0]);
+        }
+    }
+
+    @Test
+    public void testGridMeasurementsAndMetrics() throws Exception {
+        Path file = folder.newFile("grid.drun").toPath();
+        double[][] grid = new double[3][5];
+        try (RunFileWriter writer = new RunFileWriter(file, 5, 3, 1, 200, 4)) {
+            for (int tick = 0; tick < 30; tick += 10) {
+                grid[1][2] = tick / 100.0;
+                writer.writeGridFrame(tick, grid);
+            }
+            for (int i = 0; i < 10; i++) {
+                writer.writeMeasurement(0, i * 200L, 0.5 + i * 0.01, i, 1);
+            }
+            writer.writeMetrics(new SimulationEngine.SimulationMetrics.MetricsSnapshot(5000, 12.5, 3, 4, 2));
+        }
+
+        try (RunFileReader reader = new RunFileReader(file)) {
+            float[] frame = new float[15];
+            assertEquals(10, reader.readGridFrame(15, frame));
+            assertEquals(0.10, frame[1 * 5 + 2], 1e-6);
+            assertEquals(20, reader.readGridFrame(1000, frame));
+            assertEquals(-1, reader.readGridFrame(-1, frame));
+
+            List<Float> intensities = new ArrayList<>();
+            reader.scanMeasurements((id, time, intensity, x, y) -> intensities.add(intensity));
+            assertEquals(10, intensities.size());
+            assertEquals(0.59, intensities.get(9), 1e-6);
+
+            List<SimulationEngine.SimulationMetrics.MetricsSnapshot> metrics = reader.readMetrics();
+            assertEquals(1, metrics.size());
+            assertEquals(5000, metrics.get(0).time);
+            assertEquals(12.5, metrics.get(0).coverage, 1e-9);
+            assertEquals(2, metrics.get(0).rechargingDrones);
+        }
+    }
+
+    @Test
+    public void testExportRunFromEngine() throws Exception {
+        SimulationEngine engine = new SimulationEngine();
+        engine.start();
+        for (int i = 0; i < 40; i++) {
+            engine.tick();
+        }
+        String filename = folder.getRoot().toPath().resolve("engine.drun").toString();
+        ExportUtils.exportRunToBinary(engine, filename);
+
+        try (RunFileReader reader = new RunFileReader(java.nio.file.Paths.get(filename))) {
+            assertEquals(39, reader.getLastTick());
+            int drones = engine.getDrones().size();
+            float[] xs = new float[drones];
+            float[] ys = new float[drones];
+            byte[] states = new byte[drones];
+            assertEquals(drones, reader.readTrajectoryAt(39, xs, ys, states));
+            assertEquals(engine.getDrones().get(0).getX(), xs[0], 1e-4);
+        }
+    }
+
+    @Test
+    public void testMacroSteppedRecordingKeepsGridFrames() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("macro.drun");
+        SimulationEngine engine = new SimulationEngine();
+        engine.start();
+        RunRecorder recorder = RunRecorder.attach(engine, file, 10);
+        try (recorder) {
+            while (engine.getTickCount() < 100) {
+                int before = engine.getTickCount();
+                engine.tick(25);
+                // Aucun macro-pas ne franchit une image de grille
+                assertTrue(engine.getTickCount() - before <= 10);
+            }
+        }
+
+        try (RunFileReader reader = new RunFileReader(file)) {
+            float[] frame = new float[reader.getGridWidth() * reader.getGridHeight()];
+            for (int tick = 0; tick < 100; tick += 10) {
+                assertEquals(tick, reader.readGridFrame(tick + 9, frame));
+            }
+            int drones = engine.getDrones().size();
+            assertEquals(drones, reader.readTrajectoryAt(90, new float[drones], new float[drones], new byte[drones]));
+        }
+    }
+
+    @Test
+    public void testRecorderAfterRestoreSkipsRestoredHistory() throws Exception {
+        SimulationEngine original = new SimulationEngine(42);
+        original.start();
+        for (int i = 0; i < 300; i++) {
+            original.tick();
+        }
+        assertFalse(original.getEventLog().isEmpty());
+        assertTrue(original.getMetrics().getSnapshotCount() > 0);
+
+        SimulationEngine restored = new SimulationEngine(7);
+        restored.restore(original.checkpoint());
+        int events = restored.getEventLog().size();
+        int snapshots = restored.getMetrics().getSnapshotCount();
+        Path file = folder.getRoot().toPath().resolve("resumed.drun");
+        RunRecorder recorder = RunRecorder.attach(restored, file, 10);
+        try (recorder) {
+            restored.start();
+            restored.tick();
+        }
+
+        // Seul ce qui a suivi la reprise est enregistré
+        try (RunFileReader reader = new RunFileReader(file)) {
+            List<Integer> ticks = new ArrayList<>();
+            reader.scanEvents(0, Long.MAX_VALUE, (tick, message) -> ticks.add(tick));
+            assertEquals(restored.getEventLog().size() - events, ticks.size());
+            assertEquals(restored.getMetrics().getSnapshotCount() - snapshots, reader.readMetrics().size());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.drones.model;
+
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AdvectionDiffusionSolverTest {
+
+    private static double sum(double[][] field) {
+        double total = 0;
+        for (double[] row : field) {
+            for (double v : row) total += v;
+        }
+        return total;
+    }
+
+    private static double centroidX(double[][] field) {
+        double weighted = 0;
+        for (double[] row : field) {
+            for (int x = 0; x < row.length; x++) weighted += x * row[x];
+        }
+        return weighted / sum(field);
+    }
+
+    @Test
+    public void testWindCarriesPlume() {
+        AdvectionDiffusionSolver solver = new AdvectionDiffusionSolver(60, 20);
+        solver.setDiffusivity(0.1);
+        solver.setWind(WindField.uniform(60, 20, 1.0, 0.0));
+        double[][] field = new double[20][60];
+        field[10][10] = 1.0;
+
+        for (int t = 0; t < 50; t++) {
+            solver.advance(field, 0.2, 1.0);
+        }
+        // 10 s à 1 cellule/s: le centre de masse s'est déplacé d'environ 10 cellules
+        assertEquals(20.0, centroidX(field), 0.5);
+        // Loin des bords, pas de perte sans décroissance
+        assertEquals(1.0, sum(field), 1e-6);
+    }
+
+    @Test
+    public void testSubstepsKeepSchemeStable() {
+        AdvectionDiffusionSolver solver = new AdvectionDiffusionSolver(30, 30);
+        solver.setDiffusivity(5.0);
+        solver.setWind(WindField.uniform(30, 30, 3.0, -2.0));
+        assertTrue(solver.substepsFor(0.2) > 1);
+
+        double[][] field = new double[30][30];
+        field[15][15] = 1.0;
+        field[3][27] = 0.8;
+        for (int t = 0; t < 20; t++) {
+            solver.advance(field, 0.2, 0.99);
+        }
+        for (double[] row : field) {
+            for (double v : row) {
+                assertTrue(v >= 0 && v <= 1.0);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSerial() {
+        int w = 97, h = 83;
+        WindField wind = new WindField(w, h);
+        double[][] a = new double[h][w], b = new double[h][w];
+        SimRandom random = new SimRandom(3);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                wind.set(x, y, random.nextDouble() - 0.5, random.nextDouble() - 0.5);
+                a[y][x] = b[y][x] = random.nextDouble();
+            }
+        }
+        AdvectionDiffusionSolver serial = new AdvectionDiffusionSolver(w, h);
+        AdvectionDiffusionSolver parallel = new AdvectionDiffusionSolver(w, h);
+        for (AdvectionDiffusionSolver s : new AdvectionDiffusionSolver[]{serial, parallel}) {
+            s.setDiffusivity(0.4);
+            s.setWind(wind);
+        }
+        parallel.setParallel(true);
+
+        for (int t = 0; t < 10; t++) {
+            serial.advance(a, 0.2, 0.95);
+            parallel.advance(b, 0.2, 0.95);
+        }
+        for (int y = 0; y < h; y++) {
+            assertArrayEquals(a[y], b[y], 0.0);
+        }
+    }
+
+    @Test
+    public void testVectorKernelMatchesScalar() {
+        for (int size : new int[]{5, 64, 131}) {
+            WindField wind = new WindField(size, size);
+            double[][] a = new double[size][size], b = new double[size][size];
+            SimRandom random = new SimRandom(size);
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    wind.set(x, y, random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1);
+                    a[y][x] = b[y][x] = random.nextDouble();
+                }
+            }
+            AdvectionDiffusionSolver scalar = new AdvectionDiffusionSolver(size, size);
+            AdvectionDiffusionSolver vector = new AdvectionDiffusionSolver(size, size);
+            for (AdvectionDiffusionSolver s : new AdvectionDiffusionSolver[]{scalar, vector}) {
+                s.setDiffusivity(0.3);
+                s.setWind(wind);
+            }
+            // Avec le profil simd, le noyau vectoriel doit être actif; sans lui, test ignoré
+            if (Boolean.getBoolean("drones.simd")) {
+                assertTrue(vector.setVectorized(true));
+            } else {
+                Assume.assumeTrue(vector.setVectorized(true));
+            }
+
+            for (int t = 0; t < 10; t++) {
+                scalar.advance(a, 0.2, 0.95);
+                vector.advance(b, 0.2, 0.95);
+            }
+            for (int y = 0; y < size; y++) {
+                assertArrayEquals(a[y], b[y], 1e-12);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.drones.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AnomalyPoolTest {
+
+    private AnomalyPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new AnomalyPool(20, 20);
+    }
+
+    @Test
+    public void testSwapRemoveKeepsCellIndex() {
+        int a = pool.spawn(2, 2, 0.9, 0.9, 0);
+        pool.spawn(10, 10, 0.8, 0.8, 0);
+        pool.spawn(15, 5, 0.7, 0.7, 0);
+
+        // La dernière anomalie prend la place de la première
+        pool.remove(a);
+        assertEquals(2, pool.size());
+        assertEquals(15.0, pool.getX(0), 0.0);
+        assertEquals(-1, pool.findSource(2, 2, 1, 0.1));
+        assertEquals(0, pool.findSource(15, 5, 1, 0.1));
+        assertEquals(1, pool.findSource(10, 10, 1, 0.1));
+
+        // Expiration des plus faibles
+        pool.decay(0.01);
+        pool.removeExpired(Anomaly.MIN_INTENSITY);
+        assertEquals(0, pool.size());
+        assertEquals(-1, pool.findSource(10, 10, 1, 0.1));
+    }
+
+    @Test
+    public void testLazyDecayAndScheduledExpiry() {
+        pool.spawn(2, 2, 0.9, 0.9, 0);   // 0.9 * 0.5^7 < 0.01: expire au 7e pas
+        pool.decay(0.5);
+        pool.decay(0.5);
+        pool.spawn(8, 8, 0.3, 0.3, 0);   // 0.3 * 0.5^5 < 0.01: 5 pas après son apparition
+        for (int k = 2; k < 7; k++) {
+            pool.removeExpired(Anomaly.MIN_INTENSITY);
+            assertEquals(2, pool.size());
+            assertEquals(0.9 * Math.pow(0.5, k), pool.getIntensity(0), 1e-12);
+            assertEquals(0.3 * Math.pow(0.5, k - 2), pool.getIntensity(1), 1e-12);
+            pool.decay(0.5);
+        }
+        // Pas 7: les deux arrivent à échéance ensemble
+        pool.removeExpired(Anomaly.MIN_INTENSITY);
+        assertEquals(0, pool.size());
+
+        // Changement de taux: l'intensité courante est conservée
+        pool.spawn(4, 4, 0.8, 0.8, 0);
+        pool.decay(0.5);
+        pool.decay(0.9);
+        assertEquals(0.8 * 0.5 * 0.9, pool.getIntensity(0), 1e-12);
+        pool.removeExpired(Anomaly.MIN_INTENSITY);
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testFindSourcePrefersLargestContribution() {
+        pool.spawn(5, 5, 0.6, 0.6, 0);
+        int strong = pool.spawn(6, 5, 0.9, 0.9, 0);
+
+        // Sur la cellule de la faible: sa contribution directe l'emporte sur la diffusion de la forte
+        assertEquals(0, pool.findSource(5.3, 5.4, 1, 0.1));
+        assertEquals(strong, pool.findSource(6.2, 5.0, 1, 0.1));
+        assertEquals(-1, pool.findSource(9, 9, 1, 0.1));
+    }
+
+    @Test
+    public void testDetectionDelayCountsFirstDetectionOnly() {
+        pool.spawn(3, 3, 0.9, 0.9, 1000);
+        pool.spawn(12, 12, 0.9, 0.9, 2000);
+
+        pool.recordDetection(3, 3, 4000, 1, 0.1);
+        pool.recordDetection(3, 3, 9000, 1, 0.1); // déjà détectée
+        pool.recordDetection(12, 12, 3000, 1, 0.1);
+        assertEquals(2, pool.getDetectedCount());
+        assertEquals((3000 + 1000) / 2.0, pool.getAverageDetectionDelay(), 1e-9);
+
+        // Le cumul survit à l'expiration
+        pool.remove(0);
+        pool.remove(0);
+        assertEquals((3000 + 1000) / 2.0, pool.getAverageDetectionDelay(), 1e-9);
+    }
+
+    @Test
+    public void testListViewAddsToPool() {
+        Environment env = new Environment(20, 20, 7L);
+        env.getAnomalies().add(new Anomaly(4, 4, 0.8, 0));
+        assertEquals(1, env.getAnomalyPool().size());
+        assertEquals(0.8, env.getAnomalies().get(0).getIntensity(), 0.0);
+        assertEquals(0, env.recordDetection(4, 4));
+    }
+}
@@ -0,0 +1,115 @@
+package com.drones.model;
+
+import com.drones.config.SimulationParams;
+import org.junit.Test;
+import java.util.*;
+import static org.junit.Assert.*;
+
+public class BaseNetworkTest {
+
+    private static final long TICK = SimulationParams.TICK_DURATION_MS;
+
+    @Test
+    public void testLookupGridIsVoronoi() {
+        List<Base> bases = BaseNetwork.parseBases("3:4,40:10:2,25.5:45:1,10:30");
+        BaseNetwork network = new BaseNetwork(50, 50, bases, BaseNetwork.Routing.NEAREST);
+        for (int y = 0; y < 50; y++) {
+            for (int x = 0; x < 50; x++) {
+                int found = network.nearest(x + 0.5, y + 0.5);
+                double best = Double.POSITIVE_INFINITY;
+                int expected = -1;
+                for (int b = 0; b < bases.size(); b++) {
+                    double d = Math.hypot(bases.get(b).getX() - (x + 0.5), bases.get(b).getY() - (y + 0.5));
+                    if (d < best) {
+                        best = d;
+                        expected = b;
+                    }
+                }
+                assertEquals(expected, found);
+            }
+        }
+        // Hors de la grille: cellule la plus proche
+        assertEquals(network.nearest(49.5, 0.5), network.nearest(80, -5));
+        assertTrue(network.getBase(0).isUnlimited());
+        assertEquals(2, network.getBase(1).getCapacity());
+    }
+
+    // Drone à bout d'autonomie en (x, y): le prochain pas le fait rentrer
+    private static Drone exhausted(int id, double x, double y, BaseNetwork network) {
+        Drone drone = new Drone(id, x, y, network);
+        drone.update(SimulationParams.DRONE_AUTONOMY_MS);
+        assertEquals(DroneState.RETURNING, drone.getState());
+        return drone;
+    }
+
+    @Test
+    public void testReturnsToNearestBase() {
+        BaseNetwork network = new BaseNetwork(50, 50, BaseNetwork.parseBases("0:0,49:49"), BaseNetwork.Routing.NEAREST);
+        Drone drone = exhausted(0, 40, 45, network);
+        assertEquals(1, drone.getBaseIndex());
+        for (int t = 0; t < 100 && drone.getState() == DroneState.RETURNING; t++) {
+            drone.update(TICK);
+        }
+        assertEquals(DroneState.CHARGING, drone.getState());
+        assertTrue(drone.isAtBase());
+        assertEquals(49, drone.getX(), 0.5);
+        assertArrayEquals(new double[]{0, 0}, drone.baseNear(10, 12), 0.0);
+    }
+
+    @Test
+    public void testFullBaseMakesDronesWait() {
+        BaseNetwork network = new BaseNetwork(50, 50, BaseNetwork.parseBases("10:10:1"), BaseNetwork.Routing.NEAREST);
+        Drone first = exhausted(0, 10.2, 10, network);
+        Drone second = exhausted(1, 10, 10.2, network);
+        Base base = network.getBase(0);
+        assertEquals(2, base.getInbound());
+
+        first.update(TICK);
+        second.update(TICK);
+        assertEquals(DroneState.CHARGING, first.getState());
+        assertEquals(DroneState.RETURNING, second.getState());
+        assertTrue(second.isAtBase());
+        assertEquals(1, base.getCharging());
+        assertEquals(1, base.getInbound());
+
+        // La place se libère à la fin de la recharge du premier
+        first.update(SimulationParams.DRONE_RECHARGE_MS);
+        assertEquals(DroneState.ACTIVE, first.getState());
+        assertEquals(0, base.getCharging());
+        second.update(TICK);
+        assertEquals(DroneState.CHARGING, second.getState());
+        assertEquals(1, base.getCharging());
+        assertEquals(0, base.getInbound());
+    }
+
+    @Test
+    public void testLeastLoadedRouting() {
+        BaseNetwork network = new BaseNetwork(50, 50, BaseNetwork.parseBases("0:0:1,20:0:1"), BaseNetwork.Routing.LEAST_LOADED);
+        assertEquals(0, exhausted(0, 5, 5, network).getBaseIndex());
+        // La base la plus proche attend déjà un drone: la suivante est moins chargée
+        assertEquals(1, exhausted(1, 5, 5, network).getBaseIndex());
+
+        BaseNetwork nearest = new BaseNetwork(50, 50, BaseNetwork.parseBases("0:0:1,20:0:1"), BaseNetwork.Routing.NEAREST);
+        exhausted(0, 5, 5, nearest);
+        assertEquals(0, exhausted(1, 5, 5, nearest).getBaseIndex());
+    }
+
+    @Test
+    public void testRecountAfterRestore() throws Exception {
+        BaseNetwork network = new BaseNetwork(50, 50, BaseNetwork.parseBases("10:10:1"), BaseNetwork.Routing.NEAREST);
+        List<Drone> drones = Arrays.asList(exhausted(0, 10, 10, network), exhausted(1, 12, 10, network));
+        drones.get(0).update(TICK);
+
+        BaseNetwork restored = new BaseNetwork(50, 50, BaseNetwork.parseBases("10:10:1"), BaseNetwork.Routing.NEAREST);
+        List<Drone> copies = new ArrayList<>();
+        for (Drone drone : drones) {
+            java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+            drone.writeState(new java.io.DataOutputStream(bytes));
+            copies.add(Drone.readState(new java.io.DataInputStream(new java.io.ByteArrayInputStream(bytes.toByteArray()))));
+        }
+        restored.recount(copies);
+        assertSame(restored, copies.get(1).getBaseNetwork());
+        assertEquals(1, restored.getBase(0).getCharging());
+        assertEquals(1, restored.getBase(0).getInbound());
+    }
+}
@@ -91,4 +91,23 @@ public class DroneTest {
         assertEquals(15, m.x, 0.001);
         assertEquals(20, m.y, 0.001);
     }
+    
+    @Test
+    public void testLongUpdateMatchesTicks() {
+        List<double[]> path = Arrays.asList(new double[]{3, 0}, new double[]{3, 2}, new double[]{0, 2});
+        Drone stepped = new Drone(1, 0, 0);
+        Drone coarse = new Drone(2, 0, 0);
+        stepped.setWaypoints(path);
+        coarse.setWaypoints(path);
+        
+        for (int i = 0; i < 20; i++) {
+            stepped.update(SimulationParams.TICK_DURATION_MS);
+        }
+        coarse.update(20L * SimulationParams.TICK_DURATION_MS);
+        
+        // Le pas long suit les points de passage sans couper le coin (3, 0)
+        assertEquals(stepped.getX(), coarse.getX(), 0.0);
+        assertEquals(stepped.getY(), coarse.getY(), 0.0);
+        assertEquals(stepped.getAutonomyRemaining(), coarse.getAutonomyRemaining());
+    }
 }
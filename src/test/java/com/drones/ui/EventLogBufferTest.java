@@ -0,0 +1,54 @@
+package com.drones.ui;
+
+import javafx.collections.ListChangeListener;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+
+public class EventLogBufferTest {
+
+    private static List<String> events(int count) {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add("e" + i);
+        }
+        return list;
+    }
+
+    @Test
+    public void testKeepsLatestEntries() {
+        EventLogBuffer buffer = new EventLogBuffer(10);
+        int[] changes = {0};
+        buffer.addListener((ListChangeListener<String>) c -> changes[0]++);
+
+        List<String> source = events(4);
+        assertTrue(buffer.sync(source));
+        assertFalse(buffer.sync(source));
+        assertEquals(4, buffer.size());
+
+        // Débordement: les plus anciennes entrées sont retirées, un seul changement
+        source = events(25);
+        assertTrue(buffer.sync(source));
+        assertEquals(10, buffer.size());
+        assertEquals("e15", buffer.get(0));
+        assertEquals("e24", buffer.get(9));
+        assertEquals(2, changes[0]);
+
+        source.add("e25");
+        buffer.sync(source);
+        assertEquals("e16", buffer.get(0));
+        assertEquals("e25", buffer.get(9));
+        assertEquals(new ArrayList<>(source.subList(16, 26)), new ArrayList<>(buffer));
+    }
+
+    @Test
+    public void testShorterSourceReplacesContent() {
+        EventLogBuffer buffer = new EventLogBuffer(10);
+        buffer.sync(events(8));
+        // Réinitialisation du moteur: le journal repart de zéro
+        assertTrue(buffer.sync(events(2)));
+        assertEquals(2, buffer.size());
+        assertEquals("e1", buffer.get(1));
+    }
+}
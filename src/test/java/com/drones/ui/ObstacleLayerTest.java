@@ -0,0 +1,32 @@
+package com.drones.ui;
+
+import com.drones.model.ObstacleMap;
+import javafx.scene.paint.Color;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ObstacleLayerTest {
+
+    @Test
+    public void testRasterFollowsMapVersion() {
+        ObstacleMap map = ObstacleMap.parse(20, 10, "2:1:4:3,10:0:10:9");
+        ObstacleLayer layer = new ObstacleLayer(Color.DIMGRAY);
+        assertTrue(layer.update(map));
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 20; x++) {
+                assertEquals(map.isBlocked(x, y), layer.isDrawn(x, y));
+            }
+        }
+
+        // Carte inchangée: rien à reconstruire
+        assertFalse(layer.update(map));
+
+        map.setBlocked(15, 5, true);
+        assertTrue(layer.update(map));
+        assertTrue(layer.isDrawn(15, 5));
+
+        assertTrue(layer.update(null));
+        assertFalse(layer.isDrawn(2, 1));
+        assertFalse(layer.update(null));
+    }
+}
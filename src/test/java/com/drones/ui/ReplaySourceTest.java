@@ -0,0 +1,78 @@
+package com.drones.ui;
+
+import com.drones.config.SimulationParams;
+import com.drones.control.SimulationEngine;
+import com.drones.control.SimulationFrame;
+import com.drones.metrics.RunRecorder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import java.nio.file.Path;
+import java.util.List;
+import static org.junit.Assert.*;
+
+public class ReplaySourceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SimulationEngine recordRun(Path file, int ticks) throws Exception {
+        SimulationEngine engine = new SimulationEngine(5);
+        RunRecorder recorder = RunRecorder.attach(engine, file, 5);
+        try (recorder) {
+            engine.start();
+            for (int i = 0; i < ticks; i++) {
+                engine.tick();
+            }
+        }
+        return engine;
+    }
+
+    @Test
+    public void testSeekMatchesRecordedRun() throws Exception {
+        Path file = folder.newFile("replay.drun").toPath();
+        SimulationEngine engine = recordRun(file, 120);
+
+        try (ReplaySource replay = new ReplaySource(file)) {
+            assertEquals(119, replay.getLastTick());
+            SimulationFrame frame = replay.getFrame();
+
+            replay.seek(80);
+            assertEquals(81L * SimulationParams.TICK_DURATION_MS, frame.getSimulationTime());
+            for (int d = 0; d < frame.getDroneCount(); d++) {
+                double[] expected = engine.getDroneTrajectories().get(d).get(80);
+                assertEquals(expected[0], frame.getDroneX(d), 1e-4);
+                assertEquals(expected[1], frame.getDroneY(d), 1e-4);
+                assertEquals(81, frame.getTrajectory(d).size());
+            }
+
+            // Retour en arrière: trajectoires reconstruites jusqu'au tick demandé
+            replay.seek(10);
+            assertEquals(11, frame.getTrajectory(0).size());
+            List<String> events = frame.getEventLog();
+            assertTrue(events.size() <= engine.getEventLog().size());
+
+            replay.seek(119);
+            assertEquals(engine.getEventLog(), frame.getEventLog());
+        }
+    }
+
+    @Test
+    public void testPlaybackSpeed() throws Exception {
+        Path file = folder.newFile("speed.drun").toPath();
+        recordRun(file, 60);
+
+        try (ReplaySource replay = new ReplaySource(file)) {
+            replay.setSpeed(4.0);
+            replay.play();
+            // Une seconde réelle à 4x = 4 s simulées = 20 ticks de 200 ms
+            replay.advance(1_000_000_000L);
+            assertEquals(20, replay.getCurrentTick());
+
+            // La lecture s'arrête au dernier tick
+            replay.advance(60_000_000_000L);
+            assertEquals(59, replay.getCurrentTick());
+            assertFalse(replay.isPlaying());
+        }
+    }
+}
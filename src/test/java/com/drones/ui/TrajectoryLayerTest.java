@@ -0,0 +1,104 @@
+package com.drones.ui;
+
+import com.drones.control.EngineFrame;
+import com.drones.control.SimulationEngine;
+import com.drones.control.SimulationFrame;
+import com.drones.model.DroneState;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.paint.Color;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+
+public class TrajectoryLayerTest {
+
+    @Test
+    public void testOnlyNewSegmentsAreDrawn() {
+        SimulationEngine engine = new SimulationEngine(5);
+        EngineFrame frame = new EngineFrame(engine);
+        TrajectoryLayer layer = new TrajectoryLayer(Color.web("#cccccc", 0.3));
+        engine.start();
+        for (int i = 0; i < 20; i++) {
+            engine.tick();
+        }
+        assertTrue(layer.update(frame));
+        double res = layer.getResolution();
+        assertTrue(res >= 1 && res <= TrajectoryLayer.MAX_RESOLUTION);
+
+        // Chaque point de trajectoire est tracé au centre de sa cellule
+        List<double[]> trajectory = frame.getTrajectory(0);
+        double[] last = trajectory.get(trajectory.size() - 1);
+        assertTrue(layer.isDrawn((int) ((last[0] + 0.5) * res), (int) ((last[1] + 0.5) * res)));
+
+        // Rien de nouveau: l'image n'a pas changé (un déplacement de la vue ne retrace rien)
+        assertFalse(layer.update(frame));
+
+        engine.tick();
+        assertTrue(layer.update(frame));
+
+        // Réinitialisation: les trajectoires raccourcissent, l'image est effacée
+        engine.reset();
+        assertTrue(layer.update(frame));
+        assertFalse(layer.isDrawn((int) ((last[0] + 0.5) * res), (int) ((last[1] + 0.5) * res)));
+    }
+
+    @Test
+    public void testLargeGridStaysUnderPixelBudget() {
+        // Grille 5000 x 5000: plusieurs cellules par pixel, image bornée
+        List<double[]> trajectory = new ArrayList<>();
+        SimulationFrame frame = new StubFrame(5000, 5000, trajectory);
+        TrajectoryLayer layer = new TrajectoryLayer(Color.web("#cccccc", 0.3));
+        trajectory.add(new double[]{0, 0});
+        assertTrue(layer.update(frame));
+        assertTrue(layer.getResolution() < 1);
+        assertTrue((long) layer.getWidth() * layer.getHeight() <= TrajectoryLayer.MAX_PIXELS);
+        assertNull(layer.getDirtyRegion());
+
+        // Un nouveau segment ne modifie que son rectangle englobant
+        trajectory.add(new double[]{4000, 4000});
+        trajectory.add(new double[]{4010, 4030});
+        assertTrue(layer.update(frame));
+        Rectangle2D dirty = layer.getDirtyRegion();
+        double res = layer.getResolution();
+        assertEquals((int) (0.5 * res), (int) dirty.getMinX());
+        assertEquals((int) (4010.5 * res), (int) dirty.getMaxX() - 1);
+        assertEquals((int) (4030.5 * res), (int) dirty.getMaxY() - 1);
+        assertTrue(layer.isDrawn((int) (4010.5 * res), (int) (4030.5 * res)));
+
+        trajectory.add(new double[]{4011, 4031});
+        assertTrue(layer.update(frame));
+        dirty = layer.getDirtyRegion();
+        assertTrue(dirty.getWidth() <= 2 && dirty.getHeight() <= 2);
+        assertFalse(layer.update(frame));
+    }
+
+    // Image minimale: une grille vide et un seul drone
+    private static class StubFrame implements SimulationFrame {
+        private final int width, height;
+        private final List<double[]> trajectory;
+
+        StubFrame(int width, int height, List<double[]> trajectory) {
+            this.width = width;
+            this.height = height;
+            this.trajectory = trajectory;
+        }
+
+        @Override public long getSimulationTime() { return 0; }
+        @Override public int getGridWidth() { return width; }
+        @Override public int getGridHeight() { return height; }
+        @Override public double getIntensity(int x, int y) { return 0; }
+        @Override public int getDroneCount() { return 1; }
+        @Override public int getDroneId(int index) { return index; }
+        @Override public double getDroneX(int index) { return 0; }
+        @Override public double getDroneY(int index) { return 0; }
+        @Override public DroneState getDroneState(int index) { return DroneState.values()[0]; }
+        @Override public List<double[]> getTrajectory(int index) { return trajectory; }
+        @Override public List<String> getEventLog() { return List.of(); }
+        @Override public double getCoveragePercentage() { return 0; }
+        @Override public int getAnomalyCount() { return 0; }
+        @Override public int getActiveDrones() { return 1; }
+        @Override public int getRechargingDrones() { return 0; }
+        @Override public int getMeasurementCount() { return 0; }
+    }
+}
@@ -0,0 +1,79 @@
+package com.drones.ui;
+
+import com.drones.control.EngineFrame;
+import com.drones.control.SimulationEngine;
+import com.drones.model.Drone;
+import com.drones.model.Environment;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ViewportTest {
+
+    @Test
+    public void testZoomKeepsPointUnderCursor() {
+        Viewport viewport = new Viewport(12);
+        viewport.setSize(600, 600);
+        double cx = viewport.toCellX(300), cy = viewport.toCellY(200);
+
+        viewport.zoomAt(0.1, 300, 200);
+        assertEquals(1.2, viewport.getScale(), 1e-9);
+        assertEquals(cx, viewport.toCellX(300), 1e-9);
+        assertEquals(cy, viewport.toCellY(200), 1e-9);
+        assertEquals(0, viewport.lodLevel());
+
+        viewport.zoomAt(0.1, 0, 0);
+        assertEquals(4, viewport.lodLevel()); // 0.12 px/cellule: 8 cellules ne couvrent pas encore un pixel
+
+        long version = viewport.getVersion();
+        viewport.pan(-60, 0);
+        assertTrue(viewport.getVersion() > version);
+        assertEquals(0, viewport.firstRow());
+    }
+
+    @Test
+    public void testPyramidMaxAndMean() {
+        SimulationEngine engine = new SimulationEngine(3);
+        Environment env = engine.getEnvironment();
+        double[][] grid = env.getAnomalyIntensity();
+        for (double[] row : grid) {
+            java.util.Arrays.fill(row, 0);
+        }
+        grid[1][1] = 1.0;
+        grid[env.getHeight() - 1][env.getWidth() - 1] = 0.5;
+
+        IntensityPyramid pyramid = new IntensityPyramid();
+        pyramid.setSource(new EngineFrame(engine));
+        int top = pyramid.getLevelCount() - 1;
+        assertEquals(1, pyramid.getLevelWidth(top));
+        assertEquals(1, pyramid.getLevelHeight(top));
+        assertEquals(1.0, pyramid.getMax(1, 0, 0), 1e-6);
+        assertEquals(0.25, pyramid.getMean(1, 0, 0), 1e-6);
+        assertEquals(1.0, pyramid.getMax(top, 0, 0), 1e-6);
+        double cells = env.getWidth() * env.getHeight();
+        assertEquals(1.5 / cells, pyramid.getMean(top, 0, 0), 1e-6);
+
+        // Les niveaux ne sont recalculés qu'après invalidation
+        grid[1][1] = 0;
+        assertEquals(1.0, pyramid.getMax(top, 0, 0), 1e-6);
+        pyramid.invalidate();
+        assertEquals(0.5, pyramid.getMax(top, 0, 0), 1e-6);
+    }
+
+    @Test
+    public void testSpatialIndexQuery() {
+        SimulationEngine engine = new SimulationEngine(3);
+        int n = engine.getDrones().size();
+        for (int i = 0; i < n; i++) {
+            engine.getDrones().set(i, new Drone(i, i * 7, i * 5));
+        }
+        EngineFrame frame = new EngineFrame(engine);
+        DroneSpatialIndex index = new DroneSpatialIndex(8);
+        index.build(frame);
+
+        int count = index.query(6, 4, 15, 11, frame);
+        assertEquals(2, count);
+        assertEquals(1, index.result(0));
+        assertEquals(2, index.result(1));
+        assertEquals(n, index.query(-10, -10, 1000, 1000, frame));
+    }
+}